@@ -0,0 +1,145 @@
+package uz.familyfinance.api.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hajmi va TTL'i chegaralangan jarayon ichidagi Spring {@code Cache} (null qiymat saqlanmaydi).
+ *
+ * <ul>
+ *   <li>yozuv {@code ttl} dan keyin eskiradi;</li>
+ *   <li>chegara to'lsa avval muddati o'tganlar tashlanadi, baribir to'la bo'lsa qiymat
+ *       keshlanmaydi (qaytariladi, lekin saqlanmaydi);</li>
+ *   <li>{@link #get(Object, Callable)} yuklash davomida tozalash ro'y bersa (avlod
+ *       o'zgarsa) eski natijani keshga qo'ymaydi.</li>
+ * </ul>
+ *
+ * <p>Metrikalar (Micrometer cache konvensiyasi): {@code cache.gets} (result=hit|miss),
+ * {@code cache.evictions}, {@code cache.size} — {@code cache} tegi bilan.</p>
+ */
+public class BoundedTtlCache extends AbstractValueAdaptingCache {
+
+    private record Entry(Object value, long expiresAtNanos) {}
+
+    private final String name;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Map<Object, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public BoundedTtlCache(String name, Duration ttl, int maxEntries, MeterRegistry meterRegistry) {
+        super(false);
+        this.name = name;
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.hits = gets(meterRegistry, "hit");
+        this.misses = gets(meterRegistry, "miss");
+        this.evictions = Counter.builder("cache.evictions")
+                .description("Chegara yoki muddat sabab tashlangan yozuvlar")
+                .tag("cache", name)
+                .register(meterRegistry);
+        Gauge.builder("cache.size", entries, Map::size)
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return entries;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (System.nanoTime() - entry.expiresAtNanos() >= 0) {
+            entries.remove(key, entry);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object cached = lookup(key);
+        if (cached != null) {
+            return (T) fromStoreValue(cached);
+        }
+        long loadGeneration = generation.get();
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        if (value != null && loadGeneration == generation.get()) {
+            put(key, value);
+            // put bilan tozalash orasidagi oyna: put'dan keyin avlod o'zgargan bo'lsa, qaytarib olamiz
+            if (loadGeneration != generation.get()) {
+                entries.remove(key);
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value != null && hasRoom()) {
+            entries.put(key, new Entry(toStoreValue(value), System.nanoTime() + ttlNanos));
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        generation.incrementAndGet();
+        entries.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    /** Chegara to'lsa avval muddati o'tganlar tashlanadi; baribir to'la bo'lsa keshlanmaydi. */
+    private boolean hasRoom() {
+        if (entries.size() < maxEntries) {
+            return true;
+        }
+        long now = System.nanoTime();
+        int before = entries.size();
+        entries.values().removeIf(e -> now - e.expiresAtNanos() >= 0);
+        evictions.increment(Math.max(0, before - entries.size()));
+        return entries.size() < maxEntries;
+    }
+
+    private Counter gets(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("cache.gets")
+                .description("Kesh so'rovlari")
+                .tag("cache", name)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,46 @@
+package uz.familyfinance.api.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Spring cache abstraksiyasi (@Cacheable) — jarayon ichidagi, hajm va TTL bilan
+ * chegaralangan {@link BoundedTtlCache}'lar. Kesh nomlari shu yerda ro'yxatga olinadi;
+ * noma'lum nom bilan @Cacheable xato beradi (jim keshsiz ishlamaydi).
+ *
+ * <p>TTL — ko'p instansli deploy'dagi xavfsizlik to'ri: boshqa instansdagi rol o'zgarishi
+ * shu instansda eng ko'pi bilan TTL ichida ko'rinadi (shu instansdagisi darhol tozalanadi).</p>
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /** userId → permission kodlari. */
+    public static final String USER_PERMISSIONS = "userPermissions";
+    /** userId → rol kodlari. */
+    public static final String USER_ROLES = "userRoles";
+
+    @Value("${app.cache.ttl:10m}")
+    private Duration ttl;
+
+    @Value("${app.cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Bean
+    public CacheManager cacheManager(MeterRegistry meterRegistry) {
+        SimpleCacheManager manager = new SimpleCacheManager();
+        manager.setCaches(List.of(
+                new BoundedTtlCache(USER_PERMISSIONS, ttl, maxEntries, meterRegistry),
+                new BoundedTtlCache(USER_ROLES, ttl, maxEntries, meterRegistry)
+        ));
+        return manager;
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -14,10 +15,12 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import uz.familyfinance.api.security.CustomUserDetails;
 import uz.familyfinance.api.security.CustomUserDetailsService;
 import uz.familyfinance.api.security.JwtAuthenticationEntryPoint;
 import uz.familyfinance.api.security.JwtAuthenticationFilter;
@@ -51,6 +54,9 @@ public class SecurityConfig {
                         // Actuator: faqat health ochiq; qolganlari (env, beans, heapdump...)
                         // kelajakda expose qilinsa ham autentifikatsiya talab qiladi
                         .requestMatchers("/actuator/health").permitAll()
+                        // metrics (so'rov/kesh statistikasi, foydalanuvchi faolligi) — faqat SUPER_ADMIN
+                        .requestMatchers("/actuator/**").access((authentication, context) ->
+                                new AuthorizationDecision(isSuperAdmin(authentication.get())))
                         // WebSocket endpoint (JWT token interceptor'da tekshiriladi)
                         .requestMatchers("/v1/ws/**").permitAll()
                         // Taklif kodi preview — login qilmagan user (registratsiya) ham
@@ -69,6 +75,11 @@ public class SecurityConfig {
         return http.build();
     }
 
+    private static boolean isSuperAdmin(Authentication authentication) {
+        return authentication != null && authentication.getPrincipal() instanceof CustomUserDetails details
+                && Boolean.TRUE.equals(details.getUser().getIsSuperAdmin());
+    }
+
     @Bean
     public AuthenticationProvider authenticationProvider() {
         // Spring Security 7: DaoAuthenticationProvider endi UserDetailsService'ni konstruktor
@@ -54,9 +54,10 @@ public class WebConfig implements WebMvcConfigurer {
                 "GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS"
         ));
         configuration.setAllowedHeaders(Arrays.asList(
-                "Authorization", "Content-Type", "Accept", "X-Requested-With", "Cache-Control"
+                "Authorization", "Content-Type", "Accept", "X-Requested-With", "Cache-Control", "Idempotency-Key",
+                "If-None-Match"
         ));
-        configuration.setExposedHeaders(List.of("Authorization"));
+        configuration.setExposedHeaders(List.of("Authorization", "Idempotent-Replayed", "ETag"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
 
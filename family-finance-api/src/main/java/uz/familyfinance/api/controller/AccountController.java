@@ -13,18 +13,29 @@ import uz.familyfinance.api.dto.request.CardRequest;
 import uz.familyfinance.api.dto.response.AccountAccessResponse;
 import uz.familyfinance.api.dto.response.AccountBalanceSummaryResponse;
 import uz.familyfinance.api.dto.response.AccountResponse;
+import uz.familyfinance.api.dto.response.AccountStatementResponse;
 import uz.familyfinance.api.dto.response.ApiResponse;
+import uz.familyfinance.api.dto.response.BalanceHistoryResponse;
 import uz.familyfinance.api.dto.response.CardResponse;
 import uz.familyfinance.api.dto.response.CurrencyBalanceResponse;
 import uz.familyfinance.api.dto.response.PagedResponse;
+import uz.familyfinance.api.dto.response.TransitLedgerBalanceResponse;
+import uz.familyfinance.api.dto.response.TrialBalanceResponse;
 import uz.familyfinance.api.enums.AccountStatus;
 import uz.familyfinance.api.enums.AccountType;
+import uz.familyfinance.api.enums.BalanceHistoryBucket;
 import uz.familyfinance.api.enums.PermissionCode;
 import uz.familyfinance.api.security.CustomUserDetails;
+import uz.familyfinance.api.security.LedgerVersioned;
 import uz.familyfinance.api.security.RequiresPermission;
+import uz.familyfinance.api.security.RequiresSuperAdmin;
 import uz.familyfinance.api.service.AccountAccessService;
 import uz.familyfinance.api.service.AccountService;
+import uz.familyfinance.api.service.AccountStatementService;
+import uz.familyfinance.api.service.BalanceHistoryService;
 import uz.familyfinance.api.service.CardService;
+import uz.familyfinance.api.service.TransitLedgerService;
+import uz.familyfinance.api.service.TrialBalanceService;
 
 import jakarta.validation.Valid;
 import java.time.LocalDate;
@@ -38,9 +49,14 @@ public class AccountController {
     private final AccountService accountService;
     private final CardService cardService;
     private final AccountAccessService accountAccessService;
+    private final TransitLedgerService transitLedgerService;
+    private final AccountStatementService accountStatementService;
+    private final BalanceHistoryService balanceHistoryService;
+    private final TrialBalanceService trialBalanceService;
 
     @GetMapping
     @RequiresPermission(PermissionCode.ACCOUNTS_VIEW)
+    @LedgerVersioned
     public ResponseEntity<ApiResponse<PagedResponse<AccountResponse>>> getAll(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
@@ -55,6 +71,7 @@ public class AccountController {
 
     @GetMapping("/my")
     @RequiresPermission(PermissionCode.ACCOUNTS_VIEW)
+    @LedgerVersioned
     public ResponseEntity<ApiResponse<PagedResponse<AccountResponse>>> getMyAccounts(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
@@ -75,6 +92,7 @@ public class AccountController {
 
     @GetMapping("/{id}/balance-summary")
     @RequiresPermission(PermissionCode.ACCOUNTS_VIEW)
+    @LedgerVersioned(accountIdVariable = "id")
     public ResponseEntity<ApiResponse<AccountBalanceSummaryResponse>> getBalanceSummary(
             @PathVariable Long id,
             @RequestParam(required = false) LocalDate dateFrom,
@@ -84,8 +102,66 @@ public class AccountController {
                 accountService.getBalanceSummary(id, dateFrom, dateTo, userDetails)));
     }
 
+    /**
+     * Hisob ko'chirmasi: boshlang'ich qoldiq, har qatordagi joriy qoldiq va yakuniy qoldiq
+     * (SQL window funksiya — saqlangan before/after snapshot'lariga tayanmaydi).
+     */
+    @GetMapping("/{id}/statement")
+    @RequiresPermission(PermissionCode.ACCOUNTS_VIEW)
+    @LedgerVersioned(accountIdVariable = "id")
+    public ResponseEntity<ApiResponse<AccountStatementResponse>> getStatement(
+            @PathVariable Long id,
+            @RequestParam LocalDate from,
+            @RequestParam LocalDate to) {
+        return ResponseEntity.ok(ApiResponse.success(accountStatementService.getStatement(id, from, to)));
+    }
+
+    /**
+     * Hisob balansi tarixi: DAY/WEEK/MONTH bo'laklari, bo'shliqlar oxirgi qiymat bilan
+     * to'ldirilgan, {@code points} ta nuqtagacha qisqartirilgan (LTTB).
+     */
+    @GetMapping("/{id}/balance-history")
+    @RequiresPermission(PermissionCode.ACCOUNTS_VIEW)
+    @LedgerVersioned(accountIdVariable = "id")
+    public ResponseEntity<ApiResponse<BalanceHistoryResponse>> getBalanceHistory(
+            @PathVariable Long id,
+            @RequestParam LocalDate from,
+            @RequestParam LocalDate to,
+            @RequestParam(defaultValue = "DAY") BalanceHistoryBucket bucket,
+            @RequestParam(required = false) Integer points) {
+        return ResponseEntity.ok(ApiResponse.success(
+                balanceHistoryService.getAccountHistory(id, from, to, bucket, points)));
+    }
+
+    /** Aktiv scope hisoblari jami balans tarixi — har valyuta alohida qator. */
+    @GetMapping("/balance-history")
+    @RequiresPermission(PermissionCode.ACCOUNTS_VIEW)
+    @LedgerVersioned
+    public ResponseEntity<ApiResponse<BalanceHistoryResponse>> getScopeBalanceHistory(
+            @RequestParam LocalDate from,
+            @RequestParam LocalDate to,
+            @RequestParam(defaultValue = "DAY") BalanceHistoryBucket bucket,
+            @RequestParam(required = false) Integer points) {
+        return ResponseEntity.ok(ApiResponse.success(
+                balanceHistoryService.getScopeHistory(from, to, bucket, points)));
+    }
+
+    /**
+     * Aylanma qaydnoma: aktiv scope'dagi har hisob uchun boshlang'ich qoldiq, debet/kredit
+     * aylanmasi va yakuniy qoldiq (bitta guruhlangan so'rov), valyuta bo'yicha jamilar bilan.
+     */
+    @GetMapping("/trial-balance")
+    @RequiresPermission(PermissionCode.ACCOUNTS_VIEW)
+    @LedgerVersioned
+    public ResponseEntity<ApiResponse<TrialBalanceResponse>> getTrialBalance(
+            @RequestParam LocalDate from,
+            @RequestParam LocalDate to) {
+        return ResponseEntity.ok(ApiResponse.success(trialBalanceService.getTrialBalance(from, to)));
+    }
+
     @GetMapping("/list")
     @RequiresPermission(PermissionCode.ACCOUNTS_VIEW)
+    @LedgerVersioned
     public ResponseEntity<ApiResponse<List<AccountResponse>>> getAllActive(
             @AuthenticationPrincipal CustomUserDetails userDetails) {
         return ResponseEntity.ok(ApiResponse.success(accountService.getAllActive(userDetails)));
@@ -93,10 +169,19 @@ public class AccountController {
 
     @GetMapping("/total-balance")
     @RequiresPermission(PermissionCode.ACCOUNTS_VIEW)
+    @LedgerVersioned
     public ResponseEntity<ApiResponse<List<CurrencyBalanceResponse>>> getTotalBalance() {
         return ResponseEntity.ok(ApiResponse.success(accountService.getTotalBalance()));
     }
 
+    /** Tranzit sub-ledger rekonsilyatsiyasi: har root uchun bitta mantiqiy balans (V62). */
+    @GetMapping("/transit-ledger")
+    @RequiresSuperAdmin
+    @LedgerVersioned
+    public ResponseEntity<ApiResponse<List<TransitLedgerBalanceResponse>>> getTransitLedger() {
+        return ResponseEntity.ok(ApiResponse.success(transitLedgerService.getLogicalBalances()));
+    }
+
     @GetMapping("/{id}")
     @RequiresPermission(PermissionCode.ACCOUNTS_VIEW)
     public ResponseEntity<ApiResponse<AccountResponse>> getById(
@@ -12,6 +12,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -20,10 +21,13 @@ import uz.familyfinance.api.exception.BadRequestException;
 import uz.familyfinance.api.dto.response.AuditLogDetailResponse;
 import uz.familyfinance.api.dto.response.AuditLogGroupResponse;
 import uz.familyfinance.api.dto.response.AuditLogResponse;
+import uz.familyfinance.api.dto.response.ExportJobResponse;
 import uz.familyfinance.api.enums.PermissionCode;
 import uz.familyfinance.api.security.RequiresPermission;
 import uz.familyfinance.api.service.AuditLogService;
+import uz.familyfinance.api.service.ExportJobService;
 import uz.familyfinance.api.service.export.ExcelExportService;
+import uz.familyfinance.api.service.export.ExportRowWriter;
 import uz.familyfinance.api.service.export.PdfExportService;
 
 import java.io.ByteArrayOutputStream;
@@ -40,6 +44,7 @@ public class AuditLogController {
     private final AuditLogService auditLogService;
     private final ExcelExportService excelExportService;
     private final PdfExportService pdfExportService;
+    private final ExportJobService exportJobService;
 
     @GetMapping
     @Operation(summary = "Search audit logs", description = "Audit loglarni qidirish")
@@ -175,4 +180,39 @@ public class AuditLogController {
             throw new BadRequestException("Eksport xatoligi");
         }
     }
+
+    /**
+     * Audit loglar eksporti fon job'i sifatida (202) — 10 000 chegarasisiz, keyset bo'laklari
+     * to'g'ridan-to'g'ri faylga yoziladi.
+     * Holat va fayl — {@code /v1/export-jobs/{id}}.
+     */
+    @PostMapping("/export-jobs")
+    @Operation(summary = "Export audit logs (background)", description = "Audit loglar eksportini fon job'i sifatida navbatga qo'yish")
+    @RequiresPermission(PermissionCode.REPORTS_EXPORT)
+    public ResponseEntity<ApiResponse<ExportJobResponse>> submitExportJob(
+            @RequestParam(required = false) String entityType,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "excel") String format
+    ) {
+        boolean pdf = "pdf".equalsIgnoreCase(format);
+        ExportJobResponse job = exportJobService.submit("audit-logs",
+                "audit_logs_" + LocalDate.now() + (pdf ? ".pdf" : ".xlsx"),
+                pdf ? "application/pdf" : "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet",
+                (out, progress) -> {
+                    long total = auditLogService.searchAuditLogs(
+                            entityType, action, userId, search, PageRequest.of(0, 1)).getTotalElements();
+                    try (ExportRowWriter<AuditLogResponse> writer = pdf
+                            ? pdfExportService.openAuditLogs(out, "Tizim Auditlari Hisoboti")
+                            : excelExportService.openAuditLogs(out, "Tizim Auditlari Hisoboti")) {
+                        exportJobService.streamAll(
+                                (after, limit) -> auditLogService.findAuditLogsForExport(
+                                        entityType, action, userId, search, after, limit),
+                                auditLog -> new ExportJobService.Cursor(auditLog.getCreatedAt(), auditLog.getId()),
+                                total, writer, progress);
+                    }
+                });
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.success(job));
+    }
 }
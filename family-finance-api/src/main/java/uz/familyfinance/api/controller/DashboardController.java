@@ -8,6 +8,7 @@ import uz.familyfinance.api.dto.response.ChartDataResponse;
 import uz.familyfinance.api.dto.response.DashboardStatsResponse;
 import uz.familyfinance.api.dto.response.TransactionResponse;
 import uz.familyfinance.api.enums.PermissionCode;
+import uz.familyfinance.api.security.LedgerVersioned;
 import uz.familyfinance.api.security.RequiresPermission;
 import uz.familyfinance.api.service.DashboardService;
 import uz.familyfinance.api.service.TransactionService;
@@ -24,18 +25,21 @@ public class DashboardController {
 
     @GetMapping("/stats")
     @RequiresPermission(PermissionCode.DASHBOARD_VIEW)
+    @LedgerVersioned
     public ResponseEntity<ApiResponse<DashboardStatsResponse>> getStats() {
         return ResponseEntity.ok(ApiResponse.success(dashboardService.getStats()));
     }
 
     @GetMapping("/charts")
     @RequiresPermission(PermissionCode.DASHBOARD_VIEW)
+    @LedgerVersioned
     public ResponseEntity<ApiResponse<ChartDataResponse>> getCharts() {
         return ResponseEntity.ok(ApiResponse.success(dashboardService.getCharts()));
     }
 
     @GetMapping("/recent-transactions")
     @RequiresPermission(PermissionCode.DASHBOARD_VIEW)
+    @LedgerVersioned
     public ResponseEntity<ApiResponse<List<TransactionResponse>>> getRecentTransactions() {
         return ResponseEntity.ok(ApiResponse.success(transactionService.getRecent()));
     }
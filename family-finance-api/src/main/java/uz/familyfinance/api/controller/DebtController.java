@@ -12,6 +12,7 @@ import uz.familyfinance.api.dto.response.*;
 import uz.familyfinance.api.enums.DebtStatus;
 import uz.familyfinance.api.enums.DebtType;
 import uz.familyfinance.api.enums.PermissionCode;
+import uz.familyfinance.api.security.Idempotent;
 import uz.familyfinance.api.security.RequiresPermission;
 import uz.familyfinance.api.service.DebtService;
 
@@ -77,6 +78,7 @@ public class DebtController {
 
     @PostMapping("/{id}/payments")
     @RequiresPermission(PermissionCode.DEBTS_PAY)
+    @Idempotent
     public ResponseEntity<ApiResponse<DebtPaymentResponse>> addPayment(
             @PathVariable Long id, @Valid @RequestBody DebtPaymentRequest request) {
         return ResponseEntity.ok(ApiResponse.success(debtService.addPayment(id, request)));
@@ -0,0 +1,71 @@
+package uz.familyfinance.api.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import uz.familyfinance.api.dto.response.ApiResponse;
+import uz.familyfinance.api.dto.response.ExportJobResponse;
+import uz.familyfinance.api.enums.PermissionCode;
+import uz.familyfinance.api.security.RequiresPermission;
+import uz.familyfinance.api.service.ExportJobService;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Fon eksport job'lari: holat, yuklab olish, bekor qilish. Job'lar eksport qiluvchi
+ * modullarning {@code .../export-jobs} endpoint'lari orqali yaratiladi. Har foydalanuvchi
+ * faqat o'z job'larini ko'radi.
+ */
+@RestController
+@RequestMapping("/v1/export-jobs")
+@RequiredArgsConstructor
+@Tag(name = "Export Jobs", description = "Fon eksport job'lari API")
+public class ExportJobController {
+
+    private final ExportJobService exportJobService;
+
+    @GetMapping
+    @Operation(summary = "My export jobs", description = "Joriy foydalanuvchining eksport job'lari")
+    @RequiresPermission(PermissionCode.REPORTS_EXPORT)
+    public ResponseEntity<ApiResponse<List<ExportJobResponse>>> listMine() {
+        return ResponseEntity.ok(ApiResponse.success(exportJobService.listMine()));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Export job status", description = "Eksport job holati va progressi")
+    @RequiresPermission(PermissionCode.REPORTS_EXPORT)
+    public ResponseEntity<ApiResponse<ExportJobResponse>> get(@PathVariable String id) {
+        return ResponseEntity.ok(ApiResponse.success(exportJobService.get(id)));
+    }
+
+    @GetMapping("/{id}/download")
+    @Operation(summary = "Download export", description = "Tayyor eksport faylini yuklab olish")
+    @RequiresPermission(PermissionCode.REPORTS_EXPORT)
+    public ResponseEntity<Resource> download(@PathVariable String id) {
+        ExportJobService.Download download = exportJobService.download(id);
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename(download.filename(), StandardCharsets.UTF_8)
+                .build();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .contentType(MediaType.parseMediaType(download.contentType()))
+                .contentLength(download.size())
+                .body(new FileSystemResource(download.path()));
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Cancel/delete export job", description = "Eksport job'ni bekor qilish va faylini o'chirish")
+    @RequiresPermission(PermissionCode.REPORTS_EXPORT)
+    public ResponseEntity<ApiResponse<Void>> delete(@PathVariable String id) {
+        exportJobService.delete(id);
+        return ResponseEntity.ok(ApiResponse.success("Eksport job o'chirildi", null));
+    }
+}
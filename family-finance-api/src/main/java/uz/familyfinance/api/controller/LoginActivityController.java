@@ -11,19 +11,23 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import uz.familyfinance.api.dto.response.ApiResponse;
+import uz.familyfinance.api.dto.response.ExportJobResponse;
 import uz.familyfinance.api.exception.BadRequestException;
 import uz.familyfinance.api.dto.response.LoginAttemptResponse;
 import uz.familyfinance.api.entity.LoginAttempt;
 import uz.familyfinance.api.enums.PermissionCode;
 import uz.familyfinance.api.security.CustomUserDetails;
 import uz.familyfinance.api.security.RequiresPermission;
+import uz.familyfinance.api.service.ExportJobService;
 import uz.familyfinance.api.service.LoginAttemptService;
 import uz.familyfinance.api.service.export.ExcelExportService;
+import uz.familyfinance.api.service.export.ExportRowWriter;
 import uz.familyfinance.api.service.export.PdfExportService;
 
 import java.io.ByteArrayOutputStream;
@@ -40,6 +44,7 @@ public class LoginActivityController {
     private final LoginAttemptService loginAttemptService;
     private final ExcelExportService excelExportService;
     private final PdfExportService pdfExportService;
+    private final ExportJobService exportJobService;
 
     @GetMapping
     @Operation(summary = "Get Login Activity", description = "Get login attempt history with filters")
@@ -141,4 +146,47 @@ public class LoginActivityController {
             throw new BadRequestException("Eksport xatoligi");
         }
     }
+
+    /**
+     * Kirish tarixi eksporti fon job'i sifatida (202) — 10 000 chegarasisiz, keyset bo'laklari
+     * to'g'ridan-to'g'ri faylga yoziladi.
+     * Holat va fayl — {@code /v1/export-jobs/{id}}.
+     */
+    @PostMapping("/export-jobs")
+    @Operation(summary = "Export login activity (background)", description = "Kirish tarixi eksportini fon job'i sifatida navbatga qo'yish")
+    @RequiresPermission(PermissionCode.REPORTS_EXPORT)
+    public ResponseEntity<ApiResponse<ExportJobResponse>> submitExportJob(
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String ipAddress,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime toDate,
+            @RequestParam(defaultValue = "excel") String format
+    ) {
+        LoginAttempt.LoginStatus loginStatus;
+        try {
+            loginStatus = status != null ? LoginAttempt.LoginStatus.valueOf(status.toUpperCase()) : null;
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Noma'lum holat: " + status);
+        }
+        boolean pdf = "pdf".equalsIgnoreCase(format);
+        ExportJobResponse job = exportJobService.submit("login-activity",
+                "login_activity_" + LocalDate.now() + (pdf ? ".pdf" : ".xlsx"),
+                pdf ? "application/pdf" : "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet",
+                (out, progress) -> {
+                    long total = loginAttemptService.getLoginHistory(
+                            username, loginStatus, ipAddress, fromDate, toDate, PageRequest.of(0, 1)).getTotalElements();
+                    try (ExportRowWriter<LoginAttemptResponse> writer = pdf
+                            ? pdfExportService.openLoginActivity(out, "Kirish Tarixi Hisoboti")
+                            : excelExportService.openLoginActivity(out, "Kirish Tarixi Hisoboti")) {
+                        exportJobService.streamAll(
+                                (after, limit) -> loginAttemptService.getLoginHistoryForExport(
+                                        username, loginStatus, ipAddress, fromDate, toDate, after, limit)
+                                        .stream().map(LoginAttemptResponse::from).toList(),
+                                attempt -> new ExportJobService.Cursor(attempt.getCreatedAt(), attempt.getId()),
+                                total, writer, progress);
+                    }
+                });
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.success(job));
+    }
 }
@@ -10,6 +10,7 @@ import uz.familyfinance.api.dto.request.PointPurchaseRequest;
 import uz.familyfinance.api.dto.request.PointShopItemRequest;
 import uz.familyfinance.api.dto.response.*;
 import uz.familyfinance.api.enums.PermissionCode;
+import uz.familyfinance.api.security.Idempotent;
 import uz.familyfinance.api.security.RequiresPermission;
 import uz.familyfinance.api.service.PointShopService;
 
@@ -57,6 +58,7 @@ public class PointShopController {
 
     @PostMapping("/purchase")
     @RequiresPermission(PermissionCode.POINTS_VIEW)
+    @Idempotent
     public ResponseEntity<ApiResponse<PointPurchaseResponse>> purchase(
             @Valid @RequestBody PointPurchaseRequest request) {
         return ResponseEntity.ok(ApiResponse.success(
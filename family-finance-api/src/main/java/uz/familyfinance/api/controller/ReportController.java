@@ -1,19 +1,31 @@
 package uz.familyfinance.api.controller;
 
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import uz.familyfinance.api.dto.request.ReportQueryRequest;
 import uz.familyfinance.api.dto.response.ApiResponse;
+import uz.familyfinance.api.dto.response.CashFlowForecastResponse;
+import uz.familyfinance.api.dto.response.ExportJobResponse;
+import uz.familyfinance.api.dto.response.ReportResultResponse;
 import uz.familyfinance.api.enums.CategoryType;
 import uz.familyfinance.api.enums.PermissionCode;
 import uz.familyfinance.api.exception.BadRequestException;
+import uz.familyfinance.api.security.LedgerVersioned;
 import uz.familyfinance.api.security.RequiresPermission;
+import uz.familyfinance.api.security.RequiresSuperAdmin;
 import uz.familyfinance.api.dto.response.export.CategoryReportExportRow;
 import uz.familyfinance.api.dto.response.export.IncomeExpenseExportRow;
 import uz.familyfinance.api.dto.response.export.MemberReportExportRow;
+import uz.familyfinance.api.service.CashFlowForecastService;
+import uz.familyfinance.api.service.ExportJobService;
+import uz.familyfinance.api.service.LedgerAggregateService;
+import uz.familyfinance.api.service.ReportEngine;
 import uz.familyfinance.api.service.ReportExportService;
 import uz.familyfinance.api.service.ReportService;
 import uz.familyfinance.api.service.export.GenericExportService;
@@ -38,9 +50,14 @@ public class ReportController {
     private final ReportService reportService;
     private final ReportExportService reportExportService;
     private final GenericExportService genericExportService;
+    private final LedgerAggregateService ledgerAggregateService;
+    private final ReportEngine reportEngine;
+    private final ExportJobService exportJobService;
+    private final CashFlowForecastService cashFlowForecastService;
 
     @GetMapping("/income-expense")
     @RequiresPermission(PermissionCode.REPORTS_VIEW)
+    @LedgerVersioned
     public ResponseEntity<ApiResponse<Map<String, Object>>> getIncomeExpense(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
@@ -51,6 +68,7 @@ public class ReportController {
 
     @GetMapping("/category")
     @RequiresPermission(PermissionCode.REPORTS_VIEW)
+    @LedgerVersioned
     public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getCategoryReport(
             @RequestParam CategoryType type,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
@@ -62,6 +80,7 @@ public class ReportController {
 
     @GetMapping("/member")
     @RequiresPermission(PermissionCode.REPORTS_VIEW)
+    @LedgerVersioned
     public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getMemberReport(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
@@ -70,6 +89,36 @@ public class ReportController {
                 reportService.getMemberReport(from.atStartOfDay(), to.atTime(23, 59, 59))));
     }
 
+    /**
+     * Pul oqimi prognozi: aktiv scope hisoblari uchun keyingi {@code months} oy, recurring
+     * shablonlar va aktiv byudjetlar bo'yicha kunlik kutilayotgan balanslar.
+     */
+    @GetMapping("/cash-flow-forecast")
+    @RequiresPermission(PermissionCode.REPORTS_VIEW)
+    @LedgerVersioned
+    public ResponseEntity<ApiResponse<CashFlowForecastResponse>> getCashFlowForecast(
+            @RequestParam(required = false) Integer months) {
+        return ResponseEntity.ok(ApiResponse.success(cashFlowForecastService.forecast(months)));
+    }
+
+    /**
+     * Umumiy ko'p o'lchovli hisobot: o'lchovlar + ko'rsatkichlar → bitta ROLLUP so'rovi,
+     * oraliq va umumiy jamilar bilan, ustunli shaklda.
+     */
+    @PostMapping("/query")
+    @RequiresPermission(PermissionCode.REPORTS_VIEW)
+    public ResponseEntity<ApiResponse<ReportResultResponse>> query(@Valid @RequestBody ReportQueryRequest request) {
+        validateRange(request.getFrom(), request.getTo());
+        return ResponseEntity.ok(ApiResponse.success(reportEngine.run(request)));
+    }
+
+    /** Kunlik agregat proyeksiyasini (V63) daftardan qayta qurish — drift/qo'lda SQL tuzatishdan keyin. */
+    @PostMapping("/aggregates/rebuild")
+    @RequiresSuperAdmin
+    public ResponseEntity<ApiResponse<Integer>> rebuildAggregates() {
+        return ResponseEntity.ok(ApiResponse.success("Agregatlar qayta qurildi", ledgerAggregateService.rebuild()));
+    }
+
     // ============ Export endpoints ============
 
     @GetMapping("/income-expense/export")
@@ -115,6 +164,54 @@ public class ReportController {
         return downloadResponse(bytes, "oila_azolari", exportFormat);
     }
 
+    /**
+     * Hisobot eksportini fon job'i sifatida navbatga qo'yadi (202). Holat va fayl —
+     * {@code /v1/export-jobs/{id}}. {@code report}: income-expense | category | member.
+     */
+    @PostMapping("/export-jobs")
+    @RequiresPermission(PermissionCode.REPORTS_EXPORT)
+    public ResponseEntity<ApiResponse<ExportJobResponse>> submitExportJob(
+            @RequestParam String report,
+            @RequestParam(required = false) CategoryType type,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "excel") String format) {
+        validateRange(from, to);
+        ExportFormat exportFormat = resolveFormat(format);
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.atTime(23, 59, 59);
+
+        String baseName;
+        ExportJobService.ExportTask task;
+        switch (report.trim().toLowerCase(Locale.ROOT)) {
+            case "income-expense" -> {
+                baseName = "daromad_xarajat";
+                task = (out, progress) -> genericExportService.export(
+                        reportExportService.buildIncomeExpenseRows(start, end), IncomeExpenseExportRow.class,
+                        exportFormat, "Daromad-Xarajat hisoboti").writeTo(out);
+            }
+            case "category" -> {
+                if (type == null) {
+                    throw new BadRequestException("Kategoriya hisoboti uchun type ko'rsatilishi shart");
+                }
+                baseName = "kategoriya_" + type.name().toLowerCase(Locale.ROOT);
+                task = (out, progress) -> genericExportService.export(
+                        reportExportService.buildCategoryRows(type, start, end), CategoryReportExportRow.class,
+                        exportFormat, "Kategoriya bo'yicha hisobot").writeTo(out);
+            }
+            case "member" -> {
+                baseName = "oila_azolari";
+                task = (out, progress) -> genericExportService.export(
+                        reportExportService.buildMemberRows(start, end), MemberReportExportRow.class,
+                        exportFormat, "Oila a'zolari bo'yicha hisobot").writeTo(out);
+            }
+            default -> throw new BadRequestException("Noma'lum hisobot: " + report);
+        }
+        ExportJobResponse job = exportJobService.submit("report-" + report, fileName(baseName, exportFormat),
+                exportFormat == ExportFormat.EXCEL ? EXCEL_MIME : PDF_MIME, task);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.success(job));
+    }
+
     // ============ Helpers ============
 
     private void validateRange(LocalDate from, LocalDate to) {
@@ -136,15 +233,18 @@ public class ReportController {
     }
 
     private ResponseEntity<byte[]> downloadResponse(ByteArrayOutputStream bytes, String baseName, ExportFormat format) {
-        String extension = format == ExportFormat.EXCEL ? "xlsx" : "pdf";
         String mime = format == ExportFormat.EXCEL ? EXCEL_MIME : PDF_MIME;
-        LocalDateTime now = LocalDateTime.now();
-        String fileName = String.format("%s_%s.%s", baseName,
-                String.format("%04d%02d%02d", now.getYear(), now.getMonthValue(), now.getDayOfMonth()),
-                extension);
         return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName(baseName, format) + "\"")
                 .contentType(MediaType.parseMediaType(mime))
                 .body(bytes.toByteArray());
     }
+
+    private String fileName(String baseName, ExportFormat format) {
+        String extension = format == ExportFormat.EXCEL ? "xlsx" : "pdf";
+        LocalDateTime now = LocalDateTime.now();
+        return String.format("%s_%s.%s", baseName,
+                String.format("%04d%02d%02d", now.getYear(), now.getMonthValue(), now.getDayOfMonth()),
+                extension);
+    }
 }
@@ -10,6 +10,7 @@ import uz.familyfinance.api.dto.request.SavingsContributionRequest;
 import uz.familyfinance.api.dto.request.SavingsGoalRequest;
 import uz.familyfinance.api.dto.response.*;
 import uz.familyfinance.api.enums.PermissionCode;
+import uz.familyfinance.api.security.Idempotent;
 import uz.familyfinance.api.security.RequiresPermission;
 import uz.familyfinance.api.service.SavingsGoalService;
 
@@ -61,6 +62,7 @@ public class SavingsGoalController {
 
     @PostMapping("/{id}/contributions")
     @RequiresPermission(PermissionCode.SAVINGS_CONTRIBUTE)
+    @Idempotent
     public ResponseEntity<ApiResponse<SavingsContributionResponse>> addContribution(
             @PathVariable Long id, @Valid @RequestBody SavingsContributionRequest request) {
         return ResponseEntity.ok(ApiResponse.success(savingsGoalService.addContribution(id, request)));
@@ -5,24 +5,34 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import uz.familyfinance.api.dto.request.BulkCategorizeRequest;
 import uz.familyfinance.api.dto.request.BulkReverseRequest;
 import uz.familyfinance.api.dto.request.ReverseTransactionRequest;
 import uz.familyfinance.api.dto.request.TransactionRequest;
 import uz.familyfinance.api.dto.response.ApiResponse;
 import uz.familyfinance.api.dto.response.BulkOperationResponse;
+import uz.familyfinance.api.dto.response.CursorPageResponse;
 import uz.familyfinance.api.dto.response.ExpenseSummaryResponse;
 import uz.familyfinance.api.dto.response.PagedResponse;
 import uz.familyfinance.api.dto.response.TransactionResponse;
 import uz.familyfinance.api.enums.TransactionType;
 import uz.familyfinance.api.enums.PermissionCode;
 import uz.familyfinance.api.exception.BadRequestException;
+import uz.familyfinance.api.security.Idempotent;
 import uz.familyfinance.api.security.RequiresPermission;
+import uz.familyfinance.api.service.TransactionExportService;
+import uz.familyfinance.api.service.TransactionImportService;
 import uz.familyfinance.api.service.TransactionService;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -35,7 +45,15 @@ public class TransactionController {
     /** expense-summary uchun ruxsat etilgan maksimal davr (kun bo'yicha GROUP BY hajmini chegaralaydi). */
     private static final int MAX_SUMMARY_RANGE_DAYS = 366;
 
+    /** Keyset sahifa hajmi chegarasi (size + 1 qator o'qiladi). */
+    private static final int MAX_KEYSET_PAGE_SIZE = 100;
+
+    /** Relevantlik qidiruvi natijalari chegarasi. */
+    private static final int MAX_SEARCH_RESULTS = 50;
+
     private final TransactionService transactionService;
+    private final TransactionImportService transactionImportService;
+    private final TransactionExportService transactionExportService;
 
     /**
      * from/to — YYYY-MM-DD (front DateRangePicker shu formatda yuboradi). Avval parametr
@@ -61,6 +79,77 @@ public class TransactionController {
         return ResponseEntity.ok(ApiResponse.success(PagedResponse.of(result)));
     }
 
+    /**
+     * Jurnalning keyset (cursor) varianti: {@code GET /v1/transactions} bilan bir xil filtrlar,
+     * lekin OFFSET va COUNT'siz. Birinchi sahifa — {@code cursor}'siz; keyingilari javobdagi
+     * {@code nextCursor}/{@code prevCursor} bilan. {@code includeTotal=true} — jami ham hisoblanadi.
+     */
+    @GetMapping("/cursor")
+    @RequiresPermission(PermissionCode.TRANSACTIONS_VIEW)
+    public ResponseEntity<ApiResponse<CursorPageResponse<TransactionResponse>>> getAllByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @RequestParam(required = false) TransactionType type,
+            @RequestParam(required = false) Long accountId,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Long memberId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String search) {
+        LocalDateTime fromDt = from != null ? from.atStartOfDay() : null;
+        LocalDateTime toDt = to != null ? to.atTime(23, 59, 59) : null;
+        int safeSize = Math.max(1, Math.min(size, MAX_KEYSET_PAGE_SIZE));
+        return ResponseEntity.ok(ApiResponse.success(transactionService.getAllKeyset(type, accountId, categoryId,
+                memberId, fromDt, toDt, search, cursor, safeSize, includeTotal)));
+    }
+
+    /** Qidiruv maydoni: eng mos tranzaksiyalar (tavsif, tag'lar, hisob nomlari; prefiks, kirill/lotin). */
+    @GetMapping("/search")
+    @RequiresPermission(PermissionCode.TRANSACTIONS_VIEW)
+    public ResponseEntity<ApiResponse<List<TransactionResponse>>> search(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit) {
+        int safeLimit = Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS));
+        return ResponseEntity.ok(ApiResponse.success(transactionService.searchRanked(q, safeLimit)));
+    }
+
+    /**
+     * Jurnal eksporti (CSV/XLSX) — {@code GET /v1/transactions} bilan bir xil filtrlar. Fayl
+     * xotirada qurilmaydi: qatorlar DB kursoridan to'g'ridan javob oqimiga yoziladi
+     * ({@link StreamingResponseBody}). Scope shu yerda (so'rov thread'ida) aniqlanadi.
+     */
+    @GetMapping("/export")
+    @RequiresPermission(PermissionCode.TRANSACTIONS_EXPORT)
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) TransactionType type,
+            @RequestParam(required = false) Long accountId,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Long memberId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String search) {
+        TransactionExportService.Format exportFormat = switch (format.toLowerCase()) {
+            case "csv" -> TransactionExportService.Format.CSV;
+            case "xlsx", "excel" -> TransactionExportService.Format.XLSX;
+            default -> throw new BadRequestException("Noma'lum eksport formati: " + format);
+        };
+        LocalDateTime fromDt = from != null ? from.atStartOfDay() : null;
+        LocalDateTime toDt = to != null ? to.atTime(23, 59, 59) : null;
+        TransactionExportService.ExportQuery query = transactionExportService.prepare(type, accountId, categoryId,
+                memberId, fromDt, toDt, search);
+
+        boolean csv = exportFormat == TransactionExportService.Format.CSV;
+        String filename = "tranzaksiyalar_" + LocalDate.now() + (csv ? ".csv" : ".xlsx");
+        return ResponseEntity.ok()
+                .contentType(csv
+                        ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
+                .body(out -> transactionExportService.write(query, exportFormat, out));
+    }
+
     @GetMapping("/recent")
     @RequiresPermission(PermissionCode.TRANSACTIONS_VIEW)
     public ResponseEntity<ApiResponse<List<TransactionResponse>>> getRecent() {
@@ -90,6 +179,7 @@ public class TransactionController {
 
     @PostMapping
     @RequiresPermission(PermissionCode.TRANSACTIONS_CREATE)
+    @Idempotent
     public ResponseEntity<ApiResponse<TransactionResponse>> create(@Valid @RequestBody TransactionRequest request) {
         return ResponseEntity.ok(ApiResponse.success(transactionService.create(request)));
     }
@@ -147,4 +237,21 @@ public class TransactionController {
             @Valid @RequestBody BulkCategorizeRequest request) {
         return ResponseEntity.ok(ApiResponse.success(transactionService.bulkCategorize(request)));
     }
+
+    /**
+     * Ommaviy import (bank ko'chirmasi / eski jadval). Tana oqim sifatida o'qiladi:
+     * {@code text/csv} — sarlavhali CSV, {@code application/json} — TransactionRequest massivi.
+     * Yaroqsiz qatorlar {@code failures}'da {@code rowNumber} bilan qaytadi, qolganlari yoziladi.
+     */
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @RequiresPermission(PermissionCode.TRANSACTIONS_CREATE)
+    public ResponseEntity<ApiResponse<BulkOperationResponse>> importCsv(InputStream body) throws IOException {
+        return ResponseEntity.ok(ApiResponse.success(transactionImportService.importCsv(body)));
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @RequiresPermission(PermissionCode.TRANSACTIONS_CREATE)
+    public ResponseEntity<ApiResponse<BulkOperationResponse>> importJson(InputStream body) throws IOException {
+        return ResponseEntity.ok(ApiResponse.success(transactionImportService.importJson(body)));
+    }
 }
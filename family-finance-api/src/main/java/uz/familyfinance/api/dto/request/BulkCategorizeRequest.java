@@ -11,7 +11,7 @@ import java.util.List;
 public class BulkCategorizeRequest {
 
     @NotEmpty(message = "Tranzaksiya ID lari ro'yxati bo'sh bo'lmasligi kerak")
-    @Size(max = 100, message = "Bir vaqtning o'zida 100 tadan ko'p tranzaksiya o'zgartirilmaydi")
+    @Size(max = 5000, message = "Bir vaqtning o'zida 5000 tadan ko'p tranzaksiya o'zgartirilmaydi")
     private List<Long> transactionIds;
 
     @NotNull(message = "Kategoriya ID si kerak")
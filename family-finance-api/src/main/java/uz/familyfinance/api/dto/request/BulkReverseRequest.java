@@ -11,7 +11,7 @@ import java.util.List;
 public class BulkReverseRequest {
 
     @NotEmpty(message = "Tranzaksiya ID lari ro'yxati bo'sh bo'lmasligi kerak")
-    @Size(max = 100, message = "Bir vaqtning o'zida 100 tadan ko'p tranzaksiya storno qilinmaydi")
+    @Size(max = 5000, message = "Bir vaqtning o'zida 5000 tadan ko'p tranzaksiya storno qilinmaydi")
     private List<Long> transactionIds;
 
     @NotBlank(message = "Storno sababi ko'rsatilishi shart")
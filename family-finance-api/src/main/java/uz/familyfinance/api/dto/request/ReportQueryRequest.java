@@ -0,0 +1,44 @@
+package uz.familyfinance.api.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import uz.familyfinance.api.enums.ReportDimension;
+import uz.familyfinance.api.enums.ReportMeasure;
+import uz.familyfinance.api.enums.TransactionType;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportQueryRequest {
+
+    @NotNull(message = "Boshlanish sanasi kiritilishi shart")
+    private LocalDate from;
+
+    @NotNull(message = "Tugash sanasi kiritilishi shart")
+    private LocalDate to;
+
+    /** Guruhlash tartibi — oraliq jamilar shu tartibdagi prefikslar bo'yicha (ROLLUP). */
+    @NotEmpty(message = "Kamida bitta o'lchov (dimension) tanlanishi shart")
+    @Size(max = 4, message = "Ko'pi bilan 4 ta o'lchov tanlash mumkin")
+    private List<ReportDimension> dimensions;
+
+    @NotEmpty(message = "Kamida bitta ko'rsatkich (measure) tanlanishi shart")
+    private List<ReportMeasure> measures;
+
+    /** Bo'sh — INCOME va EXPENSE. */
+    private Set<TransactionType> types;
+
+    /** true — har daraja oraliq jamilari (ROLLUP); false — faqat batafsil qatorlar va umumiy jami. */
+    @Builder.Default
+    private Boolean subtotals = true;
+}
@@ -0,0 +1,56 @@
+package uz.familyfinance.api.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import uz.familyfinance.api.enums.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Hisob ko'chirmasi: davr boshidagi qoldiq, har qatordagi joriy qoldiq va davr oxiridagi
+ * qoldiq — hammasi SQL'da (window funksiya) hisoblanadi, tranzaksiyaga yozilgan
+ * {@code balance_before/after_*} snapshot'lariga tayanmaydi. Qoidalar balans xulosasi
+ * ({@code /balance-summary}) bilan bir xil: faqat CONFIRMED, storno juftligi chiqariladi.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountStatementResponse {
+    private Long accountId;
+    private String accCode;
+    private String accountName;
+    private String currency;
+    private LocalDate periodStart;
+    private LocalDate periodEnd;
+    private BigDecimal openingBalance;
+    private BigDecimal debitTurnover;
+    private BigDecimal creditTurnover;
+    private BigDecimal closingBalance;
+
+    /** Sana o'sish tartibida (bir xil sana — id bo'yicha). */
+    private List<Line> lines;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+        private Long transactionId;
+        private LocalDateTime transactionDate;
+        private TransactionType type;
+        private String description;
+        private String categoryName;
+        /** Qarama-qarshi hisob (transfer uchun ikkinchi hisob, daromad/xarajat uchun tranzit). */
+        private String counterpartyAccountName;
+        private BigDecimal debit;
+        private BigDecimal credit;
+        /** Shu qatordan keyingi qoldiq. */
+        private BigDecimal balance;
+    }
+}
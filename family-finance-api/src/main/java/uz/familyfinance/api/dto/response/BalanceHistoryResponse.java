@@ -0,0 +1,40 @@
+package uz.familyfinance.api.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import uz.familyfinance.api.enums.BalanceHistoryBucket;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceHistoryResponse {
+    private LocalDate from;
+    private LocalDate to;
+    private BalanceHistoryBucket bucket;
+    /** Hisob bo'yicha — bitta qator; scope bo'yicha — har valyuta uchun alohida qator. */
+    private List<Series> series;
+
+    @Data @Builder @NoArgsConstructor @AllArgsConstructor
+    public static class Series {
+        /** Scope jami qatorida null. */
+        private Long accountId;
+        private String currency;
+        /** Qisqartirishdan oldingi nuqtalar (bo'laklar) soni. */
+        private Integer sourcePoints;
+        private List<Point> points;
+    }
+
+    /** Davr oxiridagi balans; {@code date} — davr boshlanishi (WEEK — dushanba, MONTH — 1-kun). */
+    @Data @Builder @NoArgsConstructor @AllArgsConstructor
+    public static class Point {
+        private LocalDate date;
+        private BigDecimal balance;
+    }
+}
@@ -25,6 +25,8 @@ public class BulkOperationResponse {
     @AllArgsConstructor
     public static class BulkOperationFailure {
         private Long transactionId;
+        /** Importda: manba fayldagi qator raqami (1 dan, sarlavhasiz); boshqa bulk amallarda null. */
+        private Integer rowNumber;
         private String reason;
     }
 }
@@ -0,0 +1,70 @@
+package uz.familyfinance.api.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Pul oqimi prognozi: joriy balanslar + recurring shablonlar kelajakdagi bajarilishlari,
+ * har kun oxiridagi kutilayotgan balans. Valyuta jamisida aktiv byudjetlarning hali
+ * sarflanmagan (va shablonlar bilan qoplanmagan) qoldig'i ham chiqim sifatida hisoblanadi.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CashFlowForecastResponse {
+    /** Birinchi prognoz kuni (ertangi kun) — bugungi shablonlar executor'ga qoldiriladi. */
+    private LocalDate from;
+    private LocalDate to;
+    private Integer templateCount;
+    private List<AccountForecast> accounts;
+    /** Har valyuta alohida — turli valyutalar qo'shilmaydi. */
+    private List<CurrencyForecast> totals;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AccountForecast {
+        private Long accountId;
+        private String accountName;
+        private String currency;
+        private BigDecimal currentBalance;
+        private BigDecimal projectedBalance;
+        private BigDecimal minBalance;
+        private LocalDate minBalanceDate;
+        /** Har kun uchun bitta nuqta, {@code from}..{@code to}. */
+        private List<Point> points;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CurrencyForecast {
+        private String currency;
+        private BigDecimal currentBalance;
+        private BigDecimal projectedBalance;
+        /** Davr ichida byudjetlar uchun ajratilgan jami chiqim (faqat byudjet valyutasida). */
+        private BigDecimal budgetReserve;
+        private BigDecimal minBalance;
+        private LocalDate minBalanceDate;
+        private List<Point> points;
+    }
+
+    /** Kun oxiridagi kutilayotgan balans. */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Point {
+        private LocalDate date;
+        private BigDecimal balance;
+    }
+}
@@ -0,0 +1,29 @@
+package uz.familyfinance.api.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Keyset (cursor) sahifa. {@link PagedResponse}'dan farqli — sahifa raqami va COUNT yo'q:
+ * navigatsiya faqat {@code nextCursor}/{@code prevCursor} orqali. {@code totalElements}
+ * faqat klient {@code includeTotal=true} so'raganda to'ldiriladi (aks holda javobda yo'q).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CursorPageResponse<T> {
+    private List<T> content;
+    private int size;
+    private String nextCursor;
+    private String prevCursor;
+    private boolean hasNext;
+    private boolean hasPrev;
+    private Long totalElements;
+}
@@ -11,7 +11,7 @@ import java.util.List;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class DashboardStatsResponse {
+public class DashboardStatsResponse implements PartialResponse {
     /** Asosiy (eng katta) valyutadagi balans — raqamli ko'rsatkichlar (mobil hero) uchun. */
     private BigDecimal totalBalance;
     /** D7: balans valyutalar bo'yicha ajratilgan (asosiy + qolganlar, summa kamayuvchi). */
@@ -25,6 +25,13 @@ public class DashboardStatsResponse {
     private Integer activeBudgets;
     private List<BudgetProgress> budgetProgress;
     private List<SavingsProgress> savingsProgress;
+    /**
+     * Vaqtida tugamagan bo'limlar (masalan {@code "budgets"}) — ularning maydonlari nol/bo'sh
+     * (null emas), klient ularni haqiqiy qiymat sifatida ko'rsatmasligi kerak.
+     * Bo'sh ro'yxat — javob to'liq. Qisman javob keshlanmaydi.
+     */
+    @Builder.Default
+    private List<String> missingSections = List.of();
 
     @Data @Builder @NoArgsConstructor @AllArgsConstructor
     public static class BudgetProgress {
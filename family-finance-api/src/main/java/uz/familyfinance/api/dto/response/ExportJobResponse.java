@@ -0,0 +1,32 @@
+package uz.familyfinance.api.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import uz.familyfinance.api.enums.ExportJobStatus;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportJobResponse {
+    private String id;
+    /** Eksport turi, masalan {@code audit-logs}. */
+    private String name;
+    private ExportJobStatus status;
+    /** 0–100; ma'lumot yig'ish bosqichi bo'yicha (fayl yozilishi oxirgi foizlarda). */
+    private Integer progress;
+    private Long processed;
+    private Long total;
+    private String filename;
+    /** Tayyor fayl hajmi (bayt) — faqat DONE holatida. */
+    private Long size;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+    /** Shu vaqtdan keyin fayl o'chiriladi. */
+    private LocalDateTime expiresAt;
+}
@@ -18,10 +18,13 @@ import java.util.List;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class FinancialOverviewResponse {
+public class FinancialOverviewResponse implements PartialResponse {
     private Long scopeId;
     private String scopeName;
     private String scopeType;
     private DashboardStatsResponse stats;
     private List<TransactionResponse> recentTransactions;
+    /** Vaqtida tugamagan bo'limlar (stats ichidagilari + {@code "recentTransactions"}). */
+    @Builder.Default
+    private List<String> missingSections = List.of();
 }
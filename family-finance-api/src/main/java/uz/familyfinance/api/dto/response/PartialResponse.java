@@ -0,0 +1,15 @@
+package uz.familyfinance.api.dto.response;
+
+import java.util.List;
+
+/**
+ * Bo'limlari vaqtida tugamasligi mumkin bo'lgan javob (parallel fan-out).
+ *
+ * <p>Bo'sh bo'lmagan {@link #getMissingSections()} — javob qisman: u keshlanmaydi va
+ * conditional GET ETag'i olmaydi, aks holda keyingi so'rov 304 bilan qisman ma'lumotni
+ * mijozda qotirib qo'yadi.</p>
+ */
+public interface PartialResponse {
+
+    List<String> getMissingSections();
+}
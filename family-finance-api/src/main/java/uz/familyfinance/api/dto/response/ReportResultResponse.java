@@ -0,0 +1,34 @@
+package uz.familyfinance.api.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hisobot mexanizmi natijasi — ustunli (columnar) shakl: {@code values.get(i)} — i-ustunning
+ * barcha qatorlardagi qiymatlari. ID o'lchovlari (kategoriya, a'zo, hisob, teg) nomlari
+ * har qatorda takrorlanmaydi — {@code labels} lug'atida bir marta beriladi.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportResultResponse {
+    /** Ustun nomlari: avval o'lchovlar (so'rov tartibida), keyin ko'rsatkichlar — kichik harfda. */
+    private List<String> columns;
+    private List<List<Object>> values;
+    /**
+     * Har qator uchun GROUPING bitmaskasi: 0 — batafsil qator; i-o'lchov jamlangan bo'lsa
+     * (oxiridan hisoblab) mos bit 1. Barcha bitlar 1 — umumiy jami.
+     */
+    private List<Integer> levels;
+    /** O'lchov nomi → (ID → nom), masalan {@code category → {12: "Oziq-ovqat"}}. */
+    private Map<String, Map<Long, String>> labels;
+    private int rowCount;
+    /** Ma'lumot manbai: {@code aggregates} (V63 kunlik agregatlar) yoki {@code ledger} (tranzaksiyalar). */
+    private String source;
+}
@@ -0,0 +1,25 @@
+package uz.familyfinance.api.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Bitta mantiqiy SYSTEM_TRANSIT hisob (root + barcha shard'lari) balansi —
+ * {@code transit_ledger_balances} view'dan (V62).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransitLedgerBalanceResponse {
+    private Long rootAccountId;
+    private String accCode;
+    private String name;
+    private String currency;
+    private int shardCount;
+    private BigDecimal balance;
+}
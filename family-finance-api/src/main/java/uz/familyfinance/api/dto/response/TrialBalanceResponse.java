@@ -0,0 +1,61 @@
+package uz.familyfinance.api.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import uz.familyfinance.api.enums.AccountType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Aylanma qaydnoma (trial balance): davr uchun har hisobning boshlang'ich qoldig'i, debet va
+ * kredit aylanmasi va yakuniy qoldig'i, valyuta bo'yicha jamilar bilan. Qoidalar balans
+ * xulosasi ({@code /balance-summary}) bilan bir xil: faqat CONFIRMED, storno juftligi chiqariladi.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrialBalanceResponse {
+    private LocalDate periodStart;
+    private LocalDate periodEnd;
+
+    /** Valyuta, so'ng hisob kodi bo'yicha tartiblangan. */
+    private List<Line> accounts;
+
+    /** Har valyuta alohida — turli valyutalar qo'shilmaydi. */
+    private List<CurrencyTotal> totals;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+        private Long accountId;
+        private String accCode;
+        private String accountName;
+        private AccountType accountType;
+        private String currency;
+        private Boolean isActive;
+        private BigDecimal openingBalance;
+        private BigDecimal debitTurnover;
+        private BigDecimal creditTurnover;
+        private BigDecimal closingBalance;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CurrencyTotal {
+        private String currency;
+        private Integer accountCount;
+        private BigDecimal openingBalance;
+        private BigDecimal debitTurnover;
+        private BigDecimal creditTurnover;
+        private BigDecimal closingBalance;
+    }
+}
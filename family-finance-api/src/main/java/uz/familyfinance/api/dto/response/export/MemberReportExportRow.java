@@ -20,6 +20,9 @@ public class MemberReportExportRow {
     @ExportColumn(header = "Oila a'zosi", order = 1)
     private String memberName;
 
-    @ExportColumn(header = "Jami xarajat", order = 2, type = ColumnType.CURRENCY)
+    @ExportColumn(header = "Jami daromad", order = 2, type = ColumnType.CURRENCY)
+    private BigDecimal totalIncome;
+
+    @ExportColumn(header = "Jami xarajat", order = 3, type = ColumnType.CURRENCY)
     private BigDecimal totalExpense;
 }
@@ -117,6 +117,17 @@ public class Account extends BaseEntity implements Auditable {
     @Column(length = 500)
     private String description;
 
+    /**
+     * V62: SYSTEM_TRANSIT sub-ledger shard raqami (0 = root, 1..N = shard'lar);
+     * boshqa hisob turlarida NULL. Shard tanlash {@code TransitLedgerService}'da.
+     */
+    @Column(name = "transit_shard")
+    private Integer transitShard;
+
+    /** V62: shard tegishli root tranzit hisob ID'si (root o'ziga ishora qiladi). */
+    @Column(name = "transit_root_id")
+    private Long transitRootId;
+
     @OneToMany(mappedBy = "account", fetch = FetchType.LAZY)
     @Builder.Default
     private List<Card> cards = new ArrayList<>();
@@ -0,0 +1,60 @@
+package uz.familyfinance.api.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import uz.familyfinance.api.enums.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * V63: kunlik daftar agregati — (scope, kun, tur, kategoriya, valyuta, a'zo) kesimidagi
+ * summa va sonlar. Faqat o'qish uchun map qilingan: yozuv {@code LedgerAggregateService}
+ * orqali (JDBC upsert), storno qilingan/REVERSAL qatorlar bu yerga umuman tushmaydi.
+ *
+ * <p>ID'lar oddiy ustun (assotsiatsiya emas) — proyeksiya, FK'siz.</p>
+ */
+@Entity
+@Table(name = "ledger_daily_aggregates")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LedgerDailyAggregate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** NULL — scope'siz (system) tranzaksiyalar. */
+    @Column(name = "scope_id")
+    private Long scopeId;
+
+    @Column(name = "ledger_date", nullable = false)
+    private LocalDate ledgerDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TransactionType type;
+
+    @Column(name = "category_id")
+    private Long categoryId;
+
+    @Column(nullable = false, length = 10)
+    private String currency;
+
+    @Column(name = "member_id")
+    private Long memberId;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    /** Qatorlar soni: split'siz tranzaksiya = 1, split'li tranzaksiyaning har ulushi = 1. */
+    @Column(name = "entry_count", nullable = false)
+    private Long entryCount;
+
+    /** Tranzaksiyalar soni (split'li tranzaksiya faqat bitta ulush qatorida 1). */
+    @Column(name = "tx_count", nullable = false)
+    private Long txCount;
+}
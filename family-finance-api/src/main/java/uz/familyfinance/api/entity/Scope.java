@@ -7,6 +7,7 @@ import org.hibernate.type.SqlTypes;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import uz.familyfinance.api.entity.base.BaseEntity;
 import uz.familyfinance.api.enums.ScopeType;
+import uz.familyfinance.api.security.ScopeResolutionListener;
 
 import java.time.LocalDateTime;
 import java.util.Map;
@@ -22,7 +23,7 @@ import java.util.Map;
  */
 @Entity
 @Table(name = "scopes")
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, ScopeResolutionListener.class})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import uz.familyfinance.api.entity.base.BaseEntity;
 import uz.familyfinance.api.enums.MembershipStatus;
 import uz.familyfinance.api.enums.ScopeRole;
+import uz.familyfinance.api.security.ScopeResolutionListener;
 
 import java.time.LocalDateTime;
 
@@ -23,7 +24,7 @@ import java.time.LocalDateTime;
         columnNames = {"scope_id", "user_id"}
     )
 )
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, ScopeResolutionListener.class})
 @Getter
 @Setter
 @NoArgsConstructor
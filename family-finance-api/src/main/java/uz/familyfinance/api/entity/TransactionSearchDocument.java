@@ -0,0 +1,29 @@
+package uz.familyfinance.api.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * V65: tranzaksiyaning qidiruv hujjati (tsvector: tavsif, tag'lar, hisob nomlari).
+ *
+ * <p>Faqat o'qish uchun — hujjatni DB trigger'lari yuritadi. Entity sifatida map
+ * qilinishining yagona sababi — JPQL jurnal filtri uni
+ * {@code function('ff_search_matches', d.document, :search)} bilan subquery'da ishlata
+ * olishi (tsvector'ni Transaction'ning o'ziga map qilish har listing'da uni o'qirdi).</p>
+ */
+@Entity
+@Immutable
+@Table(name = "transaction_search_documents")
+@Getter
+@NoArgsConstructor
+public class TransactionSearchDocument {
+
+    @Id
+    @Column(name = "transaction_id")
+    private Long transactionId;
+
+    @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "tsvector")
+    private String document;
+}
@@ -9,6 +9,7 @@ import uz.familyfinance.api.audit.Auditable;
 import uz.familyfinance.api.audit.AuditEntityListener;
 import uz.familyfinance.api.entity.base.BaseEntity;
 import uz.familyfinance.api.enums.Role;
+import uz.familyfinance.api.security.PrincipalCacheListener;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
@@ -19,7 +20,7 @@ import java.util.Set;
 
 @Entity
 @Table(name = "users")
-@EntityListeners({ AuditingEntityListener.class, AuditEntityListener.class })
+@EntityListeners({ AuditingEntityListener.class, AuditEntityListener.class, PrincipalCacheListener.class })
 @Getter
 @Setter
 @NoArgsConstructor
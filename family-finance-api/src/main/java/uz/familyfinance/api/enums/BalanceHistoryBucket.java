@@ -0,0 +1,7 @@
+package uz.familyfinance.api.enums;
+
+public enum BalanceHistoryBucket {
+    DAY,
+    WEEK,
+    MONTH
+}
@@ -0,0 +1,8 @@
+package uz.familyfinance.api.enums;
+
+public enum ExportJobStatus {
+    QUEUED,
+    RUNNING,
+    DONE,
+    FAILED
+}
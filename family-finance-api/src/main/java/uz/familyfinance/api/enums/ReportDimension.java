@@ -0,0 +1,18 @@
+package uz.familyfinance.api.enums;
+
+/**
+ * Hisobot mexanizmi (ReportEngine) guruhlash o'lchovlari. Sana o'lchovlari davr
+ * boshlanish sanasini qaytaradi (WEEK — dushanba, MONTH — oyning 1-kuni).
+ */
+public enum ReportDimension {
+    DAY,
+    WEEK,
+    MONTH,
+    YEAR,
+    TYPE,
+    CATEGORY,
+    MEMBER,
+    ACCOUNT,
+    CURRENCY,
+    TAG
+}
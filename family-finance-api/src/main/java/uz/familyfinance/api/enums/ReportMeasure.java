@@ -0,0 +1,8 @@
+package uz.familyfinance.api.enums;
+
+/** Hisobot mexanizmi ko'rsatkichlari: summa, tranzaksiyalar soni (split ulushlari emas), o'rtacha summa. */
+public enum ReportMeasure {
+    SUM,
+    COUNT,
+    AVG
+}
@@ -0,0 +1,22 @@
+package uz.familyfinance.api.event;
+
+/**
+ * Scope'ning moliyaviy ma'lumoti (daftar, byudjet, jamg'arma, qarz, hisob) o'zgardi.
+ *
+ * <p>Yozish servislari tranzaksiya ichida e'lon qiladi; tinglovchilar
+ * {@code @TransactionalEventListener(AFTER_COMMIT)} bilan faqat commit'dan keyin oladi —
+ * rollback bo'lgan yozuv keshni bekorga tozalamaydi, commit'dan oldin esa eski qiymat
+ * qayta keshlanib qolmaydi.</p>
+ *
+ * @param scopeId o'zgargan scope; {@code null} — barcha scope'lar (masalan, global kategoriya)
+ */
+public record ScopeDataChangedEvent(Long scopeId) {
+
+    public static ScopeDataChangedEvent allScopes() {
+        return new ScopeDataChangedEvent(null);
+    }
+
+    public boolean affectsAllScopes() {
+        return scopeId == null;
+    }
+}
@@ -1,8 +1,10 @@
 package uz.familyfinance.api.repository;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -24,6 +26,10 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
 
        Optional<Account> findByAccCode(String accCode);
 
+       /** Hisob egasi scope'i ID'si — ETag versiyasi uchun (entity yuklanmaydi). */
+       @Query("SELECT a.homeScope.id FROM Account a WHERE a.id = :id")
+       Optional<Long> findHomeScopeIdById(@Param("id") Long id);
+
        Page<Account> findByIsActiveTrueAndTypeNot(AccountType type, Pageable pageable);
 
        List<Account> findByIsActiveTrueAndTypeNot(AccountType type);
@@ -40,6 +46,17 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
             + "GROUP BY a.currency ORDER BY SUM(a.balance) DESC")
        List<Object[]> getBalancesByCurrencyAndScope(@Param("scopeId") Long scopeId);
 
+       /** {@link #getBalancesByCurrencyAndScope} bilan bir xil hisoblar to'plami: [id, currency]. */
+       @Query("SELECT a.id, a.currency FROM Account a "
+            + "WHERE a.isActive = true AND a.type <> 'SYSTEM_TRANSIT' AND a.homeScope.id = :scopeId")
+       List<Object[]> findIdAndCurrencyByScopeId(@Param("scopeId") Long scopeId);
+
+       /** {@link #getBalancesByCurrencyAndScope} bilan bir xil hisoblar to'plami (valyuta, id tartibida). */
+       @Query("SELECT a FROM Account a "
+            + "WHERE a.isActive = true AND a.type <> 'SYSTEM_TRANSIT' AND a.homeScope.id = :scopeId "
+            + "ORDER BY a.currency, a.id")
+       List<Account> findBalanceAccountsByScopeId(@Param("scopeId") Long scopeId);
+
        /**
         * Aktiv scope'dagi hisoblar balansi yig'indisi (scope-aware, "Umumiy balans" KPI).
         *
@@ -146,6 +163,16 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
                      @Param("isAdmin") boolean isAdmin,
                      @Param("visibleScopeIds") Collection<Long> visibleScopeIds);
 
+       /**
+        * {@link #canUserAccessAccount} ning to'plam varianti (bulk amallar uchun): berilganlardan
+        * foydalanuvchi ko'ra oladigan hisob id'lari — har hisobga alohida so'rov o'rniga bitta.
+        */
+       @Query("SELECT a.id FROM Account a WHERE a.id IN :accountIds AND "
+                     + "((a.scope = 'FAMILY' AND a.homeScope.id IN :visibleScopeIds) OR EXISTS(SELECT 1 FROM AccountAccess aa WHERE aa.account = a AND aa.user.id = :userId))")
+       List<Long> findAccessibleIdsIn(@Param("accountIds") Collection<Long> accountIds,
+                     @Param("userId") Long userId,
+                     @Param("visibleScopeIds") Collection<Long> visibleScopeIds);
+
        /** ADR-002 P2: xonadonning umumiy (FAMILY) hisoblari — homeScope bo'yicha. */
        @Query("SELECT a FROM Account a LEFT JOIN FETCH a.owner " +
                      "WHERE a.homeScope.id = :scopeId AND a.scope = 'FAMILY' " +
@@ -154,4 +181,40 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
 
        @Query("SELECT a FROM Account a WHERE a.owner.id = :ownerId AND a.isActive = true AND a.type <> 'SYSTEM_TRANSIT'")
        List<Account> findByOwnerId(@Param("ownerId") Long ownerId);
+
+       // ==========================================================
+       // SYSTEM_TRANSIT sub-ledger (V62 shard'lar)
+       // ==========================================================
+
+       /** Valyutaning barcha tranzit root + shard'lari (marshrut kesh'ini to'ldirish uchun). */
+       @Query("SELECT a FROM Account a WHERE a.type = 'SYSTEM_TRANSIT' AND a.currency = :currency "
+                     + "AND a.isActive = true ORDER BY a.transitRootId, a.transitShard")
+       List<Account> findTransitLedgerByCurrency(@Param("currency") String currency);
+
+       @Query("SELECT a.id FROM Account a WHERE a.type = 'SYSTEM_TRANSIT' AND a.transitShard = 0")
+       List<Long> findTransitRootIds();
+
+       /**
+        * Compaction uchun root'ning shard qatorlarini (transit_shard &gt; 0) id tartibida
+        * qulflaydi — SELECT ... FOR UPDATE eng so'nggi commit qilingan balansni qaytaradi.
+        */
+       @Lock(LockModeType.PESSIMISTIC_WRITE)
+       @Query("SELECT a FROM Account a WHERE a.transitRootId = :rootId AND a.transitShard > 0 ORDER BY a.id")
+       List<Account> lockTransitShards(@Param("rootId") Long rootId);
+
+       /**
+        * Bulk storno: hisoblarni id tartibida qulflaydi (parallel bulk'lar bir-birini deadlock
+        * qilmasligi uchun deterministik tartib) va eng so'nggi commit qilingan balansni qaytaradi.
+        * Native — sessiyadagi Account entity'lari eskirgan balansni ushlab turishi mumkin.
+        * {@code FOR NO KEY UPDATE} — balans UPDATE'i bilan bir xil qulf: boshqa tranzaksiyalarning
+        * shu hisoblarga FK orqali bog'langan INSERT'larini to'smaydi. Har qator: [id, balance].
+        */
+       @Query(value = "SELECT id, balance FROM accounts WHERE id IN (:ids) ORDER BY id FOR NO KEY UPDATE",
+                     nativeQuery = true)
+       List<Object[]> lockBalancesOrderedById(@Param("ids") Collection<Long> ids);
+
+       /** Har qator: [rootAccountId, accCode, name, currency, shardCount, balance]. */
+       @Query(value = "SELECT root_account_id, acc_code, name, currency, shard_count, balance "
+                     + "FROM transit_ledger_balances ORDER BY currency, root_account_id", nativeQuery = true)
+       List<Object[]> findTransitLedgerBalances();
 }
@@ -76,6 +76,32 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
         Pageable pageable
     );
 
+    /**
+     * Eksport uchun keyset bo'lak — {@code (createdAt, id)} bo'yicha kamayish tartibida, kursor
+     * kalitidan ESKIROQ qatorlar (kursor null — birinchi bo'lak). Eksport davomida qo'shilgan
+     * yozuvlar kursordan yuqorida qoladi — OFFSET'dagidek takror yoki tushib qolish yo'q.
+     * {@code pageable} faqat LIMIT uchun.
+     */
+    @Query("""
+        SELECT a FROM AuditLog a
+        WHERE (:entityType IS NULL OR a.entityType = :entityType)
+        AND (:action IS NULL OR a.action = :action)
+        AND (:userId IS NULL OR a.userId = :userId)
+        AND (CAST(:search AS string) IS NULL OR LOWER(a.username) LIKE LOWER(CONCAT('%', CAST(:search AS string), '%')))
+        AND (CAST(:cursorCreatedAt AS timestamp) IS NULL OR a.createdAt < :cursorCreatedAt
+             OR (a.createdAt = :cursorCreatedAt AND a.id < :cursorId))
+        ORDER BY a.createdAt DESC, a.id DESC
+        """)
+    List<AuditLog> findExportChunk(
+        @Param("entityType") String entityType,
+        @Param("action") String action,
+        @Param("userId") Long userId,
+        @Param("search") String search,
+        @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+        @Param("cursorId") Long cursorId,
+        Pageable pageable
+    );
+
     @Query("SELECT DISTINCT a.entityType FROM AuditLog a ORDER BY a.entityType")
     List<String> findAllEntityTypes();
 
@@ -1,9 +1,12 @@
 package uz.familyfinance.api.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import uz.familyfinance.api.entity.BalanceSnapshot;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,4 +15,22 @@ public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot
     List<BalanceSnapshot> findByAccountIdAndSnapshotDateBetweenOrderBySnapshotDateAsc(
             Long accountId, LocalDate from, LocalDate to);
     List<BalanceSnapshot> findByAccountIdOrderBySnapshotDateDesc(Long accountId);
+
+    /**
+     * Hisoblar bo'yicha davr snapshot'lari: [account_id, snapshot_date, balance], hisob va sana
+     * tartibida. V68 covering indeksi — hisob boshiga bitta index-only range scan.
+     */
+    @Query(value = "SELECT s.account_id, s.snapshot_date, s.balance FROM balance_snapshots s "
+            + "WHERE s.account_id IN (:accountIds) AND s.snapshot_date BETWEEN :from AND :to "
+            + "ORDER BY s.account_id, s.snapshot_date", nativeQuery = true)
+    List<Object[]> findSeries(@Param("accountIds") Collection<Long> accountIds,
+                              @Param("from") LocalDate from,
+                              @Param("to") LocalDate to);
+
+    /** Davr boshidan oldingi oxirgi ma'lum balans (bo'shliqni to'ldirish uchun): [account_id, balance]. */
+    @Query(value = "SELECT DISTINCT ON (s.account_id) s.account_id, s.balance FROM balance_snapshots s "
+            + "WHERE s.account_id IN (:accountIds) AND s.snapshot_date < :from "
+            + "ORDER BY s.account_id, s.snapshot_date DESC", nativeQuery = true)
+    List<Object[]> findLastBefore(@Param("accountIds") Collection<Long> accountIds,
+                                  @Param("from") LocalDate from);
 }
@@ -51,6 +51,31 @@ public interface BudgetRepository extends JpaRepository<Budget, Long> {
     Optional<Budget> findFirstByCategoryIdAndScopeIdAndIsActiveTrueAndStartDateLessThanEqualAndEndDateGreaterThanEqualOrderByEndDateDesc(
             Long categoryId, Long scopeId, LocalDate startDate, LocalDate endDate);
 
+    /**
+     * Har byudjetning sarfi O'Z davri (startDate 00:00 .. endDate 23:59:59) bo'yicha — bitta
+     * so'rovda. Qatorlar: [budget_id, spent].
+     *
+     * <p>Sarf daftar agregatlari (V63) bilan bir xil qoida: split'siz xarajat o'z kategoriyasida,
+     * split'li xarajat faqat ulushlari bo'yicha (sarlavha kategoriyasi ikkinchi marta
+     * qo'shilmaydi); REVERSED chiqariladi. Scope — hisobning egasi scope'i (C3). Har byudjet
+     * uchun korrelyatsiyalangan yig'indilar (category_id, type, transaction_date) va
+     * transaction_splits(category_id) indekslaridan o'qiydi.</p>
+     */
+    @Query(value = "SELECT b.id, "
+            + "COALESCE((SELECT SUM(t.amount) FROM transactions t JOIN accounts a ON a.id = t.account_id "
+            + "  WHERE t.category_id = b.category_id AND t.type = 'EXPENSE' AND t.status <> 'REVERSED' "
+            + "  AND a.scope_id = b.scope_id "
+            + "  AND t.transaction_date >= b.start_date AND t.transaction_date <= b.end_date + TIME '23:59:59' "
+            + "  AND NOT EXISTS (SELECT 1 FROM transaction_splits ts WHERE ts.transaction_id = t.id)), 0) "
+            + "+ COALESCE((SELECT SUM(s.amount) FROM transaction_splits s "
+            + "  JOIN transactions t ON t.id = s.transaction_id JOIN accounts a ON a.id = t.account_id "
+            + "  WHERE s.category_id = b.category_id AND t.type = 'EXPENSE' AND t.status <> 'REVERSED' "
+            + "  AND a.scope_id = b.scope_id "
+            + "  AND t.transaction_date >= b.start_date AND t.transaction_date <= b.end_date + TIME '23:59:59'), 0) "
+            + "FROM budgets b WHERE b.id IN (:budgetIds)",
+            nativeQuery = true)
+    List<Object[]> sumSpentByBudgetIds(@Param("budgetIds") java.util.Collection<Long> budgetIds);
+
     @Query("SELECT b FROM Budget b WHERE b.isActive = true AND " +
            "b.startDate >= :startDate AND b.endDate <= :endDate")
     List<Budget> findByDateRange(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
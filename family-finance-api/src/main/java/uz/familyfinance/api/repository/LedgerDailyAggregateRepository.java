@@ -0,0 +1,77 @@
+package uz.familyfinance.api.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import uz.familyfinance.api.entity.LedgerDailyAggregate;
+import uz.familyfinance.api.enums.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * V63 kunlik agregatlar ustidagi o'qish so'rovlari. Storno invarianti proyeksiyaga
+ * yozishda qo'llangan (REVERSED/REVERSAL qatorlar yo'q) — shu sabab bu yerda status
+ * filtrlari takrorlanmaydi. Davrlar KUN aniqligida ({@code from}/{@code to} — inklyuziv).
+ * {@code scopeId} null — global (SUPER_ADMIN).
+ *
+ * <p>Nol qatorlar (barcha tranzaksiyalari storno qilingan kalit) {@code entryCount > 0}
+ * sharti bilan chiqariladi.</p>
+ */
+public interface LedgerDailyAggregateRepository extends JpaRepository<LedgerDailyAggregate, Long> {
+
+    @Query("SELECT COALESCE(SUM(a.amount), 0) FROM LedgerDailyAggregate a "
+         + "WHERE a.type = :type AND a.ledgerDate >= :from AND a.ledgerDate <= :to "
+         + "AND (:scopeId IS NULL OR a.scopeId = :scopeId)")
+    BigDecimal sumByType(@Param("type") TransactionType type,
+                         @Param("from") LocalDate from,
+                         @Param("to") LocalDate to,
+                         @Param("scopeId") Long scopeId);
+
+    /** Oylik trend. Har qator: [type, month, sum]. */
+    @Query("SELECT a.type, extract(month from a.ledgerDate), COALESCE(SUM(a.amount), 0) "
+         + "FROM LedgerDailyAggregate a WHERE a.ledgerDate >= :from AND a.ledgerDate <= :to "
+         + "AND (:scopeId IS NULL OR a.scopeId = :scopeId) AND a.entryCount > 0 "
+         + "GROUP BY a.type, extract(month from a.ledgerDate)")
+    List<Object[]> sumByTypeGroupedByMonth(@Param("from") LocalDate from,
+                                           @Param("to") LocalDate to,
+                                           @Param("scopeId") Long scopeId);
+
+    /**
+     * Kategoriya kesimi (split ulushlari o'z kategoriyasida). Har qator: [categoryId, sum];
+     * kategoriyasiz tranzaksiyalar categoryId = null qatorida.
+     */
+    @Query("SELECT a.categoryId, COALESCE(SUM(a.amount), 0) FROM LedgerDailyAggregate a "
+         + "WHERE a.type = :type AND a.ledgerDate >= :from AND a.ledgerDate <= :to "
+         + "AND (:scopeId IS NULL OR a.scopeId = :scopeId) AND a.entryCount > 0 "
+         + "GROUP BY a.categoryId")
+    List<Object[]> sumByTypeGroupedByCategory(@Param("type") TransactionType type,
+                                              @Param("from") LocalDate from,
+                                              @Param("to") LocalDate to,
+                                              @Param("scopeId") Long scopeId);
+
+    /** Kunlik xarajatlar jurnali: [day, currency, sum, txCount], kun kamayish tartibida. */
+    @Query("SELECT a.ledgerDate, a.currency, COALESCE(SUM(a.amount), 0), SUM(a.txCount) "
+         + "FROM LedgerDailyAggregate a WHERE a.type = 'EXPENSE' "
+         + "AND a.ledgerDate >= :from AND a.ledgerDate <= :to "
+         + "AND (:scopeId IS NULL OR a.scopeId = :scopeId) AND a.entryCount > 0 "
+         + "GROUP BY a.ledgerDate, a.currency "
+         + "ORDER BY a.ledgerDate DESC")
+    List<Object[]> sumExpenseGroupedByDayAndCurrency(@Param("scopeId") Long scopeId,
+                                                     @Param("from") LocalDate from,
+                                                     @Param("to") LocalDate to);
+
+    /**
+     * Kunlik jurnal kategoriya jamlari: [categoryId, name, icon, color, currency, sum, entryCount].
+     * Split ulushlari allaqachon o'z kategoriyasida — alohida split so'rovi kerak emas.
+     */
+    @Query("SELECT c.id, c.name, c.icon, c.color, a.currency, COALESCE(SUM(a.amount), 0), SUM(a.entryCount) "
+         + "FROM LedgerDailyAggregate a LEFT JOIN Category c ON c.id = a.categoryId "
+         + "WHERE a.type = 'EXPENSE' AND a.ledgerDate >= :from AND a.ledgerDate <= :to "
+         + "AND (:scopeId IS NULL OR a.scopeId = :scopeId) AND a.entryCount > 0 "
+         + "GROUP BY c.id, c.name, c.icon, c.color, a.currency")
+    List<Object[]> sumExpenseGroupedByCategoryAndCurrency(@Param("scopeId") Long scopeId,
+                                                          @Param("from") LocalDate from,
+                                                          @Param("to") LocalDate to);
+}
@@ -66,6 +66,30 @@ public interface LoginAttemptRepository extends JpaRepository<LoginAttempt, Long
         Pageable pageable
     );
 
+    /**
+     * Eksport uchun keyset bo'lak — {@code (createdAt, id)} bo'yicha kamayish tartibida, kursor
+     * kalitidan ESKIROQ qatorlar (kursor null — birinchi bo'lak). {@code pageable} faqat LIMIT uchun.
+     */
+    @Query("SELECT la FROM LoginAttempt la WHERE " +
+           "(:username IS NULL OR la.username = :username) " +
+           "AND (:status IS NULL OR la.status = :status) " +
+           "AND (:ipAddress IS NULL OR la.ipAddress = :ipAddress) " +
+           "AND (CAST(:fromDate AS timestamp) IS NULL OR la.createdAt >= :fromDate) " +
+           "AND (CAST(:toDate AS timestamp) IS NULL OR la.createdAt <= :toDate) " +
+           "AND (CAST(:cursorCreatedAt AS timestamp) IS NULL OR la.createdAt < :cursorCreatedAt " +
+           "OR (la.createdAt = :cursorCreatedAt AND la.id < :cursorId)) " +
+           "ORDER BY la.createdAt DESC, la.id DESC")
+    List<LoginAttempt> findExportChunk(
+        @Param("username") String username,
+        @Param("status") LoginAttempt.LoginStatus status,
+        @Param("ipAddress") String ipAddress,
+        @Param("fromDate") LocalDateTime fromDate,
+        @Param("toDate") LocalDateTime toDate,
+        @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+        @Param("cursorId") Long cursorId,
+        Pageable pageable
+    );
+
     // Delete old login attempts (cleanup task)
     @Modifying
     @Query("DELETE FROM LoginAttempt la WHERE la.createdAt < :before")
@@ -85,6 +85,10 @@ public interface ScopeRepository extends JpaRepository<Scope, Long> {
         """)
     Set<Long> findManageableScopeIdsForUser(@Param("userId") Long userId);
 
+    /** Barcha scope ID'lari (entity yuklamasdan) — SUPER_ADMIN ko'rinishi IN ro'yxati uchun. */
+    @Query("SELECT s.id FROM Scope s")
+    Set<Long> findAllIds();
+
     /** EVENT scope'lardan endsAt o'tganlarini topish (avto-arxivlash uchun). */
     @Query("""
         SELECT s FROM Scope s
@@ -20,46 +20,52 @@ public interface StaffNotificationRepository extends JpaRepository<StaffNotifica
     // Ko'rinish qoidasi (V61 — cross-tenant izolyatsiya):
     // Bildirishnoma foydalanuvchiga ko'rinadi, agar:
     //   • unga shaxsan yo'llangan bo'lsa (user.id = :userId), YOKI
-    //   • u ko'ra oladigan scope'ga tegishli bo'lsa (scope.id IN :scopeIds), YOKI
+    //   • u ko'ra oladigan scope'ga tegishli bo'lsa (scope.id IN :scopeIds; SUPER_ADMIN
+    //     uchun :allScopes — har qanday scope'li yozuv, ID'lar ro'yxatisiz), YOKI
     //   • u haqiqiy tizim-global bo'lsa (user IS NULL AND scope IS NULL).
     // :scopeIds bo'sh bo'lmasligi kerak — chaqiruvchi -1L sentinel qo'shadi.
     // ------------------------------------------------------------------
 
     @Query("SELECT n FROM StaffNotification n WHERE n.user.id = :userId "
-         + "OR n.scope.id IN :scopeIds "
+         + "OR (:allScopes = true AND n.scope IS NOT NULL) OR n.scope.id IN :scopeIds "
          + "OR (n.user IS NULL AND n.scope IS NULL) "
          + "ORDER BY n.createdAt DESC")
     Page<StaffNotification> findVisible(@Param("userId") Long userId,
+                                        @Param("allScopes") boolean allScopes,
                                         @Param("scopeIds") Collection<Long> scopeIds,
                                         Pageable pageable);
 
     @Query("SELECT n FROM StaffNotification n WHERE (n.user.id = :userId "
-         + "OR n.scope.id IN :scopeIds "
+         + "OR (:allScopes = true AND n.scope IS NOT NULL) OR n.scope.id IN :scopeIds "
          + "OR (n.user IS NULL AND n.scope IS NULL)) "
          + "AND n.notificationType = :type ORDER BY n.createdAt DESC")
     Page<StaffNotification> findVisibleByType(@Param("userId") Long userId,
+                                              @Param("allScopes") boolean allScopes,
                                               @Param("scopeIds") Collection<Long> scopeIds,
                                               @Param("type") StaffNotificationType type,
                                               Pageable pageable);
 
     @Query("SELECT COUNT(n) FROM StaffNotification n WHERE (n.user.id = :userId "
-         + "OR n.scope.id IN :scopeIds "
+         + "OR (:allScopes = true AND n.scope IS NOT NULL) OR n.scope.id IN :scopeIds "
          + "OR (n.user IS NULL AND n.scope IS NULL)) AND n.isRead = false")
     long countUnreadVisible(@Param("userId") Long userId,
+                            @Param("allScopes") boolean allScopes,
                             @Param("scopeIds") Collection<Long> scopeIds);
 
     @Query("SELECT n FROM StaffNotification n WHERE (n.user.id = :userId "
-         + "OR n.scope.id IN :scopeIds "
+         + "OR (:allScopes = true AND n.scope IS NOT NULL) OR n.scope.id IN :scopeIds "
          + "OR (n.user IS NULL AND n.scope IS NULL)) AND n.isRead = false "
          + "ORDER BY n.createdAt DESC")
     List<StaffNotification> findUnreadVisible(@Param("userId") Long userId,
+                                              @Param("allScopes") boolean allScopes,
                                               @Param("scopeIds") Collection<Long> scopeIds);
 
     @Modifying
     @Query("UPDATE StaffNotification n SET n.isRead = true, n.readAt = CURRENT_TIMESTAMP "
-         + "WHERE (n.user.id = :userId OR n.scope.id IN :scopeIds "
+         + "WHERE (n.user.id = :userId OR (:allScopes = true AND n.scope IS NOT NULL) OR n.scope.id IN :scopeIds "
          + "OR (n.user IS NULL AND n.scope IS NULL)) AND n.isRead = false")
     int markAllVisibleAsRead(@Param("userId") Long userId,
+                             @Param("allScopes") boolean allScopes,
                              @Param("scopeIds") Collection<Long> scopeIds);
 
     /**
@@ -70,17 +76,19 @@ public interface StaffNotificationRepository extends JpaRepository<StaffNotifica
     @Modifying
     @Query("UPDATE StaffNotification n SET n.isRead = true, n.readAt = CURRENT_TIMESTAMP "
          + "WHERE n.id = :id AND n.isRead = false "
-         + "AND (n.user.id = :userId OR n.scope.id IN :scopeIds)")
+         + "AND (n.user.id = :userId OR (:allScopes = true AND n.scope IS NOT NULL) OR n.scope.id IN :scopeIds)")
     int markAsReadByIdForUser(@Param("id") Long id,
                               @Param("userId") Long userId,
+                              @Param("allScopes") boolean allScopes,
                               @Param("scopeIds") Collection<Long> scopeIds);
 
     /** O'chirish — mark bilan bir xil egalik/ko'rinish sharti (IDOR himoyasi). */
     @Modifying
     @Query("DELETE FROM StaffNotification n WHERE n.id = :id "
-         + "AND (n.user.id = :userId OR n.scope.id IN :scopeIds)")
+         + "AND (n.user.id = :userId OR (:allScopes = true AND n.scope IS NOT NULL) OR n.scope.id IN :scopeIds)")
     int deleteByIdForUser(@Param("id") Long id,
                           @Param("userId") Long userId,
+                          @Param("allScopes") boolean allScopes,
                           @Param("scopeIds") Collection<Long> scopeIds);
 
     /**
@@ -3,13 +3,16 @@ package uz.familyfinance.api.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import uz.familyfinance.api.entity.Category;
 import uz.familyfinance.api.entity.Transaction;
 import uz.familyfinance.api.enums.TransactionType;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
@@ -30,31 +33,29 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     // Kategoriya sharti split'larni ham qamraydi: split'li tranzaksiya categoryId=null
     // bilan saqlanadi, ulushlari transaction_splits'da — EXISTS'siz kategoriya filtri
     // bunday tranzaksiyalarni ko'rmay, jurnal jami kategoriya taqsimoti (split ulushlari
-    // bilan hisoblangan) jamiga mos kelmasdi. value va countQuery AYNAN bir xil bo'lishi
-    // shart, aks holda sahifalash totalElements bilan farq qiladi.
+    // bilan hisoblangan) jamiga mos kelmasdi. Offset sahifa (value/countQuery), keyset
+    // sahifa va alohida COUNT AYNAN bir xil filtrni ishlatishi shart — shu sabab
+    // bitta konstanta.
+    //
+    // Qidiruv (V65): LIKE '%...%' o'rniga tsvector hujjat (tavsif + tag'lar + hisob
+    // nomlari) ustida prefiks moslik, kirill/lotin normalizatsiyasi bilan. IN-subquery
+    // GIN indeksdan bir marta (hashed SubPlan) o'qiladi — qator boshiga skan yo'q.
+    String JOURNAL_FILTERS =
+            "(:scopeId IS NULL OR t.scope.id = :scopeId) AND " +
+            "(:type IS NULL OR t.type = :type) AND " +
+            "(:accountId IS NULL OR t.account.id = :accountId) AND " +
+            "(:categoryId IS NULL OR t.category.id = :categoryId OR EXISTS " +
+            "(SELECT 1 FROM TransactionSplit s WHERE s.transaction = t AND s.category.id = :categoryId)) AND " +
+            "(:memberId IS NULL OR t.familyMember.id = :memberId) AND " +
+            "(:status IS NULL OR t.status = :status) AND " +
+            "(CAST(:fromDate AS timestamp) IS NULL OR t.transactionDate >= :fromDate) AND " +
+            "(CAST(:toDate AS timestamp) IS NULL OR t.transactionDate <= :toDate) AND " +
+            "(CAST(:search AS string) IS NULL OR t.id IN (SELECT d.transactionId FROM TransactionSearchDocument d " +
+            "WHERE function('ff_search_matches', d.document, CAST(:search AS string)) = true))";
+
     @Query(
-            value = "SELECT t FROM Transaction t WHERE " +
-                    "(:scopeId IS NULL OR t.scope.id = :scopeId) AND " +
-                    "(:type IS NULL OR t.type = :type) AND " +
-                    "(:accountId IS NULL OR t.account.id = :accountId) AND " +
-                    "(:categoryId IS NULL OR t.category.id = :categoryId OR EXISTS " +
-                    "(SELECT 1 FROM TransactionSplit s WHERE s.transaction = t AND s.category.id = :categoryId)) AND " +
-                    "(:memberId IS NULL OR t.familyMember.id = :memberId) AND " +
-                    "(:status IS NULL OR t.status = :status) AND " +
-                    "(CAST(:fromDate AS timestamp) IS NULL OR t.transactionDate >= :fromDate) AND " +
-                    "(CAST(:toDate AS timestamp) IS NULL OR t.transactionDate <= :toDate) AND " +
-                    "(CAST(:search AS string) IS NULL OR LOWER(t.description) LIKE LOWER(CONCAT('%', CAST(:search AS string), '%')))",
-            countQuery = "SELECT COUNT(t) FROM Transaction t WHERE " +
-                    "(:scopeId IS NULL OR t.scope.id = :scopeId) AND " +
-                    "(:type IS NULL OR t.type = :type) AND " +
-                    "(:accountId IS NULL OR t.account.id = :accountId) AND " +
-                    "(:categoryId IS NULL OR t.category.id = :categoryId OR EXISTS " +
-                    "(SELECT 1 FROM TransactionSplit s WHERE s.transaction = t AND s.category.id = :categoryId)) AND " +
-                    "(:memberId IS NULL OR t.familyMember.id = :memberId) AND " +
-                    "(:status IS NULL OR t.status = :status) AND " +
-                    "(CAST(:fromDate AS timestamp) IS NULL OR t.transactionDate >= :fromDate) AND " +
-                    "(CAST(:toDate AS timestamp) IS NULL OR t.transactionDate <= :toDate) AND " +
-                    "(CAST(:search AS string) IS NULL OR LOWER(t.description) LIKE LOWER(CONCAT('%', CAST(:search AS string), '%')))"
+            value = "SELECT t FROM Transaction t WHERE " + JOURNAL_FILTERS,
+            countQuery = "SELECT COUNT(t) FROM Transaction t WHERE " + JOURNAL_FILTERS
     )
     Page<Transaction> findWithFilters(
             @Param("scopeId") Long scopeId,
@@ -68,6 +69,81 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
             @Param("search") String search,
             Pageable pageable);
 
+    /**
+     * Keyset sahifa — {@code (transactionDate, id)} bo'yicha kamayish tartibida, kursor
+     * kalitidan ESKIROQ qatorlar (kursor null — birinchi sahifa). OFFSET yo'q: chuqur
+     * sahifa ham V64 {@code (scope_id, transaction_date DESC, id DESC)} indeksidan
+     * kursor nuqtasidan boshlab o'qiladi. {@code pageable} faqat LIMIT uchun.
+     */
+    @Query("SELECT t FROM Transaction t WHERE " + JOURNAL_FILTERS + " AND "
+         + "(CAST(:cursorDate AS timestamp) IS NULL OR t.transactionDate < :cursorDate "
+         + "OR (t.transactionDate = :cursorDate AND t.id < :cursorId)) "
+         + "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<Transaction> findKeysetBefore(
+            @Param("scopeId") Long scopeId,
+            @Param("type") TransactionType type,
+            @Param("accountId") Long accountId,
+            @Param("categoryId") Long categoryId,
+            @Param("memberId") Long memberId,
+            @Param("fromDate") LocalDateTime from,
+            @Param("toDate") LocalDateTime to,
+            @Param("status") String status,
+            @Param("search") String search,
+            @Param("cursorDate") LocalDateTime cursorDate,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
+
+    /**
+     * Keyset sahifa orqaga — kursor kalitidan YANGIROQ qatorlar, o'sish tartibida
+     * (kursorga eng yaqinlari birinchi). Chaqiruvchi natijani teskari aylantiradi.
+     */
+    @Query("SELECT t FROM Transaction t WHERE " + JOURNAL_FILTERS + " AND "
+         + "(t.transactionDate > :cursorDate OR (t.transactionDate = :cursorDate AND t.id > :cursorId)) "
+         + "ORDER BY t.transactionDate ASC, t.id ASC")
+    List<Transaction> findKeysetAfter(
+            @Param("scopeId") Long scopeId,
+            @Param("type") TransactionType type,
+            @Param("accountId") Long accountId,
+            @Param("categoryId") Long categoryId,
+            @Param("memberId") Long memberId,
+            @Param("fromDate") LocalDateTime from,
+            @Param("toDate") LocalDateTime to,
+            @Param("status") String status,
+            @Param("search") String search,
+            @Param("cursorDate") LocalDateTime cursorDate,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
+
+    /**
+     * Relevantlik bo'yicha qidiruv (V65): {@code ts_rank} (tavsif > tag'lar > hisob nomlari
+     * og'irliklari) kamayishi, teng bo'lsa yangisi birinchi. Faqat id'lar — entity'lar
+     * chaqiruvchida bitta IN so'rov bilan yuklanadi. {@code allScopes} — SUPER_ADMIN
+     * (native query'da null Long bytea sifatida bind bo'ladi, shu sabab alohida bayroq).
+     */
+    @Query(value = "SELECT t.id FROM transactions t "
+         + "JOIN transaction_search_documents d ON d.transaction_id = t.id "
+         + "WHERE d.document @@ ff_search_query(:q) "
+         + "AND (:allScopes = TRUE OR t.scope_id = :scopeId) "
+         + "ORDER BY ts_rank(d.document, ff_search_query(:q)) DESC, t.transaction_date DESC, t.id DESC "
+         + "LIMIT :limit", nativeQuery = true)
+    List<Long> searchRankedIds(@Param("allScopes") boolean allScopes,
+                               @Param("scopeId") long scopeId,
+                               @Param("q") String q,
+                               @Param("limit") int limit);
+
+    /** Keyset jurnal uchun ixtiyoriy jami — faqat klient so'raganda. */
+    @Query("SELECT COUNT(t) FROM Transaction t WHERE " + JOURNAL_FILTERS)
+    long countWithFilters(
+            @Param("scopeId") Long scopeId,
+            @Param("type") TransactionType type,
+            @Param("accountId") Long accountId,
+            @Param("categoryId") Long categoryId,
+            @Param("memberId") Long memberId,
+            @Param("fromDate") LocalDateTime from,
+            @Param("toDate") LocalDateTime to,
+            @Param("status") String status,
+            @Param("search") String search);
+
     @Query("SELECT COALESCE(SUM(t.amount), 0) FROM Transaction t WHERE t.type = :type AND " +
            "t.status <> 'REVERSED' AND " +
            "t.transactionDate >= :from AND t.transactionDate <= :to")
@@ -121,6 +197,36 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
          + "ORDER BY t.transactionDate DESC")
     List<Transaction> findTop10ByScope(@Param("scopeId") Long scopeId, Pageable pageable);
 
+    /**
+     * Ro'yxat yig'ish uchun tag id'lari — [transactionId, tagId] juftliklari bitta so'rovda.
+     * Javobga faqat id'lar kerak: har qatorning tagEntities kolleksiyasini ochish shart emas.
+     */
+    @Query("SELECT t.id, g.id FROM Transaction t JOIN t.tagEntities g WHERE t.id IN :transactionIds")
+    List<Object[]> findTagIdsByTransactionIdIn(@Param("transactionIds") Collection<Long> transactionIds);
+
+    /**
+     * Bulk amallar uchun: tranzaksiyalar barcha hisoblari (asosiy, o'tkazma, debet/kredit) va
+     * ularning scope'lari bilan bitta so'rovda — ta'sirlangan scope'lar lazy yuklashsiz aniqlanadi.
+     */
+    @Query("SELECT t FROM Transaction t JOIN FETCH t.account a LEFT JOIN FETCH a.homeScope "
+            + "LEFT JOIN FETCH t.toAccount ta LEFT JOIN FETCH ta.homeScope "
+            + "LEFT JOIN FETCH t.debitAccount da LEFT JOIN FETCH da.homeScope "
+            + "LEFT JOIN FETCH t.creditAccount ca LEFT JOIN FETCH ca.homeScope "
+            + "WHERE t.id IN :ids")
+    List<Transaction> findWithAccountByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Bulk kategoriyalash — bitta UPDATE. Entity listener'lar ishlamaydi, shu sabab
+     * {@code updatedAt} va optimistik {@code version} shu yerda yangilanadi (parallel
+     * tahrir eskirgan versiya bilan kelsa, u odatdagidek rad etiladi).
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Transaction t SET t.category = :category, t.updatedAt = :now, "
+            + "t.version = COALESCE(t.version, 0) + 1 WHERE t.id IN :ids")
+    int updateCategoryByIdIn(@Param("ids") Collection<Long> ids,
+                             @Param("category") Category category,
+                             @Param("now") LocalDateTime now);
+
     /**
      * Recurring shablonlar — storno qilingan (status=REVERSED) shablon boshqa
      * generatsiya qilmasligi uchun status filtri majburiy (aks holda storno
@@ -130,12 +236,14 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
          + "AND t.status <> 'REVERSED' AND t.recurringPattern IS NOT NULL")
     List<Transaction> findRecurringTransactions();
 
-    @Query("SELECT COALESCE(SUM(t.amount), 0) FROM Transaction t WHERE t.type = 'EXPENSE' AND " +
-           "t.status <> 'REVERSED' AND " +
-           "t.familyMember.id = :memberId AND t.transactionDate >= :from AND t.transactionDate <= :to")
-    BigDecimal sumExpenseByMemberAndDateRange(@Param("memberId") Long memberId,
-                                               @Param("from") LocalDateTime from,
-                                               @Param("to") LocalDateTime to);
+    /**
+     * Berilgan hisoblarga tegadigan recurring shablonlar (prognoz uchun) — executor bilan bir
+     * xil to'plam ({@link #findRecurringTransactions}), hisob tomoni bo'yicha cheklangan.
+     */
+    @Query("SELECT t FROM Transaction t WHERE t.isRecurring = true "
+         + "AND t.status <> 'REVERSED' AND t.recurringPattern IS NOT NULL "
+         + "AND (t.account.id IN :accountIds OR t.toAccount.id IN :accountIds)")
+    List<Transaction> findRecurringTransactionsByAccountIds(@Param("accountIds") Collection<Long> accountIds);
 
     List<Transaction> findByOriginalTransactionId(Long originalTransactionId);
 
@@ -248,28 +356,27 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
 
     // ===== Member Financial Summary queries =====
 
-    @Query("SELECT COALESCE(SUM(t.amount), 0) FROM Transaction t WHERE t.type = 'INCOME' AND " +
-           "t.status <> 'REVERSED' AND " +
-           "t.familyMember.id = :memberId AND t.transactionDate >= :from AND t.transactionDate <= :to")
-    BigDecimal sumIncomeByMemberAndDateRange(@Param("memberId") Long memberId,
-                                              @Param("from") LocalDateTime from,
-                                              @Param("to") LocalDateTime to);
-
-    @Query("SELECT t.category.id, COALESCE(SUM(t.amount), 0) FROM Transaction t " +
-           "WHERE t.type = 'EXPENSE' AND t.status <> 'REVERSED' AND t.familyMember.id = :memberId " +
-           "AND t.transactionDate >= :from AND t.transactionDate <= :to " +
-           "GROUP BY t.category.id")
-    List<Object[]> sumExpenseByMemberGroupedByCategory(@Param("memberId") Long memberId,
-                                                        @Param("from") LocalDateTime from,
-                                                        @Param("to") LocalDateTime to);
-
-    @Query("SELECT t.category.id, COALESCE(SUM(t.amount), 0) FROM Transaction t " +
-           "WHERE t.type = 'INCOME' AND t.status <> 'REVERSED' AND t.familyMember.id = :memberId " +
-           "AND t.transactionDate >= :from AND t.transactionDate <= :to " +
-           "GROUP BY t.category.id")
-    List<Object[]> sumIncomeByMemberGroupedByCategory(@Param("memberId") Long memberId,
-                                                       @Param("from") LocalDateTime from,
-                                                       @Param("to") LocalDateTime to);
+    /**
+     * A'zo × tur × kategoriya kesimidagi INCOME/EXPENSE jami — barcha a'zolar uchun bitta so'rovda.
+     * Split'li tranzaksiya faqat ulushlari bo'yicha (o'z kategoriyasida) hisoblanadi, storno
+     * chiqariladi. Tur jamilari shu qatorlar yig'indisi (ulushlar summasi = tranzaksiya summasi).
+     * Qaytaradi: [memberId, type (String), categoryId (null — kategoriyasiz), summa].
+     */
+    @Query(value = "SELECT e.member_id, e.type, e.category_id, COALESCE(SUM(e.amount), 0) FROM ("
+            + " SELECT t.family_member_id AS member_id, t.type, t.category_id, t.amount FROM transactions t"
+            + " WHERE t.family_member_id IN (:memberIds) AND t.type IN ('INCOME', 'EXPENSE')"
+            + " AND t.status <> 'REVERSED' AND t.transaction_date >= :from AND t.transaction_date <= :to"
+            + " AND NOT EXISTS (SELECT 1 FROM transaction_splits s WHERE s.transaction_id = t.id)"
+            + " UNION ALL"
+            + " SELECT t.family_member_id, t.type, s.category_id, s.amount"
+            + " FROM transaction_splits s JOIN transactions t ON t.id = s.transaction_id"
+            + " WHERE t.family_member_id IN (:memberIds) AND t.type IN ('INCOME', 'EXPENSE')"
+            + " AND t.status <> 'REVERSED' AND t.transaction_date >= :from AND t.transaction_date <= :to"
+            + ") e GROUP BY e.member_id, e.type, e.category_id",
+            nativeQuery = true)
+    List<Object[]> sumByMemberIdsGroupedByTypeAndCategory(@Param("memberIds") Collection<Long> memberIds,
+                                                          @Param("from") LocalDateTime from,
+                                                          @Param("to") LocalDateTime to);
 
     @Query("SELECT t.type, extract(month from t.transactionDate), extract(year from t.transactionDate), COALESCE(SUM(t.amount), 0) " +
            "FROM Transaction t WHERE t.familyMember.id = :memberId " +
@@ -8,12 +8,21 @@ import uz.familyfinance.api.entity.TransactionSplit;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface TransactionSplitRepository extends JpaRepository<TransactionSplit, Long> {
 
     List<TransactionSplit> findByTransactionId(Long transactionId);
 
+    /**
+     * Ro'yxat yig'ish uchun: sahifadagi barcha tranzaksiyalarning split'lari kategoriyasi
+     * bilan bitta so'rovda (har qator uchun alohida findByTransactionId o'rniga).
+     */
+    @Query("SELECT s FROM TransactionSplit s JOIN FETCH s.category " +
+            "WHERE s.transaction.id IN :transactionIds ORDER BY s.id")
+    List<TransactionSplit> findWithCategoryByTransactionIdIn(@Param("transactionIds") Collection<Long> transactionIds);
+
     @Modifying
     @Query("DELETE FROM TransactionSplit s WHERE s.transaction.id = :transactionId")
     void deleteByTransactionId(@Param("transactionId") Long transactionId);
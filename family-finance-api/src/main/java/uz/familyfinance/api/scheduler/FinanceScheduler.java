@@ -9,8 +9,10 @@ import uz.familyfinance.api.enums.DebtStatus;
 import uz.familyfinance.api.enums.StaffNotificationType;
 import uz.familyfinance.api.repository.DebtRepository;
 import uz.familyfinance.api.service.AuditLogService;
+import uz.familyfinance.api.service.IdempotencyService;
 import uz.familyfinance.api.service.RecurringTransactionService;
 import uz.familyfinance.api.service.StaffNotificationService;
+import uz.familyfinance.api.service.TransitLedgerService;
 
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
@@ -25,6 +27,8 @@ public class FinanceScheduler {
     private final StaffNotificationService notificationService;
     private final RecurringTransactionService recurringTransactionService;
     private final AuditLogService auditLogService;
+    private final TransitLedgerService transitLedgerService;
+    private final IdempotencyService idempotencyService;
 
     @Scheduled(cron = "0 0 9 * * *")
     public void checkOverdueDebts() {
@@ -88,4 +92,33 @@ public class FinanceScheduler {
         log.info("Audit log retention cleanup boshlanmoqda...");
         auditLogService.cleanupOldLogs();
     }
+
+    /**
+     * Har kuni 03:15 da tranzit shard balanslarini root'larga yig'adi (V62). Mantiqiy
+     * balans o'zgarmaydi; har root alohida tranzaksiyada — bittasining xatosi qolganini
+     * to'xtatmaydi.
+     */
+    @Scheduled(cron = "0 15 3 * * *")
+    public void compactTransitLedger() {
+        log.info("Tranzit ledger compaction boshlanmoqda...");
+        for (Long rootId : transitLedgerService.findRootIds()) {
+            try {
+                transitLedgerService.compactRoot(rootId);
+            } catch (Exception e) {
+                log.error("Tranzit root #{} compaction xatosi", rootId, e);
+            }
+        }
+    }
+
+    /**
+     * Har soatda muddati o'tgan Idempotency-Key yozuvlarini o'chiradi (V67) — jadval
+     * faqat qayta urinish oynasidagi kalitlarni saqlaydi.
+     */
+    @Scheduled(cron = "0 20 * * * *")
+    public void purgeExpiredIdempotencyKeys() {
+        int deleted = idempotencyService.purgeExpired();
+        if (deleted > 0) {
+            log.info("Idempotency kalitlari tozalandi: {} ta", deleted);
+        }
+    }
 }
@@ -1,7 +1,6 @@
 package uz.familyfinance.api.security;
 
 import lombok.Getter;
-import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -29,9 +28,11 @@ public class CustomUserDetails implements UserDetails {
      *
      * <p>Mutable — JwtAuthenticationFilter har so'rovda yangilaydi.</p>
      */
-    @Setter
     private Long activeScopeId;
 
+    /** So'rov davomidagi scope aniqlash natijalari — qarang {@link ScopeResolution}. */
+    private final ScopeResolution scopeResolution = new ScopeResolution();
+
     public CustomUserDetails(User user) {
         this.user = user;
         this.permissions = new HashSet<>();
@@ -62,6 +63,26 @@ public class CustomUserDetails implements UserDetails {
                 user.getUsername(), roleCodes, permissions.size());
     }
 
+    private CustomUserDetails(User user, Set<String> permissions, Set<String> roleCodes) {
+        this.user = user;
+        this.permissions = permissions;
+        this.roleCodes = roleCodes;
+    }
+
+    /**
+     * Rollar va permission'lar o'zgarmas to'plam bo'lgan yangi nusxa, aktiv scope'siz —
+     * {@link PrincipalCache} snapshot'idan har so'rovga alohida obyekt beriladi.
+     */
+    public CustomUserDetails copy() {
+        return new CustomUserDetails(user, Set.copyOf(permissions), Set.copyOf(roleCodes));
+    }
+
+    /** Aktiv scope almashsa unga bog'liq so'rov natijalari ham tozalanadi. */
+    public void setActiveScopeId(Long activeScopeId) {
+        this.activeScopeId = activeScopeId;
+        scopeResolution.reset();
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         Set<GrantedAuthority> authorities = new HashSet<>();
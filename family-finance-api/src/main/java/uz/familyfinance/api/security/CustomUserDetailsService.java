@@ -14,6 +14,7 @@ import uz.familyfinance.api.repository.UserRepository;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
     @Override
     @Transactional(readOnly = true)
@@ -27,6 +28,19 @@ public class CustomUserDetailsService implements UserDetailsService {
         return new CustomUserDetails(user);
     }
 
+    /**
+     * JWT bilan kelgan so'rov uchun foydalanuvchi — {@link PrincipalCache} dan (odatda bazasiz).
+     * Login (parol tekshiruvi) esa doim {@link #loadUserByUsername} orqali bazadan o'qiydi.
+     * Tranzaksiya faqat keshsiz holatda, repository chaqiruvida ochiladi.
+     */
+    public CustomUserDetails loadAuthenticatedUser(String username) {
+        return principalCache.get(username, () -> new CustomUserDetails(
+                userRepository.findByUsernameWithRolesAndPermissions(username)
+                        .orElseThrow(() -> new UsernameNotFoundException(
+                                "Foydalanuvchi topilmadi: " + username
+                        ))));
+    }
+
     @Transactional(readOnly = true)
     public UserDetails loadUserById(Long id) {
         // Fetch user with roles and permissions eagerly loaded
@@ -0,0 +1,137 @@
+package uz.familyfinance.api.security;
+
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import tools.jackson.databind.json.JsonMapper;
+import uz.familyfinance.api.exception.BadRequestException;
+import uz.familyfinance.api.exception.ConflictException;
+import uz.familyfinance.api.service.IdempotencyService;
+import uz.familyfinance.api.service.IdempotencyService.StoredResponse;
+import uz.familyfinance.api.service.ScopeContextService;
+
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * {@link Idempotent} endpoint'lar uchun {@code Idempotency-Key} ishlovi.
+ *
+ * <p>Takroriy kalit saqlangan javobni qaytaradi ({@code Idempotent-Replayed: true}) —
+ * controller va servis chaqirilmaydi. Kalit foydalanuvchi doirasida; bir kalit boshqa
+ * endpoint yoki boshqa so'rov tanasi bilan kelsa 400, birinchi urinish hali bajarilayotgan
+ * bo'lsa 409. Faqat 2xx javob saqlanadi — xatodan keyin shu kalit bilan qayta urinish
+ * odatdagidek bajariladi.</p>
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyAspect {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyService idempotencyService;
+    private final ScopeContextService scopeContextService;
+    private final JsonMapper jsonMapper;
+
+    @Around("@annotation(uz.familyfinance.api.security.Idempotent)")
+    public Object handle(ProceedingJoinPoint joinPoint) throws Throwable {
+        String key = currentKey();
+        Long userId = scopeContextService.getCurrentUserId();
+        if (key == null || userId == null) {
+            return joinPoint.proceed();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException(HEADER + " " + MAX_KEY_LENGTH + " belgidan oshmasligi kerak");
+        }
+
+        String requestHash = requestHash(joinPoint);
+        Optional<StoredResponse> stored = idempotencyService.findCompleted(userId, key);
+        if (stored.isPresent()) {
+            return replay(stored.get(), requestHash);
+        }
+        if (!idempotencyService.tryClaim(userId, key, requestHash)) {
+            // Band: parallel urinish hali ishlayapti yoki hozirgina yakunlandi
+            return idempotencyService.findCompleted(userId, key)
+                    .map(s -> replay(s, requestHash))
+                    .orElseThrow(() -> new ConflictException("Shu " + HEADER + " bilan so'rov hali bajarilmoqda"));
+        }
+
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            idempotencyService.release(userId, key);
+            throw e;
+        }
+
+        if (result instanceof ResponseEntity<?> response && response.getStatusCode().is2xxSuccessful()) {
+            try {
+                idempotencyService.complete(userId, key, requestHash, response.getStatusCode().value(),
+                        jsonMapper.writeValueAsString(response.getBody()));
+            } catch (RuntimeException e) {
+                // Yozuv allaqachon commit bo'lgan — javobni qaytaramiz, faqat replay saqlanmaydi
+                log.warn("Idempotency javobi saqlanmadi (user={}, key={}): {}", userId, key, e.getMessage());
+                idempotencyService.release(userId, key);
+            }
+        } else {
+            idempotencyService.release(userId, key);
+        }
+        return result;
+    }
+
+    private ResponseEntity<String> replay(StoredResponse stored, String requestHash) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new BadRequestException(HEADER + " boshqa so'rov uchun ishlatilgan");
+        }
+        log.debug("Idempotency replay: status={}", stored.status());
+        return ResponseEntity.status(stored.status())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(REPLAYED_HEADER, "true")
+                .body(stored.body());
+    }
+
+    private static String currentKey() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return null;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        String key = request.getHeader(HEADER);
+        return key == null || key.isBlank() ? null : key.trim();
+    }
+
+    /** Endpoint (metod) + argumentlar (path o'zgaruvchilari, so'rov tanasi) xeshi. */
+    private String requestHash(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        List<Object> args = Arrays.stream(joinPoint.getArgs())
+                .filter(a -> !(a instanceof InputStream) && !(a instanceof ServletRequest))
+                .toList();
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(method.toGenericString().getBytes(StandardCharsets.UTF_8));
+            digest.update(jsonMapper.writeValueAsBytes(args));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 mavjud emas", e);
+        }
+    }
+}
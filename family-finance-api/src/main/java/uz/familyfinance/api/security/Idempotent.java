@@ -0,0 +1,25 @@
+package uz.familyfinance.api.security;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Yozish endpoint'i {@code Idempotency-Key} sarlavhasini qo'llab-quvvatlaydi
+ * ({@link IdempotencyAspect}). Sarlavha bo'lmasa endpoint odatdagidek ishlaydi.
+ *
+ * Usage:
+ * <pre>
+ * {@literal @}PostMapping
+ * {@literal @}RequiresPermission(PermissionCode.TRANSACTIONS_CREATE)
+ * {@literal @}Idempotent
+ * public ResponseEntity<ApiResponse<TransactionResponse>> create(...) { ... }
+ * </pre>
+ *
+ * Metod {@code ResponseEntity} qaytarishi kerak — faqat 2xx javoblar saqlanadi.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Idempotent {
+}
@@ -17,6 +17,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import uz.familyfinance.api.service.SessionService;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
@@ -42,8 +43,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     ) throws ServletException, IOException {
         try {
             String jwt = getJwtFromRequest(request);
+            // Imzo va claim'lar bir marta (takroriy token — keshdan); quyida faqat shu obyekt o'qiladi
+            Optional<VerifiedToken> verified = StringUtils.hasText(jwt) ? tokenProvider.verify(jwt) : Optional.empty();
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
+            if (verified.isPresent()) {
+                VerifiedToken token = verified.get();
                 // Check if session is still active in database
                 if (!sessionService.isSessionValid(jwt)) {
                     log.warn("JWT is valid but session has been revoked");
@@ -51,9 +55,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     return;
                 }
 
-                String username = tokenProvider.getUsernameFromToken(jwt);
+                String username = token.subject();
 
-                UserDetails userDetails = staffUserDetailsService.loadUserByUsername(username);
+                UserDetails userDetails = staffUserDetailsService.loadAuthenticatedUser(username);
 
                 // Defense-in-depth: o'chirilgan (active=false) foydalanuvchi so'rovi rad
                 // etilsin. Odatda deactivate sessiyani ham bekor qiladi (yuqoridagi
@@ -68,7 +72,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 // Phase 2: JWT'dan active scope ID ni olamiz va userDetails ga o'rnatamiz.
                 // Bu ScopeContextService.getActiveScope() uchun ishlatiladi.
                 if (userDetails instanceof CustomUserDetails custom) {
-                    Long activeScopeId = tokenProvider.getActiveScopeIdFromToken(jwt);
+                    Long activeScopeId = token.activeScopeId();
                     if (activeScopeId == null && custom.getUser().getPrimaryScope() != null) {
                         // Legacy tokenlar uchun: User.primaryScope ga fallback
                         activeScopeId = custom.getUser().getPrimaryScope().getId();
@@ -15,6 +15,7 @@ import org.springframework.util.StringUtils;
 import uz.familyfinance.api.service.SessionService;
 
 import java.util.List;
+import java.util.Optional;
 
 @Component
 @Slf4j
@@ -45,15 +46,15 @@ public class JwtChannelInterceptor implements ChannelInterceptor {
                 // Imzo/muddatdan tashqari: (1) sessiya DB'da hali faolmi (logout/revoke
                 // bo'lgan token WS ochmasin — HTTP filtr bilan bir xil qoida), (2) bu
                 // access token bo'lsin (refresh token WS credential sifatida qabul
-                // qilinmasin). getTokenUse validateToken'dan KEYIN (&&-qisqa tutashuv)
-                // chaqiriladi — noto'g'ri token'da getClaims xato tashlamasligi uchun.
+                // qilinmasin). Claim'lar bir marta tekshiriladi (verify).
                 // Legacy (tokenUse null) tokenlar deploy-xavfsiz o'tadi.
-                if (jwtTokenProvider.validateToken(token)
+                Optional<VerifiedToken> verified = jwtTokenProvider.verify(token);
+                if (verified.isPresent()
                         && sessionService.isSessionValid(token)
-                        && !JwtTokenProvider.TOKEN_USE_REFRESH.equals(jwtTokenProvider.getTokenUse(token))) {
-                    String username = jwtTokenProvider.getUsernameFromToken(token);
-                    String tokenType = jwtTokenProvider.getTokenType(token);
-                    Long userId = jwtTokenProvider.getUserIdFromToken(token);
+                        && !verified.get().isRefresh()) {
+                    String username = verified.get().subject();
+                    String tokenType = verified.get().type();
+                    Long userId = verified.get().userId();
 
                     // Principal nomi convertAndSendToUser uchun userId asosida (eski tokenlarda username)
                     String principalName = userId != null ? userId.toString() : username;
@@ -11,7 +11,12 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 @Slf4j
@@ -26,8 +31,19 @@ public class JwtTokenProvider {
     @Value("${jwt.refresh-expiration}")
     private long refreshExpiration;
 
+    /** Tekshirilgan token'lar keshi chegarasi; 0 — keshlanmaydi. */
+    @Value("${app.jwt.verified-cache.max-entries:10000}")
+    private int verifiedCacheMaxEntries = 10_000;
+
     private SecretKey key;
 
+    /**
+     * SHA-256(token) → tekshirilgan claim'lar. Yozuv token {@code exp}'igacha amal qiladi —
+     * shu token bilan takroriy so'rov HMAC tekshiruvi va JSON dekodlashsiz o'tadi. Xom token
+     * xotirada saqlanmaydi. Sessiya bekor qilinishi bu keshga bog'liq emas (SessionService).
+     */
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+
     // C5: token turini ajratish — access token'ni refresh endpoint'da ishlatishni to'sish uchun.
     public static final String TOKEN_USE_ACCESS = "ACCESS";
     public static final String TOKEN_USE_REFRESH = "REFRESH";
@@ -231,21 +247,69 @@ public class JwtTokenProvider {
     }
 
     public boolean validateToken(String token) {
+        return verify(token).isPresent();
+    }
+
+    /**
+     * Token'ni bir marta tekshiradi va claim'larini qaytaradi (imzo yoki muddat yaroqsiz —
+     * bo'sh). Bir xil token keyingi chaqiruvlarda keshdan, faqat muddati qayta tekshiriladi.
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        String cacheKey = sha256(token);
+        VerifiedToken cached = verifiedTokens.get(cacheKey);
+        if (cached != null) {
+            if (cached.isExpired(Instant.now())) {
+                verifiedTokens.remove(cacheKey, cached);
+                log.error("Expired JWT token");
+                return Optional.empty();
+            }
+            return Optional.of(cached);
+        }
+
+        VerifiedToken verified;
         try {
-            Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
+            verified = VerifiedToken.from(getClaims(token));
         } catch (MalformedJwtException ex) {
             log.error("Invalid JWT token");
+            return Optional.empty();
         } catch (ExpiredJwtException ex) {
             log.error("Expired JWT token");
+            return Optional.empty();
         } catch (UnsupportedJwtException ex) {
             log.error("Unsupported JWT token");
+            return Optional.empty();
         } catch (IllegalArgumentException ex) {
             log.error("JWT claims string is empty");
+            return Optional.empty();
+        } catch (JwtException ex) {
+            log.error("Invalid JWT signature");
+            return Optional.empty();
+        }
+        if (verified.expiresAt() != null && hasRoom()) {
+            verifiedTokens.put(cacheKey, verified);
+        }
+        return Optional.of(verified);
+    }
+
+    /** Chegara to'lsa avval muddati o'tganlar tashlanadi; baribir to'la bo'lsa keshlanmaydi. */
+    private boolean hasRoom() {
+        if (verifiedTokens.size() < verifiedCacheMaxEntries) {
+            return true;
+        }
+        Instant now = Instant.now();
+        verifiedTokens.values().removeIf(t -> t.isExpired(now));
+        return verifiedTokens.size() < verifiedCacheMaxEntries;
+    }
+
+    private static String sha256(String token) {
+        try {
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 mavjud emas", e);
         }
-        return false;
     }
 }
@@ -0,0 +1,192 @@
+package uz.familyfinance.api.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+import uz.familyfinance.api.dto.response.ApiResponse;
+import uz.familyfinance.api.dto.response.PartialResponse;
+import uz.familyfinance.api.repository.AccountRepository;
+import uz.familyfinance.api.service.LedgerVersionService;
+import uz.familyfinance.api.service.ScopeContextService;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HexFormat;
+import java.util.Map;
+
+/**
+ * {@link LedgerVersioned} endpoint'lar uchun ETag / {@code If-None-Match}.
+ *
+ * <p>ETag agregat so'rovlaridan OLDIN, xotiradagi daftar versiyasidan hisoblanadi (hisob
+ * endpoint'larida qo'shimcha bitta PK so'rovi — egasi scope'i):
+ * {@code epoch | foydalanuvchi | scope | versiya | bugungi sana | eskirish oynasi | URL}
+ * xeshi. Mos kelsa 304 qaytadi — controller, servis va serializatsiya bajarilmaydi.
+ * Versiya so'rovlardan oldin o'qiladi: hisoblash davomida commit bo'lsa, javob eski ETag
+ * bilan chiqadi va keyingi so'rov baribir yangilanadi (yangi ma'lumot eski ETag ostida
+ * qolmaydi).</p>
+ *
+ * <ul>
+ *   <li>SUPER_ADMIN — global ko'rinish, istalgan scope o'zgarishi versiyasi;</li>
+ *   <li>bitta hisob endpoint'lari ({@link LedgerVersioned#accountIdVariable()}) — hisob
+ *       egasi scope'i versiyasi;</li>
+ *   <li>sana — "bugun"ga bog'liq javoblar (dashboard, faol byudjetlar) kun almashganda;</li>
+ *   <li>{@code max-staleness} oynasi — event e'lon qilinmaydigan o'zgarishlar (hisobga
+ *       kirish huquqi va h.k.) uchun xavfsizlik to'ri, dashboard keshi TTL'i kabi.</li>
+ * </ul>
+ *
+ * <p>Ruxsat tekshiruvi ({@link PermissionAspect}) har doim oldin bajariladi — 304 ham
+ * faqat ruxsati bor foydalanuvchiga. Bo'limlari yetishmaydigan {@link PartialResponse} ETag
+ * olmaydi ({@code Cache-Control: no-store}). Metrika: {@code ledger.etag}
+ * (result=not_modified|modified|partial).</p>
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@RequiredArgsConstructor
+@Slf4j
+public class LedgerETagAspect {
+
+    private final LedgerVersionService ledgerVersions;
+    private final ScopeContextService scopeContextService;
+    private final AccountRepository accountRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.etag.max-staleness:10m}")
+    private Duration maxStaleness;
+
+    @Around("@annotation(versioned)")
+    public Object handle(ProceedingJoinPoint joinPoint, LedgerVersioned versioned) throws Throwable {
+        HttpServletRequest request = currentRequest();
+        if (request == null || !HttpMethod.GET.matches(request.getMethod())) {
+            return joinPoint.proceed();
+        }
+
+        String etag = etag(request, versioned);
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            counter("not_modified").increment();
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .build();
+        }
+        counter("modified").increment();
+
+        Object result = joinPoint.proceed();
+        if (result instanceof ResponseEntity<?> response && response.getStatusCode().is2xxSuccessful()
+                && response.getHeaders().getETag() == null) {
+            if (isPartial(response.getBody())) {
+                // Qisman javob ETag'siz: aks holda keyingi so'rov 304 olib, uni qotirib qo'yadi
+                counter("partial").increment();
+                return ResponseEntity.status(response.getStatusCode())
+                        .headers(response.getHeaders())
+                        .cacheControl(CacheControl.noStore())
+                        .body(response.getBody());
+            }
+            return ResponseEntity.status(response.getStatusCode())
+                    .headers(response.getHeaders())
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .body(response.getBody());
+        }
+        return result;
+    }
+
+    /** Tana (yoki {@link ApiResponse} ichidagi ma'lumot) bo'limlari yetishmaydigan {@link PartialResponse}. */
+    static boolean isPartial(Object body) {
+        Object data = body instanceof ApiResponse<?> api ? api.getData() : body;
+        return data instanceof PartialResponse partial
+                && partial.getMissingSections() != null && !partial.getMissingSections().isEmpty();
+    }
+
+    String etag(HttpServletRequest request, LedgerVersioned versioned) {
+        boolean superAdmin = scopeContextService.isSuperAdmin();
+        Long scopeId = superAdmin ? null : scopeContextService.getActiveScopeIdOrNull();
+        Long versionScopeId = superAdmin || versioned.accountIdVariable().isEmpty()
+                ? scopeId
+                : accountHomeScopeId(request, versioned.accountIdVariable());
+        String query = request.getQueryString();
+        String source = String.join("|",
+                ledgerVersions.epoch(),
+                String.valueOf(scopeContextService.getCurrentUserId()),
+                String.valueOf(scopeId),
+                versionScopeId + ":" + ledgerVersions.current(versionScopeId),
+                LocalDate.now().toString(),
+                String.valueOf(System.currentTimeMillis() / Math.max(1, maxStaleness.toMillis())),
+                request.getRequestURI() + (query != null ? "?" + query : ""));
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(source.getBytes(StandardCharsets.UTF_8));
+            // Kuchsiz ETag — bir xil versiyadagi javoblar mazmunan teng, baytma-bayt emas
+            return "W/\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 mavjud emas", e);
+        }
+    }
+
+    /**
+     * Hisob endpoint'i versiyasi manbai — hisob egasi scope'i (aktiv bo'lmagan ko'rinadigan
+     * scope ham bo'lishi mumkin). Egasi scope'i yo'q (tranzit) yoki topilmagan hisob —
+     * {@code null}, ya'ni istalgan o'zgarishda oshadigan versiya.
+     */
+    private Long accountHomeScopeId(HttpServletRequest request, String variable) {
+        if (!(request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE) instanceof Map<?, ?> variables)
+                || !(variables.get(variable) instanceof String raw)) {
+            return null;
+        }
+        try {
+            return accountRepository.findHomeScopeIdById(Long.valueOf(raw)).orElse(null);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /** {@code If-None-Match} — kuchsiz taqqoslash (RFC 9110): {@code W/} prefiksi e'tiborsiz, {@code *} mos. */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        String opaque = stripWeak(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || stripWeak(tag).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    private static HttpServletRequest currentRequest() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                ? attributes.getRequest() : null;
+    }
+
+    private Counter counter(String result) {
+        return Counter.builder("ledger.etag")
+                .description("Daftar versiyasi bo'yicha conditional GET")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,39 @@
+package uz.familyfinance.api.security;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * O'qish endpoint'i daftar versiyasi bo'yicha ETag beradi va {@code If-None-Match} mos
+ * kelsa 304 qaytaradi ({@link LedgerETagAspect}) — controller va agregat so'rovlari
+ * bajarilmaydi.
+ *
+ * Usage:
+ * <pre>
+ * {@literal @}GetMapping("/stats")
+ * {@literal @}RequiresPermission(PermissionCode.DASHBOARD_VIEW)
+ * {@literal @}LedgerVersioned
+ * public ResponseEntity<ApiResponse<DashboardStatsResponse>> getStats() { ... }
+ * </pre>
+ *
+ * Faqat GET; metod {@code ResponseEntity} qaytarishi kerak. Javob faqat daftar
+ * ({@code ScopeDataChangedEvent} e'lon qilinadigan yozuvlar), foydalanuvchi, aktiv scope,
+ * URL va sana'ga bog'liq bo'lishi kerak.
+ *
+ * Bitta hisob bo'yicha endpoint'lar (hisob istalgan ko'rinadigan scope'da bo'lishi mumkin)
+ * {@link #accountIdVariable()} ni ko'rsatadi — versiya aktiv scope'dan emas, hisobning
+ * egasi scope'idan olinadi.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface LedgerVersioned {
+
+    /**
+     * Hisob ID'si turgan path o'zgaruvchisi nomi (masalan {@code "id"}); bo'sh — aktiv scope
+     * versiyasi. Hisobga tegadigan har yozuv (boshqa scope tranzaksiyasi ham) hisob egasi
+     * scope'i uchun event e'lon qiladi, shuning uchun shu versiya yetarli.
+     */
+    String accountIdVariable() default "";
+}
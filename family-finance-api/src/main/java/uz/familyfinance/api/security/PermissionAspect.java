@@ -9,6 +9,8 @@ import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import uz.familyfinance.api.enums.PermissionCode;
 import uz.familyfinance.api.service.PermissionService;
@@ -24,6 +26,8 @@ import java.util.stream.Collectors;
  */
 @Aspect
 @Component
+// Ruxsat tekshiruvi boshqa aspect'lardan (idempotency replay, ETag 304) oldin
+@Order(Ordered.HIGHEST_PRECEDENCE)
 @RequiredArgsConstructor
 @Slf4j
 public class PermissionAspect {
@@ -0,0 +1,113 @@
+package uz.familyfinance.api.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Autentifikatsiyalangan foydalanuvchi snapshot'lari keshi (username → user bayroqlari,
+ * rollar, permission'lar, primary scope). JWT filtri har so'rovda bazaga bormaydi.
+ *
+ * <p>Snapshot o'zgarmas shablon: har so'rov {@link CustomUserDetails#copy()} bilan o'z
+ * nusxasini oladi (aktiv scope so'rovga xos). Tozalash:</p>
+ * <ul>
+ *   <li>foydalanuvchi qatori o'zgarsa/o'chirilsa (deactivate, parol, username, oila, scope) —
+ *       {@link PrincipalCacheListener};</li>
+ *   <li>rol biriktirish/olib tashlash va rol huquqlari tahriri —
+ *       {@code NotificationDispatcher.notifyPermissionsUpdated}.</li>
+ * </ul>
+ * <p>Tozalash darhol va commit'dan keyin yana bajariladi; yuklash paytida tozalash ro'y
+ * bersa (avlod o'zgarsa) natija keshga qo'yilmaydi. TTL — xavfsizlik to'ri.</p>
+ *
+ * <p>Metrika: {@code security.principal.cache} (result=hit|miss).</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class PrincipalCache {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.security.principal-cache.ttl:5m}")
+    private Duration ttl = Duration.ofMinutes(5);
+
+    @Value("${app.security.principal-cache.max-entries:10000}")
+    private int maxEntries = 10_000;
+
+    private record Entry(CustomUserDetails snapshot, long loadedAtNanos) {}
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    /** Keshdagi snapshot'ning yangi nusxasi yoki {@code loader} natijasi (nusxasi keshga). */
+    public CustomUserDetails get(String username, Supplier<CustomUserDetails> loader) {
+        long now = System.nanoTime();
+        Entry entry = entries.get(username);
+        if (entry != null && now - entry.loadedAtNanos() < ttl.toNanos()) {
+            counter("hit").increment();
+            return entry.snapshot().copy();
+        }
+        counter("miss").increment();
+
+        long loadGeneration = generation.get();
+        CustomUserDetails loaded = loader.get();
+        if (!ttl.isZero() && !ttl.isNegative() && loadGeneration == generation.get() && hasRoom()) {
+            entries.put(username, new Entry(loaded.copy(), now));
+            if (loadGeneration != generation.get()) {
+                entries.remove(username);
+            }
+        }
+        return loaded;
+    }
+
+    public void evictUser(Long userId) {
+        evict(snapshot -> userId.equals(snapshot.getId()));
+    }
+
+    public void evictAll() {
+        evict(snapshot -> true);
+    }
+
+    private void evict(Predicate<CustomUserDetails> matches) {
+        generation.incrementAndGet();
+        entries.values().removeIf(e -> matches.test(e.snapshot()));
+        // Commit'gacha parallel so'rov eski qatorni o'qib keshga qaytarishi mumkin
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    generation.incrementAndGet();
+                    entries.values().removeIf(e -> matches.test(e.snapshot()));
+                }
+            });
+        }
+    }
+
+    /** Chegara to'lsa avval muddati o'tganlar tashlanadi; baribir to'la bo'lsa keshlanmaydi. */
+    private boolean hasRoom() {
+        if (entries.size() < maxEntries) {
+            return true;
+        }
+        long now = System.nanoTime();
+        long ttlNanos = ttl.toNanos();
+        entries.values().removeIf(e -> now - e.loadedAtNanos() >= ttlNanos);
+        return entries.size() < maxEntries;
+    }
+
+    private Counter counter(String result) {
+        return Counter.builder("security.principal.cache")
+                .description("Autentifikatsiya snapshot keshi")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,33 @@
+package uz.familyfinance.api.security;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import uz.familyfinance.api.entity.User;
+
+/**
+ * {@link User} qatori yangilansa yoki o'chirilsa uning {@link PrincipalCache} snapshot'ini
+ * tozalaydi (deactivate, parol, username, oila/primary scope o'zgarishi — hammasi shu yerdan).
+ *
+ * <p>JPA listener'lar Spring tomonidan boshqarilmaydi — bean static maydonga init
+ * metodi orqali beriladi (qarang {@code AuditEntityListener}).</p>
+ */
+@Component
+public class PrincipalCacheListener {
+
+    private static PrincipalCache principalCache;
+
+    @Autowired
+    public void init(PrincipalCache cache) {
+        PrincipalCacheListener.principalCache = cache;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void onUserChanged(User user) {
+        if (principalCache != null && user.getId() != null) {
+            principalCache.evictUser(user.getId());
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package uz.familyfinance.api.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bitta so'rov davomidagi scope aniqlash natijalari (aktiv scope ID, ko'rinadigan va
+ * boshqariladigan scope'lar, scope bo'yicha yozish huquqi) — har biri ko'pi bilan bir marta.
+ *
+ * <p>{@link CustomUserDetails} ichida yashaydi: principal har so'rovga alohida nusxa
+ * ({@link PrincipalCache}), shuning uchun natija so'rov tugashi bilan yo'qoladi. SecurityContext
+ * parallel so'rovlar thread'iga ko'chiriladi ({@code ParallelQueryExecutor}) — ular ham shu
+ * natijalarni ishlatadi, shu sabab saqlash thread-safe. Qiymatlar o'zgarmas bo'lishi shart.</p>
+ *
+ * <p>Scope yoki a'zolik o'zgarsa ({@link ScopeResolutionListener}) yoki aktiv scope
+ * almashsa — {@link #reset()}; hisoblash davomida reset bo'lsa natija saqlanmaydi.</p>
+ */
+public final class ScopeResolution {
+
+    private static final Object NULL = new Object();
+
+    private final Map<String, Object> values = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Saqlangan qiymat yoki {@code loader} natijasi ({@code null} ham saqlanadi). computeIfAbsent
+     * ishlatilmaydi — loader ichida boshqa kalit so'ralishi mumkin (rekursiv yangilash).
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, Supplier<T> loader) {
+        Object cached = values.get(key);
+        if (cached != null) {
+            return cached == NULL ? null : (T) cached;
+        }
+        long loadGeneration = generation.get();
+        T value = loader.get();
+        if (loadGeneration == generation.get()) {
+            values.put(key, value != null ? value : NULL);
+        }
+        return value;
+    }
+
+    public void reset() {
+        generation.incrementAndGet();
+        values.clear();
+    }
+}
@@ -0,0 +1,26 @@
+package uz.familyfinance.api.security;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * {@code Scope} yoki {@code ScopeMembership} yozilsa joriy so'rovning {@link ScopeResolution}
+ * natijalarini tozalaydi — masalan scope yaratib, shu so'rovda unga yozish (yangi OWNER
+ * a'zoligi) eski "ko'rinmaydi" natijasiga urilmasin. Boshqa so'rovlar o'z natijasini
+ * so'rov boshida hisoblaydi.
+ */
+public class ScopeResolutionListener {
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onScopeChanged(Object entity) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof CustomUserDetails details) {
+            details.getScopeResolution().reset();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package uz.familyfinance.api.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Imzosi va muddati tekshirilgan JWT claim'lari — bir marta parse qilinadi
+ * ({@link JwtTokenProvider#verify}) va so'rov davomida shu obyektdan o'qiladi.
+ * O'zgarmas: bir xil token keyingi so'rovlarda keshdan qaytadi.
+ */
+public record VerifiedToken(
+        String subject,
+        Long userId,
+        String tokenUse,
+        String type,
+        Long activeScopeId,
+        Set<String> roles,
+        Set<String> permissions,
+        Instant expiresAt
+) {
+
+    static VerifiedToken from(Claims claims) {
+        String type = claims.get("type", String.class);
+        return new VerifiedToken(
+                claims.getSubject(),
+                claims.get("userId", Long.class),
+                claims.get("tokenUse", String.class),
+                type != null ? type : "STAFF", // Default STAFF for old tokens
+                longClaim(claims.get("activeScopeId")),
+                stringSet(claims.get("roles")),
+                stringSet(claims.get("permissions")),
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null);
+    }
+
+    public boolean isRefresh() {
+        return JwtTokenProvider.TOKEN_USE_REFRESH.equals(tokenUse);
+    }
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !now.isBefore(expiresAt);
+    }
+
+    private static Long longClaim(Object value) {
+        if (value == null) return null;
+        if (value instanceof Number n) return n.longValue();
+        try {
+            return Long.parseLong(value.toString());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Set<String> stringSet(Object value) {
+        if (!(value instanceof List<?> list)) {
+            return Set.of();
+        }
+        return list.stream().filter(Objects::nonNull).map(Object::toString).collect(Collectors.toUnmodifiableSet());
+    }
+}
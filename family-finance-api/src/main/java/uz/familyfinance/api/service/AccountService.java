@@ -2,6 +2,7 @@ package uz.familyfinance.api.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
@@ -22,6 +23,7 @@ import uz.familyfinance.api.enums.AccountScope;
 import uz.familyfinance.api.enums.AccountStatus;
 import uz.familyfinance.api.enums.AccountType;
 import uz.familyfinance.api.enums.CurrencyCode;
+import uz.familyfinance.api.event.ScopeDataChangedEvent;
 import uz.familyfinance.api.exception.BadRequestException;
 import uz.familyfinance.api.exception.ResourceNotFoundException;
 import uz.familyfinance.api.repository.AccountAccessRepository;
@@ -37,6 +39,9 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -55,6 +60,7 @@ public class AccountService {
     private final CardRepository cardRepository;
     private final CardEncryptionService cardEncryptionService;
     private final ScopeContextService scopeContext;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Sentinel — JPQL {@code IN :visibleScopeIds} hech qachon bo'sh kolleksiya
@@ -195,6 +201,7 @@ public class AccountService {
         accountAccessService.createOwnerAccess(account, currentUser.getUser());
 
         log.info("Yangi hisob yaratildi: {} (acc_code: {}, scope: {})", account.getName(), accCode, scope);
+        publishHomeScopeChanged(account);
         return toResponseWithAccessRole(account, currentUser.getId());
     }
 
@@ -223,6 +230,7 @@ public class AccountService {
             account.setOwner(owner);
         }
 
+        publishHomeScopeChanged(account);
         return toResponseWithAccessRole(accountRepository.save(account), currentUser.getId());
     }
 
@@ -256,6 +264,7 @@ public class AccountService {
         }
 
         log.info("Hisob holati o'zgartirildi: {} -> {} (ID: {})", currentStatus, newStatus, id);
+        publishHomeScopeChanged(account);
         return toResponseWithAccessRole(accountRepository.save(account), currentUser.getId());
     }
 
@@ -295,6 +304,14 @@ public class AccountService {
         checkOwnerAccess(account, currentUser);
         account.setIsActive(false);
         accountRepository.save(account);
+        publishHomeScopeChanged(account);
+    }
+
+    /** Xonadon balans yig'indisi (dashboard keshi) o'zgardi — commit'dan keyin tozalanadi. */
+    private void publishHomeScopeChanged(Account account) {
+        if (account.getHomeScope() != null) {
+            eventPublisher.publishEvent(new ScopeDataChangedEvent(account.getHomeScope().getId()));
+        }
     }
 
     public Account findById(Long id) {
@@ -302,28 +319,17 @@ public class AccountService {
                 .orElseThrow(() -> new ResourceNotFoundException("Hisob topilmadi: " + id));
     }
 
-    @Transactional(readOnly = true)
-    public Account findTransitAccount(String currency, boolean isIncome) {
-        String prefix = isIncome ? "Tizim: Daromad tranziti" : "Tizim: Xarajat tranziti";
-        return accountRepository.findByTypeAndCurrencyAndIsActiveTrue(AccountType.SYSTEM_TRANSIT, currency)
-                .stream()
-                .filter(a -> a.getName().startsWith(prefix))
-                .findFirst()
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "Tranzit hisob topilmadi: " + prefix + " (" + currency + ")"));
-    }
-
     // -----------------------------------------------------------------------
     // Access check helpers
     // -----------------------------------------------------------------------
 
     /**
-     * Joriy foydalanuvchining ko'rinadigan scope ID'lari (FAMILY hisoblar uchun).
-     * Bo'sh bo'lsa sentinel qaytaradi — JPQL {@code IN} bo'sh ro'yxat olmasligi uchun.
+     * Ko'rinadigan scope ID'lari (FAMILY hisoblar uchun) — faqat {@code allScopes} bo'lmagan
+     * holat uchun; SUPER_ADMIN'da chaqiruvchi scope filtrini umuman qo'llamaydi (ID'lar
+     * yuklanmaydi). Bo'sh bo'lsa sentinel — JPQL {@code IN} bo'sh ro'yxat olmasligi uchun.
      */
-    private Collection<Long> visibleScopeIds() {
-        Set<Long> visible = scopeContext.getVisibleScopeIds();
-        return visible.isEmpty() ? NO_VISIBLE_SCOPES : visible;
+    private static Collection<Long> visibleScopeIds(ScopeContextService.ScopeVisibility visibility) {
+        return visibility.scopeIds().isEmpty() ? NO_VISIBLE_SCOPES : visibility.scopeIds();
     }
 
     /**
@@ -336,7 +342,8 @@ public class AccountService {
      * qolganlar scope-visibility orqali.</p>
      */
     private void checkAccess(Account account, CustomUserDetails currentUser) {
-        if (scopeContext.isSuperAdmin()) {
+        ScopeContextService.ScopeVisibility visibility = scopeContext.getScopeVisibility();
+        if (visibility.allScopes()) {
             return; // platforma nazoratchisi — faqat KO'RISH (yozish quyida rad etiladi)
         }
         // Scope-aware tekshiruv: FAMILY hisob faqat o'sha hisobning homeScope'i
@@ -344,7 +351,7 @@ public class AccountService {
         // (cross-tenant ma'lumot oqishining oldini oladi). Boshqa hisoblar esa
         // faqat aniq AccountAccess grant orqali ko'rinadi.
         if (!accountRepository.canUserAccessAccount(account.getId(), currentUser.getId(), false,
-                visibleScopeIds())) {
+                visibleScopeIds(visibility))) {
             throw new AccessDeniedException("Bu hisobga kirish huquqingiz yo'q");
         }
     }
@@ -436,6 +443,54 @@ public class AccountService {
         checkWriteAccess(account, currentUserOrThrow());
     }
 
+    /**
+     * Bulk amallar uchun {@link #assertCanAccess} + {@link #assertCanModify} ning to'plam
+     * varianti: joriy foydalanuvchi ko'ra OLMAYDIGAN yoki yoza OLMAYDIGAN hisoblar
+     * (hisob id → xato matni; bo'sh map — hammasiga ruxsat). Qoidalar AYNAN bir xil, lekin
+     * har hisobga ikki so'rov o'rniga: o'qish — bitta IN so'rov, scope roli — har scope'ga
+     * bir marta, AccountAccess grant — qolgan hisoblar uchun bitta IN so'rov.
+     */
+    public Map<Long, String> findModifyDenials(Collection<Account> accounts) {
+        CustomUserDetails currentUser = currentUserOrThrow();
+        Map<Long, Account> byId = new LinkedHashMap<>();
+        accounts.forEach(a -> byId.putIfAbsent(a.getId(), a));
+        Map<Long, String> denials = new HashMap<>();
+        if (byId.isEmpty()) {
+            return denials;
+        }
+
+        ScopeContextService.ScopeVisibility visibility = scopeContext.getScopeVisibility();
+        if (!visibility.allScopes()) {
+            Set<Long> readable = new HashSet<>(accountRepository.findAccessibleIdsIn(
+                    byId.keySet(), currentUser.getId(), visibleScopeIds(visibility)));
+            byId.keySet().stream()
+                    .filter(id -> !readable.contains(id))
+                    .forEach(id -> denials.put(id, "Bu hisobga kirish huquqingiz yo'q"));
+        }
+
+        Map<Long, Boolean> scopeWrite = new HashMap<>();
+        List<Long> needGrant = byId.values().stream()
+                .filter(a -> !denials.containsKey(a.getId()))
+                .filter(a -> a.getHomeScope() == null || !scopeWrite.computeIfAbsent(
+                        a.getHomeScope().getId(), scopeContext::canWriteToScope))
+                .map(Account::getId)
+                .toList();
+        if (!needGrant.isEmpty()) {
+            Map<Long, AccountAccessRole> roles = accountAccessRepository
+                    .findByAccountIdsAndUserId(needGrant, currentUser.getId()).stream()
+                    .collect(Collectors.toMap(aa -> aa.getAccount().getId(), AccountAccess::getRole, (x, y) -> x));
+            for (Long id : needGrant) {
+                AccountAccessRole role = roles.get(id);
+                if (role == null) {
+                    denials.put(id, "Bu hisobga kirish huquqingiz yo'q");
+                } else if (role == AccountAccessRole.VIEWER) {
+                    denials.put(id, "Bu hisobni tahrirlash huquqingiz yo'q");
+                }
+            }
+        }
+        return denials;
+    }
+
     // -----------------------------------------------------------------------
     // Response mapping
     // -----------------------------------------------------------------------
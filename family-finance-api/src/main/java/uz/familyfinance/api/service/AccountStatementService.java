@@ -0,0 +1,149 @@
+package uz.familyfinance.api.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import uz.familyfinance.api.dto.response.AccountStatementResponse;
+import uz.familyfinance.api.entity.Account;
+import uz.familyfinance.api.enums.TransactionType;
+import uz.familyfinance.api.exception.BadRequestException;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Hisob ko'chirmasi (statement) — qoldiqlar SQL'da hisoblanadi.
+ *
+ * <p>Oldin ko'chirma {@code findByAccountId} qatorlari va ularga insert paytida yozilgan
+ * {@code balance_before/after_*} snapshot'lariga tayanardi. Orqa sanali yozuv, update va
+ * storno'dan keyin bu snapshot'lar eskiradi. Ularni tuzatish uchun butun tarixni Java'da
+ * qayta o'qish kerak edi. Endi:</p>
+ * <ul>
+ *   <li>boshlang'ich qoldiq = {@code opening_balance} + davrdan oldingi debet − kredit
+ *       (V66 covering indekslar bo'yicha index-only yig'indi, jadval qatorlari o'qilmaydi).
+ *       Narx hisobning butun tarixiga proporsional — bu ATAYLAB: {@code balance_snapshots}
+ *       dan boshlash mumkin emas (pastga qarang);</li>
+ *   <li>davr qatorlari — debet va kredit tomonlari {@code (account, transaction_date)}
+ *       indeksidan to'g'ridan boshlanish sanasiga seek qilinadi, narx = davrdagi qatorlar;</li>
+ *   <li>joriy qoldiq — {@code SUM(...) OVER (ORDER BY sana, id)}.</li>
+ * </ul>
+ *
+ * <p>Qaysi qatorlar hisobga olinadi — {@code AccountService.getBalanceSummary} bilan AYNAN
+ * bir xil: {@code status = 'CONFIRMED' AND type <> 'REVERSAL'} (storno qilingan asl qator
+ * REVERSED, kompensatsiya qatori REVERSAL — juftlik nolga teng; bekor qilingan va PENDING
+ * qatorlar balansga ta'sir qilmagan). Shu sababli ko'chirma yakuni balans xulosasi bilan mos.</p>
+ *
+ * <p><b>Nima uchun {@code balance_snapshots} (V68, {@code findLastBefore}) ishlatilmaydi:</b>
+ * kunlik snapshot yarim tunda yozilgan {@code accounts.balance} — daftar yig'indisi emas.
+ * U yozilgandan keyingi orqa sanali yozuv, storno va tahrirni ko'rmaydi, kelajak sanali
+ * qatorlarni esa o'z ichiga oladi. Undan boshlangan qoldiq yuqoridagi moslikni buzardi.
+ * Snapshot'lar faqat grafik ({@link BalanceHistoryService}) uchun.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AccountStatementService {
+
+    /** Bitta ko'chirma davri chegarasi (qatorlar to'liq javobda qaytadi). */
+    private static final int MAX_STATEMENT_RANGE_DAYS = 366;
+
+    /** V66 partial indekslar predikati bilan bir xil — aks holda planner ularni tanlamaydi. */
+    private static final String EFFECTIVE = "t.status = 'CONFIRMED' AND t.type <> 'REVERSAL'";
+
+    /** Davrdan oldingi butun tarix — snapshot'dan emas (klass hujjatiga qarang). */
+    private static final String OPENING_SQL = "SELECT "
+            + "(SELECT COALESCE(SUM(t.amount), 0) FROM transactions t "
+            + " WHERE t.debit_account_id = ? AND " + EFFECTIVE + " AND t.transaction_date < ?) - "
+            + "(SELECT COALESCE(SUM(t.amount), 0) FROM transactions t "
+            + " WHERE t.credit_account_id = ? AND " + EFFECTIVE + " AND t.transaction_date < ?)";
+
+    // side: 0 = debet (kirim), 1 = kredit (chiqim). Bir tranzaksiya ikkala tomonda bo'lishi
+    // mumkin (hisobdan o'ziga transfer) — tartib (sana, id, side) bilan deterministik.
+    private static final String LINES_SQL = "WITH movements AS ("
+            + " SELECT t.id, t.transaction_date, t.type, t.description, t.category_id,"
+            + "        t.credit_account_id AS counterparty_id, t.amount AS debit, 0::numeric AS credit, 0 AS side"
+            + " FROM transactions t"
+            + " WHERE t.debit_account_id = ? AND " + EFFECTIVE
+            + "   AND t.transaction_date >= ? AND t.transaction_date < ?"
+            + " UNION ALL"
+            + " SELECT t.id, t.transaction_date, t.type, t.description, t.category_id,"
+            + "        t.debit_account_id, 0::numeric, t.amount, 1"
+            + " FROM transactions t"
+            + " WHERE t.credit_account_id = ? AND " + EFFECTIVE
+            + "   AND t.transaction_date >= ? AND t.transaction_date < ?"
+            + ") "
+            + "SELECT m.id, m.transaction_date, m.type, m.description, c.name AS category_name,"
+            + "       ca.name AS counterparty_name, m.debit, m.credit,"
+            + "       SUM(m.debit - m.credit) OVER (ORDER BY m.transaction_date, m.id, m.side"
+            + "                                     ROWS UNBOUNDED PRECEDING) AS movement "
+            + "FROM movements m "
+            + "LEFT JOIN categories c ON c.id = m.category_id "
+            + "LEFT JOIN accounts ca ON ca.id = m.counterparty_id "
+            + "ORDER BY m.transaction_date, m.id, m.side";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AccountService accountService;
+
+    @Transactional(readOnly = true)
+    public AccountStatementResponse getStatement(Long accountId, LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new BadRequestException("Ko'chirma davri (from, to) ko'rsatilishi shart");
+        }
+        if (from.isAfter(to)) {
+            throw new BadRequestException("Boshlanish sanasi tugash sanasidan keyin bo'lishi mumkin emas");
+        }
+        if (from.plusDays(MAX_STATEMENT_RANGE_DAYS).isBefore(to)) {
+            throw new BadRequestException("Ko'chirma davri " + MAX_STATEMENT_RANGE_DAYS + " kundan oshmasligi kerak");
+        }
+
+        Account account = accountService.findById(accountId);
+        // IDOR himoyasi: faqat o'zi kira oladigan hisob ko'chirmasi
+        accountService.assertCanAccess(account);
+
+        // [from 00:00, to+1 00:00) — tugash kunining oxirgi soniyasidagi qatorlar ham kiradi
+        Timestamp start = Timestamp.valueOf(from.atStartOfDay());
+        Timestamp end = Timestamp.valueOf(to.plusDays(1).atStartOfDay());
+
+        BigDecimal openingBase = account.getOpeningBalance() != null ? account.getOpeningBalance() : BigDecimal.ZERO;
+        BigDecimal before = jdbcTemplate.queryForObject(OPENING_SQL, BigDecimal.class,
+                accountId, start, accountId, start);
+        BigDecimal opening = openingBase.add(before != null ? before : BigDecimal.ZERO);
+
+        List<AccountStatementResponse.Line> lines = jdbcTemplate.query(LINES_SQL, (rs, i) ->
+                AccountStatementResponse.Line.builder()
+                        .transactionId(rs.getLong("id"))
+                        .transactionDate(rs.getTimestamp("transaction_date").toLocalDateTime())
+                        .type(TransactionType.valueOf(rs.getString("type")))
+                        .description(rs.getString("description"))
+                        .categoryName(rs.getString("category_name"))
+                        .counterpartyAccountName(rs.getString("counterparty_name"))
+                        .debit(rs.getBigDecimal("debit"))
+                        .credit(rs.getBigDecimal("credit"))
+                        .balance(opening.add(rs.getBigDecimal("movement")))
+                        .build(),
+                accountId, start, end, accountId, start, end);
+
+        BigDecimal debitTurnover = lines.stream().map(AccountStatementResponse.Line::getDebit)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal creditTurnover = lines.stream().map(AccountStatementResponse.Line::getCredit)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        return AccountStatementResponse.builder()
+                .accountId(account.getId())
+                .accCode(account.getAccCode())
+                .accountName(account.getName())
+                .currency(account.getCurrency())
+                .periodStart(from)
+                .periodEnd(to)
+                .openingBalance(opening)
+                .debitTurnover(debitTurnover)
+                .creditTurnover(creditTurnover)
+                .closingBalance(lines.isEmpty() ? opening : lines.get(lines.size() - 1).getBalance())
+                .lines(lines)
+                .build();
+    }
+}
@@ -2,13 +2,17 @@ package uz.familyfinance.api.service;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import uz.familyfinance.api.dto.response.DashboardStatsResponse;
 import uz.familyfinance.api.dto.response.FinancialOverviewResponse;
+import uz.familyfinance.api.dto.response.TransactionResponse;
 import uz.familyfinance.api.entity.Scope;
 import uz.familyfinance.api.exception.ResourceNotFoundException;
 import uz.familyfinance.api.repository.ScopeRepository;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
 /**
  * SUPER_ADMIN nazorat uchun bitta scope'ning READ-ONLY moliyaviy ko'rinishini yig'adi.
  *
@@ -23,20 +27,32 @@ public class AdminOverviewService {
     private final ScopeRepository scopeRepository;
     private final DashboardService dashboardService;
     private final TransactionService transactionService;
+    private final ParallelQueryExecutor parallelQueries;
 
-    @Transactional(readOnly = true)
+    /**
+     * Oxirgi tranzaksiyalar statistika bilan parallel yuklanadi ({@link ParallelQueryExecutor});
+     * statistika o'zi ham bo'limlarini parallel hisoblaydi. Metod tranzaksiyasiz — kutayotgan
+     * thread ulanish ushlab turmaydi, har so'rov o'z readOnly tranzaksiyasida.
+     */
     public FinancialOverviewResponse getForScope(Long scopeId) {
         Scope scope = scopeRepository.findById(scopeId)
                 .orElseThrow(() -> new ResourceNotFoundException("Scope", "id", scopeId));
 
+        ParallelQueryExecutor.FanOut fanOut = parallelQueries.fanOut();
+        Future<List<TransactionResponse>> recent = fanOut.submit(() -> transactionService.getRecentForScope(scopeId));
         DashboardStatsResponse stats = dashboardService.getStats(scopeId);
+        List<TransactionResponse> recentTransactions = fanOut.join("recentTransactions", recent, List.of());
+
+        List<String> missing = new ArrayList<>(stats.getMissingSections());
+        missing.addAll(fanOut.missingSections());
 
         return FinancialOverviewResponse.builder()
                 .scopeId(scope.getId())
                 .scopeName(scope.getName())
                 .scopeType(scope.getType().name())
                 .stats(stats)
-                .recentTransactions(transactionService.getRecentForScope(scopeId))
+                .recentTransactions(recentTransactions)
+                .missingSections(missing)
                 .build();
     }
 }
@@ -6,6 +6,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
@@ -182,6 +183,27 @@ public class AuditLogService {
                 .map(AuditLogResponse::from);
     }
 
+    /**
+     * Fon eksporti uchun keyset bo'lak — {@code after} dan eskiroq ko'pi bilan {@code limit} ta
+     * yozuv ({@code createdAt, id} DESC). Filtrlar {@link #searchAuditLogs} bilan bir xil.
+     */
+    public List<AuditLogResponse> findAuditLogsForExport(
+            String entityType,
+            String action,
+            Long userId,
+            String search,
+            ExportJobService.Cursor after,
+            int limit
+    ) {
+        String trimmedSearch = (search == null || search.trim().isEmpty()) ? null : search.trim();
+        return auditLogRepository.findExportChunk(entityType, action, userId, trimmedSearch,
+                        after != null ? after.createdAt() : null, after != null ? after.id() : null,
+                        PageRequest.of(0, limit))
+                .stream()
+                .map(AuditLogResponse::from)
+                .toList();
+    }
+
     // ==================== GROUPED AUDIT LOGS ====================
 
     /**
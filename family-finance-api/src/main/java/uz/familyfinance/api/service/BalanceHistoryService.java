@@ -0,0 +1,213 @@
+package uz.familyfinance.api.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import uz.familyfinance.api.dto.response.BalanceHistoryResponse;
+import uz.familyfinance.api.entity.Account;
+import uz.familyfinance.api.enums.BalanceHistoryBucket;
+import uz.familyfinance.api.exception.BadRequestException;
+import uz.familyfinance.api.repository.AccountRepository;
+import uz.familyfinance.api.repository.BalanceSnapshotRepository;
+import uz.familyfinance.api.util.Lttb;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Balans tarixi vaqt qatori (kunlik {@code balance_snapshots} asosida), serverda yig'ilgan:
+ *
+ * <ul>
+ *   <li>hisob bo'yicha yoki aktiv scope jami (har valyuta alohida qator — turli valyutalar
+ *       qo'shilmaydi);</li>
+ *   <li>DAY/WEEK/MONTH bo'laklari — bo'lak qiymati davr OXIRIDAGI balans;</li>
+ *   <li>snapshot yo'q kunlar oxirgi ma'lum qiymat bilan to'ldiriladi (davrdan oldingisi ham);</li>
+ *   <li>{@link Lttb} bilan {@code points} ta nuqtaga qisqartirish.</li>
+ * </ul>
+ *
+ * <p>Barcha hisoblar uchun ikki so'rov: davr qatorlari va davrdan oldingi oxirgi qiymat (V68 indeksi).</p>
+ */
+@Service
+@RequiredArgsConstructor
+public class BalanceHistoryService {
+
+    static final int DEFAULT_POINTS = 500;
+    static final int MAX_POINTS = 5000;
+    private static final int MAX_RANGE_YEARS = 20;
+
+    private final BalanceSnapshotRepository snapshotRepository;
+    private final AccountRepository accountRepository;
+    private final AccountService accountService;
+    private final ScopeContextService scopeContext;
+
+    @Transactional(readOnly = true)
+    public BalanceHistoryResponse getAccountHistory(Long accountId, LocalDate from, LocalDate to,
+                                                    BalanceHistoryBucket bucket, Integer points) {
+        validate(from, to);
+        Account account = accountService.findById(accountId);
+        // IDOR himoyasi: faqat o'zi kira oladigan hisob tarixi
+        accountService.assertCanAccess(account);
+
+        List<Long> ids = List.of(account.getId());
+        BalanceHistoryResponse.Series series = buildSeries(ids, loadSeries(ids, from, to), loadCarryIn(ids, from),
+                from, to, bucket, limit(points));
+        series.setAccountId(account.getId());
+        series.setCurrency(account.getCurrency());
+        return response(from, to, bucket, List.of(series));
+    }
+
+    /** Aktiv scope hisoblari jami ({@code /accounts/total-balance} bilan bir xil to'plam), valyuta bo'yicha. */
+    @Transactional(readOnly = true)
+    public BalanceHistoryResponse getScopeHistory(LocalDate from, LocalDate to,
+                                                  BalanceHistoryBucket bucket, Integer points) {
+        validate(from, to);
+        Long scopeId = scopeContext.getActiveScopeIdOrNull();
+        if (scopeId == null) {
+            return response(from, to, bucket, List.of());
+        }
+        Map<String, List<Long>> idsByCurrency = new TreeMap<>();
+        for (Object[] row : accountRepository.findIdAndCurrencyByScopeId(scopeId)) {
+            idsByCurrency.computeIfAbsent((String) row[1], c -> new ArrayList<>()).add((Long) row[0]);
+        }
+        List<Long> allIds = idsByCurrency.values().stream().flatMap(List::stream).toList();
+        if (allIds.isEmpty()) {
+            return response(from, to, bucket, List.of());
+        }
+        Map<Long, TreeMap<LocalDate, BigDecimal>> snapshots = loadSeries(allIds, from, to);
+        Map<Long, BigDecimal> carryIn = loadCarryIn(allIds, from);
+
+        List<BalanceHistoryResponse.Series> series = new ArrayList<>();
+        idsByCurrency.forEach((currency, ids) -> {
+            BalanceHistoryResponse.Series s = buildSeries(ids, snapshots, carryIn, from, to, bucket, limit(points));
+            if (!s.getPoints().isEmpty()) {
+                s.setCurrency(currency);
+                series.add(s);
+            }
+        });
+        return response(from, to, bucket, series);
+    }
+
+    /**
+     * Bo'laklash, bo'shliqni to'ldirish va qisqartirish. Hech bir hisob qiymati hali ma'lum
+     * bo'lmagan bo'laklar (hisob ochilishidan oldin) tashlab ketiladi.
+     */
+    static BalanceHistoryResponse.Series buildSeries(Collection<Long> accountIds,
+                                                     Map<Long, TreeMap<LocalDate, BigDecimal>> snapshots,
+                                                     Map<Long, BigDecimal> carryIn,
+                                                     LocalDate from, LocalDate to,
+                                                     BalanceHistoryBucket bucket, int points) {
+        List<BalanceHistoryResponse.Point> full = new ArrayList<>();
+        for (LocalDate start = bucketStart(from, bucket); !start.isAfter(to); start = nextBucket(start, bucket)) {
+            LocalDate end = nextBucket(start, bucket).minusDays(1);
+            LocalDate at = end.isAfter(to) ? to : end;
+            BigDecimal total = null;
+            for (Long id : accountIds) {
+                BigDecimal value = valueAt(snapshots.get(id), at, carryIn.get(id));
+                if (value != null) {
+                    total = total == null ? value : total.add(value);
+                }
+            }
+            if (total != null) {
+                full.add(new BalanceHistoryResponse.Point(start, total));
+            }
+        }
+
+        List<BalanceHistoryResponse.Point> reduced = full;
+        if (full.size() > points) {
+            double[] x = new double[full.size()];
+            double[] y = new double[full.size()];
+            for (int i = 0; i < full.size(); i++) {
+                x[i] = full.get(i).getDate().toEpochDay();
+                y[i] = full.get(i).getBalance().doubleValue();
+            }
+            reduced = Lttb.select(x, y, points).stream().map(full::get).toList();
+        }
+        return BalanceHistoryResponse.Series.builder()
+                .sourcePoints(full.size())
+                .points(reduced)
+                .build();
+    }
+
+    private static BigDecimal valueAt(TreeMap<LocalDate, BigDecimal> series, LocalDate date, BigDecimal carryIn) {
+        Map.Entry<LocalDate, BigDecimal> entry = series != null ? series.floorEntry(date) : null;
+        return entry != null ? entry.getValue() : carryIn;
+    }
+
+    private static LocalDate bucketStart(LocalDate date, BalanceHistoryBucket bucket) {
+        return switch (bucket) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+
+    private static LocalDate nextBucket(LocalDate start, BalanceHistoryBucket bucket) {
+        return switch (bucket) {
+            case DAY -> start.plusDays(1);
+            case WEEK -> start.plusWeeks(1);
+            case MONTH -> start.plusMonths(1);
+        };
+    }
+
+    private Map<Long, TreeMap<LocalDate, BigDecimal>> loadSeries(Collection<Long> ids, LocalDate from, LocalDate to) {
+        Map<Long, TreeMap<LocalDate, BigDecimal>> result = new HashMap<>();
+        for (Object[] row : snapshotRepository.findSeries(ids, from, to)) {
+            result.computeIfAbsent(((Number) row[0]).longValue(), id -> new TreeMap<>())
+                    .put(toLocalDate(row[1]), (BigDecimal) row[2]);
+        }
+        return result;
+    }
+
+    private Map<Long, BigDecimal> loadCarryIn(Collection<Long> ids, LocalDate from) {
+        Map<Long, BigDecimal> result = new HashMap<>();
+        for (Object[] row : snapshotRepository.findLastBefore(ids, from)) {
+            result.put(((Number) row[0]).longValue(), (BigDecimal) row[1]);
+        }
+        return result;
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+
+    private static void validate(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new BadRequestException("Davr (from, to) ko'rsatilishi shart");
+        }
+        if (from.isAfter(to)) {
+            throw new BadRequestException("Boshlanish sanasi tugash sanasidan keyin bo'lishi mumkin emas");
+        }
+        if (from.plusYears(MAX_RANGE_YEARS).isBefore(to)) {
+            throw new BadRequestException("Davr " + MAX_RANGE_YEARS + " yildan oshmasligi kerak");
+        }
+    }
+
+    private static int limit(Integer points) {
+        if (points == null) {
+            return DEFAULT_POINTS;
+        }
+        if (points < 3 || points > MAX_POINTS) {
+            throw new BadRequestException("points 3 dan " + MAX_POINTS + " gacha bo'lishi kerak");
+        }
+        return points;
+    }
+
+    private static BalanceHistoryResponse response(LocalDate from, LocalDate to, BalanceHistoryBucket bucket,
+                                                   List<BalanceHistoryResponse.Series> series) {
+        return BalanceHistoryResponse.builder()
+                .from(from)
+                .to(to)
+                .bucket(bucket)
+                .series(series)
+                .build();
+    }
+}
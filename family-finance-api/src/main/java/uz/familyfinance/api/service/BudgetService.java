@@ -2,6 +2,7 @@ package uz.familyfinance.api.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -11,18 +12,20 @@ import uz.familyfinance.api.dto.response.BudgetResponse;
 import uz.familyfinance.api.entity.Budget;
 import uz.familyfinance.api.entity.Category;
 import uz.familyfinance.api.enums.TransactionType;
+import uz.familyfinance.api.event.ScopeDataChangedEvent;
 import uz.familyfinance.api.exception.BadRequestException;
 import uz.familyfinance.api.exception.ResourceNotFoundException;
 import uz.familyfinance.api.repository.BudgetAlertRepository;
 import uz.familyfinance.api.repository.BudgetRepository;
 import uz.familyfinance.api.repository.CategoryRepository;
-import uz.familyfinance.api.repository.TransactionRepository;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,33 +36,31 @@ public class BudgetService {
     private final BudgetRepository budgetRepository;
     private final BudgetAlertRepository budgetAlertRepository;
     private final CategoryRepository categoryRepository;
-    private final TransactionRepository transactionRepository;
     private final ScopeContextService scopeContext;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public Page<BudgetResponse> getAll(Pageable pageable) {
         if (scopeContext.isSuperAdmin()) {
-            return budgetRepository.findByIsActiveTrue(pageable).map(this::toResponse);
+            return toResponsePage(budgetRepository.findByIsActiveTrue(pageable));
         }
         java.util.Set<Long> visible = scopeContext.getVisibleScopeIds();
         if (visible.isEmpty()) {
             return Page.empty(pageable);
         }
-        return budgetRepository.findByIsActiveTrueAndScopeIds(visible, pageable).map(this::toResponse);
+        return toResponsePage(budgetRepository.findByIsActiveTrueAndScopeIds(visible, pageable));
     }
 
     @Transactional(readOnly = true)
     public List<BudgetResponse> getActiveByDate(LocalDate date) {
         if (scopeContext.isSuperAdmin()) {
-            return budgetRepository.findActiveByDate(date).stream()
-                    .map(this::toResponse).collect(Collectors.toList());
+            return toResponses(budgetRepository.findActiveByDate(date));
         }
         java.util.Set<Long> visible = scopeContext.getVisibleScopeIds();
         if (visible.isEmpty()) {
             return java.util.Collections.emptyList();
         }
-        return budgetRepository.findActiveByDateAndScopeIds(date, visible).stream()
-                .map(this::toResponse).collect(Collectors.toList());
+        return toResponses(budgetRepository.findActiveByDateAndScopeIds(date, visible));
     }
 
     @Transactional(readOnly = true)
@@ -101,7 +102,9 @@ public class BudgetService {
                 .scope(activeScope)
                 .build();
 
-        return toResponse(budgetRepository.save(budget));
+        eventPublisher.publishEvent(new ScopeDataChangedEvent(activeScope.getId()));
+        // Flush — sarf so'rovi (native) byudjet davrini bazadan o'qiydi
+        return toResponse(budgetRepository.saveAndFlush(budget));
     }
 
     @Transactional
@@ -125,7 +128,9 @@ public class BudgetService {
             budgetAlertRepository.deleteByBudgetId(budget.getId());
         }
 
-        return toResponse(budgetRepository.save(budget));
+        eventPublisher.publishEvent(new ScopeDataChangedEvent(budget.getScope().getId()));
+        // Flush — sarf so'rovi (native) yangi davrni bazadan o'qiydi
+        return toResponse(budgetRepository.saveAndFlush(budget));
     }
 
     @Transactional
@@ -134,6 +139,7 @@ public class BudgetService {
         scopeContext.assertCanWrite(budget.getScope().getId());
         budget.setIsActive(false);
         budgetRepository.save(budget);
+        eventPublisher.publishEvent(new ScopeDataChangedEvent(budget.getScope().getId()));
     }
 
     private Budget findById(Long id) {
@@ -141,7 +147,39 @@ public class BudgetService {
                 .orElseThrow(() -> new ResourceNotFoundException("Byudjet topilmadi: " + id));
     }
 
+    /**
+     * Byudjetlar sarfi bitta so'rovda ({@link BudgetRepository#sumSpentByBudgetIds}) — ro'yxat
+     * endpoint'lari va dashboard shu yagona manbadan foydalanadi (har byudjetga alohida SUM emas).
+     */
+    public Map<Long, BigDecimal> spentByBudgetId(Collection<Budget> budgets) {
+        if (budgets.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, BigDecimal> spent = new HashMap<>();
+        for (Object[] row : budgetRepository.sumSpentByBudgetIds(
+                budgets.stream().map(Budget::getId).collect(Collectors.toSet()))) {
+            spent.put(((Number) row[0]).longValue(), (BigDecimal) row[1]);
+        }
+        return spent;
+    }
+
+    private Page<BudgetResponse> toResponsePage(Page<Budget> page) {
+        Map<Long, BigDecimal> spent = spentByBudgetId(page.getContent());
+        return page.map(b -> toResponse(b, spent.getOrDefault(b.getId(), BigDecimal.ZERO)));
+    }
+
+    private List<BudgetResponse> toResponses(List<Budget> budgets) {
+        Map<Long, BigDecimal> spent = spentByBudgetId(budgets);
+        return budgets.stream()
+                .map(b -> toResponse(b, spent.getOrDefault(b.getId(), BigDecimal.ZERO)))
+                .collect(Collectors.toList());
+    }
+
     private BudgetResponse toResponse(Budget b) {
+        return toResponse(b, spentByBudgetId(List.of(b)).getOrDefault(b.getId(), BigDecimal.ZERO));
+    }
+
+    private BudgetResponse toResponse(Budget b, BigDecimal spent) {
         BudgetResponse r = new BudgetResponse();
         r.setId(b.getId());
         r.setAmount(b.getAmount());
@@ -158,12 +196,7 @@ public class BudgetService {
             r.setCategoryColor(b.getCategory().getColor());
         }
 
-        // Calculate spent amount
-        LocalDateTime from = b.getStartDate().atStartOfDay();
-        LocalDateTime to = b.getEndDate().atTime(23, 59, 59);
-        // C3: faqat shu byudjet scope'idagi xarajat (cross-tenant sizishni oldini oladi)
-        BigDecimal spent = transactionRepository.sumExpenseByCategoryAndScopeAndDateRange(
-                b.getCategory().getId(), b.getScope().getId(), from, to);
+        // C3: sarf faqat shu byudjet scope'idagi xarajat (cross-tenant sizishni oldini oladi)
         r.setSpentAmount(spent);
         r.setRemainingAmount(b.getAmount().subtract(spent));
         if (b.getAmount().compareTo(BigDecimal.ZERO) > 0) {
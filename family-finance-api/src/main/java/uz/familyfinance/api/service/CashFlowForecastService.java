@@ -0,0 +1,273 @@
+package uz.familyfinance.api.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import uz.familyfinance.api.dto.response.CashFlowForecastResponse;
+import uz.familyfinance.api.entity.Account;
+import uz.familyfinance.api.entity.Budget;
+import uz.familyfinance.api.entity.Transaction;
+import uz.familyfinance.api.enums.TransactionType;
+import uz.familyfinance.api.exception.BadRequestException;
+import uz.familyfinance.api.repository.AccountRepository;
+import uz.familyfinance.api.repository.BudgetRepository;
+import uz.familyfinance.api.repository.TransactionRepository;
+import uz.familyfinance.api.util.RecurrenceSchedule;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pul oqimi prognozi — aktiv scope hisoblari uchun keyingi N oy, xotirada:
+ *
+ * <ul>
+ *   <li>boshlang'ich nuqta — hisoblarning joriy balansi ({@code /accounts/total-balance} to'plami);</li>
+ *   <li>recurring shablonlar {@link RecurrenceSchedule#forEachOccurrence} bilan yoyiladi —
+ *       executor'dagi {@code isDue} bilan bir xil qoida (oy oxiri, 29-fevral), lekin har kunni
+ *       tekshirmasdan: to'g'ridan bajarilish kunlariga sakraydi;</li>
+ *   <li>harakatlar hisob bo'yicha {@code long[]} kunlik delta massiviga (tiyin birligida)
+ *       yoziladi, balanslar bitta prefiks-yig'indi o'tishida chiqadi — oraliq
+ *       BigDecimal/LocalDate obyektlari yaratilmaydi;</li>
+ *   <li>aktiv byudjetlar: limit − sarflangan − shu kategoriyadagi rejalashtirilgan shablon
+ *       xarajatlari = qoldiq, byudjet oxirigacha kunlarga teng taqsimlanadi. Byudjetda hisob va
+ *       valyuta yo'q — shuning uchun faqat {@code budget-currency} jamisiga tushadi.</li>
+ * </ul>
+ *
+ * <p>Prognoz ertangi kundan boshlanadi: bugungi bajarilishlar executor'ga tegishli
+ * (bajarilgan bo'lsa joriy balansda allaqachon bor).</p>
+ */
+@Service
+@RequiredArgsConstructor
+public class CashFlowForecastService {
+
+    static final int DEFAULT_MONTHS = 3;
+    /** Hisob summalari NUMERIC(19,2). */
+    private static final int SCALE = 2;
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final BudgetRepository budgetRepository;
+    private final BudgetService budgetService;
+    private final ScopeContextService scopeContext;
+
+    @Value("${app.forecast.max-months:24}")
+    private int maxMonths;
+
+    @Value("${app.forecast.budget-currency:UZS}")
+    private String budgetCurrency;
+
+    @Transactional(readOnly = true)
+    public CashFlowForecastResponse forecast(Integer months) {
+        int horizon = months != null ? months : DEFAULT_MONTHS;
+        if (horizon < 1 || horizon > maxMonths) {
+            throw new BadRequestException("Prognoz muddati 1.." + maxMonths + " oy bo'lishi kerak");
+        }
+        LocalDate today = LocalDate.now();
+        LocalDate from = today.plusDays(1);
+        LocalDate to = today.plusMonths(horizon);
+
+        Long scopeId = scopeContext.getActiveScopeIdOrNull();
+        List<Account> accounts = scopeId != null ? accountRepository.findBalanceAccountsByScopeId(scopeId) : List.of();
+        if (accounts.isEmpty()) {
+            return project(List.of(), List.of(), List.of(), Map.of(), from, to, budgetCurrency);
+        }
+        List<Transaction> templates = transactionRepository.findRecurringTransactionsByAccountIds(
+                accounts.stream().map(Account::getId).toList());
+        List<Budget> budgets = budgetRepository.findActiveByDateAndScope(today, scopeId);
+        return project(accounts, templates, budgets, budgetService.spentByBudgetId(budgets), from, to, budgetCurrency);
+    }
+
+    /** Prognoz hisoblash — faqat xotirada, bazaga murojaat yo'q. */
+    static CashFlowForecastResponse project(List<Account> accounts, List<Transaction> templates,
+                                            List<Budget> budgets, Map<Long, BigDecimal> spent,
+                                            LocalDate from, LocalDate to, String budgetCurrency) {
+        int days = (int) (to.toEpochDay() - from.toEpochDay()) + 1;
+        Map<Long, Integer> index = new HashMap<>(accounts.size() * 2);
+        for (int i = 0; i < accounts.size(); i++) {
+            index.put(accounts.get(i).getId(), i);
+        }
+        long[][] deltas = new long[accounts.size()][days];
+
+        int used = 0;
+        for (Transaction t : templates) {
+            if (t.getTransactionDate() == null || t.getRecurringPattern() == null || t.getAmount() == null) {
+                continue;
+            }
+            long units = toUnits(t.getAmount());
+            long[] source = row(deltas, index, t.getAccount());
+            long[] target = null;
+            long sourceDelta;
+            switch (t.getType()) {
+                case INCOME -> sourceDelta = units;
+                case EXPENSE -> sourceDelta = -units;
+                case TRANSFER -> {
+                    sourceDelta = -units;
+                    target = row(deltas, index, t.getToAccount());
+                }
+                default -> {
+                    continue;
+                }
+            }
+            if (source == null && target == null) {
+                continue;
+            }
+            used++;
+            long[] targetRow = target;
+            RecurrenceSchedule.forEachOccurrence(t.getRecurringPattern(), t.getTransactionDate().toLocalDate(),
+                    from, to, d -> {
+                        if (source != null) {
+                            source[d] += sourceDelta;
+                        }
+                        if (targetRow != null) {
+                            targetRow[d] += units;
+                        }
+                    });
+        }
+
+        long[] reserve = budgetReserve(budgets, spent, templates, index, from, days);
+
+        List<CashFlowForecastResponse.AccountForecast> accountSeries = new ArrayList<>(accounts.size());
+        Map<String, long[]> totalsByCurrency = new LinkedHashMap<>();
+        Map<String, Long> currentByCurrency = new HashMap<>();
+        for (int i = 0; i < accounts.size(); i++) {
+            Account account = accounts.get(i);
+            long current = toUnits(account.getBalance() != null ? account.getBalance() : BigDecimal.ZERO);
+            long[] balances = deltas[i];
+            long running = current;
+            for (int d = 0; d < days; d++) {
+                running += balances[d];
+                balances[d] = running;
+            }
+            long[] total = totalsByCurrency.computeIfAbsent(account.getCurrency(), c -> new long[days]);
+            for (int d = 0; d < days; d++) {
+                total[d] += balances[d];
+            }
+            currentByCurrency.merge(account.getCurrency(), current, Long::sum);
+
+            int min = argMin(balances);
+            accountSeries.add(CashFlowForecastResponse.AccountForecast.builder()
+                    .accountId(account.getId())
+                    .accountName(account.getName())
+                    .currency(account.getCurrency())
+                    .currentBalance(fromUnits(current))
+                    .projectedBalance(fromUnits(balances[days - 1]))
+                    .minBalance(fromUnits(balances[min]))
+                    .minBalanceDate(from.plusDays(min))
+                    .points(points(balances, from))
+                    .build());
+        }
+
+        List<CashFlowForecastResponse.CurrencyForecast> totals = new ArrayList<>(totalsByCurrency.size());
+        totalsByCurrency.forEach((currency, total) -> {
+            long reserved = 0;
+            if (currency.equals(budgetCurrency)) {
+                for (int d = 0; d < days; d++) {
+                    reserved += reserve[d];
+                    total[d] -= reserved;
+                }
+            }
+            int min = argMin(total);
+            totals.add(CashFlowForecastResponse.CurrencyForecast.builder()
+                    .currency(currency)
+                    .currentBalance(fromUnits(currentByCurrency.get(currency)))
+                    .projectedBalance(fromUnits(total[days - 1]))
+                    .budgetReserve(fromUnits(reserved))
+                    .minBalance(fromUnits(total[min]))
+                    .minBalanceDate(from.plusDays(min))
+                    .points(points(total, from))
+                    .build());
+        });
+
+        return CashFlowForecastResponse.builder()
+                .from(from)
+                .to(to)
+                .templateCount(used)
+                .accounts(accountSeries)
+                .totals(totals)
+                .build();
+    }
+
+    /**
+     * Byudjetlar uchun kunlik chiqim (tiyin): byudjet oxirigacha qolgan limit, shablonlar bilan
+     * allaqachon rejalashtirilgan xarajat ayirilib, {@code from}..endDate kunlariga teng bo'linadi
+     * (qoldiq tiyinlar oxirgi kunga).
+     */
+    private static long[] budgetReserve(List<Budget> budgets, Map<Long, BigDecimal> spent,
+                                        List<Transaction> templates, Map<Long, Integer> index,
+                                        LocalDate from, int days) {
+        long[] reserve = new long[days];
+        for (Budget budget : budgets) {
+            if (budget.getEndDate() == null || budget.getEndDate().isBefore(from) || budget.getCategory() == null) {
+                continue;
+            }
+            long remaining = toUnits(budget.getAmount())
+                    - toUnits(spent.getOrDefault(budget.getId(), BigDecimal.ZERO));
+            Long categoryId = budget.getCategory().getId();
+            for (Transaction t : templates) {
+                if (t.getType() != TransactionType.EXPENSE || t.getCategory() == null
+                        || !categoryId.equals(t.getCategory().getId()) || !index.containsKey(t.getAccount().getId())
+                        || t.getTransactionDate() == null || t.getRecurringPattern() == null || t.getAmount() == null) {
+                    continue;
+                }
+                long units = toUnits(t.getAmount());
+                long[] scheduled = {0};
+                RecurrenceSchedule.forEachOccurrence(t.getRecurringPattern(), t.getTransactionDate().toLocalDate(),
+                        from, budget.getEndDate(), d -> scheduled[0] += units);
+                remaining -= scheduled[0];
+            }
+            if (remaining <= 0) {
+                continue;
+            }
+            int window = (int) (budget.getEndDate().toEpochDay() - from.toEpochDay()) + 1;
+            long perDay = remaining / window;
+            for (int d = 0; d < Math.min(window, days); d++) {
+                reserve[d] += perDay;
+            }
+            if (window <= days) {
+                reserve[window - 1] += remaining - perDay * window;
+            }
+        }
+        return reserve;
+    }
+
+    private static long[] row(long[][] deltas, Map<Long, Integer> index, Account account) {
+        if (account == null) {
+            return null;
+        }
+        Integer i = index.get(account.getId());
+        return i != null ? deltas[i] : null;
+    }
+
+    private static int argMin(long[] values) {
+        int min = 0;
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] < values[min]) {
+                min = i;
+            }
+        }
+        return min;
+    }
+
+    private static List<CashFlowForecastResponse.Point> points(long[] balances, LocalDate from) {
+        List<CashFlowForecastResponse.Point> points = new ArrayList<>(balances.length);
+        for (int d = 0; d < balances.length; d++) {
+            points.add(new CashFlowForecastResponse.Point(from.plusDays(d), fromUnits(balances[d])));
+        }
+        return points;
+    }
+
+    private static long toUnits(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static BigDecimal fromUnits(long units) {
+        return BigDecimal.valueOf(units, SCALE);
+    }
+}
@@ -2,6 +2,7 @@ package uz.familyfinance.api.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -10,6 +11,7 @@ import uz.familyfinance.api.dto.request.CategoryRequest;
 import uz.familyfinance.api.dto.response.CategoryResponse;
 import uz.familyfinance.api.entity.Category;
 import uz.familyfinance.api.enums.CategoryType;
+import uz.familyfinance.api.event.ScopeDataChangedEvent;
 import uz.familyfinance.api.exception.BadRequestException;
 import uz.familyfinance.api.exception.ResourceNotFoundException;
 import uz.familyfinance.api.repository.CategoryRepository;
@@ -24,6 +26,7 @@ import java.util.stream.Collectors;
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public Page<CategoryResponse> getAll(Pageable pageable) {
@@ -87,6 +90,8 @@ public class CategoryService {
             category.setParent(null);
         }
 
+        // Kategoriyalar global — barcha scope'larning dashboard grafiklarida nom/rang o'zgaradi
+        eventPublisher.publishEvent(ScopeDataChangedEvent.allScopes());
         return toResponse(categoryRepository.save(category));
     }
 
@@ -98,6 +103,7 @@ public class CategoryService {
         }
         category.setIsActive(false);
         categoryRepository.save(category);
+        eventPublisher.publishEvent(ScopeDataChangedEvent.allScopes());
     }
 
     @Transactional(readOnly = true)
@@ -0,0 +1,141 @@
+package uz.familyfinance.api.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import uz.familyfinance.api.event.ScopeDataChangedEvent;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Dashboard javoblari keshi: (tur, scope, oy) bo'yicha, commit'dan keyin tozalanadi.
+ *
+ * <p>Dashboard har ochilishda ~10 ta agregat so'rovini bajaradi, ma'lumot esa faqat
+ * yozishda o'zgaradi. Yozish servislari {@link ScopeDataChangedEvent} e'lon qiladi;
+ * {@link #onScopeDataChanged} uni AFTER_COMMIT fazasida oladi va scope yozuvlarini
+ * o'chiradi. TTL — faqat xavfsizlik to'ri (event e'lon qilinmaydigan yo'l qolib ketsa).</p>
+ *
+ * <p>Poyga: keshsiz so'rov hisoblash boshlanganda scope avlodini (generation) yozib oladi;
+ * hisoblash davomida commit bo'lib tozalash ro'y bersa, avlod o'zgaradi va eski natija
+ * keshga QO'YILMAYDI. Yozuv olingan kun ham saqlanadi — kun almashsa (faol byudjetlar,
+ * "bugun") yozuv eskirgan hisoblanadi.</p>
+ *
+ * <p>Metrikalar: {@code dashboard.cache} (kind=stats|charts, result=hit|miss).</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardCacheService {
+
+    public static final String STATS = "stats";
+    public static final String CHARTS = "charts";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.dashboard.cache.ttl:10m}")
+    private Duration ttl;
+
+    @Value("${app.dashboard.cache.max-entries:10000}")
+    private int maxEntries;
+
+    private record Key(String kind, Long scopeId, YearMonth month) {}
+
+    private record Entry(Object value, LocalDate computedOn, Instant expiresAt) {}
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    /** Scope bo'yicha tozalashlar soni — hisoblash paytidagi qiymat bilan solishtiriladi. */
+    private final Map<Long, AtomicLong> scopeGenerations = new ConcurrentHashMap<>();
+    /** Barcha scope'lar tozalangan (global kategoriya va h.k.) — har scope avlodiga qo'shiladi. */
+    private final AtomicLong globalGeneration = new AtomicLong();
+
+    /**
+     * Keshdagi javob yoki {@code loader} natijasi. {@code scopeId == null} (aktiv scope yo'q)
+     * keshlanmaydi.
+     */
+    public <T> T get(String kind, Long scopeId, Supplier<T> loader) {
+        return get(kind, scopeId, loader, value -> true);
+    }
+
+    /** {@code cacheable} false bo'lgan natija (masalan qisman dashboard) qaytariladi, lekin keshlanmaydi. */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String kind, Long scopeId, Supplier<T> loader, Predicate<? super T> cacheable) {
+        if (scopeId == null) {
+            return loader.get();
+        }
+        LocalDate today = LocalDate.now();
+        Key key = new Key(kind, scopeId, YearMonth.from(today));
+        Entry entry = entries.get(key);
+        if (entry != null && entry.computedOn().equals(today) && Instant.now().isBefore(entry.expiresAt())) {
+            counter(kind, "hit").increment();
+            return (T) entry.value();
+        }
+        counter(kind, "miss").increment();
+
+        long generation = generation(scopeId);
+        T value = loader.get();
+        if (value != null && cacheable.test(value) && generation == generation(scopeId) && hasRoom()) {
+            entries.put(key, new Entry(value, today, Instant.now().plus(ttl)));
+            // put bilan tozalash orasidagi oyna: put'dan keyin avlod o'zgargan bo'lsa, qaytarib olamiz
+            if (generation != generation(scopeId)) {
+                entries.remove(key);
+            }
+        }
+        return value;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onScopeDataChanged(ScopeDataChangedEvent event) {
+        if (event.affectsAllScopes()) {
+            evictAll();
+        } else {
+            evict(event.scopeId());
+        }
+    }
+
+    public void evict(Long scopeId) {
+        scopeGenerations.computeIfAbsent(scopeId, id -> new AtomicLong()).incrementAndGet();
+        entries.keySet().removeIf(k -> k.scopeId().equals(scopeId));
+    }
+
+    public void evictAll() {
+        globalGeneration.incrementAndGet();
+        entries.clear();
+    }
+
+    private long generation(Long scopeId) {
+        AtomicLong scoped = scopeGenerations.get(scopeId);
+        return globalGeneration.get() + (scoped != null ? scoped.get() : 0);
+    }
+
+    /** Chegara to'lsa avval muddati o'tganlar tashlanadi; baribir to'la bo'lsa keshlanmaydi. */
+    private boolean hasRoom() {
+        if (entries.size() < maxEntries) {
+            return true;
+        }
+        Instant now = Instant.now();
+        LocalDate today = LocalDate.now();
+        entries.values().removeIf(e -> !now.isBefore(e.expiresAt()) || !e.computedOn().equals(today));
+        return entries.size() < maxEntries;
+    }
+
+    private Counter counter(String kind, String result) {
+        return Counter.builder("dashboard.cache")
+                .description("Dashboard javoblari keshi")
+                .tag("kind", kind)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
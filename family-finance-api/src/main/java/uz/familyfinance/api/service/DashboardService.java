@@ -2,6 +2,8 @@ package uz.familyfinance.api.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import uz.familyfinance.api.dto.response.ChartDataResponse;
@@ -9,7 +11,6 @@ import uz.familyfinance.api.dto.response.CurrencyBalanceResponse;
 import uz.familyfinance.api.dto.response.DashboardStatsResponse;
 import uz.familyfinance.api.entity.Budget;
 import uz.familyfinance.api.entity.Category;
-import uz.familyfinance.api.entity.SavingsGoal;
 import uz.familyfinance.api.enums.CategoryType;
 import uz.familyfinance.api.enums.TransactionType;
 import uz.familyfinance.api.repository.*;
@@ -17,11 +18,11 @@ import uz.familyfinance.api.repository.*;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,14 +31,24 @@ import java.util.stream.Collectors;
 public class DashboardService {
 
     private final AccountRepository accountRepository;
-    private final TransactionRepository transactionRepository;
+    private final LedgerDailyAggregateRepository ledgerDailyAggregateRepository;
     private final BudgetRepository budgetRepository;
     private final SavingsGoalRepository savingsGoalRepository;
     private final DebtRepository debtRepository;
     private final CategoryRepository categoryRepository;
     private final ScopeContextService scopeContext;
+    private final DashboardCacheService dashboardCache;
+    private final BudgetService budgetService;
+    private final ParallelQueryExecutor parallelQueries;
+
+    /**
+     * Hisoblash metodlari proxy orqali chaqiriladi — kesh topilganda readOnly tranzaksiya
+     * (va pool ulanishi) umuman ochilmaydi (TransactionService.self naqshi).
+     */
+    @Autowired
+    @Lazy
+    private DashboardService self;
 
-    @Transactional(readOnly = true)
     public DashboardStatsResponse getStats() {
         return getStats(scopeContext.getActiveScopeId());
     }
@@ -45,31 +56,85 @@ public class DashboardService {
     /**
      * Berilgan scope bo'yicha statistika. SUPER_ADMIN bitta oilani read-only ko'rishi uchun
      * tanlangan scopeId bilan ham chaqiriladi ({@code AdminOverviewService}).
+     * Natija (scope, oy) bo'yicha keshlanadi ({@link DashboardCacheService}).
      */
-    @Transactional(readOnly = true)
     public DashboardStatsResponse getStats(Long scopeId) {
+        return dashboardCache.get(DashboardCacheService.STATS, scopeId, () -> computeStats(scopeId),
+                stats -> stats.getMissingSections().isEmpty());
+    }
+
+    public ChartDataResponse getCharts() {
+        // D1-c: scope-aware
+        Long scopeId = scopeContext.getActiveScopeId();
+        return dashboardCache.get(DashboardCacheService.CHARTS, scopeId, () -> self.computeCharts(scopeId));
+    }
+
+    /**
+     * Statistika bo'limlari bir-biriga bog'liq emas — {@link ParallelQueryExecutor} orqali
+     * parallel, har biri o'z readOnly tranzaksiyasida (shu sabab bu metod tranzaksiyasiz:
+     * kutayotgan thread pool ulanishini band qilib turmaydi). Vaqtida tugamagan bo'lim
+     * nol/bo'sh qiymat oladi (javob shakli to'liq javob bilan bir xil — summalar null emas)
+     * va {@code missingSections} da qaytadi.
+     */
+    public DashboardStatsResponse computeStats(Long scopeId) {
         LocalDate now = LocalDate.now();
-        LocalDateTime monthStart = now.withDayOfMonth(1).atStartOfDay();
-        LocalDateTime monthEnd = now.plusMonths(1).withDayOfMonth(1).atStartOfDay().minusSeconds(1);
+        LocalDate monthStart = now.withDayOfMonth(1);
+        LocalDate monthEnd = now.withDayOfMonth(now.lengthOfMonth());
+
+        ParallelQueryExecutor.FanOut fanOut = parallelQueries.fanOut();
+
+        // V63 kunlik agregatlardan — oy bo'yi xom transactions skan qilinmaydi
+        Future<BigDecimal> totalIncome = fanOut.submit(() -> ledgerDailyAggregateRepository.sumByType(
+                TransactionType.INCOME, monthStart, monthEnd, scopeId));
+        Future<BigDecimal> totalExpense = fanOut.submit(() -> ledgerDailyAggregateRepository.sumByType(
+                TransactionType.EXPENSE, monthStart, monthEnd, scopeId));
+        Future<List<DashboardStatsResponse.BudgetProgress>> budgetProgress =
+                fanOut.submit(() -> budgetProgress(scopeId, now));
+        Future<List<DashboardStatsResponse.SavingsProgress>> savingsProgress =
+                fanOut.submit(() -> savingsProgress(scopeId));
+        Future<List<CurrencyBalanceResponse>> balancesByCurrency = fanOut.submit(() ->
+                accountRepository.getBalancesByCurrencyAndScope(scopeId).stream()
+                        .map(row -> new CurrencyBalanceResponse((String) row[0], (BigDecimal) row[1])).toList());
+        Future<BigDecimal> totalSavings = fanOut.submit(() -> savingsGoalRepository.getTotalSavingsByScope(scopeId));
+        Future<BigDecimal> debtsGiven = fanOut.submit(() -> debtRepository.sumRemainingByTypeAndScope(
+                uz.familyfinance.api.enums.DebtType.GIVEN, scopeId));
+        Future<BigDecimal> debtsTaken = fanOut.submit(() -> debtRepository.sumRemainingByTypeAndScope(
+                uz.familyfinance.api.enums.DebtType.TAKEN, scopeId));
+
+        List<CurrencyBalanceResponse> balances = fanOut.join("balances", balancesByCurrency, List.of());
+        List<DashboardStatsResponse.BudgetProgress> budgets = fanOut.join("budgets", budgetProgress, List.of());
+        List<DashboardStatsResponse.SavingsProgress> goals = fanOut.join("savingsGoals", savingsProgress, List.of());
+        BigDecimal primaryBalance = balances.isEmpty() ? BigDecimal.ZERO : balances.get(0).amount();
 
-        BigDecimal totalIncome = transactionRepository.sumByTypeAndDateRangeAndScope(
-                TransactionType.INCOME, monthStart, monthEnd, scopeId);
-        BigDecimal totalExpense = transactionRepository.sumByTypeAndDateRangeAndScope(
-                TransactionType.EXPENSE, monthStart, monthEnd, scopeId);
+        return DashboardStatsResponse.builder()
+                .totalBalance(primaryBalance)
+                .balancesByCurrency(balances)
+                .totalIncome(fanOut.join("income", totalIncome, BigDecimal.ZERO))
+                .totalExpense(fanOut.join("expense", totalExpense, BigDecimal.ZERO))
+                .totalSavings(fanOut.join("totalSavings", totalSavings, BigDecimal.ZERO))
+                .totalDebtsGiven(fanOut.join("debtsGiven", debtsGiven, BigDecimal.ZERO))
+                .totalDebtsTaken(fanOut.join("debtsTaken", debtsTaken, BigDecimal.ZERO))
+                .activeGoals(goals.size())
+                .activeBudgets(budgets.size())
+                .budgetProgress(budgets)
+                .savingsProgress(goals)
+                .missingSections(fanOut.missingSections())
+                .build();
+    }
 
+    private List<DashboardStatsResponse.BudgetProgress> budgetProgress(Long scopeId, LocalDate now) {
         List<Budget> activeBudgets = budgetRepository.findActiveByDateAndScope(now, scopeId);
 
         // Har bir byudjetning "sarfi" O'Z davri (startDate..endDate) bo'yicha hisoblanadi.
         // Avval barcha byudjetlarning min(start)..max(end) BIRLASHGAN oralig'i ishlatilardi —
         // natijada yillik byudjet bilan yonma-yon turgan oylik byudjet boshqa oydagi
         // xarajatni ham "o'ziniki" deb ko'rsatib, dashboard BudgetService.toResponse bilan
-        // zid (masalan 110% "oshib ketgan") javob berardi.
-        List<DashboardStatsResponse.BudgetProgress> budgetProgress = activeBudgets.stream()
+        // zid (masalan 110% "oshib ketgan") javob berardi. Barcha byudjetlar sarfi bitta so'rovda —
+        // BudgetService ro'yxatlari bilan bir xil manba (har byudjetga alohida SUM emas).
+        Map<Long, BigDecimal> spentByBudget = budgetService.spentByBudgetId(activeBudgets);
+        return activeBudgets.stream()
                 .map(b -> {
-                    LocalDateTime from = b.getStartDate().atStartOfDay();
-                    LocalDateTime to = b.getEndDate().atTime(23, 59, 59);
-                    BigDecimal spent = transactionRepository.sumExpenseByCategoryAndScopeAndDateRange(
-                            b.getCategory().getId(), scopeId, from, to);
+                    BigDecimal spent = spentByBudget.getOrDefault(b.getId(), BigDecimal.ZERO);
                     double pct = b.getAmount().compareTo(BigDecimal.ZERO) > 0
                             ? spent.multiply(BigDecimal.valueOf(100)).divide(b.getAmount(), 2, RoundingMode.HALF_UP).doubleValue() : 0;
                     return DashboardStatsResponse.BudgetProgress.builder()
@@ -79,9 +144,10 @@ public class DashboardService {
                             .percentage(pct)
                             .build();
                 }).toList();
+    }
 
-        List<SavingsGoal> activeGoals = savingsGoalRepository.findByIsCompletedFalseAndScope(scopeId);
-        List<DashboardStatsResponse.SavingsProgress> savingsProgress = activeGoals.stream()
+    private List<DashboardStatsResponse.SavingsProgress> savingsProgress(Long scopeId) {
+        return savingsGoalRepository.findByIsCompletedFalseAndScope(scopeId).stream()
                 .map(g -> {
                     double pct = g.getTargetAmount().compareTo(BigDecimal.ZERO) > 0
                             ? g.getCurrentAmount().multiply(BigDecimal.valueOf(100)).divide(g.getTargetAmount(), 2, RoundingMode.HALF_UP).doubleValue() : 0;
@@ -92,41 +158,19 @@ public class DashboardService {
                             .percentage(pct)
                             .build();
                 }).toList();
-
-        List<CurrencyBalanceResponse> balancesByCurrency = accountRepository.getBalancesByCurrencyAndScope(scopeId)
-                .stream().map(row -> new CurrencyBalanceResponse((String) row[0], (BigDecimal) row[1])).toList();
-        BigDecimal primaryBalance = balancesByCurrency.isEmpty() ? BigDecimal.ZERO : balancesByCurrency.get(0).amount();
-
-        return DashboardStatsResponse.builder()
-                .totalBalance(primaryBalance)
-                .balancesByCurrency(balancesByCurrency)
-                .totalIncome(totalIncome)
-                .totalExpense(totalExpense)
-                .totalSavings(savingsGoalRepository.getTotalSavingsByScope(scopeId))
-                .totalDebtsGiven(debtRepository.sumRemainingByTypeAndScope(uz.familyfinance.api.enums.DebtType.GIVEN, scopeId))
-                .totalDebtsTaken(debtRepository.sumRemainingByTypeAndScope(uz.familyfinance.api.enums.DebtType.TAKEN, scopeId))
-                .activeGoals(activeGoals.size())
-                .activeBudgets(activeBudgets.size())
-                .budgetProgress(budgetProgress)
-                .savingsProgress(savingsProgress)
-                .build();
     }
 
     @Transactional(readOnly = true)
-    public ChartDataResponse getCharts() {
+    public ChartDataResponse computeCharts(Long scopeId) {
         LocalDate now = LocalDate.now();
 
-        // D1-c: scope-aware
-        Long scopeId = scopeContext.getActiveScopeId();
-
         // 6 oy trend - bitta batch query bilan
-        LocalDate sixMonthsAgo = now.minusMonths(5).withDayOfMonth(1);
-        LocalDateTime trendFrom = sixMonthsAgo.atStartOfDay();
-        LocalDateTime trendTo = now.plusMonths(1).withDayOfMonth(1).atStartOfDay().minusSeconds(1);
+        LocalDate trendFrom = now.minusMonths(5).withDayOfMonth(1);
+        LocalDate trendTo = now.withDayOfMonth(now.lengthOfMonth());
 
-        // {month -> {type -> sum}} map yaratish
+        // {month -> {type -> sum}} map yaratish (V63 kunlik agregatlardan)
         Map<Integer, Map<TransactionType, BigDecimal>> monthlyMap = new HashMap<>();
-        for (Object[] row : transactionRepository.sumByTypeGroupedByMonthAndScope(trendFrom, trendTo, scopeId)) {
+        for (Object[] row : ledgerDailyAggregateRepository.sumByTypeGroupedByMonth(trendFrom, trendTo, scopeId)) {
             TransactionType type = (TransactionType) row[0];
             int month = ((Number) row[1]).intValue();
             BigDecimal sum = (BigDecimal) row[2];
@@ -146,13 +190,13 @@ public class DashboardService {
         }
 
         // Category data - bitta batch query bilan (joriy oy)
-        LocalDateTime monthStart = now.withDayOfMonth(1).atStartOfDay();
-        LocalDateTime monthEnd = now.plusMonths(1).withDayOfMonth(1).atStartOfDay().minusSeconds(1);
+        LocalDate monthStart = now.withDayOfMonth(1);
+        LocalDate monthEnd = now.withDayOfMonth(now.lengthOfMonth());
 
-        // Expense by category - batch
+        // Expense by category - batch (split ulushlari o'z kategoriyasida)
         List<Category> expenseCategories = categoryRepository.findByTypeAndIsActiveTrue(CategoryType.EXPENSE);
-        Map<Long, BigDecimal> expenseMap = transactionRepository
-                .sumExpenseGroupedByCategoryAndScope(monthStart, monthEnd, scopeId).stream()
+        Map<Long, BigDecimal> expenseMap = ledgerDailyAggregateRepository
+                .sumByTypeGroupedByCategory(TransactionType.EXPENSE, monthStart, monthEnd, scopeId).stream()
                 .collect(Collectors.toMap(row -> (Long) row[0], row -> (BigDecimal) row[1]));
         BigDecimal totalExpense = expenseMap.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
 
@@ -169,8 +213,8 @@ public class DashboardService {
 
         // Income by category - batch
         List<Category> incomeCategories = categoryRepository.findByTypeAndIsActiveTrue(CategoryType.INCOME);
-        Map<Long, BigDecimal> incomeMap = transactionRepository
-                .sumIncomeGroupedByCategoryAndScope(monthStart, monthEnd, scopeId).stream()
+        Map<Long, BigDecimal> incomeMap = ledgerDailyAggregateRepository
+                .sumByTypeGroupedByCategory(TransactionType.INCOME, monthStart, monthEnd, scopeId).stream()
                 .collect(Collectors.toMap(row -> (Long) row[0], row -> (BigDecimal) row[1]));
         BigDecimal totalIncome = incomeMap.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
 
@@ -2,6 +2,7 @@ package uz.familyfinance.api.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -14,6 +15,7 @@ import uz.familyfinance.api.entity.Debt;
 import uz.familyfinance.api.entity.DebtPayment;
 import uz.familyfinance.api.enums.DebtStatus;
 import uz.familyfinance.api.enums.DebtType;
+import uz.familyfinance.api.event.ScopeDataChangedEvent;
 import uz.familyfinance.api.exception.BadRequestException;
 import uz.familyfinance.api.exception.ResourceNotFoundException;
 import uz.familyfinance.api.repository.DebtPaymentRepository;
@@ -33,6 +35,7 @@ public class DebtService {
     private final DebtRepository debtRepository;
     private final DebtPaymentRepository debtPaymentRepository;
     private final ScopeContextService scopeContext;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public Page<DebtResponse> getAll(DebtType type, DebtStatus status, String search, Pageable pageable) {
@@ -72,6 +75,7 @@ public class DebtService {
                 // Phase 2.G: qarz AKTIV scope'ga MAJBURIY bog'lanadi (NOT NULL constraint).
                 .scope(activeScope)
                 .build();
+        eventPublisher.publishEvent(new ScopeDataChangedEvent(activeScope.getId()));
         return toResponse(debtRepository.save(debt));
     }
 
@@ -84,6 +88,7 @@ public class DebtService {
         debt.setPersonPhone(request.getPersonPhone());
         debt.setDueDate(request.getDueDate());
         debt.setDescription(request.getDescription());
+        eventPublisher.publishEvent(new ScopeDataChangedEvent(debt.getScope().getId()));
         return toResponse(debtRepository.save(debt));
     }
 
@@ -92,6 +97,7 @@ public class DebtService {
         Debt debt = findById(id);
         scopeContext.assertCanWrite(debt.getScope().getId());
         debtRepository.delete(debt);
+        eventPublisher.publishEvent(new ScopeDataChangedEvent(debt.getScope().getId()));
     }
 
     @Transactional
@@ -122,6 +128,7 @@ public class DebtService {
             debt.setStatus(DebtStatus.PARTIALLY_PAID);
         }
         debtRepository.save(debt);
+        eventPublisher.publishEvent(new ScopeDataChangedEvent(debt.getScope().getId()));
 
         return toPaymentResponse(payment);
     }
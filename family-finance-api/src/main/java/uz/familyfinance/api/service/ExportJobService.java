@@ -0,0 +1,375 @@
+package uz.familyfinance.api.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.stereotype.Service;
+import uz.familyfinance.api.dto.response.ExportJobResponse;
+import uz.familyfinance.api.enums.ExportJobStatus;
+import uz.familyfinance.api.exception.ConflictException;
+import uz.familyfinance.api.exception.ResourceNotFoundException;
+import uz.familyfinance.api.service.export.ExportRowWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Fon eksport navbati: so'rov job sifatida qabul qilinadi (id qaytadi), progress so'raladi,
+ * tayyor fayl yuklab olinadi. Katta eksport HTTP (Tomcat) thread'ini va ulanishni band qilmaydi.
+ *
+ * <ul>
+ *   <li>Cheklangan worker pool ({@code workers}) va navbat ({@code queue-capacity}) —
+ *       navbat to'lsa yangi job rad etiladi (409);</li>
+ *   <li>foydalanuvchi bo'yicha bir vaqtdagi faol (QUEUED/RUNNING) job'lar chegarasi
+ *       ({@code per-user-limit});</li>
+ *   <li>natija lokal vaqtinchalik katalogga yoziladi ({@code .part} → tayyor bo'lganda
+ *       ko'chiriladi), {@code ttl} o'tgach fayl va job o'chiriladi;</li>
+ *   <li>SecurityContext worker thread'iga ko'chiriladi — scope va huquqlar so'rovdagidek.</li>
+ * </ul>
+ *
+ * <p>Job reyestri xotirada (bitta instansiya): restart'dan keyin job'lar yo'qoladi,
+ * katalogdagi yetim fayllar tozalash vaqtida o'chiriladi.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExportJobService {
+
+    private static final String PART_SUFFIX = ".part";
+
+    private final ScopeContextService scopeContext;
+
+    @Value("${app.export-jobs.dir:${java.io.tmpdir}/family-finance-exports}")
+    private String directoryPath;
+
+    @Value("${app.export-jobs.workers:2}")
+    private int workers;
+
+    @Value("${app.export-jobs.queue-capacity:50}")
+    private int queueCapacity;
+
+    @Value("${app.export-jobs.per-user-limit:2}")
+    private int perUserLimit;
+
+    @Value("${app.export-jobs.ttl:1h}")
+    private Duration ttl;
+
+    @Value("${app.export-jobs.page-size:1000}")
+    private int pageSize;
+
+    @Value("${app.export-jobs.max-records:500000}")
+    private int maxRecords;
+
+    /** Faylni {@code out} ga yozadi; uzoq ma'lumot yig'ishda {@code progress} yangilanadi. */
+    @FunctionalInterface
+    public interface ExportTask {
+        void write(OutputStream out, Progress progress) throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface Progress {
+        void update(long processed, long total);
+    }
+
+    /** Keyset kursori — oxirgi yozilgan qatorning {@code (createdAt, id)} kaliti. */
+    public record Cursor(LocalDateTime createdAt, Long id) {}
+
+    /** {@code after} dan eskiroq ko'pi bilan {@code limit} ta qator ({@code after} null — boshidan). */
+    @FunctionalInterface
+    public interface ChunkFetcher<T> {
+        List<T> fetch(Cursor after, int limit);
+    }
+
+    /** Tayyor fayl — yuklab olish uchun. */
+    public record Download(Path path, String filename, String contentType, long size) {}
+
+    private static final class Job {
+        final String id = UUID.randomUUID().toString();
+        final Long ownerId;
+        final String name;
+        final String filename;
+        final String contentType;
+        final Instant createdAt = Instant.now();
+        volatile ExportJobStatus status = ExportJobStatus.QUEUED;
+        volatile long processed;
+        volatile long total;
+        volatile Long size;
+        volatile String error;
+        volatile Instant finishedAt;
+        volatile Future<?> future;
+
+        Job(Long ownerId, String name, String filename, String contentType) {
+            this.ownerId = ownerId;
+            this.name = name;
+            this.filename = filename;
+            this.contentType = contentType;
+        }
+
+        boolean isActive() {
+            return status == ExportJobStatus.QUEUED || status == ExportJobStatus.RUNNING;
+        }
+    }
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private Path directory;
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() throws IOException {
+        directory = Files.createDirectories(Path.of(directoryPath));
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), r -> {
+                    Thread t = new Thread(r, "export-job-" + threadNumber.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        executor = new DelegatingSecurityContextExecutorService(pool);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Eksportni navbatga qo'yadi. Foydalanuvchining faol job'lari chegarada bo'lsa yoki
+     * umumiy navbat to'la bo'lsa — {@link ConflictException}.
+     */
+    public synchronized ExportJobResponse submit(String name, String filename, String contentType, ExportTask task) {
+        Long ownerId = currentUserId();
+        long active = jobs.values().stream().filter(j -> ownerId.equals(j.ownerId) && j.isActive()).count();
+        if (active >= perUserLimit) {
+            throw new ConflictException("Sizda " + perUserLimit
+                    + " ta eksport bajarilmoqda — ular tugashini kuting");
+        }
+        Job job = new Job(ownerId, name, filename, contentType);
+        jobs.put(job.id, job);
+        try {
+            job.future = executor.submit(() -> run(job, task));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw new ConflictException("Eksport navbati to'la — birozdan keyin qayta urinib ko'ring");
+        }
+        log.info("Eksport job navbatga qo'yildi: id={}, name={}, user={}", job.id, name, ownerId);
+        return toResponse(job);
+    }
+
+    public ExportJobResponse get(String id) {
+        return toResponse(findOwn(id));
+    }
+
+    public List<ExportJobResponse> listMine() {
+        Long ownerId = currentUserId();
+        return jobs.values().stream()
+                .filter(j -> ownerId.equals(j.ownerId))
+                .sorted(Comparator.comparing((Job j) -> j.createdAt).reversed())
+                .map(this::toResponse)
+                .toList();
+    }
+
+    public Download download(String id) {
+        Job job = findOwn(id);
+        if (job.status != ExportJobStatus.DONE) {
+            throw new ConflictException("Eksport hali tayyor emas (holati: " + job.status + ")");
+        }
+        Path file = resultFile(job);
+        if (!Files.exists(file)) {
+            throw new ResourceNotFoundException("Eksport fayli muddati o'tgan yoki o'chirilgan");
+        }
+        return new Download(file, job.filename, job.contentType, job.size != null ? job.size : 0L);
+    }
+
+    /** Job'ni bekor qiladi (ishlayotgan bo'lsa thread to'xtatiladi) va faylini o'chiradi. */
+    public void delete(String id) {
+        Job job = findOwn(id);
+        jobs.remove(job.id);
+        if (job.future != null) {
+            job.future.cancel(true);
+        }
+        deleteFiles(job);
+    }
+
+    /**
+     * Yozuvlarni {@code (createdAt, id)} DESC keyset bo'laklari bilan o'qib, har qatorni darhol
+     * {@code writer} ga yozadi ({@code max-records} gacha) — ro'yxat xotirada yig'ilmaydi.
+     * OFFSET'dan farqli, eksport davomida qo'shilgan yozuvlar kursordan yuqorida qoladi:
+     * takror ham, tushib qolgan qator ham yo'q. {@code total} — progress uchun taxminiy soni.
+     * Job bekor qilinsa (thread interrupt) {@link CancellationException}.
+     *
+     * @return yozilgan qatorlar soni
+     */
+    public <T> long streamAll(ChunkFetcher<T> fetcher, Function<T, Cursor> cursorOf, long total,
+                              ExportRowWriter<T> writer, Progress progress) throws IOException {
+        long expected = Math.min(total, maxRecords);
+        Cursor cursor = null;
+        while (writer.count() < maxRecords) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("Eksport bekor qilindi");
+            }
+            int size = (int) Math.min(pageSize, maxRecords - writer.count());
+            List<T> chunk = fetcher.fetch(cursor, size);
+            for (T row : chunk) {
+                writer.write(row);
+            }
+            progress.update(writer.count(), Math.max(expected, writer.count()));
+            if (chunk.size() < size) {
+                break;
+            }
+            cursor = cursorOf.apply(chunk.get(chunk.size() - 1));
+        }
+        return writer.count();
+    }
+
+    /** Muddati o'tgan tugagan job'lar va reyestrda yo'q (restart'dan qolgan) fayllarni o'chiradi. */
+    @Scheduled(fixedDelayString = "${app.export-jobs.cleanup-interval:5m}")
+    public void cleanup() {
+        Instant threshold = Instant.now().minus(ttl);
+        jobs.values().removeIf(job -> {
+            boolean expired = !job.isActive() && job.finishedAt != null && job.finishedAt.isBefore(threshold);
+            if (expired) {
+                deleteFiles(job);
+            }
+            return expired;
+        });
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(f -> !jobs.containsKey(jobIdOf(f)))
+                    .filter(f -> isOlderThan(f, threshold))
+                    .forEach(this::deleteQuietly);
+        } catch (IOException e) {
+            log.warn("Eksport katalogini tozalab bo'lmadi: {}", e.getMessage());
+        }
+    }
+
+    private void run(Job job, ExportTask task) {
+        if (!jobs.containsKey(job.id)) {
+            return; // navbatda turganida o'chirilgan
+        }
+        job.status = ExportJobStatus.RUNNING;
+        Path part = directory.resolve(job.id + PART_SUFFIX);
+        try {
+            try (OutputStream out = Files.newOutputStream(part)) {
+                task.write(out, (processed, total) -> {
+                    job.processed = processed;
+                    job.total = total;
+                });
+            }
+            Path file = Files.move(part, resultFile(job), StandardCopyOption.REPLACE_EXISTING);
+            job.size = Files.size(file);
+            job.status = ExportJobStatus.DONE;
+            log.info("Eksport job tayyor: id={}, name={}, {} bayt", job.id, job.name, job.size);
+        } catch (Exception e) {
+            deleteQuietly(part);
+            job.error = e instanceof CancellationException || e instanceof InterruptedException
+                    ? "Eksport bekor qilindi"
+                    : "Eksportni tayyorlashda xatolik";
+            job.status = ExportJobStatus.FAILED;
+            log.error("Eksport job xatosi: id={}, name={}", job.id, job.name, e);
+        } finally {
+            job.finishedAt = Instant.now();
+            if (!jobs.containsKey(job.id)) {
+                deleteFiles(job); // ishlayotganda o'chirilgan
+            }
+        }
+    }
+
+    /** Begona job mavjud bo'lmagandek ko'rinadi (id'lar bo'yicha sanab chiqishga qarshi). */
+    private Job findOwn(String id) {
+        Job job = jobs.get(id);
+        if (job == null || !job.ownerId.equals(currentUserId())) {
+            throw new ResourceNotFoundException("Eksport job topilmadi: " + id);
+        }
+        return job;
+    }
+
+    private Long currentUserId() {
+        Long userId = scopeContext.getCurrentUserId();
+        if (userId == null) {
+            throw new AccessDeniedException("Autentifikatsiya talab qilinadi");
+        }
+        return userId;
+    }
+
+    private Path resultFile(Job job) {
+        return directory.resolve(job.id);
+    }
+
+    private void deleteFiles(Job job) {
+        deleteQuietly(resultFile(job));
+        deleteQuietly(directory.resolve(job.id + PART_SUFFIX));
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Eksport faylini o'chirib bo'lmadi: {} ({})", file, e.getMessage());
+        }
+    }
+
+    private static String jobIdOf(Path file) {
+        String name = file.getFileName().toString();
+        return name.endsWith(PART_SUFFIX) ? name.substring(0, name.length() - PART_SUFFIX.length()) : name;
+    }
+
+    private static boolean isOlderThan(Path file, Instant threshold) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant().isBefore(threshold);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private ExportJobResponse toResponse(Job job) {
+        Integer progress = switch (job.status) {
+            case QUEUED -> 0;
+            case DONE -> 100;
+            case RUNNING, FAILED -> job.total > 0 ? (int) Math.min(99, job.processed * 100 / job.total) : null;
+        };
+        return ExportJobResponse.builder()
+                .id(job.id)
+                .name(job.name)
+                .status(job.status)
+                .progress(progress)
+                .processed(job.processed)
+                .total(job.total > 0 ? job.total : null)
+                .filename(job.filename)
+                .size(job.size)
+                .error(job.error)
+                .createdAt(toLocal(job.createdAt))
+                .finishedAt(toLocal(job.finishedAt))
+                .expiresAt(job.finishedAt != null ? toLocal(job.finishedAt.plus(ttl)) : null)
+                .build();
+    }
+
+    private static LocalDateTime toLocal(Instant instant) {
+        return instant != null ? LocalDateTime.ofInstant(instant, ZoneId.systemDefault()) : null;
+    }
+}
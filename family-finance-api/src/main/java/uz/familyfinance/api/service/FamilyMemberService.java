@@ -42,8 +42,10 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -59,6 +61,7 @@ public class FamilyMemberService {
     private final CategoryRepository categoryRepository;
     private final PointParticipantRepository pointParticipantRepository;
     private final ScopeContextService scopeContext;
+    private final MemberTotalsService memberTotalsService;
 
     /**
      * Joriy aktiv scope'ga tegishli family_group_id ni qaytaradi.
@@ -130,9 +133,12 @@ public class FamilyMemberService {
         LocalDateTime monthStart = now.withDayOfMonth(1).atStartOfDay();
         LocalDateTime monthEnd = now.plusMonths(1).withDayOfMonth(1).atStartOfDay().minusSeconds(1);
 
-        // KPI: oylik daromad va xarajat
-        BigDecimal monthlyIncome = transactionRepository.sumIncomeByMemberAndDateRange(id, monthStart, monthEnd);
-        BigDecimal monthlyExpense = transactionRepository.sumExpenseByMemberAndDateRange(id, monthStart, monthEnd);
+        // KPI va kategoriya kesimi — bitta so'rovda (a'zolar hisoboti bilan umumiy manba)
+        MemberTotalsService.MemberTotals totals = memberTotalsService
+                .totalsByMember(List.of(id), monthStart, monthEnd)
+                .getOrDefault(id, MemberTotalsService.MemberTotals.EMPTY);
+        BigDecimal monthlyIncome = totals.income();
+        BigDecimal monthlyExpense = totals.expense();
         BigDecimal netBalance = monthlyIncome.subtract(monthlyExpense);
 
         // Hisoblar
@@ -154,14 +160,17 @@ public class FamilyMemberService {
                         .build())
                 .collect(Collectors.toList());
 
-        // Kategoriya bo'yicha xarajat
-        Map<Long, Category> categoryCache = new HashMap<>();
+        // Kategoriya bo'yicha xarajat va daromad — kategoriyalar bitta so'rovda yuklanadi;
+        // kategoriyasiz summa (null kalit) "Noma'lum" qatori bo'lib chiqadi
+        Set<Long> categoryIds = new HashSet<>(totals.expenseByCategory().keySet());
+        categoryIds.addAll(totals.incomeByCategory().keySet());
+        categoryIds.remove(null);
+        Map<Long, Category> categories = categoryRepository.findAllById(categoryIds).stream()
+                .collect(Collectors.toMap(Category::getId, c -> c));
         List<MemberFinancialSummaryResponse.CategoryBreakdown> expenseByCategory =
-                buildCategoryBreakdown(transactionRepository.sumExpenseByMemberGroupedByCategory(id, monthStart, monthEnd), categoryCache);
-
-        // Kategoriya bo'yicha daromad
+                buildCategoryBreakdown(totals.expenseByCategory(), categories);
         List<MemberFinancialSummaryResponse.CategoryBreakdown> incomeByCategory =
-                buildCategoryBreakdown(transactionRepository.sumIncomeByMemberGroupedByCategory(id, monthStart, monthEnd), categoryCache);
+                buildCategoryBreakdown(totals.incomeByCategory(), categories);
 
         // 6 oylik trend
         LocalDate sixMonthsAgo = now.minusMonths(5).withDayOfMonth(1);
@@ -219,17 +228,15 @@ public class FamilyMemberService {
     }
 
     private List<MemberFinancialSummaryResponse.CategoryBreakdown> buildCategoryBreakdown(
-            List<Object[]> rawData, Map<Long, Category> categoryCache) {
-        BigDecimal total = rawData.stream()
-                .map(row -> (BigDecimal) row[1])
+            Map<Long, BigDecimal> amountByCategory, Map<Long, Category> categories) {
+        BigDecimal total = amountByCategory.values().stream()
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
 
-        return rawData.stream()
-                .map(row -> {
-                    Long catId = (Long) row[0];
-                    BigDecimal amount = (BigDecimal) row[1];
-                    Category cat = categoryCache.computeIfAbsent(catId,
-                            cId -> categoryRepository.findById(cId).orElse(null));
+        return amountByCategory.entrySet().stream()
+                .map(entry -> {
+                    Long catId = entry.getKey();
+                    BigDecimal amount = entry.getValue();
+                    Category cat = categories.get(catId);
                     double pct = total.compareTo(BigDecimal.ZERO) > 0
                             ? amount.multiply(BigDecimal.valueOf(100)).divide(total, 2, RoundingMode.HALF_UP).doubleValue()
                             : 0;
@@ -242,6 +249,7 @@ public class FamilyMemberService {
                             .build();
                 })
                 .filter(b -> b.getAmount().compareTo(BigDecimal.ZERO) > 0)
+                .sorted((a, b) -> b.getAmount().compareTo(a.getAmount()))
                 .collect(Collectors.toList());
     }
 
@@ -0,0 +1,155 @@
+package uz.familyfinance.api.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Idempotency-Key javoblari (V67): chegaralangan xotiradagi LRU + {@code idempotency_keys} jadvali.
+ *
+ * <p>Mobil ilova beqaror tarmoqda yozish so'rovini qayta yuboradi. Kalit bo'yicha birinchi
+ * muvaffaqiyatli javob saqlanadi; takror kelganda u LRU'dan (O(1), bazaga so'rovsiz) yoki
+ * jadvaldan (bitta PK o'qish) qaytariladi — daftar, balans va agregatlarga tegilmaydi.
+ * LRU faqat tezlashtirish: node qayta ishga tushsa yoki boshqa node'ga tushsa, jadval
+ * manba bo'lib qoladi.</p>
+ *
+ * <p>Holatlar: {@link #tryClaim} kalitni IN_PROGRESS qilib egallaydi (PK to'qnashuvi —
+ * parallel ikkinchi urinish egallay olmaydi), {@link #complete} javobni yozadi,
+ * {@link #release} xato bo'lganda kalitni bo'shatadi (mijoz qayta urina oladi). Har biri
+ * alohida (REQUIRES_NEW) tranzaksiyada — yozish so'rovi tranzaksiyasiga aralashmaydi.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyService {
+
+    private static final String IN_PROGRESS = "IN_PROGRESS";
+    private static final String COMPLETED = "COMPLETED";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.idempotency.cache-size:10000}")
+    private int cacheSize;
+
+    @Value("${app.idempotency.ttl:24h}")
+    private Duration ttl;
+
+    /** IN_PROGRESS kalit shundan keyin "osilib qolgan" hisoblanadi (node so'rov o'rtasida o'chgan). */
+    @Value("${app.idempotency.in-progress-timeout:5m}")
+    private Duration inProgressTimeout;
+
+    /** Saqlangan javob: so'rov xeshi (kalit boshqa tana bilan ishlatilmasin), HTTP status, JSON tana. */
+    public record StoredResponse(String requestHash, int status, String body, LocalDateTime completedAt) {}
+
+    /** Kirish tartibidagi LRU; removeEldestEntry {@code cacheSize} ni o'qish paytida oladi. */
+    private final Map<String, StoredResponse> cache = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                    return size() > Math.max(1, cacheSize);
+                }
+            });
+
+    /** Yakunlangan javob (muddati o'tmagan) — avval LRU, topilmasa jadval. */
+    @Transactional(readOnly = true)
+    public Optional<StoredResponse> findCompleted(Long userId, String key) {
+        String cacheKey = cacheKey(userId, key);
+        StoredResponse cached = cache.get(cacheKey);
+        if (cached != null) {
+            if (!isExpired(cached.completedAt())) {
+                return Optional.of(cached);
+            }
+            cache.remove(cacheKey);
+        }
+        List<StoredResponse> rows = jdbcTemplate.query(
+                "SELECT request_hash, response_status, response_body, completed_at FROM idempotency_keys "
+                        + "WHERE user_id = ? AND idempotency_key = ? AND status = '" + COMPLETED + "'",
+                (rs, i) -> new StoredResponse(rs.getString(1), rs.getInt(2), rs.getString(3),
+                        rs.getTimestamp(4).toLocalDateTime()),
+                userId, key);
+        if (rows.isEmpty() || isExpired(rows.get(0).completedAt())) {
+            return Optional.empty();
+        }
+        cache.put(cacheKey, rows.get(0));
+        return Optional.of(rows.get(0));
+    }
+
+    /**
+     * Kalitni egallaydi. {@code false} — kalit band: boshqa urinish hali bajarilmoqda yoki
+     * allaqachon yakunlangan (chaqiruvchi {@link #findCompleted} bilan qayta tekshiradi).
+     * Osilib qolgan yoki muddati o'tgan yozuv qayta egallanadi.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean tryClaim(Long userId, String key, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        int inserted = jdbcTemplate.update(
+                "INSERT INTO idempotency_keys (user_id, idempotency_key, request_hash, status, created_at) "
+                        + "VALUES (?, ?, ?, '" + IN_PROGRESS + "', ?) ON CONFLICT DO NOTHING",
+                userId, key, requestHash, Timestamp.valueOf(now));
+        if (inserted == 1) {
+            return true;
+        }
+        int taken = jdbcTemplate.update(
+                "UPDATE idempotency_keys SET request_hash = ?, status = '" + IN_PROGRESS + "', created_at = ?, "
+                        + "response_status = NULL, response_body = NULL, completed_at = NULL "
+                        + "WHERE user_id = ? AND idempotency_key = ? AND ("
+                        + "(status = '" + IN_PROGRESS + "' AND created_at < ?) OR "
+                        + "(status = '" + COMPLETED + "' AND completed_at < ?))",
+                requestHash, Timestamp.valueOf(now), userId, key,
+                Timestamp.valueOf(now.minus(inProgressTimeout)), Timestamp.valueOf(now.minus(ttl)));
+        if (taken == 1) {
+            cache.remove(cacheKey(userId, key));
+        }
+        return taken == 1;
+    }
+
+    /** Muvaffaqiyatli javobni saqlaydi — keyingi takrorlar shuni oladi. */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void complete(Long userId, String key, String requestHash, int status, String body) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update(
+                "UPDATE idempotency_keys SET status = '" + COMPLETED + "', response_status = ?, response_body = ?, "
+                        + "completed_at = ? WHERE user_id = ? AND idempotency_key = ?",
+                status, body, Timestamp.valueOf(now), userId, key);
+        cache.put(cacheKey(userId, key), new StoredResponse(requestHash, status, body, now));
+    }
+
+    /** Xato bo'ldi — javob saqlanmaydi, kalit bo'shatiladi (shu kalit bilan qayta urinish mumkin). */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void release(Long userId, String key) {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE user_id = ? AND idempotency_key = ? "
+                + "AND status = '" + IN_PROGRESS + "'", userId, key);
+    }
+
+    /** Muddati o'tgan kalitlarni o'chiradi (FinanceScheduler). */
+    @Transactional
+    public int purgeExpired() {
+        int deleted = jdbcTemplate.update("DELETE FROM idempotency_keys WHERE created_at < ?",
+                Timestamp.valueOf(LocalDateTime.now().minus(ttl)));
+        synchronized (cache) {
+            cache.values().removeIf(r -> isExpired(r.completedAt()));
+        }
+        return deleted;
+    }
+
+    private boolean isExpired(LocalDateTime completedAt) {
+        return completedAt.isBefore(LocalDateTime.now().minus(ttl));
+    }
+
+    private static String cacheKey(Long userId, String key) {
+        return userId + ":" + key;
+    }
+}
@@ -0,0 +1,224 @@
+package uz.familyfinance.api.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import uz.familyfinance.api.entity.Transaction;
+import uz.familyfinance.api.entity.TransactionSplit;
+import uz.familyfinance.api.enums.TransactionStatus;
+import uz.familyfinance.api.enums.TransactionType;
+import uz.familyfinance.api.repository.TransactionSplitRepository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * V63 {@code ledger_daily_aggregates} proyeksiyasini yuritadi.
+ *
+ * <p>Yozuvchi oqimlar (create/update/reverse/cancel/confirm, bulk categorize, import)
+ * o'zgarishdan OLDIN va KEYIN tranzaksiyaning hissasini ({@link #snapshot}) oladi va
+ * {@link #apply} farqni o'sha DB tranzaksiyasida upsert qiladi — shu sabab proyeksiya
+ * daftar bilan birga commit/rollback bo'ladi. Storno invarianti (REVERSED asl qator
+ * va REVERSAL kompensatsiya hissa qo'shmaydi) faqat shu yerda, bir marta.</p>
+ *
+ * <p>Drift yoki qo'lda SQL tuzatishdan keyin {@link #rebuild()} proyeksiyani daftardan
+ * qayta quradi (V63 backfill bilan bir xil SELECT).</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LedgerAggregateService {
+
+    private static final String UPSERT_SQL = "INSERT INTO ledger_daily_aggregates "
+            + "(scope_id, ledger_date, type, category_id, currency, member_id, amount, entry_count, tx_count) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT (scope_id, ledger_date, type, category_id, currency, member_id) DO UPDATE SET "
+            + "amount = ledger_daily_aggregates.amount + EXCLUDED.amount, "
+            + "entry_count = ledger_daily_aggregates.entry_count + EXCLUDED.entry_count, "
+            + "tx_count = ledger_daily_aggregates.tx_count + EXCLUDED.tx_count";
+
+    /** Kalitning barcha hissasi olib tashlangach bo'sh qolgan qatorni o'chiradi. */
+    private static final String DELETE_EMPTY_SQL = "DELETE FROM ledger_daily_aggregates "
+            + "WHERE scope_id IS NOT DISTINCT FROM ? AND ledger_date = ? AND type = ? "
+            + "AND category_id IS NOT DISTINCT FROM ? AND currency = ? AND member_id IS NOT DISTINCT FROM ? "
+            + "AND entry_count = 0";
+
+    private static final String REBUILD_SQL = "INSERT INTO ledger_daily_aggregates "
+            + "(scope_id, ledger_date, type, category_id, currency, member_id, amount, entry_count, tx_count) "
+            + "SELECT scope_id, ledger_date, type, category_id, currency, member_id, "
+            + "SUM(amount), SUM(entry_count), SUM(tx_count) FROM ("
+            + " SELECT t.scope_id, CAST(t.transaction_date AS DATE) AS ledger_date, t.type, t.category_id, a.currency,"
+            + " t.family_member_id AS member_id, t.amount, 1 AS entry_count, 1 AS tx_count"
+            + " FROM transactions t JOIN accounts a ON a.id = t.account_id"
+            + " WHERE t.status <> 'REVERSED' AND t.type <> 'REVERSAL'"
+            + " AND NOT EXISTS (SELECT 1 FROM transaction_splits s WHERE s.transaction_id = t.id)"
+            + " UNION ALL"
+            + " SELECT t.scope_id, CAST(t.transaction_date AS DATE), t.type, s.category_id, a.currency,"
+            + " t.family_member_id, s.amount, 1,"
+            + " CASE WHEN ROW_NUMBER() OVER (PARTITION BY s.transaction_id ORDER BY s.category_id, s.id) = 1"
+            + " THEN 1 ELSE 0 END"
+            + " FROM transaction_splits s JOIN transactions t ON t.id = s.transaction_id"
+            + " JOIN accounts a ON a.id = t.account_id"
+            + " WHERE t.status <> 'REVERSED' AND t.type <> 'REVERSAL'"
+            + ") src GROUP BY scope_id, ledger_date, type, category_id, currency, member_id";
+
+    private final TransactionSplitRepository transactionSplitRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Proyeksiya kaliti. */
+    public record Key(Long scopeId, LocalDate date, TransactionType type, Long categoryId,
+                      String currency, Long memberId) {}
+
+    /** Bitta kalitga hissa (yoki farq). */
+    public record Contribution(Key key, BigDecimal amount, long entryCount, long txCount) {}
+
+    /**
+     * Tranzaksiyaning joriy hissasi — split'lari bazadan o'qiladi. Storno qilingan yoki
+     * REVERSAL tranzaksiya uchun bo'sh ro'yxat.
+     */
+    public List<Contribution> snapshot(Transaction t) {
+        if (!contributes(t)) {
+            return List.of();
+        }
+        List<TransactionSplit> splits = t.getId() != null
+                ? transactionSplitRepository.findByTransactionId(t.getId())
+                : List.of();
+        return snapshot(t, splits);
+    }
+
+    /** Split'lar chaqiruvchida allaqachon ma'lum bo'lsa (CREATE) — qo'shimcha so'rovsiz. */
+    public List<Contribution> snapshot(Transaction t, List<TransactionSplit> splits) {
+        if (!contributes(t)) {
+            return List.of();
+        }
+        Long scopeId = t.getScope() != null ? t.getScope().getId() : null;
+        Long memberId = t.getFamilyMember() != null ? t.getFamilyMember().getId() : null;
+        String currency = t.getAccount().getCurrency();
+        LocalDate date = t.getTransactionDate().toLocalDate();
+
+        if (splits == null || splits.isEmpty()) {
+            Long categoryId = t.getCategory() != null ? t.getCategory().getId() : null;
+            return List.of(new Contribution(new Key(scopeId, date, t.getType(), categoryId, currency, memberId),
+                    t.getAmount(), 1, 1));
+        }
+
+        // Ulushlar kategoriya bo'yicha; tranzaksiya soni (1) eng kichik category_id'li
+        // qatorga — rebuild SQL'idagi ROW_NUMBER() tartibi bilan bir xil
+        Map<Long, Contribution> byCategory = new LinkedHashMap<>();
+        splits.stream()
+                .sorted(Comparator.comparing((TransactionSplit s) -> s.getCategory().getId()))
+                .forEach(s -> {
+                    Long categoryId = s.getCategory().getId();
+                    long txCount = byCategory.isEmpty() ? 1 : 0;
+                    Contribution c = new Contribution(
+                            new Key(scopeId, date, t.getType(), categoryId, currency, memberId),
+                            s.getAmount(), 1, txCount);
+                    byCategory.merge(categoryId, c, LedgerAggregateService::sum);
+                });
+        return List.copyOf(byCategory.values());
+    }
+
+    /** Import kabi entity'siz yozuvchilar uchun: bitta split'siz tranzaksiya hissasi. */
+    public Contribution contribution(Long scopeId, LocalDateTime transactionDate, TransactionType type,
+                                     Long categoryId, String currency, Long memberId, BigDecimal amount) {
+        return new Contribution(new Key(scopeId, transactionDate.toLocalDate(), type, categoryId, currency, memberId),
+                amount, 1, 1);
+    }
+
+    /**
+     * {@code after − before} farqini proyeksiyaga yozadi (chaqiruvchining tranzaksiyasida).
+     * Farqi nol kalitlar o'tkazib yuboriladi — masalan confirm (PENDING ham CONFIRMED ham
+     * hisoblanadi) hech narsa yozmaydi.
+     */
+    public void apply(Collection<Contribution> before, Collection<Contribution> after) {
+        Map<Key, Contribution> delta = new LinkedHashMap<>();
+        for (Contribution c : before) {
+            delta.merge(c.key(), negate(c), LedgerAggregateService::sum);
+        }
+        for (Contribution c : after) {
+            delta.merge(c.key(), c, LedgerAggregateService::sum);
+        }
+        List<Contribution> changes = new ArrayList<>();
+        List<Contribution> shrinking = new ArrayList<>();
+        for (Contribution c : delta.values()) {
+            if (c.amount().signum() == 0 && c.entryCount() == 0 && c.txCount() == 0) {
+                continue;
+            }
+            changes.add(c);
+            if (c.entryCount() < 0) {
+                shrinking.add(c);
+            }
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, changes, changes.size(), (ps, c) -> {
+            bindKey(ps, c.key());
+            ps.setBigDecimal(7, c.amount());
+            ps.setLong(8, c.entryCount());
+            ps.setLong(9, c.txCount());
+        });
+        if (!shrinking.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_EMPTY_SQL, shrinking, shrinking.size(), (ps, c) -> bindKey(ps, c.key()));
+        }
+    }
+
+    /**
+     * Proyeksiyani daftardan to'liq qayta quradi. EXCLUSIVE lock — rebuild davomida
+     * parallel yozuvchilarning upsert'lari kutadi (aks holda ular eski jadvalga yozib,
+     * yangi backfill bilan ikki marta sanalardi).
+     */
+    @Transactional
+    public int rebuild() {
+        jdbcTemplate.execute("LOCK TABLE ledger_daily_aggregates IN EXCLUSIVE MODE");
+        jdbcTemplate.update("DELETE FROM ledger_daily_aggregates");
+        int rows = jdbcTemplate.update(REBUILD_SQL);
+        log.info("Kunlik daftar agregatlari qayta qurildi: {} qator", rows);
+        return rows;
+    }
+
+    private static boolean contributes(Transaction t) {
+        return t.getStatus() != null
+                && t.getStatus() != TransactionStatus.REVERSED
+                && t.getType() != TransactionType.REVERSAL;
+    }
+
+    private static Contribution negate(Contribution c) {
+        return new Contribution(c.key(), c.amount().negate(), -c.entryCount(), -c.txCount());
+    }
+
+    private static Contribution sum(Contribution a, Contribution b) {
+        return new Contribution(a.key(), a.amount().add(b.amount()),
+                a.entryCount() + b.entryCount(), a.txCount() + b.txCount());
+    }
+
+    private static void bindKey(PreparedStatement ps, Key key) throws SQLException {
+        setNullableLong(ps, 1, key.scopeId());
+        ps.setDate(2, Date.valueOf(key.date()));
+        ps.setString(3, key.type().name());
+        setNullableLong(ps, 4, key.categoryId());
+        ps.setString(5, key.currency());
+        setNullableLong(ps, 6, key.memberId());
+    }
+
+    private static void setNullableLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value != null) {
+            ps.setLong(index, value);
+        } else {
+            ps.setNull(index, Types.BIGINT);
+        }
+    }
+}
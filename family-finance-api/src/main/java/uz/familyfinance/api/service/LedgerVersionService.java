@@ -0,0 +1,57 @@
+package uz.familyfinance.api.service;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import uz.familyfinance.api.event.ScopeDataChangedEvent;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Scope bo'yicha monoton o'suvchi daftar versiyasi — conditional GET (ETag) asosi.
+ *
+ * <p>Yozish servislari e'lon qiladigan {@link ScopeDataChangedEvent} AFTER_COMMIT fazasida
+ * versiyani oshiradi ({@link DashboardCacheService} bilan bir xil manba): rollback bo'lgan
+ * yozuv versiyani o'zgartirmaydi, commit'dan oldin esa yangi ETag eski ma'lumot bilan
+ * chiqmaydi.</p>
+ *
+ * <p>Versiyalar xotirada — ilova qayta ishga tushsa noldan boshlanadi. Shu sababli ETag'ga
+ * {@link #epoch()} (har ishga tushishda yangi) qo'shiladi: eski ETag yangi instance'da hech
+ * qachon mos kelmaydi.</p>
+ */
+@Service
+public class LedgerVersionService {
+
+    private final String epoch = UUID.randomUUID().toString();
+    private final Map<Long, AtomicLong> scopeVersions = new ConcurrentHashMap<>();
+    /** allScopes event'lari (global kategoriya va h.k.) — har scope versiyasiga qo'shiladi. */
+    private final AtomicLong globalVersion = new AtomicLong();
+    /** Istalgan o'zgarish — global (SUPER_ADMIN) ko'rinishlar versiyasi. */
+    private final AtomicLong anyChange = new AtomicLong();
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onScopeDataChanged(ScopeDataChangedEvent event) {
+        if (event.affectsAllScopes()) {
+            globalVersion.incrementAndGet();
+        } else {
+            scopeVersions.computeIfAbsent(event.scopeId(), id -> new AtomicLong()).incrementAndGet();
+        }
+        anyChange.incrementAndGet();
+    }
+
+    /** Scope versiyasi; {@code null} — barcha scope'lar bo'yicha (istalgan o'zgarishda oshadi). */
+    public long current(Long scopeId) {
+        if (scopeId == null) {
+            return anyChange.get();
+        }
+        AtomicLong scoped = scopeVersions.get(scopeId);
+        return globalVersion.get() + (scoped != null ? scoped.get() : 0);
+    }
+
+    public String epoch() {
+        return epoch;
+    }
+}
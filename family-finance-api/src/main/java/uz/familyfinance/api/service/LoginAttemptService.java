@@ -3,6 +3,7 @@ package uz.familyfinance.api.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
@@ -134,6 +135,26 @@ public class LoginAttemptService {
         );
     }
 
+    /**
+     * Fon eksporti uchun keyset bo'lak — {@code after} dan eskiroq ko'pi bilan {@code limit} ta
+     * urinish ({@code createdAt, id} DESC). Filtrlar {@link #getLoginHistory} bilan bir xil.
+     */
+    public List<LoginAttempt> getLoginHistoryForExport(
+            String username,
+            LoginAttempt.LoginStatus status,
+            String ipAddress,
+            LocalDateTime fromDate,
+            LocalDateTime toDate,
+            ExportJobService.Cursor after,
+            int limit
+    ) {
+        return loginAttemptRepository.findExportChunk(
+                username, status, ipAddress, fromDate, toDate,
+                after != null ? after.createdAt() : null, after != null ? after.id() : null,
+                PageRequest.of(0, limit)
+        );
+    }
+
     /**
      * Cleanup old login attempts (scheduled task)
      */
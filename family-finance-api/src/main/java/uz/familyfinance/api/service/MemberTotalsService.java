@@ -0,0 +1,73 @@
+package uz.familyfinance.api.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import uz.familyfinance.api.enums.TransactionType;
+import uz.familyfinance.api.repository.TransactionRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A'zolar bo'yicha daromad/xarajat jamilari va kategoriya kesimi — a'zolar soni qancha
+ * bo'lmasin BITTA so'rovda ({@link TransactionRepository#sumByMemberIdsGroupedByTypeAndCategory}).
+ * A'zolar hisoboti, uning eksporti va a'zo moliyaviy xulosasi shu manbadan o'qiydi.
+ */
+@Service
+@RequiredArgsConstructor
+public class MemberTotalsService {
+
+    private final TransactionRepository transactionRepository;
+
+    /**
+     * Bitta a'zoning davr jamilari. Kategoriyasiz summa kategoriya xaritalarida {@code null}
+     * kalit ostida — har xarita qiymatlari yig'indisi mos jamiga teng.
+     */
+    public record MemberTotals(BigDecimal income, BigDecimal expense,
+                               Map<Long, BigDecimal> incomeByCategory,
+                               Map<Long, BigDecimal> expenseByCategory) {
+
+        public static final MemberTotals EMPTY = new MemberTotals(BigDecimal.ZERO, BigDecimal.ZERO, Map.of(), Map.of());
+    }
+
+    /** a'zo ID → jamilar; davrda yozuvi yo'q a'zo natijada bo'lmaydi ({@link MemberTotals#EMPTY}). */
+    @Transactional(readOnly = true)
+    public Map<Long, MemberTotals> totalsByMember(Collection<Long> memberIds, LocalDateTime from, LocalDateTime to) {
+        if (memberIds == null || memberIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, BigDecimal> income = new HashMap<>();
+        Map<Long, BigDecimal> expense = new HashMap<>();
+        Map<Long, Map<Long, BigDecimal>> incomeByCategory = new HashMap<>();
+        Map<Long, Map<Long, BigDecimal>> expenseByCategory = new HashMap<>();
+
+        for (Object[] row : transactionRepository.sumByMemberIdsGroupedByTypeAndCategory(memberIds, from, to)) {
+            Long memberId = ((Number) row[0]).longValue();
+            boolean isIncome = TransactionType.INCOME.name().equals(row[1]);
+            Long categoryId = row[2] != null ? ((Number) row[2]).longValue() : null;
+            BigDecimal amount = (BigDecimal) row[3];
+
+            (isIncome ? income : expense).merge(memberId, amount, BigDecimal::add);
+            // HashMap — kategoriyasiz (null) kalitni ham qabul qiladi
+            (isIncome ? incomeByCategory : expenseByCategory)
+                    .computeIfAbsent(memberId, id -> new HashMap<>())
+                    .merge(categoryId, amount, BigDecimal::add);
+        }
+
+        Map<Long, MemberTotals> result = new HashMap<>();
+        for (Long memberId : memberIds) {
+            if (income.containsKey(memberId) || expense.containsKey(memberId)) {
+                result.put(memberId, new MemberTotals(
+                        income.getOrDefault(memberId, BigDecimal.ZERO),
+                        expense.getOrDefault(memberId, BigDecimal.ZERO),
+                        incomeByCategory.getOrDefault(memberId, Map.of()),
+                        expenseByCategory.getOrDefault(memberId, Map.of())));
+            }
+        }
+        return result;
+    }
+}
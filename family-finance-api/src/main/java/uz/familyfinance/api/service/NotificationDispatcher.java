@@ -8,6 +8,7 @@ import uz.familyfinance.api.dto.response.StaffNotificationResponse;
 import uz.familyfinance.api.dto.websocket.PermissionUpdateMessage;
 import uz.familyfinance.api.dto.websocket.SessionUpdateMessage;
 import uz.familyfinance.api.entity.StaffNotification;
+import uz.familyfinance.api.security.PrincipalCache;
 
 import java.util.Set;
 
@@ -19,6 +20,7 @@ public class NotificationDispatcher {
     private final SimpMessagingTemplate messagingTemplate;
     private final PermissionService permissionService;
     private final UserService userService;
+    private final PrincipalCache principalCache;
 
     /**
      * Barcha staff'ga global bildirishnoma yuborish
@@ -59,6 +61,8 @@ public class NotificationDispatcher {
      * @param reason Optional reason for the change (e.g., "Role updated by admin")
      */
     public void notifyPermissionsUpdated(Long userId, Set<String> permissions, Set<String> roles, String reason) {
+        // Keyingi so'rov autentifikatsiyasi yangi rollar/permission'lar bilan bo'lsin
+        principalCache.evictUser(userId);
         try {
             log.info("Notifying user {} of permission update. Reason: {}", userId, reason);
 
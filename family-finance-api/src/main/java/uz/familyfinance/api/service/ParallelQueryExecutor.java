@@ -0,0 +1,155 @@
+package uz.familyfinance.api.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Bir-biriga bog'liq bo'lmagan read-only agregat so'rovlarini parallel bajaradi (dashboard,
+ * admin overview). Kechikish so'rovlar yig'indisi emas, eng sekinining vaqti bo'ladi.
+ *
+ * <ul>
+ *   <li>Virtual thread'lar — kutish (JDBC) platforma thread'ini band qilmaydi;</li>
+ *   <li>{@code max-concurrency} — BITTA to'plam ({@link FanOut}, ya'ni bitta HTTP so'rov)
+ *       bir vaqtda oladigan ulanishlar soni: bitta dashboard butun pool'ni egallab, yozish
+ *       so'rovlarini bo'g'ib qo'ymaydi. Semafor to'plamga tegishli, global emas — bir
+ *       nechta foydalanuvchining dashboard'lari bir-birini navbatda kutib, qisman javobga
+ *       tushmaydi; umumiy chegara ulanish pool'ining o'zi;</li>
+ *   <li>har so'rov o'z readOnly tranzaksiyasida (chaqiruvchi tranzaksiyasi boshqa
+ *       thread'ga o'tmaydi), statement timeout bilan; chaqiruvchi tranzaksiya ichida
+ *       bo'lsa so'rovlar ketma-ket, shu tranzaksiyada bajariladi;</li>
+ *   <li>SecurityContext vazifa thread'iga ko'chiriladi. Scope esa chaqiruvchi thread'da
+ *       oldindan aniqlanib, so'rovlarga aniq {@code scopeId} bo'lib beriladi.</li>
+ * </ul>
+ *
+ * <p>Vaqt tugasa ({@code timeout}) so'rov bekor qilinadi, uning o'rniga fallback
+ * qiymat olinadi va bo'lim nomi {@link FanOut#missingSections()} ga yoziladi — javob
+ * qisman bo'lsa ham qaytadi.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ParallelQueryExecutor {
+
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.dashboard.fan-out.max-concurrency:4}")
+    private int maxConcurrency;
+
+    @Value("${app.dashboard.fan-out.timeout:3s}")
+    private Duration timeout;
+
+    private ExecutorService executor;
+    private TransactionTemplate readOnlyTx;
+
+    @PostConstruct
+    public void init() {
+        executor = new DelegatingSecurityContextExecutorService(Executors.newVirtualThreadPerTaskExecutor());
+        readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+        // Kutish bekor qilinsa ham so'rov bazada osilib qolmasin — statement timeout
+        readOnlyTx.setTimeout((int) Math.max(1, (timeout.toMillis() + 999) / 1000));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /** Yangi parallel so'rovlar to'plami; muddat shu paytdan hisoblanadi. */
+    public FanOut fanOut() {
+        return new FanOut(System.nanoTime() + timeout.toNanos());
+    }
+
+    /** Bitta so'rovlar to'plami — submit qilinadi, keyin har biri {@link #join} bilan olinadi. */
+    public final class FanOut {
+
+        private final long deadlineNanos;
+        private final Semaphore permits = new Semaphore(Math.max(1, maxConcurrency), true);
+        private final List<String> missing = Collections.synchronizedList(new ArrayList<>());
+
+        private FanOut(long deadlineNanos) {
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /**
+         * So'rovni readOnly tranzaksiyada, shu to'plam semaforidan ruxsat olib bajaradi.
+         * Chaqiruvchi tranzaksiya ichida bo'lsa — shu thread'da, o'sha tranzaksiyada: boshqa
+         * ulushdagi so'rov uning commit qilinmagan yozuvlarini ko'rmaydi (read-your-writes).
+         */
+        public <T> Future<T> submit(Supplier<T> query) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                try {
+                    return CompletableFuture.completedFuture(query.get());
+                } catch (RuntimeException e) {
+                    return CompletableFuture.failedFuture(e);
+                }
+            }
+            return executor.submit(() -> {
+                permits.acquire();
+                try {
+                    return readOnlyTx.execute(status -> query.get());
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+
+        /**
+         * Natijani muddat tugaguncha kutadi. Vaqt tugasa so'rov bekor qilinadi, bo'lim
+         * "yetishmayotgan" deb belgilanadi va {@code fallback} qaytadi. So'rov xatosi
+         * (masalan AccessDenied) o'zgarishsiz qayta tashlanadi.
+         */
+        public <T> T join(String section, Future<T> future, T fallback) {
+            try {
+                long remaining = Math.max(0, deadlineNanos - System.nanoTime());
+                return future.get(remaining, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException | CancellationException e) {
+                future.cancel(true);
+                missing.add(section);
+                log.warn("Parallel so'rov '{}' {} ichida tugamadi — qisman javob", section, timeout);
+                return fallback;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                missing.add(section);
+                return fallback;
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException re) {
+                    throw re;
+                }
+                throw new IllegalStateException("Parallel so'rov '" + section + "' bajarilmadi", e.getCause());
+            }
+        }
+
+        public List<String> missingSections() {
+            return List.copyOf(missing);
+        }
+
+        public boolean isPartial() {
+            return !missing.isEmpty();
+        }
+    }
+}
@@ -2,10 +2,13 @@ package uz.familyfinance.api.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import uz.familyfinance.api.config.CacheConfig;
 import uz.familyfinance.api.dto.response.PermissionResponse;
 import uz.familyfinance.api.entity.Permission;
 import uz.familyfinance.api.enums.PermissionCode;
@@ -14,12 +17,22 @@ import uz.familyfinance.api.repository.PermissionRepository;
 import java.util.*;
 import java.util.stream.Collectors;
 
+/**
+ * Permission'lar va foydalanuvchi huquqlari tekshiruvi.
+ *
+ * <p>Foydalanuvchi permission kodlari {@link CacheConfig#USER_PERMISSIONS} keshida (userId
+ * kaliti) — {@code @RequiresPermission} tekshiruvi odatda bazaga bormaydi. Kesh dasturiy
+ * ishlatiladi: {@code hasAnyPermission} kabi ichki chaqiruvlar proxy'dan o'tmaydi, shuning
+ * uchun @Cacheable ularni keshlamas edi. Barcha tekshiruvlar shu bitta yozuvdan olinadi —
+ * {@link #clearUserPermissionsCache(Long)} foydalanuvchining hamma yozuvini tozalaydi.</p>
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class PermissionService {
 
     private final PermissionRepository permissionRepository;
+    private final CacheManager cacheManager;
 
     /**
      * Get all permissions grouped by module
@@ -50,20 +63,20 @@ public class PermissionService {
     }
 
     /**
-     * Get permissions for a specific user (cached)
+     * Get permissions for a specific user (cached, o'zgarmas to'plam)
      */
-    @Cacheable(value = "userPermissions", key = "#userId")
     public Set<String> getUserPermissionCodes(Long userId) {
-        log.debug("Loading permissions for user: {}", userId);
-        return permissionRepository.findByUserId(userId).stream()
-                .map(Permission::getCode)
-                .collect(Collectors.toSet());
+        return cache(CacheConfig.USER_PERMISSIONS).get(userId, () -> {
+            log.debug("Loading permissions for user: {}", userId);
+            return permissionRepository.findByUserId(userId).stream()
+                    .map(Permission::getCode)
+                    .collect(Collectors.toUnmodifiableSet());
+        });
     }
 
     /**
-     * Check if user has a specific permission (cached)
+     * Check if user has a specific permission (keshdagi to'plamdan)
      */
-    @Cacheable(value = "userPermissionCheck", key = "#userId + '_' + #permissionCode.name()")
     public boolean hasPermission(Long userId, PermissionCode permissionCode) {
         Set<String> permissions = getUserPermissionCodes(userId);
         return permissions.contains(permissionCode.getCode());
@@ -104,19 +117,25 @@ public class PermissionService {
     }
 
     /**
-     * Clear user permissions cache
+     * Clear user permissions cache (permission va rol keshlari, barcha foydalanuvchilar)
      */
-    @CacheEvict(value = {"userPermissions", "userPermissionCheck"}, allEntries = true)
     public void clearUserPermissionsCache() {
         log.info("Clearing all user permissions cache");
+        afterCompletionToo(() -> {
+            cache(CacheConfig.USER_PERMISSIONS).clear();
+            cache(CacheConfig.USER_ROLES).clear();
+        });
     }
 
     /**
-     * Clear specific user's permissions cache
+     * Clear specific user's permissions cache (permission va rol yozuvlari)
      */
-    @CacheEvict(value = {"userPermissions", "userPermissionCheck"}, key = "#userId")
     public void clearUserPermissionsCache(Long userId) {
         log.info("Clearing permissions cache for user: {}", userId);
+        afterCompletionToo(() -> {
+            cache(CacheConfig.USER_PERMISSIONS).evict(userId);
+            cache(CacheConfig.USER_ROLES).evict(userId);
+        });
     }
 
     /**
@@ -126,4 +145,25 @@ public class PermissionService {
     public Set<Permission> findByCodeIn(Set<String> codes) {
         return permissionRepository.findByCodeIn(codes);
     }
+
+    /**
+     * Darhol va (tranzaksiya ichida bo'lsa) tugagach yana bajaradi: commit'gacha parallel
+     * so'rov eski huquqlarni keshga qaytarishi, rollback'da esa tranzaksiya ichida yuklangan
+     * (bekor bo'lgan) huquqlar keshda qolishi mumkin.
+     */
+    private void afterCompletionToo(Runnable evict) {
+        evict.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict.run();
+                }
+            });
+        }
+    }
+
+    private Cache cache(String name) {
+        return Objects.requireNonNull(cacheManager.getCache(name), name);
+    }
 }
@@ -12,6 +12,7 @@ import uz.familyfinance.api.entity.Transaction;
 import uz.familyfinance.api.enums.RecurringPattern;
 import uz.familyfinance.api.repository.RecurringTransactionExecutionRepository;
 import uz.familyfinance.api.repository.TransactionRepository;
+import uz.familyfinance.api.util.RecurrenceSchedule;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -91,36 +92,14 @@ public class RecurringTransactionService {
 
     /**
      * Template'ning recurringPattern bo'yicha berilgan sana "due" bo'lganligini tekshirish.
-     * Original template sanasi bilan taqqoslanadi.
+     * Original template sanasi bilan taqqoslanadi; qoida prognoz bilan umumiy ({@link RecurrenceSchedule}).
      */
     private boolean isDue(Transaction template, LocalDate forDate) {
         if (template.getRecurringPattern() == null || template.getTransactionDate() == null) {
             return false;
         }
-        LocalDate templateDate = template.getTransactionDate().toLocalDate();
-        if (forDate.isBefore(templateDate) || forDate.isEqual(templateDate)) {
-            // Template o'zining sanasida emas (yoki avval) — yangi tranzaksiya yaratilmaydi
-            return false;
-        }
-        return switch (template.getRecurringPattern()) {
-            case DAILY -> true;
-            case WEEKLY -> forDate.getDayOfWeek() == templateDate.getDayOfWeek();
-            case MONTHLY -> matchesMonthlyDay(templateDate, forDate);
-            case YEARLY -> forDate.getMonth() == templateDate.getMonth()
-                    && matchesMonthlyDay(templateDate, forDate);
-        };
-    }
-
-    /**
-     * Oy/Yil pattern uchun: 31-chi raqamlar uchun ham ishlash (masalan, Fevralda 28-chi/29-chida ham ishga tushadi).
-     */
-    private boolean matchesMonthlyDay(LocalDate templateDate, LocalDate forDate) {
-        int templateDay = templateDate.getDayOfMonth();
-        int forDay = forDate.getDayOfMonth();
-        if (templateDay == forDay) return true;
-        // Template kuni hozirgi oyning oxirgi kunidan katta bo'lsa, oxirgi kunda ishga tushiramiz
-        int lastDayOfMonth = forDate.lengthOfMonth();
-        return templateDay > lastDayOfMonth && forDay == lastDayOfMonth;
+        return RecurrenceSchedule.isDue(template.getRecurringPattern(),
+                template.getTransactionDate().toLocalDate(), forDate);
     }
 
     /**
@@ -0,0 +1,356 @@
+package uz.familyfinance.api.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import uz.familyfinance.api.dto.request.ReportQueryRequest;
+import uz.familyfinance.api.dto.response.ReportResultResponse;
+import uz.familyfinance.api.entity.Account;
+import uz.familyfinance.api.entity.Category;
+import uz.familyfinance.api.entity.FamilyMember;
+import uz.familyfinance.api.entity.Tag;
+import uz.familyfinance.api.enums.ReportDimension;
+import uz.familyfinance.api.enums.ReportMeasure;
+import uz.familyfinance.api.enums.TransactionType;
+import uz.familyfinance.api.exception.BadRequestException;
+import uz.familyfinance.api.repository.AccountRepository;
+import uz.familyfinance.api.repository.CategoryRepository;
+import uz.familyfinance.api.repository.FamilyMemberRepository;
+import uz.familyfinance.api.repository.TagRepository;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Umumiy ko'p o'lchovli hisobot: so'rov o'lchovlar (kun/hafta/oy/yil, tur, kategoriya,
+ * a'zo, hisob, valyuta, teg) va ko'rsatkichlarni (SUM, COUNT, AVG) nomlaydi, mexanizm
+ * uni BITTA {@code GROUP BY ROLLUP}/{@code GROUPING SETS} so'roviga aylantiradi —
+ * batafsil qatorlar, oraliq jamilar va umumiy jami bir xil so'rovdan keladi.
+ *
+ * <ul>
+ *   <li>Manba: hisob/teg so'ralmasa — V63 kunlik agregatlar (storno va REVERSAL u yerda
+ *       allaqachon chiqarilgan); aks holda tranzaksiyalar + split ulushlari, storno
+ *       filtri {@link #LEDGER_FILTER} da — bitta joyda;</li>
+ *   <li>scope izolyatsiyasi — {@link #resolveScopeIdOrNull()}: SUPER_ADMIN global,
+ *       aktiv scope yo'q bo'lsa hech narsa;</li>
+ *   <li>teg bo'yicha: ko'p tegli yozuv har tegida hisoblanadi, lekin teg jamlangan
+ *       darajalarda (GROUPING(teg)=1) faqat bir marta — ikki marta qo'shilmaydi;</li>
+ *   <li>COUNT — tranzaksiyalar soni, split ulushlari emas: daftarda
+ *       {@code COUNT(DISTINCT transaction_id)}, agregatlarda V63 {@code tx_count}
+ *       (split'li tranzaksiya eng kichik kategoriyali ulushida bir marta — kategoriya
+ *       qatorlarida faqat o'sha ulushda, jamilarda daftar bilan bir xil);</li>
+ *   <li>o'lchov va ko'rsatkichlar enum → SQL ifoda jadvali orqali, foydalanuvchi
+ *       matni SQL'ga tushmaydi.</li>
+ * </ul>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReportEngine {
+
+    static final String SOURCE_AGGREGATES = "aggregates";
+    static final String SOURCE_LEDGER = "ledger";
+
+    private static final Set<TransactionType> DEFAULT_TYPES = EnumSet.of(TransactionType.INCOME, TransactionType.EXPENSE);
+
+    /** Storno invarianti — daftar manbasining ikkala tarmog'i uchun yagona filtr. */
+    private static final String LEDGER_FILTER = "t.status <> 'REVERSED' AND t.type <> 'REVERSAL'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ScopeContextService scopeContext;
+    private final CategoryRepository categoryRepository;
+    private final FamilyMemberRepository familyMemberRepository;
+    private final AccountRepository accountRepository;
+    private final TagRepository tagRepository;
+
+    @Value("${app.reports.engine.max-rows:50000}")
+    private int maxRows;
+
+    /** Kompilyatsiya qilingan so'rov — SQL, parametrlar va tanlangan manba. */
+    record CompiledQuery(String sql, List<Object> args, List<ReportDimension> dimensions,
+                         List<ReportMeasure> measures, String source) {}
+
+    @Transactional(readOnly = true)
+    public ReportResultResponse run(ReportQueryRequest request) {
+        CompiledQuery query = compile(request, resolveScopeIdOrNull());
+
+        List<List<Object>> rows = jdbcTemplate.query(query.sql(), (rs, i) -> readRow(rs, query),
+                query.args().toArray());
+        if (rows.size() > maxRows) {
+            throw new BadRequestException("Hisobot " + maxRows
+                    + " qatordan oshib ketdi — davrni qisqartiring yoki o'lchovlarni kamaytiring");
+        }
+
+        int dimensionCount = query.dimensions().size();
+        int columnCount = dimensionCount + query.measures().size();
+        List<String> columns = new ArrayList<>(columnCount);
+        query.dimensions().forEach(d -> columns.add(d.name().toLowerCase(Locale.ROOT)));
+        query.measures().forEach(m -> columns.add(m.name().toLowerCase(Locale.ROOT)));
+
+        List<List<Object>> values = new ArrayList<>(columnCount);
+        for (int c = 0; c < columnCount; c++) {
+            values.add(new ArrayList<>(rows.size()));
+        }
+        List<Integer> levels = new ArrayList<>(rows.size());
+        for (List<Object> row : rows) {
+            for (int c = 0; c < columnCount; c++) {
+                values.get(c).add(row.get(c));
+            }
+            levels.add((Integer) row.get(columnCount));
+        }
+
+        Map<String, Map<Long, String>> labels = new LinkedHashMap<>();
+        for (int c = 0; c < dimensionCount; c++) {
+            ReportDimension d = query.dimensions().get(c);
+            Set<Long> ids = values.get(c).stream().filter(v -> v instanceof Long)
+                    .map(v -> (Long) v).collect(Collectors.toSet());
+            Map<Long, String> names = labels(d, ids);
+            if (names != null) {
+                labels.put(columns.get(c), names);
+            }
+        }
+
+        return ReportResultResponse.builder()
+                .columns(columns)
+                .values(values)
+                .levels(levels)
+                .labels(labels)
+                .rowCount(rows.size())
+                .source(query.source())
+                .build();
+    }
+
+    /**
+     * So'rovni SQL'ga aylantiradi. {@code scopeId == null} — global (SUPER_ADMIN).
+     * Natija ustunlari: {@code d0..dN}, {@code lvl} (GROUPING bitmaskasi), {@code m0..mK}.
+     */
+    CompiledQuery compile(ReportQueryRequest request, Long scopeId) {
+        if (request.getFrom() == null || request.getTo() == null) {
+            throw new BadRequestException("Sana oralig'i to'liq ko'rsatilishi kerak");
+        }
+        if (request.getFrom().isAfter(request.getTo())) {
+            throw new BadRequestException("Boshlanish sanasi tugash sanasidan keyin bo'lmaydi");
+        }
+        if (request.getDimensions() == null || request.getDimensions().isEmpty()) {
+            throw new BadRequestException("Kamida bitta o'lchov (dimension) tanlanishi shart");
+        }
+        if (request.getMeasures() == null || request.getMeasures().isEmpty()) {
+            throw new BadRequestException("Kamida bitta ko'rsatkich (measure) tanlanishi shart");
+        }
+        List<ReportDimension> dimensions = List.copyOf(new LinkedHashSet<>(request.getDimensions()));
+        List<ReportMeasure> measures = List.copyOf(new LinkedHashSet<>(request.getMeasures()));
+        Set<TransactionType> types = request.getTypes() == null || request.getTypes().isEmpty()
+                ? DEFAULT_TYPES : EnumSet.copyOf(request.getTypes());
+        if (types.contains(TransactionType.REVERSAL)) {
+            throw new BadRequestException("REVERSAL yozuvlari hisobotga kirmaydi");
+        }
+
+        boolean tagged = dimensions.contains(ReportDimension.TAG);
+        boolean ledger = tagged || dimensions.contains(ReportDimension.ACCOUNT);
+        List<Object> args = new ArrayList<>();
+        String source = ledger
+                ? ledgerSource(request.getFrom(), request.getTo(), types, scopeId, tagged, args)
+                : aggregateSource(request.getFrom(), request.getTo(), types, scopeId, args);
+
+        List<String> keys = dimensions.stream().map(ReportEngine::dimensionExpression).toList();
+        String keyList = String.join(", ", keys);
+
+        StringBuilder sql = new StringBuilder("SELECT ");
+        for (int i = 0; i < keys.size(); i++) {
+            sql.append(keys.get(i)).append(" AS d").append(i).append(", ");
+        }
+        sql.append("GROUPING(").append(keyList).append(") AS lvl");
+        for (int i = 0; i < measures.size(); i++) {
+            sql.append(", ").append(measureExpression(measures.get(i), ledger, tagged)).append(" AS m").append(i);
+        }
+        sql.append(" FROM ").append(source);
+        sql.append(Boolean.FALSE.equals(request.getSubtotals())
+                ? " GROUP BY GROUPING SETS ((" + keyList + "), ())"
+                : " GROUP BY ROLLUP (" + keyList + ")");
+        // Har qiymat ichida batafsil qatorlar avval, uning oraliq jami keyin; umumiy jami oxirida
+        sql.append(" ORDER BY ").append(keys.stream()
+                .map(k -> "GROUPING(" + k + "), " + k)
+                .collect(Collectors.joining(", ")));
+        // Chegaradan bittasi ortiq — oshib ketganini bilish uchun
+        sql.append(" LIMIT ").append(maxRows + 1);
+
+        return new CompiledQuery(sql.toString(), args, dimensions, measures,
+                ledger ? SOURCE_LEDGER : SOURCE_AGGREGATES);
+    }
+
+    /**
+     * Hisobot scope'i — tranzaksiyaning {@code scope_id} si bo'yicha (ReportService bilan bir xil):
+     * SUPER_ADMIN → null (global), aktiv scope yo'q → -1 (hech narsa).
+     */
+    private Long resolveScopeIdOrNull() {
+        if (scopeContext.isSuperAdmin()) {
+            return null;
+        }
+        Long scopeId = scopeContext.getActiveScopeIdOrNull();
+        return scopeId != null ? scopeId : -1L;
+    }
+
+    private static String aggregateSource(LocalDate from, LocalDate to, Set<TransactionType> types,
+                                          Long scopeId, List<Object> args) {
+        StringBuilder sql = new StringBuilder("ledger_daily_aggregates e")
+                .append(" WHERE e.ledger_date >= ? AND e.ledger_date <= ?")
+                .append(" AND e.type IN (").append(placeholders(types.size())).append(")");
+        args.add(Date.valueOf(from));
+        args.add(Date.valueOf(to));
+        types.forEach(t -> args.add(t.name()));
+        if (scopeId != null) {
+            sql.append(" AND e.scope_id = ?");
+            args.add(scopeId);
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Tranzaksiyalar (split'siz) + split ulushlari — agregat jadval ustunlari nomi bilan, shunda
+     * o'lchov ifodalari ikkala manbada bir xil (COUNT bundan mustasno —
+     * {@link #measureExpression}). Teg so'ralsa har yozuv teglari bilan ko'paytiriladi va
+     * birinchisi {@code first_tag} bilan belgilanadi.
+     */
+    private static String ledgerSource(LocalDate from, LocalDate to, Set<TransactionType> types,
+                                       Long scopeId, boolean tagged, List<Object> args) {
+        StringBuilder filter = new StringBuilder(" WHERE ").append(LEDGER_FILTER)
+                .append(" AND t.transaction_date >= ? AND t.transaction_date < ?")
+                .append(" AND t.type IN (").append(placeholders(types.size())).append(")");
+        if (scopeId != null) {
+            filter.append(" AND t.scope_id = ?");
+        }
+        String entries = "SELECT t.id AS transaction_id, CAST(NULL AS BIGINT) AS split_id,"
+                + " CAST(t.transaction_date AS DATE) AS ledger_date, t.type, t.category_id, a.currency,"
+                + " t.family_member_id AS member_id, t.account_id, t.amount"
+                + " FROM transactions t JOIN accounts a ON a.id = t.account_id"
+                + filter
+                + " AND NOT EXISTS (SELECT 1 FROM transaction_splits s WHERE s.transaction_id = t.id)"
+                + " UNION ALL"
+                + " SELECT t.id, s.id, CAST(t.transaction_date AS DATE), t.type, s.category_id, a.currency,"
+                + " t.family_member_id, t.account_id, s.amount"
+                + " FROM transaction_splits s JOIN transactions t ON t.id = s.transaction_id"
+                + " JOIN accounts a ON a.id = t.account_id"
+                + filter;
+        for (int branch = 0; branch < 2; branch++) {
+            args.add(Timestamp.valueOf(from.atStartOfDay()));
+            args.add(Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+            types.forEach(t -> args.add(t.name()));
+            if (scopeId != null) {
+                args.add(scopeId);
+            }
+        }
+        if (!tagged) {
+            return "(" + entries + ") e";
+        }
+        return "(SELECT x.*, tt.tag_id,"
+                + " ROW_NUMBER() OVER (PARTITION BY x.transaction_id, x.split_id ORDER BY tt.tag_id) = 1 AS first_tag"
+                + " FROM (" + entries + ") x"
+                + " LEFT JOIN transaction_tags tt ON tt.transaction_id = x.transaction_id) e";
+    }
+
+    private static String dimensionExpression(ReportDimension dimension) {
+        return switch (dimension) {
+            case DAY -> "e.ledger_date";
+            case WEEK -> "CAST(date_trunc('week', e.ledger_date) AS DATE)";
+            case MONTH -> "CAST(date_trunc('month', e.ledger_date) AS DATE)";
+            case YEAR -> "CAST(date_trunc('year', e.ledger_date) AS DATE)";
+            case TYPE -> "e.type";
+            case CATEGORY -> "e.category_id";
+            case MEMBER -> "e.member_id";
+            case ACCOUNT -> "e.account_id";
+            case CURRENCY -> "e.currency";
+            case TAG -> "e.tag_id";
+        };
+    }
+
+    /**
+     * COUNT — tranzaksiyalar soni: daftarda split ulushlari va teg nusxalari bitta
+     * tranzaksiyaga yig'iladi (DISTINCT har darajada aniq, teg filtri kerak emas),
+     * agregatlarda {@code tx_count}. AVG shu son bilan.
+     */
+    private static String measureExpression(ReportMeasure measure, boolean ledger, boolean tagged) {
+        String sum = total("e.amount", tagged);
+        String count = ledger ? "COUNT(DISTINCT e.transaction_id)" : "SUM(e.tx_count)";
+        return switch (measure) {
+            case SUM -> "COALESCE(" + sum + ", 0)";
+            case COUNT -> "COALESCE(" + count + ", 0)";
+            case AVG -> "ROUND(COALESCE(" + sum + ", 0) / NULLIF(" + count + ", 0), 2)";
+        };
+    }
+
+    /** Teg jamlangan darajada yozuv faqat birinchi tegi bilan hisoblanadi. */
+    private static String total(String column, boolean tagged) {
+        String all = "SUM(" + column + ")";
+        if (!tagged) {
+            return all;
+        }
+        return "CASE WHEN GROUPING(e.tag_id) = 1 THEN SUM(" + column + ") FILTER (WHERE e.first_tag)"
+                + " ELSE " + all + " END";
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static List<Object> readRow(ResultSet rs, CompiledQuery query) throws SQLException {
+        List<Object> row = new ArrayList<>(query.dimensions().size() + query.measures().size() + 1);
+        for (int i = 0; i < query.dimensions().size(); i++) {
+            row.add(readDimension(rs, "d" + i, query.dimensions().get(i)));
+        }
+        for (int i = 0; i < query.measures().size(); i++) {
+            row.add(query.measures().get(i) == ReportMeasure.COUNT
+                    ? (Object) rs.getLong("m" + i)
+                    : rs.getBigDecimal("m" + i));
+        }
+        row.add(rs.getInt("lvl"));
+        return row;
+    }
+
+    private static Object readDimension(ResultSet rs, String column, ReportDimension dimension) throws SQLException {
+        return switch (dimension) {
+            case DAY, WEEK, MONTH, YEAR -> {
+                Date date = rs.getDate(column);
+                yield date != null ? date.toLocalDate() : null;
+            }
+            case TYPE, CURRENCY -> rs.getString(column);
+            case CATEGORY, MEMBER, ACCOUNT, TAG -> {
+                long id = rs.getLong(column);
+                yield rs.wasNull() ? null : id;
+            }
+        };
+    }
+
+    /** ID o'lchovlari uchun nomlar lug'ati; boshqa o'lchovlar uchun null. */
+    private Map<Long, String> labels(ReportDimension dimension, Set<Long> ids) {
+        return switch (dimension) {
+            case CATEGORY -> names(categoryRepository.findAllById(ids), Category::getId, Category::getName);
+            case MEMBER -> names(familyMemberRepository.findAllById(ids), FamilyMember::getId, FamilyMember::getFullName);
+            case ACCOUNT -> names(accountRepository.findAllById(ids), Account::getId, Account::getName);
+            case TAG -> names(tagRepository.findAllById(ids), Tag::getId, Tag::getName);
+            default -> null;
+        };
+    }
+
+    private static <T> Map<Long, String> names(List<T> entities, Function<T, Long> id, Function<T, String> name) {
+        Map<Long, String> result = new LinkedHashMap<>();
+        entities.forEach(e -> result.put(id.apply(e), name.apply(e)));
+        return result;
+    }
+}
@@ -52,6 +52,7 @@ public class ReportExportService {
         return reportService.getMemberReport(from, to).stream()
                 .map(row -> MemberReportExportRow.builder()
                         .memberName((String) row.get("memberName"))
+                        .totalIncome((BigDecimal) row.get("totalIncome"))
                         .totalExpense((BigDecimal) row.get("totalExpense"))
                         .build())
                 .toList();
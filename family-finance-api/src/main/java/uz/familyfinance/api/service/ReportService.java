@@ -4,9 +4,13 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import uz.familyfinance.api.dto.request.ReportQueryRequest;
+import uz.familyfinance.api.dto.response.ReportResultResponse;
 import uz.familyfinance.api.entity.Category;
 import uz.familyfinance.api.entity.FamilyMember;
 import uz.familyfinance.api.enums.CategoryType;
+import uz.familyfinance.api.enums.ReportDimension;
+import uz.familyfinance.api.enums.ReportMeasure;
 import uz.familyfinance.api.enums.TransactionType;
 import uz.familyfinance.api.repository.*;
 
@@ -21,11 +25,13 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ReportService {
 
-    private final TransactionRepository transactionRepository;
+    private final LedgerDailyAggregateRepository ledgerDailyAggregateRepository;
     private final CategoryRepository categoryRepository;
     private final FamilyMemberRepository familyMemberRepository;
     private final BudgetRepository budgetRepository;
     private final ScopeContextService scopeContext;
+    private final ReportEngine reportEngine;
+    private final MemberTotalsService memberTotalsService;
 
     /**
      * Aktiv scope'ga mos family_group ID ni qaytaradi.
@@ -69,21 +75,24 @@ public class ReportService {
 
     @Transactional(readOnly = true)
     public Map<String, Object> getIncomeExpenseReport(LocalDateTime from, LocalDateTime to) {
-        Long scopeId = resolveActiveScopeIdOrNull();
-        BigDecimal income;
-        BigDecimal expense;
-        if (scopeId == null) {
-            income = transactionRepository.sumByTypeAndDateRange(TransactionType.INCOME, from, to);
-            expense = transactionRepository.sumByTypeAndDateRange(TransactionType.EXPENSE, from, to);
-        } else {
-            income = transactionRepository.sumByTypeAndDateRangeAndScope(
-                    TransactionType.INCOME, from, to, scopeId);
-            expense = transactionRepository.sumByTypeAndDateRangeAndScope(
-                    TransactionType.EXPENSE, from, to, scopeId);
+        // Ikkala tur bitta so'rovda — hisobot mexanizmi (V63 kunlik agregatlar, scope o'sha yerda)
+        ReportResultResponse result = reportEngine.run(ReportQueryRequest.builder()
+                .from(from.toLocalDate())
+                .to(to.toLocalDate())
+                .dimensions(List.of(ReportDimension.TYPE))
+                .measures(List.of(ReportMeasure.SUM))
+                .subtotals(false)
+                .build());
+        Map<String, BigDecimal> totalByType = new HashMap<>();
+        for (int i = 0; i < result.getRowCount(); i++) {
+            Object type = result.getValues().get(0).get(i);
+            if (type != null) {
+                totalByType.put((String) type, (BigDecimal) result.getValues().get(1).get(i));
+            }
         }
         Map<String, Object> report = new HashMap<>();
-        report.put("totalIncome", income);
-        report.put("totalExpense", expense);
+        report.put("totalIncome", totalByType.getOrDefault(TransactionType.INCOME.name(), BigDecimal.ZERO));
+        report.put("totalExpense", totalByType.getOrDefault(TransactionType.EXPENSE.name(), BigDecimal.ZERO));
         report.put("from", from);
         report.put("to", to);
         return report;
@@ -93,23 +102,13 @@ public class ReportService {
     public List<Map<String, Object>> getCategoryReport(CategoryType type, LocalDateTime from, LocalDateTime to) {
         Long scopeId = resolveActiveScopeIdOrNull();
         List<Category> categories = categoryRepository.findByTypeAndIsActiveTrue(type);
-        boolean isExpense = type == CategoryType.EXPENSE;
+        TransactionType txType = type == CategoryType.EXPENSE ? TransactionType.EXPENSE : TransactionType.INCOME;
 
-        // Barcha kategoriyalar uchun yagona batch query — N+1 yo'q
-        Map<Long, BigDecimal> amountByCategory;
-        if (scopeId == null) {
-            amountByCategory = isExpense
-                    ? transactionRepository.sumExpenseGroupedByCategory(from, to).stream()
-                            .collect(Collectors.toMap(row -> (Long) row[0], row -> (BigDecimal) row[1]))
-                    : transactionRepository.sumIncomeGroupedByCategory(from, to).stream()
-                            .collect(Collectors.toMap(row -> (Long) row[0], row -> (BigDecimal) row[1]));
-        } else {
-            amountByCategory = isExpense
-                    ? transactionRepository.sumExpenseGroupedByCategoryAndScope(from, to, scopeId).stream()
-                            .collect(Collectors.toMap(row -> (Long) row[0], row -> (BigDecimal) row[1]))
-                    : transactionRepository.sumIncomeGroupedByCategoryAndScope(from, to, scopeId).stream()
-                            .collect(Collectors.toMap(row -> (Long) row[0], row -> (BigDecimal) row[1]));
-        }
+        // Barcha kategoriyalar uchun yagona query — V63 kunlik agregatlardan (split ulushlari
+        // o'z kategoriyasida); scopeId null — global
+        Map<Long, BigDecimal> amountByCategory = ledgerDailyAggregateRepository
+                .sumByTypeGroupedByCategory(txType, from.toLocalDate(), to.toLocalDate(), scopeId).stream()
+                .collect(Collectors.toMap(row -> (Long) row[0], row -> (BigDecimal) row[1]));
 
         BigDecimal total = amountByCategory.values().stream()
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
@@ -138,12 +137,17 @@ public class ReportService {
             members = familyMemberRepository.findAccessibleActiveMembers(familyGroupId, false);
         }
 
+        // Barcha a'zolar uchun bitta so'rov (avval har a'zoga alohida SUM edi)
+        Map<Long, MemberTotalsService.MemberTotals> totals = memberTotalsService.totalsByMember(
+                members.stream().map(FamilyMember::getId).toList(), from, to);
+
         return members.stream().map(m -> {
-            BigDecimal expense = transactionRepository.sumExpenseByMemberAndDateRange(m.getId(), from, to);
+            MemberTotalsService.MemberTotals t = totals.getOrDefault(m.getId(), MemberTotalsService.MemberTotals.EMPTY);
             Map<String, Object> item = new HashMap<>();
             item.put("memberId", m.getId());
             item.put("memberName", m.getFullName());
-            item.put("totalExpense", expense);
+            item.put("totalIncome", t.income());
+            item.put("totalExpense", t.expense());
             return item;
         }).sorted((a, b) -> ((BigDecimal) b.get("totalExpense")).compareTo((BigDecimal) a.get("totalExpense")))
                 .toList();
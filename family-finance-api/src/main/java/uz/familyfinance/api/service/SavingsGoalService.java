@@ -2,6 +2,7 @@ package uz.familyfinance.api.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -13,6 +14,7 @@ import uz.familyfinance.api.dto.response.SavingsGoalResponse;
 import uz.familyfinance.api.entity.Account;
 import uz.familyfinance.api.entity.SavingsContribution;
 import uz.familyfinance.api.entity.SavingsGoal;
+import uz.familyfinance.api.event.ScopeDataChangedEvent;
 import uz.familyfinance.api.exception.ResourceNotFoundException;
 import uz.familyfinance.api.repository.AccountRepository;
 import uz.familyfinance.api.repository.SavingsContributionRepository;
@@ -33,6 +35,7 @@ public class SavingsGoalService {
     private final AccountRepository accountRepository;
     private final StaffNotificationService notificationService;
     private final ScopeContextService scopeContext;
+    private final ApplicationEventPublisher eventPublisher;
     /** Hisobga kirish guard'ining yagona manbai (AccountService.checkAccess). */
     private final AccountService accountService;
 
@@ -91,6 +94,7 @@ public class SavingsGoalService {
             goal.setAccount(resolveAccessibleAccount(request.getAccountId()));
         }
 
+        eventPublisher.publishEvent(new ScopeDataChangedEvent(activeScope.getId()));
         return toResponse(savingsGoalRepository.save(goal));
     }
 
@@ -116,6 +120,7 @@ public class SavingsGoalService {
             goal.setAccount(null);
         }
 
+        eventPublisher.publishEvent(new ScopeDataChangedEvent(goal.getScope().getId()));
         return toResponse(savingsGoalRepository.save(goal));
     }
 
@@ -124,6 +129,7 @@ public class SavingsGoalService {
         SavingsGoal goal = findById(id);
         scopeContext.assertCanWrite(goal.getScope().getId());
         savingsGoalRepository.delete(goal);
+        eventPublisher.publishEvent(new ScopeDataChangedEvent(goal.getScope().getId()));
     }
 
     @Transactional
@@ -160,6 +166,7 @@ public class SavingsGoalService {
                     "SAVINGS_GOAL", goal.getId());
         }
 
+        eventPublisher.publishEvent(new ScopeDataChangedEvent(goal.getScope().getId()));
         return toContributionResponse(contribution);
     }
 
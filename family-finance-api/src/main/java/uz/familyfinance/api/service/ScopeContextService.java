@@ -18,10 +18,12 @@ import uz.familyfinance.api.exception.ResourceNotFoundException;
 import uz.familyfinance.api.repository.ScopeMembershipRepository;
 import uz.familyfinance.api.repository.ScopeRepository;
 import uz.familyfinance.api.security.CustomUserDetails;
+import uz.familyfinance.api.security.ScopeResolution;
 
 import java.util.Collections;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * Markazlashtirilgan scope-scoping servisi.
@@ -31,6 +33,12 @@ import java.util.Set;
  *
  * <p>Points endi bevosita scope bilan ishlaydi (ADR-002 P1);
  * o'rnini bosadi: Phase 2'da barcha 31+ chaqiruv shu yerga ko'chiriladi.</p>
+ *
+ * <p>ID qaytaruvchi aniqlashlar (aktiv scope ID, ko'rinadigan/boshqariladigan scope'lar,
+ * scope'ga yozish huquqi) so'rov ichida bir marta hisoblanadi va principal'dagi
+ * {@link ScopeResolution} da saqlanadi — servislar, aspect'lar va parallel so'rov
+ * thread'lari qayta-qayta so'rasa ham baza bir marta. Bu metodlar @Transactional EMAS:
+ * saqlangan natija tranzaksiya (pool ulanishi) ochmasdan qaytadi.</p>
  */
 @Service
 @RequiredArgsConstructor
@@ -120,7 +128,13 @@ public class ScopeContextService {
     }
 
     public Long getActiveScopeId() {
-        return getActiveScope().getId();
+        Long scopeId = getActiveScopeIdOrNull();
+        if (scopeId == null) {
+            throw new ResourceNotFoundException(
+                "Sizning aktiv scope'ingiz aniqlanmadi. Iltimos, scope yarating yoki taklif qabul qiling."
+            );
+        }
+        return scopeId;
     }
 
     /**
@@ -130,9 +144,8 @@ public class ScopeContextService {
      * Yangi yoki scope tanlanmagan user'lar uchun read-only ro'yxat/KPI
      * so'rovlarida bo'sh natija qaytarish uchun ishlatiladi.</p>
      */
-    @Transactional(readOnly = true)
     public Long getActiveScopeIdOrNull() {
-        return getActiveScopeOptional().map(Scope::getId).orElse(null);
+        return memo("activeScopeId", () -> getActiveScopeOptional().map(Scope::getId).orElse(null));
     }
 
     // ====================================================================
@@ -232,23 +245,43 @@ public class ScopeContextService {
     // ====================================================================
 
     /**
-     * Joriy user ko'rishi mumkin bo'lgan barcha scope ID'lari.
-     * SUPER_ADMIN bo'lsa, barcha scope'lar qaytariladi.
+     * Joriy user ko'rishi mumkin bo'lgan barcha scope ID'lari (o'zgarmas to'plam).
+     * SUPER_ADMIN bo'lsa, barcha scope ID'lari qaytariladi — IN ro'yxati kerak bo'lgan
+     * joylar uchun. Faqat "ko'ra oladimi" kerak bo'lsa {@link #getScopeVisibility()} arzonroq.
      */
-    @Transactional(readOnly = true)
     public Set<Long> getVisibleScopeIds() {
         if (isSuperAdmin()) {
-            // SUPER_ADMIN hamma narsani ko'radi — alohida flag sifatida belgilab,
-            // chaqiruvchi servisda "if isSuperAdmin then skip filter" qilish samaraliroq
-            return scopeRepository.findAll().stream()
-                    .map(Scope::getId)
-                    .collect(java.util.stream.Collectors.toSet());
+            return memo("visibleScopeIds", () -> Set.copyOf(scopeRepository.findAllIds()));
         }
         Long userId = getCurrentUserId();
         if (userId == null) {
             return Collections.emptySet();
         }
-        return scopeRepository.findVisibleScopeIdsForUser(userId);
+        return memo("visibleScopeIds", () -> Set.copyOf(scopeRepository.findVisibleScopeIdsForUser(userId)));
+    }
+
+    /**
+     * Ko'rinish qoidasi: SUPER_ADMIN uchun bazasiz {@link ScopeVisibility#ALL} (hech narsa
+     * yuklanmaydi), qolganlar uchun ko'rinadigan scope ID'lari.
+     */
+    public ScopeVisibility getScopeVisibility() {
+        return isSuperAdmin() ? ScopeVisibility.ALL : new ScopeVisibility(false, getVisibleScopeIds());
+    }
+
+    /**
+     * Ko'rinadigan scope'lar: {@code allScopes} bo'lsa hammasi ({@code scopeIds} bo'sh, ishlatilmaydi).
+     */
+    public record ScopeVisibility(boolean allScopes, Set<Long> scopeIds) {
+
+        public static final ScopeVisibility ALL = new ScopeVisibility(true, Set.of());
+
+        public boolean contains(Long scopeId) {
+            return allScopes || scopeIds.contains(scopeId);
+        }
+
+        public boolean isEmpty() {
+            return !allScopes && scopeIds.isEmpty();
+        }
     }
 
     /**
@@ -258,13 +291,12 @@ public class ScopeContextService {
      * (yozish/membership). U faqat {@link #getVisibleScopeIds()} orqali ko'radi —
      * shu sabab bu yerda super-admin bypass'i ATAYIN yo'q.</p>
      */
-    @Transactional(readOnly = true)
     public Set<Long> getManageableScopeIds() {
         Long userId = getCurrentUserId();
         if (userId == null) {
             return Collections.emptySet();
         }
-        return scopeRepository.findManageableScopeIdsForUser(userId);
+        return memo("manageableScopeIds", () -> Set.copyOf(scopeRepository.findManageableScopeIdsForUser(userId)));
     }
 
     // ====================================================================
@@ -287,19 +319,17 @@ public class ScopeContextService {
      * <p>SUPER_ADMIN read-only: yozishga ruxsat yo'q — super-admin bypass'i ATAYIN
      * olib tashlandi. Super admin'da scope membership bo'lmagani uchun {@code false}.</p>
      */
-    @Transactional(readOnly = true)
     public boolean canWriteToScope(Long scopeId) {
         Long userId = getCurrentUserId();
         if (userId == null) return false;
-        return membershipRepository.findActiveRole(scopeId, userId)
+        return memo("canWrite:" + scopeId, () -> membershipRepository.findActiveRole(scopeId, userId)
                 .map(ScopeRole::canWrite)
-                .orElse(false);
+                .orElse(false));
     }
 
     /** Joriy user shu scope'ni ko'ra oladimi (kamida VIEWER)? */
     public boolean canViewScope(Long scopeId) {
-        if (isSuperAdmin()) return true;
-        return getVisibleScopeIds().contains(scopeId);
+        return getScopeVisibility().contains(scopeId);
     }
 
     // ====================================================================
@@ -329,4 +359,10 @@ public class ScopeContextService {
         CustomUserDetails details = getCurrentUserDetails();
         return details != null && Boolean.TRUE.equals(details.getUser().getIsSuperAdmin());
     }
+
+    /** So'rov ichida bir marta: principal bo'lmasa (tizim ishi) har safar hisoblanadi. */
+    private <T> T memo(String key, Supplier<T> loader) {
+        CustomUserDetails details = getCurrentUserDetails();
+        return details != null ? details.getScopeResolution().get(key, loader) : loader.get();
+    }
 }
@@ -1,12 +1,15 @@
 package uz.familyfinance.api.service;
 
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import uz.familyfinance.api.dto.websocket.SessionUpdateMessage;
 import uz.familyfinance.api.entity.Session;
 import uz.familyfinance.api.entity.User;
@@ -18,10 +21,31 @@ import uz.familyfinance.api.util.UserAgentParser;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Sessiyalar: yaratish, rotatsiya, bekor qilish va har so'rovdagi tekshiruv.
+ *
+ * <p>Har autentifikatsiyalangan so'rov {@link #isSessionValid} va {@link #updateLastActivity}
+ * ni chaqiradi. Ikkalasi ham bazaga bormaydi (odatiy holatda):</p>
+ * <ul>
+ *   <li>sessiya holati {@code tokenHash → (id, userId, faol, expiresAt)} keshida
+ *       {@code app.session.cache.ttl} davomida saqlanadi. Shu instansdagi bekor qilish
+ *       (revoke*, rotate) yozuvlarni darhol va commit'dan keyin yana o'chiradi; boshqa
+ *       instansdagi bekor qilish eng ko'pi bilan TTL ichida kuchga kiradi;</li>
+ *   <li>{@code lastActivityAt} xotiradagi buferga yoziladi (sessiya bo'yicha oxirgi vaqt) va
+ *       har {@code app.session.activity-flush-interval} da bitta batch UPDATE bilan bazaga
+ *       tushadi. To'xtashda ({@link PreDestroy}) qolgani yoziladi.</li>
+ * </ul>
+ */
 @Service
 @Slf4j
 public class SessionService {
@@ -29,18 +53,41 @@ public class SessionService {
     private final SessionRepository sessionRepository;
     private final UserAgentParser userAgentParser;
     private final NotificationDispatcher notificationDispatcher;
+    private final JdbcTemplate jdbcTemplate;
 
     // Constructor with @Lazy to break circular dependency
     public SessionService(
             SessionRepository sessionRepository,
             UserAgentParser userAgentParser,
-            @Lazy NotificationDispatcher notificationDispatcher
+            @Lazy NotificationDispatcher notificationDispatcher,
+            JdbcTemplate jdbcTemplate
     ) {
         this.sessionRepository = sessionRepository;
         this.userAgentParser = userAgentParser;
         this.notificationDispatcher = notificationDispatcher;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
+    private static final String FLUSH_ACTIVITY_SQL = """
+            UPDATE sessions SET last_activity_at = ?
+            WHERE id = ? AND is_active = true
+              AND (last_activity_at IS NULL OR last_activity_at < ?)
+            """;
+
+    // Boshqa instansdagi bekor qilish shu instansda kuchga kirishining eng uzoq kechikishi. 0 — kesh o'chiq.
+    @Value("${app.session.cache.ttl:15s}")
+    private Duration cacheTtl = Duration.ofSeconds(15);
+
+    @Value("${app.session.cache.max-entries:10000}")
+    private int cacheMaxEntries = 10_000;
+
+    private record CachedSession(Long sessionId, Long userId, boolean active,
+                                 LocalDateTime expiresAt, long loadedAtNanos) {}
+
+    private final Map<String, CachedSession> sessionCache = new ConcurrentHashMap<>();
+    /** sessionId → oxirgi faollik vaqti; {@link #flushLastActivity} bazaga yozadi. */
+    private final Map<Long, LocalDateTime> pendingActivity = new ConcurrentHashMap<>();
+
     // C5: refresh paytida session topilmasa (rotated-away yoki legacy) yangi yaratish.
     // Default FALSE (prod) — eski (rotated-away) refresh-token replay'ini to'sadi. Legacy
     // (V44'gacha) NULL-hash sessiyalar uchun vaqtinchalik TRUE qilish mumkin edi, lekin
@@ -132,6 +179,8 @@ public class SessionService {
         session.setExpiresAt(expiresAt);
         session.setLastActivityAt(LocalDateTime.now());
         sessionRepository.save(session);
+        // Eski access token hash'i endi hech qaysi sessiyaga tegishli emas
+        evictCached(cached -> cached.sessionId().equals(session.getId()));
 
         log.debug("Session {} rotated for user {}", session.getId(), user.getId());
     }
@@ -168,6 +217,7 @@ public class SessionService {
         if (updated == 0) {
             throw new ResourceNotFoundException("Session", "id", sessionId);
         }
+        evictCached(cached -> cached.sessionId().equals(sessionId));
 
         log.info("Session {} revoked by user {}: {}", sessionId, userId, reason);
 
@@ -190,6 +240,7 @@ public class SessionService {
                 userId,
                 "Logged out from all other devices"
         );
+        evictCached(cached -> cached.userId().equals(userId) && !cached.sessionId().equals(currentSessionId));
 
         log.info("Revoked {} sessions for user {}", count, userId);
 
@@ -218,6 +269,7 @@ public class SessionService {
                 revokedBy,
                 reason
         );
+        evictCached(cached -> cached.userId().equals(userId));
 
         log.info("Revoked all {} sessions for user {} by admin {}: {}", count, userId, revokedBy, reason);
 
@@ -234,23 +286,63 @@ public class SessionService {
     }
 
     /**
-     * Check if session is valid (exists and active)
+     * Check if session is valid (exists and active). Holat {@code cache.ttl} davomida keshdan —
+     * tranzaksiya (va pool ulanishi) faqat keshsiz holatda, repository chaqiruvida ochiladi.
      */
-    @Transactional(readOnly = true)
     public boolean isSessionValid(String token) {
-        String tokenHash = hashToken(token);
-        return sessionRepository.findByTokenHash(tokenHash)
-                .map(session -> session.getIsActive() && session.getExpiresAt().isAfter(LocalDateTime.now()))
-                .orElse(false);
+        CachedSession cached = lookup(hashToken(token));
+        return cached != null && cached.active() && cached.expiresAt().isAfter(LocalDateTime.now());
     }
 
     /**
-     * Update last activity time for session
+     * Update last activity time for session — buferga yoziladi, {@link #flushLastActivity}
+     * bazaga tushiradi. Sessiya topilmasa yoki faol bo'lmasa hech narsa qilinmaydi.
      */
-    @Transactional
     public void updateLastActivity(String token) {
-        String tokenHash = hashToken(token);
-        sessionRepository.updateLastActivity(tokenHash, LocalDateTime.now());
+        CachedSession cached = lookup(hashToken(token));
+        if (cached != null && cached.active()) {
+            pendingActivity.merge(cached.sessionId(), LocalDateTime.now(),
+                    (previous, next) -> next.isAfter(previous) ? next : previous);
+        }
+    }
+
+    /**
+     * Buferdagi faollik vaqtlarini bitta batch UPDATE bilan yozadi. Sessiya shu orada bekor
+     * qilingan bo'lsa yoki bazadagi vaqt yangiroq bo'lsa (rotate) qator o'zgarmaydi.
+     */
+    @Scheduled(fixedDelayString = "${app.session.activity-flush-interval:5s}")
+    public void flushLastActivity() {
+        if (pendingActivity.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Long, LocalDateTime>> batch = new ArrayList<>(pendingActivity.size());
+        for (Long sessionId : List.copyOf(pendingActivity.keySet())) {
+            LocalDateTime at = pendingActivity.remove(sessionId);
+            if (at != null) {
+                batch.add(Map.entry(sessionId, at));
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(FLUSH_ACTIVITY_SQL, batch, batch.size(), (ps, e) -> {
+                Timestamp at = Timestamp.valueOf(e.getValue());
+                ps.setTimestamp(1, at);
+                ps.setLong(2, e.getKey());
+                ps.setTimestamp(3, at);
+            });
+        } catch (RuntimeException ex) {
+            // Keyingi flush'da qayta urinamiz — oradagi yangiroq vaqt ustun
+            batch.forEach(e -> pendingActivity.merge(e.getKey(), e.getValue(),
+                    (newer, older) -> newer.isAfter(older) ? newer : older));
+            log.warn("lastActivity flush ({} sessiya) bajarilmadi: {}", batch.size(), ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushLastActivity();
     }
 
     /**
@@ -272,6 +364,57 @@ public class SessionService {
         log.info("Cleaned up {} expired sessions", deleted);
     }
 
+    /**
+     * Keshdagi yoki bazadan o'qilgan sessiya holati; topilmasa {@code null}. Topilmagan token
+     * keshlanmaydi — login commit'idan oldin kelgan so'rov keyin ham rad etilib qolmasin.
+     */
+    private CachedSession lookup(String tokenHash) {
+        long now = System.nanoTime();
+        CachedSession cached = sessionCache.get(tokenHash);
+        if (cached != null && now - cached.loadedAtNanos() < cacheTtl.toNanos()) {
+            return cached;
+        }
+        Optional<Session> session = sessionRepository.findByTokenHash(tokenHash);
+        if (session.isEmpty()) {
+            sessionCache.remove(tokenHash);
+            return null;
+        }
+        Session s = session.get();
+        CachedSession loaded = new CachedSession(s.getId(), s.getUser().getId(),
+                Boolean.TRUE.equals(s.getIsActive()), s.getExpiresAt(), now);
+        if (!cacheTtl.isZero() && !cacheTtl.isNegative() && hasRoom()) {
+            sessionCache.put(tokenHash, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * Yozuvlarni darhol va (tranzaksiya ichida bo'lsa) commit'dan keyin yana o'chiradi:
+     * commit'gacha parallel so'rov eski "faol" qatorni o'qib keshga qaytarishi mumkin.
+     */
+    private void evictCached(Predicate<CachedSession> matches) {
+        sessionCache.values().removeIf(matches);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    sessionCache.values().removeIf(matches);
+                }
+            });
+        }
+    }
+
+    /** Chegara to'lsa avval muddati o'tganlar tashlanadi; baribir to'la bo'lsa keshlanmaydi. */
+    private boolean hasRoom() {
+        if (sessionCache.size() < cacheMaxEntries) {
+            return true;
+        }
+        long now = System.nanoTime();
+        long ttlNanos = cacheTtl.toNanos();
+        sessionCache.values().removeIf(c -> now - c.loadedAtNanos() >= ttlNanos);
+        return sessionCache.size() < cacheMaxEntries;
+    }
+
     /**
      * Hash JWT token for storage
      */
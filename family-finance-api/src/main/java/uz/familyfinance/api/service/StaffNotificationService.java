@@ -19,7 +19,6 @@ import uz.familyfinance.api.repository.UserRepository;
 
 import java.util.Collection;
 import java.util.List;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -34,15 +33,15 @@ public class StaffNotificationService {
     private final ScopeMembershipRepository membershipRepository;
 
     /**
-     * Joriy foydalanuvchi ko'ra oladigan scope ID'lar (bo'sh IN'dan qochish uchun
-     * -1L sentinel bilan) — bildirishnoma ko'rinishini scope bo'yicha chegaralaydi.
+     * Ko'rinish qoidasi SQL parametrlari uchun: SUPER_ADMIN — {@code allScopes} (ID'lar
+     * yuklanmaydi), qolganlar — ko'ra oladigan scope ID'lari (bo'sh IN'dan qochish uchun
+     * -1L sentinel bilan).
      */
-    private Collection<Long> visibleScopeIds() {
-        Set<Long> ids = scopeContext.getVisibleScopeIds();
-        if (ids == null || ids.isEmpty()) {
+    private static Collection<Long> scopeIds(ScopeContextService.ScopeVisibility visibility) {
+        if (visibility.allScopes() || visibility.scopeIds().isEmpty()) {
             return List.of(-1L);
         }
-        return ids;
+        return visibility.scopeIds();
     }
 
     /**
@@ -50,7 +49,8 @@ public class StaffNotificationService {
      */
     @Transactional(readOnly = true)
     public Page<StaffNotificationResponse> getNotifications(Long userId, Pageable pageable) {
-        return notificationRepository.findVisible(userId, visibleScopeIds(), pageable)
+        ScopeContextService.ScopeVisibility visibility = scopeContext.getScopeVisibility();
+        return notificationRepository.findVisible(userId, visibility.allScopes(), scopeIds(visibility), pageable)
                 .map(StaffNotificationResponse::from);
     }
 
@@ -60,7 +60,9 @@ public class StaffNotificationService {
     @Transactional(readOnly = true)
     public Page<StaffNotificationResponse> getNotificationsByType(
             Long userId, StaffNotificationType type, Pageable pageable) {
-        return notificationRepository.findVisibleByType(userId, visibleScopeIds(), type, pageable)
+        ScopeContextService.ScopeVisibility visibility = scopeContext.getScopeVisibility();
+        return notificationRepository.findVisibleByType(
+                        userId, visibility.allScopes(), scopeIds(visibility), type, pageable)
                 .map(StaffNotificationResponse::from);
     }
 
@@ -69,7 +71,8 @@ public class StaffNotificationService {
      */
     @Transactional(readOnly = true)
     public long getUnreadCount(Long userId) {
-        return notificationRepository.countUnreadVisible(userId, visibleScopeIds());
+        ScopeContextService.ScopeVisibility visibility = scopeContext.getScopeVisibility();
+        return notificationRepository.countUnreadVisible(userId, visibility.allScopes(), scopeIds(visibility));
     }
 
     /**
@@ -77,7 +80,8 @@ public class StaffNotificationService {
      */
     @Transactional(readOnly = true)
     public List<StaffNotificationResponse> getUnreadNotifications(Long userId) {
-        return notificationRepository.findUnreadVisible(userId, visibleScopeIds()).stream()
+        ScopeContextService.ScopeVisibility visibility = scopeContext.getScopeVisibility();
+        return notificationRepository.findUnreadVisible(userId, visibility.allScopes(), scopeIds(visibility)).stream()
                 .map(StaffNotificationResponse::from)
                 .collect(Collectors.toList());
     }
@@ -88,8 +92,9 @@ public class StaffNotificationService {
      */
     @Transactional
     public void markAsRead(Long notificationId, Long userId) {
+        ScopeContextService.ScopeVisibility visibility = scopeContext.getScopeVisibility();
         int updated = notificationRepository.markAsReadByIdForUser(
-                notificationId, userId, visibleScopeIds());
+                notificationId, userId, visibility.allScopes(), scopeIds(visibility));
         if (updated == 0) {
             throw new ResourceNotFoundException("Bildirishnoma topilmadi yoki allaqachon o'qilgan");
         }
@@ -100,7 +105,8 @@ public class StaffNotificationService {
      */
     @Transactional
     public int markAllAsRead(Long userId) {
-        return notificationRepository.markAllVisibleAsRead(userId, visibleScopeIds());
+        ScopeContextService.ScopeVisibility visibility = scopeContext.getScopeVisibility();
+        return notificationRepository.markAllVisibleAsRead(userId, visibility.allScopes(), scopeIds(visibility));
     }
 
     /**
@@ -109,8 +115,9 @@ public class StaffNotificationService {
      */
     @Transactional
     public void deleteNotification(Long notificationId, Long userId) {
+        ScopeContextService.ScopeVisibility visibility = scopeContext.getScopeVisibility();
         int deleted = notificationRepository.deleteByIdForUser(
-                notificationId, userId, visibleScopeIds());
+                notificationId, userId, visibility.allScopes(), scopeIds(visibility));
         if (deleted == 0) {
             throw new ResourceNotFoundException("Bildirishnoma topilmadi");
         }
@@ -0,0 +1,323 @@
+package uz.familyfinance.api.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import uz.familyfinance.api.enums.TransactionType;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tranzaksiya jurnali eksporti (CSV/XLSX) — natija xotirada TO'PLANMAYDI.
+ *
+ * <p>Boshqa export yo'llari ({@code GenericExportService}, {@code ExcelExportService}) to'liq
+ * {@code List} yuklab, faylni {@code ByteArrayOutputStream}'da quradi — jurnal uchun bu
+ * qatorlar soniga proporsional heap. Bu yerda:</p>
+ * <ul>
+ *   <li>JDBC, entity emas — persistence context'da hech narsa to'planmaydi;</li>
+ *   <li>forward-only kursor + {@code fetchSize} — PostgreSQL drayveri natijani bo'laklab
+ *       o'qiydi (tranzaksiya ichida, autocommit o'chiq bo'lgani uchun);</li>
+ *   <li>har qator darhol javob oqimiga yoziladi (CSV) yoki SXSSF oynasidan diskka
+ *       tushiriladi (XLSX) — heap 1k va 5M qatorda bir xil.</li>
+ * </ul>
+ *
+ * <p>Filtrlar {@code TransactionRepository.findWithFilters} bilan AYNAN bir xil ma'noda
+ * (kategoriya split'lar orqali ham, qidiruv V65 hujjati bo'yicha). Scope so'rov
+ * thread'ida {@link #prepare} bilan aniqlanadi — yozish esa async thread'da.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionExportService {
+
+    public enum Format { CSV, XLSX }
+
+    /** Tayyor eksport so'rovi — scope allaqachon aniqlangan (null = SUPER_ADMIN, global). */
+    public record ExportQuery(Long scopeId, TransactionType type, Long accountId, Long categoryId,
+                              Long memberId, LocalDateTime from, LocalDateTime to, String search) {
+    }
+
+    private static final String[] HEADERS = {"ID", "Sana", "Turi", "Holati", "Summa", "Valyuta", "Hisob",
+            "Qabul qiluvchi hisob", "Kategoriya", "A'zo", "Tavsif", "Teglar"};
+
+    /** XLSX varag'i chegarasi 1 048 576 qator — undan oldin yangi varaqqa o'tiladi. */
+    private static final int XLSX_ROWS_PER_SHEET = 1_000_000;
+
+    /** SXSSF xotirada ushlab turadigan qatorlar oynasi — qolganlari vaqtinchalik faylga. */
+    private static final int XLSX_WINDOW = 100;
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final String SELECT = "SELECT t.id, t.transaction_date, t.type, t.status, t.amount, "
+            + "a.currency, a.name AS account_name, ta.name AS to_account_name, c.name AS category_name, "
+            + "concat_ws(' ', NULLIF(fm.last_name, ''), fm.first_name, NULLIF(fm.middle_name, '')) AS member_name, "
+            + "t.description, t.tags "
+            + "FROM transactions t "
+            + "JOIN accounts a ON a.id = t.account_id "
+            + "LEFT JOIN accounts ta ON ta.id = t.to_account_id "
+            + "LEFT JOIN categories c ON c.id = t.category_id "
+            + "LEFT JOIN family_members fm ON fm.id = t.family_member_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ScopeContextService scopeContext;
+
+    @Value("${app.export.transactions.fetch-size:1000}")
+    private int fetchSize;
+
+    /**
+     * So'rov thread'ida chaqiriladi: aktiv scope {@code TransactionService} qoidasi bilan
+     * (SUPER_ADMIN → global, scope yo'q → -1, hech narsa mos kelmaydi).
+     */
+    public ExportQuery prepare(TransactionType type, Long accountId, Long categoryId, Long memberId,
+                               LocalDateTime from, LocalDateTime to, String search) {
+        String normalizedSearch = (search == null || search.isBlank()) ? null : search.trim();
+        return new ExportQuery(resolveActiveScopeIdOrNull(), type, accountId, categoryId, memberId,
+                from, to, normalizedSearch);
+    }
+
+    /**
+     * Eksportni {@code out}'ga yozadi. readOnly tranzaksiya — PG kursor rejimi faqat
+     * autocommit o'chiq ulanishda ishlaydi (aks holda drayver butun natijani yuklaydi).
+     */
+    @Transactional(readOnly = true)
+    public void write(ExportQuery query, Format format, OutputStream out) throws IOException {
+        long started = System.currentTimeMillis();
+        long rows = switch (format) {
+            case CSV -> writeCsv(query, out);
+            case XLSX -> writeXlsx(query, out);
+        };
+        log.info("Tranzaksiya eksporti ({}): {} qator, {} ms", format, rows, System.currentTimeMillis() - started);
+    }
+
+    private long writeCsv(ExportQuery query, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        // BOM — Excel UTF-8 CSV'ni (kirill/o'zbek harflari) to'g'ri ochishi uchun
+        writer.write('\uFEFF');
+        writeCsvLine(writer, List.of(HEADERS));
+        long[] count = {0};
+        stream(query, rs -> {
+            try {
+                writeCsvLine(writer, values(rs));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            count[0]++;
+        });
+        writer.flush();
+        return count[0];
+    }
+
+    private long writeXlsx(ExportQuery query, OutputStream out) throws IOException {
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(XLSX_WINDOW)) {
+            workbook.setCompressTempFiles(true);
+            CellStyle headerStyle = workbook.createCellStyle();
+            Font bold = workbook.createFont();
+            bold.setBold(true);
+            headerStyle.setFont(bold);
+
+            long[] count = {0};
+            SXSSFSheet[] sheet = {newSheet(workbook, headerStyle, 1)};
+            int[] rowNum = {1};
+            stream(query, rs -> {
+                if (rowNum[0] > XLSX_ROWS_PER_SHEET) {
+                    sheet[0] = newSheet(workbook, headerStyle, workbook.getNumberOfSheets() + 1);
+                    rowNum[0] = 1;
+                }
+                Row row = sheet[0].createRow(rowNum[0]++);
+                row.createCell(0).setCellValue(rs.getLong("id"));
+                row.createCell(1).setCellValue(formatDate(rs.getTimestamp("transaction_date")));
+                row.createCell(2).setCellValue(rs.getString("type"));
+                row.createCell(3).setCellValue(rs.getString("status"));
+                BigDecimal amount = rs.getBigDecimal("amount");
+                if (amount != null) {
+                    row.createCell(4).setCellValue(amount.doubleValue());
+                }
+                setText(row, 5, rs.getString("currency"));
+                setText(row, 6, rs.getString("account_name"));
+                setText(row, 7, rs.getString("to_account_name"));
+                setText(row, 8, rs.getString("category_name"));
+                setText(row, 9, rs.getString("member_name"));
+                setText(row, 10, rs.getString("description"));
+                setText(row, 11, rs.getString("tags"));
+                count[0]++;
+            });
+            workbook.write(out);
+            out.flush();
+            return count[0];
+        }
+    }
+
+    private SXSSFSheet newSheet(SXSSFWorkbook workbook, CellStyle headerStyle, int index) {
+        SXSSFSheet sheet = workbook.createSheet(index == 1 ? "Tranzaksiyalar" : "Tranzaksiyalar " + index);
+        Row header = sheet.createRow(0);
+        for (int i = 0; i < HEADERS.length; i++) {
+            Cell cell = header.createCell(i);
+            cell.setCellValue(HEADERS[i]);
+            cell.setCellStyle(headerStyle);
+        }
+        sheet.createFreezePane(0, 1);
+        return sheet;
+    }
+
+    /** Forward-only kursor: qatorlar {@code fetchSize} bo'laklarida keladi va darhol handler'ga beriladi. */
+    private void stream(ExportQuery query, RowCallbackHandler handler) {
+        List<Object> params = new ArrayList<>();
+        String sql = SELECT + where(query, params) + " ORDER BY t.transaction_date DESC, t.id DESC";
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            return ps;
+        }, handler);
+    }
+
+    /**
+     * Faqat berilgan filtrlar SQL'ga qo'shiladi — null parametrlarning tipini PG
+     * aniqlay olmasligi muammosi (bytea) bu yerda umuman yo'q.
+     */
+    private static String where(ExportQuery q, List<Object> params) {
+        List<String> clauses = new ArrayList<>();
+        if (q.scopeId() != null) {
+            clauses.add("t.scope_id = ?");
+            params.add(q.scopeId());
+        }
+        if (q.type() != null) {
+            clauses.add("t.type = ?");
+            params.add(q.type().name());
+        }
+        if (q.accountId() != null) {
+            clauses.add("t.account_id = ?");
+            params.add(q.accountId());
+        }
+        if (q.categoryId() != null) {
+            clauses.add("(t.category_id = ? OR EXISTS (SELECT 1 FROM transaction_splits s "
+                    + "WHERE s.transaction_id = t.id AND s.category_id = ?))");
+            params.add(q.categoryId());
+            params.add(q.categoryId());
+        }
+        if (q.memberId() != null) {
+            clauses.add("t.family_member_id = ?");
+            params.add(q.memberId());
+        }
+        if (q.from() != null) {
+            clauses.add("t.transaction_date >= ?");
+            params.add(Timestamp.valueOf(q.from()));
+        }
+        if (q.to() != null) {
+            clauses.add("t.transaction_date <= ?");
+            params.add(Timestamp.valueOf(q.to()));
+        }
+        if (q.search() != null) {
+            clauses.add("t.id IN (SELECT d.transaction_id FROM transaction_search_documents d "
+                    + "WHERE ff_search_matches(d.document, ?))");
+            params.add(q.search());
+        }
+        return clauses.isEmpty() ? "" : " WHERE " + String.join(" AND ", clauses);
+    }
+
+    private static List<String> values(ResultSet rs) throws SQLException {
+        BigDecimal amount = rs.getBigDecimal("amount");
+        List<String> values = new ArrayList<>(HEADERS.length);
+        values.add(String.valueOf(rs.getLong("id")));
+        values.add(formatDate(rs.getTimestamp("transaction_date")));
+        values.add(rs.getString("type"));
+        values.add(rs.getString("status"));
+        values.add(amount != null ? amount.toPlainString() : "");
+        values.add(rs.getString("currency"));
+        values.add(rs.getString("account_name"));
+        values.add(rs.getString("to_account_name"));
+        values.add(rs.getString("category_name"));
+        values.add(rs.getString("member_name"));
+        values.add(rs.getString("description"));
+        values.add(rs.getString("tags"));
+        return values;
+    }
+
+    private static void writeCsvLine(Writer writer, List<String> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvCell(values.get(i)));
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * RFC 4180 qo'shtirnoq + formula injection himoyasi: foydalanuvchi matni (tavsif, nom)
+     * '=', '+', '-', '@' bilan boshlansa Excel uni formula sifatida bajarmasligi uchun
+     * oldiga apostrof qo'yiladi. Summa {@code toPlainString} — son sifatida qoladi.
+     */
+    static String csvCell(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        String v = value;
+        if ("=+-@\t\r".indexOf(v.charAt(0)) >= 0 && !isNumber(v)) {
+            v = "'" + v;
+        }
+        if (v.indexOf(',') >= 0 || v.indexOf('"') >= 0 || v.indexOf('\n') >= 0 || v.indexOf('\r') >= 0) {
+            return '"' + v.replace("\"", "\"\"") + '"';
+        }
+        return v;
+    }
+
+    private static boolean isNumber(String v) {
+        try {
+            new BigDecimal(v);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static void setText(Row row, int column, String value) {
+        if (value != null) {
+            row.createCell(column).setCellValue(value);
+        }
+    }
+
+    private static String formatDate(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime().format(DATE_FORMATTER) : "";
+    }
+
+    private Long resolveActiveScopeIdOrNull() {
+        if (scopeContext.isSuperAdmin()) {
+            return null;
+        }
+        try {
+            Long scopeId = scopeContext.getActiveScopeIdOrNull();
+            return scopeId != null ? scopeId : -1L;
+        } catch (Exception e) {
+            log.warn("Aktiv scope olib bo'lmadi: {}", e.getMessage());
+            return -1L;
+        }
+    }
+}
@@ -0,0 +1,775 @@
+package uz.familyfinance.api.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import uz.familyfinance.api.dto.request.TransactionRequest;
+import uz.familyfinance.api.dto.response.BulkOperationResponse;
+import uz.familyfinance.api.dto.response.BulkOperationResponse.BulkOperationFailure;
+import uz.familyfinance.api.entity.Account;
+import uz.familyfinance.api.entity.Category;
+import uz.familyfinance.api.entity.FamilyMember;
+import uz.familyfinance.api.entity.Tag;
+import uz.familyfinance.api.enums.AccountStatus;
+import uz.familyfinance.api.enums.TransactionStatus;
+import uz.familyfinance.api.enums.TransactionType;
+import uz.familyfinance.api.event.ScopeDataChangedEvent;
+import uz.familyfinance.api.exception.BadRequestException;
+import uz.familyfinance.api.repository.AccountRepository;
+import uz.familyfinance.api.repository.CategoryRepository;
+import uz.familyfinance.api.repository.FamilyMemberRepository;
+import uz.familyfinance.api.repository.TagRepository;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bank ko'chirmalari / eski jadvallardan ommaviy tranzaksiya importi (CSV yoki JSON oqimi).
+ *
+ * <p>Qatorma-qator {@code TransactionService.create} har qatorga bir nechta findById, ikki
+ * addToBalance UPDATE, ikki SUM'li byudjet tekshiruvi va audit listener ishini to'lardi.
+ * Bu yerda oqim {@code batch-size} qatorli bo'laklarga bo'linadi va har bo'lak bitta
+ * tranzaksiyada:</p>
+ * <ul>
+ *   <li>hisob/kategoriya/a'zo/tag'lar bo'lak uchun BIR MARTA (IN so'rov bilan) yuklanadi,
+ *       hisobga yozish huquqi har hisob uchun bir marta tekshiriladi;</li>
+ *   <li>qatorlar JDBC batch INSERT bilan yoziladi (IDENTITY id sabab Hibernate insert'ni
+ *       batch qila olmaydi);</li>
+ *   <li>har hisobga bitta sof (net) {@code addToBalance} — id tartibida (lock tartibi
+ *       deterministik, konkurent importlar deadlock'ga tushmaydi);</li>
+ *   <li>kunlik agregat proyeksiyasi (V63) bo'lak uchun bitta batch upsert bilan.</li>
+ * </ul>
+ * <p>Byudjet ogohlantirishlari butun import oxirida har (kategoriya, scope) uchun bir marta
+ * qayta baholanadi. Qator xatolari {@link BulkOperationResponse} da {@code rowNumber} bilan
+ * qaytadi; yaroqli qatorlar baribir import qilinadi.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionImportService {
+
+    /** CSV sarlavhasidagi qo'llab-quvvatlanadigan ustunlar (katta-kichik harf farqsiz). */
+    static final List<String> CSV_COLUMNS = List.of("type", "amount", "accountId", "toAccountId",
+            "categoryId", "familyMemberId", "transactionDate", "description", "tags");
+
+    private static final String INSERT_SQL = "INSERT INTO transactions (type, amount, account_id, to_account_id, "
+            + "scope_id, debit_account_id, credit_account_id, status, balance_before_debit, balance_after_debit, "
+            + "balance_before_credit, balance_after_credit, category_id, family_member_id, transaction_date, "
+            + "description, is_recurring, recurring_pattern, tags, created_at, version) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private static final String INSERT_TAG_SQL = "INSERT INTO transaction_tags (transaction_id, tag_id) VALUES (?, ?)";
+
+    private final AccountRepository accountRepository;
+    private final CategoryRepository categoryRepository;
+    private final FamilyMemberRepository familyMemberRepository;
+    private final TagRepository tagRepository;
+    private final AccountService accountService;
+    private final TransactionService transactionService;
+    private final TransitLedgerService transitLedgerService;
+    private final LedgerAggregateService ledgerAggregates;
+    private final AuditLogService auditLogService;
+    private final ScopeContextService scopeContext;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /** Har bo'lak o'z tranzaksiyasida — proxy orqali chaqiriladi (TransactionService.self naqshi). */
+    @Autowired
+    @Lazy
+    private TransactionImportService self;
+
+    @Value("${app.transactions.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.transactions.import.max-rows:50000}")
+    private int maxRows;
+
+    /** Import qatori: manba fayldagi tartib raqami (1 dan) + so'rov ko'rinishi. */
+    public record ImportRow(int rowNumber, TransactionRequest request) {}
+
+    /** Budjet qayta baholash kaliti — import oxirida har juftlik bir marta. */
+    public record BudgetKey(Long categoryId, Long scopeId) {}
+
+    /** Bitta bo'lak natijasi. */
+    public record ChunkResult(int successCount, List<BulkOperationFailure> failures, Set<BudgetKey> budgetKeys) {}
+
+    // ==========================================================
+    // Kirish nuqtalari (oqimni o'qish)
+    // ==========================================================
+
+    /**
+     * CSV import: birinchi qator sarlavha ({@link #CSV_COLUMNS} dan istalgan tartibda),
+     * ajratuvchi vergul, qo'shtirnoqli maydonlar RFC 4180 bo'yicha. Sana ISO formatda
+     * ({@code 2025-01-31}, {@code 2025-01-31T14:30} yoki {@code 2025-01-31 14:30:00}).
+     */
+    public BulkOperationResponse importCsv(InputStream in) throws IOException {
+        ImportAccumulator acc = new ImportAccumulator();
+        try (CsvRecordReader reader = new CsvRecordReader(
+                new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)))) {
+            List<String> header = reader.next();
+            if (header == null) {
+                throw new BadRequestException("CSV fayl bo'sh");
+            }
+            Map<String, Integer> columns = resolveHeader(header);
+            int rowNumber = 0;
+            List<String> record;
+            while ((record = reader.next()) != null) {
+                if (record.size() == 1 && record.get(0).isBlank()) {
+                    continue; // bo'sh qator
+                }
+                rowNumber++;
+                if (limitReached(acc, rowNumber)) {
+                    break;
+                }
+                try {
+                    acc.add(new ImportRow(rowNumber, parseCsvRow(record, columns)));
+                } catch (IllegalArgumentException e) {
+                    acc.fail(rowNumber, e.getMessage());
+                }
+            }
+        }
+        return acc.finish();
+    }
+
+    /** JSON import: {@link TransactionRequest} massivi, element-element o'qiladi (butun fayl xotiraga olinmaydi). */
+    public BulkOperationResponse importJson(InputStream in) throws IOException {
+        ImportAccumulator acc = new ImportAccumulator();
+        try (MappingIterator<TransactionRequest> it = objectMapper.readerFor(TransactionRequest.class).readValues(in)) {
+            int rowNumber = 0;
+            while (true) {
+                try {
+                    if (!it.hasNextValue()) {
+                        break;
+                    }
+                    rowNumber++;
+                    if (limitReached(acc, rowNumber)) {
+                        break;
+                    }
+                    acc.add(new ImportRow(rowNumber, it.nextValue()));
+                } catch (com.fasterxml.jackson.core.JacksonException e) {
+                    // Oqim sintaksisi buzilgan — qolgan qatorlarni ishonchli o'qib bo'lmaydi
+                    acc.fail(rowNumber, "JSON o'qib bo'lmadi: " + e.getOriginalMessage());
+                    break;
+                }
+            }
+        }
+        return acc.finish();
+    }
+
+    /**
+     * Qator limiti: oldingi bo'laklar allaqachon commit bo'lgan bo'lishi mumkin, shu sabab
+     * butun so'rov rad etilmaydi — limitdan keyingi qatorlar o'qilmaydi va bu xato sifatida qaytadi.
+     */
+    private boolean limitReached(ImportAccumulator acc, int rowNumber) {
+        if (rowNumber <= maxRows) {
+            return false;
+        }
+        acc.fail(rowNumber, "Bitta importda " + maxRows + " qatordan ko'p bo'lishi mumkin emas — "
+                + rowNumber + "-qatordan boshlab import to'xtatildi");
+        return true;
+    }
+
+    /**
+     * Qatorlarni bo'laklarga yig'adi; bo'lak to'lganda uni darhol yozadi (oqim davomida).
+     * Byudjet kalitlari butun import oxirigacha to'planadi.
+     */
+    private class ImportAccumulator {
+        private final List<ImportRow> pending = new ArrayList<>();
+        private final List<BulkOperationFailure> failures = new ArrayList<>();
+        private final Set<BudgetKey> budgetKeys = new LinkedHashSet<>();
+        private int successCount;
+
+        void add(ImportRow row) {
+            pending.add(row);
+            if (pending.size() >= Math.max(1, batchSize)) {
+                flush();
+            }
+        }
+
+        void fail(int rowNumber, String reason) {
+            failures.add(rowFailure(rowNumber, reason));
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<ImportRow> chunk = List.copyOf(pending);
+            pending.clear();
+            try {
+                ChunkResult result = self.importChunk(chunk);
+                successCount += result.successCount();
+                failures.addAll(result.failures());
+                budgetKeys.addAll(result.budgetKeys());
+            } catch (Exception e) {
+                // Bo'lak bitta tranzaksiya — DB xatosida u butunlay rollback bo'ladi
+                log.warn("Import: {}-{} qatorlar bo'lagi yozilmadi: {}",
+                        chunk.get(0).rowNumber(), chunk.get(chunk.size() - 1).rowNumber(), e.getMessage());
+                chunk.forEach(row -> fail(row.rowNumber(), "Bo'lak yozilmadi: " + e.getMessage()));
+            }
+        }
+
+        BulkOperationResponse finish() {
+            flush();
+            reevaluateBudgets(budgetKeys);
+            failures.sort(java.util.Comparator.comparing(BulkOperationFailure::getRowNumber,
+                    java.util.Comparator.nullsLast(Integer::compareTo)));
+            log.info("Tranzaksiya importi: {} ta yozildi, {} ta xato", successCount, failures.size());
+            return BulkOperationResponse.builder()
+                    .successCount(successCount)
+                    .failures(failures)
+                    .build();
+        }
+    }
+
+    // ==========================================================
+    // Bo'lakni yozish
+    // ==========================================================
+
+    /**
+     * Bitta bo'lakni bitta tranzaksiyada yozadi: referenslar bir martada yuklanadi,
+     * yaroqsiz qatorlar chetga olinadi, qolganlari JDBC batch bilan INSERT qilinadi
+     * va har hisobga bitta sof balans o'zgarishi qo'llanadi.
+     */
+    @Transactional
+    public ChunkResult importChunk(List<ImportRow> rows) {
+        List<BulkOperationFailure> failures = new ArrayList<>();
+
+        Map<Long, Account> accounts = loadById(rows, r -> nonNullIds(r.getAccountId(), r.getToAccountId()),
+                accountRepository::findAllById, Account::getId);
+        Map<Long, Category> categories = loadById(rows, r -> nonNullIds(r.getCategoryId()),
+                categoryRepository::findAllById, Category::getId);
+        Map<Long, FamilyMember> members = loadById(rows, r -> nonNullIds(r.getFamilyMemberId()),
+                familyMemberRepository::findAllById, FamilyMember::getId);
+        Map<Long, Tag> tags = loadById(rows, r -> r.getTagIds() != null ? r.getTagIds() : Set.of(),
+                tagRepository::findAllById, Tag::getId);
+
+        // Tranzit shard'lar (valyuta, yo'nalish, scope) bo'yicha bir marta, xato tashlamaydigan
+        // o'qish bilan: "topilmadi" tranzaksiyaviy proxy orqali o'tsa, bo'lak tranzaksiyasi
+        // rollback-only bo'lib, yaroqli qatorlar ham commit'da yo'qolardi
+        Map<TransitKey, Optional<Account>> transits = new HashMap<>();
+        for (ImportRow row : rows) {
+            TransactionRequest r = row.request();
+            Account account = r.getAccountId() != null ? accounts.get(r.getAccountId()) : null;
+            if (account != null && (r.getType() == TransactionType.INCOME || r.getType() == TransactionType.EXPENSE)) {
+                TransitKey key = TransitKey.of(account, r.getType() == TransactionType.INCOME);
+                transits.computeIfAbsent(key, k -> transitLedgerService.lookupTransitAccount(
+                        k.currency(), k.income(), k.scopeId()));
+            }
+        }
+
+        // Yozish huquqi har hisob uchun bir marta (null = ruxsat, aks holda xato matni)
+        Map<Long, String> accessErrors = new HashMap<>();
+
+        // Hisob bo'yicha joriy (bo'lak ichidagi) balans — before/after snapshot'lar uchun
+        Map<Long, BigDecimal> running = new HashMap<>();
+        // Sof balans o'zgarishi; TreeMap — addToBalance id tartibida (deterministik lock tartibi)
+        Map<Long, BigDecimal> netDeltas = new TreeMap<>();
+
+        List<PreparedRow> prepared = new ArrayList<>();
+        Set<BudgetKey> budgetKeys = new LinkedHashSet<>();
+
+        for (ImportRow row : rows) {
+            try {
+                PreparedRow p = prepare(row, accounts, transits, categories, members, tags, accessErrors);
+                p.balanceBeforeDebit = running.computeIfAbsent(p.debit.getId(), id -> p.debit.getBalance());
+                p.balanceBeforeCredit = running.computeIfAbsent(p.credit.getId(), id -> p.credit.getBalance());
+                BigDecimal amount = p.request.getAmount();
+                running.merge(p.debit.getId(), amount, BigDecimal::add);
+                running.merge(p.credit.getId(), amount.negate(), BigDecimal::add);
+                p.balanceAfterDebit = running.get(p.debit.getId());
+                p.balanceAfterCredit = running.get(p.credit.getId());
+                netDeltas.merge(p.debit.getId(), amount, BigDecimal::add);
+                netDeltas.merge(p.credit.getId(), amount.negate(), BigDecimal::add);
+                prepared.add(p);
+
+                if (p.request.getType() == TransactionType.EXPENSE && p.category != null && p.scopeId != null) {
+                    budgetKeys.add(new BudgetKey(p.category.getId(), p.scopeId));
+                }
+            } catch (RuntimeException e) {
+                failures.add(rowFailure(row.rowNumber(), e.getMessage()));
+            }
+        }
+
+        if (prepared.isEmpty()) {
+            return new ChunkResult(0, failures, Set.of());
+        }
+
+        List<Long> ids = batchInsert(prepared);
+        batchInsertTags(prepared, ids);
+
+        netDeltas.forEach((accountId, delta) -> {
+            if (delta.signum() != 0) {
+                accountRepository.addToBalance(accountId, delta);
+            }
+        });
+
+        ledgerAggregates.apply(List.of(), prepared.stream()
+                .map(p -> ledgerAggregates.contribution(p.scopeId, p.request.getTransactionDate(),
+                        p.request.getType(), p.category != null ? p.category.getId() : null,
+                        p.account.getCurrency(), p.member != null ? p.member.getId() : null,
+                        p.request.getAmount()))
+                .toList());
+
+        // Dashboard keshi: tranzaksiya scope'lari va balansi o'zgargan hisoblar egasi scope'lari
+        Set<Long> changedScopes = new HashSet<>();
+        for (PreparedRow p : prepared) {
+            changedScopes.add(p.scopeId);
+            for (Account a : List.of(p.debit, p.credit)) {
+                if (a.getHomeScope() != null) {
+                    changedScopes.add(a.getHomeScope().getId());
+                }
+            }
+        }
+        changedScopes.remove(null);
+        changedScopes.forEach(id -> eventPublisher.publishEvent(new ScopeDataChangedEvent(id)));
+
+        auditLogService.log("Transaction", null, "IMPORT", null,
+                Map.of("count", prepared.size(),
+                        "firstId", ids.get(0),
+                        "lastId", ids.get(ids.size() - 1),
+                        "accountIds", List.copyOf(netDeltas.keySet())),
+                scopeContext.getCurrentUserId());
+
+        return new ChunkResult(prepared.size(), failures, budgetKeys);
+    }
+
+    /** Qatorni tekshiradi va debit/credit juftligini aniqlaydi (TransactionService.doCreate qoidalari). */
+    private PreparedRow prepare(ImportRow row, Map<Long, Account> accounts,
+                                Map<TransitKey, Optional<Account>> transits, Map<Long, Category> categories,
+                                Map<Long, FamilyMember> members, Map<Long, Tag> tags,
+                                Map<Long, String> accessErrors) {
+        TransactionRequest r = row.request();
+        Set<ConstraintViolation<TransactionRequest>> violations = validator.validate(r);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<TransactionRequest> v = violations.iterator().next();
+            throw new BadRequestException(v.getPropertyPath() + ": " + v.getMessage());
+        }
+        if (r.getSplits() != null && !r.getSplits().isEmpty()) {
+            throw new BadRequestException("Importda split'li tranzaksiya qo'llab-quvvatlanmaydi");
+        }
+
+        Account account = requireWritable(accounts.get(r.getAccountId()), "Hisob topilmadi", accessErrors);
+
+        PreparedRow p = new PreparedRow();
+        p.request = r;
+        p.account = account;
+        p.scopeId = account.getHomeScope() != null ? account.getHomeScope().getId() : null;
+
+        switch (r.getType()) {
+            case INCOME -> {
+                p.debit = account;
+                p.credit = transit(transits, account, true);
+            }
+            case EXPENSE -> {
+                p.debit = transit(transits, account, false);
+                p.credit = account;
+            }
+            case TRANSFER -> {
+                if (r.getToAccountId() == null) {
+                    throw new BadRequestException("O'tkazma uchun qabul qiluvchi hisob kerak");
+                }
+                Account to = requireWritable(accounts.get(r.getToAccountId()),
+                        "Qabul qiluvchi hisob topilmadi", accessErrors);
+                if (!TransactionService.isSameCurrency(account.getCurrency(), to.getCurrency())) {
+                    throw new BadRequestException("Turli valyutali hisoblar o'rtasida o'tkazma qilib bo'lmaydi: "
+                            + account.getCurrency() + " → " + to.getCurrency());
+                }
+                p.toAccount = to;
+                p.debit = to;
+                p.credit = account;
+            }
+            default -> throw new BadRequestException("Noto'g'ri tranzaksiya turi: " + r.getType());
+        }
+
+        if (r.getCategoryId() != null) {
+            p.category = categories.get(r.getCategoryId());
+            if (p.category == null) {
+                throw new BadRequestException("Kategoriya topilmadi: " + r.getCategoryId());
+            }
+        }
+        if (r.getFamilyMemberId() != null) {
+            p.member = members.get(r.getFamilyMemberId());
+            if (p.member == null) {
+                throw new BadRequestException("Oila a'zosi topilmadi: " + r.getFamilyMemberId());
+            }
+        }
+        if (r.getTagIds() != null) {
+            for (Long tagId : r.getTagIds()) {
+                if (!tags.containsKey(tagId)) {
+                    throw new BadRequestException("Tag topilmadi: " + tagId);
+                }
+            }
+            p.tagIds = r.getTagIds();
+        }
+        return p;
+    }
+
+    /** Oldindan aniqlangan tranzit shard; yo'q bo'lsa — faqat shu qator xatosi. */
+    private static Account transit(Map<TransitKey, Optional<Account>> transits, Account account, boolean income) {
+        return transits.getOrDefault(TransitKey.of(account, income), Optional.empty())
+                .orElseThrow(() -> new BadRequestException("Tranzit hisob topilmadi: "
+                        + (income ? TransitLedgerService.INCOME_PREFIX : TransitLedgerService.EXPENSE_PREFIX)
+                        + " (" + account.getCurrency() + ")"));
+    }
+
+    /** Hisob mavjud, faol va joriy foydalanuvchi unga yoza oladi (natija hisob bo'yicha keshlanadi). */
+    private Account requireWritable(Account account, String notFoundMessage, Map<Long, String> accessErrors) {
+        if (account == null) {
+            throw new BadRequestException(notFoundMessage);
+        }
+        String error = accessErrors.computeIfAbsent(account.getId(), id -> {
+            try {
+                accountService.assertCanModify(account);
+                return "";
+            } catch (RuntimeException e) {
+                return e.getMessage();
+            }
+        });
+        if (!error.isEmpty()) {
+            throw new BadRequestException(error);
+        }
+        if (account.getStatus() != AccountStatus.ACTIVE) {
+            String holat = account.getStatus() == AccountStatus.FROZEN ? "muzlatilgan" : "yopilgan";
+            throw new BadRequestException(
+                    "Hisob " + holat + " holatda bo'lgani uchun unga tranzaksiya kiritib bo'lmaydi");
+        }
+        return account;
+    }
+
+    private List<Long> batchInsert(List<PreparedRow> rows) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_SQL, new String[] {"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        PreparedRow p = rows.get(i);
+                        TransactionRequest r = p.request;
+                        ps.setString(1, r.getType().name());
+                        ps.setBigDecimal(2, r.getAmount());
+                        ps.setLong(3, p.account.getId());
+                        setNullableLong(ps, 4, p.toAccount != null ? p.toAccount.getId() : null);
+                        setNullableLong(ps, 5, p.scopeId);
+                        ps.setLong(6, p.debit.getId());
+                        ps.setLong(7, p.credit.getId());
+                        ps.setString(8, TransactionStatus.CONFIRMED.name());
+                        ps.setBigDecimal(9, p.balanceBeforeDebit);
+                        ps.setBigDecimal(10, p.balanceAfterDebit);
+                        ps.setBigDecimal(11, p.balanceBeforeCredit);
+                        ps.setBigDecimal(12, p.balanceAfterCredit);
+                        setNullableLong(ps, 13, p.category != null ? p.category.getId() : null);
+                        setNullableLong(ps, 14, p.member != null ? p.member.getId() : null);
+                        ps.setTimestamp(15, Timestamp.valueOf(r.getTransactionDate()));
+                        ps.setString(16, r.getDescription());
+                        ps.setBoolean(17, Boolean.TRUE.equals(r.getIsRecurring()));
+                        ps.setString(18, r.getRecurringPattern() != null ? r.getRecurringPattern().name() : null);
+                        ps.setString(19, r.getTags());
+                        ps.setTimestamp(20, now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                },
+                keyHolder);
+        return keyHolder.getKeyList().stream()
+                .map(keys -> ((Number) keys.get("id")).longValue())
+                .toList();
+    }
+
+    private void batchInsertTags(List<PreparedRow> rows, List<Long> ids) {
+        List<Object[]> links = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            Set<Long> tagIds = rows.get(i).tagIds;
+            if (tagIds != null) {
+                for (Long tagId : tagIds) {
+                    links.add(new Object[] {ids.get(i), tagId});
+                }
+            }
+        }
+        if (!links.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_TAG_SQL, links);
+        }
+    }
+
+    private static void setNullableLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value != null) {
+            ps.setLong(index, value);
+        } else {
+            ps.setNull(index, Types.BIGINT);
+        }
+    }
+
+    /** Null'siz ID ro'yxati ({@code List.of} null qabul qilmaydi). */
+    private static List<Long> nonNullIds(Long... ids) {
+        List<Long> list = new ArrayList<>(ids.length);
+        for (Long id : ids) {
+            if (id != null) {
+                list.add(id);
+            }
+        }
+        return list;
+    }
+
+    /** Bo'lakdagi barcha referens ID'larni yig'ib, bitta IN so'rov bilan yuklaydi. */
+    private static <T> Map<Long, T> loadById(List<ImportRow> rows,
+                                             Function<TransactionRequest, Collection<Long>> idsOf,
+                                             Function<Set<Long>, List<T>> finder,
+                                             Function<T, Long> idOf) {
+        Set<Long> ids = new HashSet<>();
+        for (ImportRow row : rows) {
+            for (Long id : idsOf.apply(row.request())) {
+                if (id != null) {
+                    ids.add(id);
+                }
+            }
+        }
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return finder.apply(ids).stream().collect(Collectors.toMap(idOf, Function.identity()));
+    }
+
+    /** Import oxirida har (kategoriya, scope) juftligi uchun byudjet chegarasi bir marta tekshiriladi. */
+    private void reevaluateBudgets(Set<BudgetKey> keys) {
+        for (BudgetKey key : keys) {
+            try {
+                transactionService.checkBudgetWarning(key.categoryId(), key.scopeId());
+            } catch (Exception e) {
+                log.warn("Import: byudjet ogohlantirishi tekshirilmadi (kategoriya {}, scope {}): {}",
+                        key.categoryId(), key.scopeId(), e.getMessage());
+            }
+        }
+    }
+
+    private static BulkOperationFailure rowFailure(int rowNumber, String reason) {
+        return BulkOperationFailure.builder()
+                .rowNumber(rowNumber)
+                .reason(reason)
+                .build();
+    }
+
+    /** Tranzit shard kaliti: hisob valyutasi, yo'nalish va tranzaksiya scope'i. */
+    private record TransitKey(String currency, boolean income, Long scopeId) {
+
+        static TransitKey of(Account account, boolean income) {
+            return new TransitKey(account.getCurrency(), income,
+                    account.getHomeScope() != null ? account.getHomeScope().getId() : null);
+        }
+    }
+
+    /** Bo'lak ichida tayyorlangan qator (yozishdan oldingi holat). */
+    private static final class PreparedRow {
+        TransactionRequest request;
+        Account account;
+        Account toAccount;
+        Account debit;
+        Account credit;
+        Long scopeId;
+        Category category;
+        FamilyMember member;
+        Set<Long> tagIds;
+        BigDecimal balanceBeforeDebit;
+        BigDecimal balanceAfterDebit;
+        BigDecimal balanceBeforeCredit;
+        BigDecimal balanceAfterCredit;
+    }
+
+    // ==========================================================
+    // CSV
+    // ==========================================================
+
+    private static Map<String, Integer> resolveHeader(List<String> header) {
+        Map<String, String> known = new HashMap<>();
+        CSV_COLUMNS.forEach(c -> known.put(c.toLowerCase(Locale.ROOT), c));
+        Map<String, Integer> columns = new LinkedHashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).trim().replace("\uFEFF", "").toLowerCase(Locale.ROOT);
+            String column = known.get(name);
+            if (column == null) {
+                throw new BadRequestException("Noma'lum CSV ustuni: " + header.get(i)
+                        + " (ruxsat etilgan: " + String.join(", ", CSV_COLUMNS) + ")");
+            }
+            columns.put(column, i);
+        }
+        for (String required : List.of("type", "amount", "accountId", "transactionDate")) {
+            if (!columns.containsKey(required)) {
+                throw new BadRequestException("CSV'da majburiy ustun yo'q: " + required);
+            }
+        }
+        return columns;
+    }
+
+    /** CSV qatorini {@link TransactionRequest} ga aylantiradi; format xatosi → IllegalArgumentException. */
+    static TransactionRequest parseCsvRow(List<String> record, Map<String, Integer> columns) {
+        TransactionRequest r = new TransactionRequest();
+        String type = cell(record, columns, "type");
+        if (type != null) {
+            try {
+                r.setType(TransactionType.valueOf(type.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Noto'g'ri tranzaksiya turi: " + type);
+            }
+        }
+        String amount = cell(record, columns, "amount");
+        if (amount != null) {
+            try {
+                r.setAmount(new BigDecimal(amount.replace(" ", "").replace(',', '.')));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Noto'g'ri summa: " + amount);
+            }
+        }
+        r.setAccountId(parseId(cell(record, columns, "accountId"), "accountId"));
+        r.setToAccountId(parseId(cell(record, columns, "toAccountId"), "toAccountId"));
+        r.setCategoryId(parseId(cell(record, columns, "categoryId"), "categoryId"));
+        r.setFamilyMemberId(parseId(cell(record, columns, "familyMemberId"), "familyMemberId"));
+        r.setTransactionDate(parseDateTime(cell(record, columns, "transactionDate")));
+        r.setDescription(cell(record, columns, "description"));
+        r.setTags(cell(record, columns, "tags"));
+        return r;
+    }
+
+    private static String cell(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Long parseId(String value, String column) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Noto'g'ri " + column + ": " + value);
+        }
+    }
+
+    private static LocalDateTime parseDateTime(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            if (value.length() == 10) {
+                return LocalDate.parse(value).atStartOfDay();
+            }
+            return LocalDateTime.parse(value.replace(' ', 'T'));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Noto'g'ri sana: " + value);
+        }
+    }
+
+    /**
+     * Minimal RFC 4180 o'quvchi: vergul ajratuvchi, qo'shtirnoqli maydon ichida vergul,
+     * qator o'tkazish va {@code ""} (qochirilgan qo'shtirnoq) bo'lishi mumkin. Oqimli —
+     * bir vaqtda faqat bitta yozuv xotirada.
+     */
+    static final class CsvRecordReader implements AutoCloseable {
+        private final Reader reader;
+        private boolean eof;
+
+        CsvRecordReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        /** Keyingi yozuv yoki oqim tugagan bo'lsa {@code null}. */
+        List<String> next() throws IOException {
+            if (eof) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean any = false;
+            int c;
+            while ((c = reader.read()) != -1) {
+                any = true;
+                char ch = (char) c;
+                if (quoted) {
+                    if (ch == '"') {
+                        reader.mark(1);
+                        int n = reader.read();
+                        if (n == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            if (n != -1) {
+                                reader.reset();
+                            }
+                        }
+                    } else {
+                        field.append(ch);
+                    }
+                } else if (ch == '"') {
+                    quoted = true;
+                } else if (ch == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (ch == '\n') {
+                    fields.add(field.toString());
+                    return fields;
+                } else if (ch != '\r') {
+                    field.append(ch);
+                }
+            }
+            eof = true;
+            if (!any) {
+                return null;
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
@@ -3,12 +3,17 @@ package uz.familyfinance.api.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import uz.familyfinance.api.dto.request.TransactionRequest;
+import uz.familyfinance.api.dto.response.CursorPageResponse;
 import uz.familyfinance.api.dto.response.ExpenseSummaryResponse;
 import uz.familyfinance.api.dto.response.TransactionResponse;
 import uz.familyfinance.api.entity.*;
@@ -26,9 +31,21 @@ import uz.familyfinance.api.entity.BudgetAlert;
 import uz.familyfinance.api.entity.TransactionSplit;
 import uz.familyfinance.api.enums.BudgetAlertThreshold;
 import uz.familyfinance.api.enums.StaffNotificationType;
+import uz.familyfinance.api.event.ScopeDataChangedEvent;
 import uz.familyfinance.api.repository.*;
+import uz.familyfinance.api.util.TransactionCursor;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -53,6 +70,14 @@ public class TransactionService {
     private final TagService tagService;
     private final TransactionSplitRepository transactionSplitRepository;
     private final ScopeContextService scopeContext;
+    private final TransitLedgerService transitLedgerService;
+    private final LedgerAggregateService ledgerAggregates;
+    private final LedgerDailyAggregateRepository ledgerDailyAggregateRepository;
+    private final AuditLogService auditLogService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.transactions.bulk.reverse-chunk-size:200}")
+    private int bulkReverseChunkSize;
 
     /**
      * O'z-o'ziga proxy havola — bulkReverse() ichidan reverse() ni Spring
@@ -91,9 +116,88 @@ public class TransactionService {
                                               String search, Pageable pageable) {
         String normalizedSearch = (search == null || search.isBlank()) ? null : search.trim();
         Long scopeId = resolveActiveScopeIdOrNull();
-        return transactionRepository.findWithFilters(scopeId, type, accountId, categoryId, memberId,
-                                                       from, to, null, normalizedSearch, pageable)
-                .map(this::toResponse);
+        return toResponsePage(transactionRepository.findWithFilters(scopeId, type, accountId, categoryId,
+                                                                   memberId, from, to, null, normalizedSearch,
+                                                                   pageable));
+    }
+
+    /**
+     * Jurnalning keyset (seek) varianti — {@link #getAll} bilan AYNAN bir xil filtrlar,
+     * lekin OFFSET va majburiy COUNT yo'q: sahifa kursor kalitidan boshlab o'qiladi,
+     * narx chuqurlikka bog'liq emas. Bitta ortiqcha qator (size + 1) keyingi sahifa
+     * borligini COUNT'siz aniqlaydi. {@code includeTotal} — jami faqat so'ralganda.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<TransactionResponse> getAllKeyset(TransactionType type, Long accountId,
+                                                               Long categoryId, Long memberId,
+                                                               LocalDateTime from, LocalDateTime to,
+                                                               String search, String cursor, int size,
+                                                               boolean includeTotal) {
+        String normalizedSearch = (search == null || search.isBlank()) ? null : search.trim();
+        Long scopeId = resolveActiveScopeIdOrNull();
+        TransactionCursor position = (cursor == null || cursor.isBlank()) ? null : TransactionCursor.decode(cursor);
+        boolean backward = position != null && position.direction() == TransactionCursor.Direction.PREV;
+        PageRequest limit = PageRequest.of(0, size + 1);
+
+        List<Transaction> rows = backward
+                ? transactionRepository.findKeysetAfter(scopeId, type, accountId, categoryId, memberId,
+                        from, to, null, normalizedSearch, position.transactionDate(), position.id(), limit)
+                : transactionRepository.findKeysetBefore(scopeId, type, accountId, categoryId, memberId,
+                        from, to, null, normalizedSearch,
+                        position != null ? position.transactionDate() : null,
+                        position != null ? position.id() : null, limit);
+
+        boolean more = rows.size() > size;
+        List<Transaction> page = new ArrayList<>(more ? rows.subList(0, size) : rows);
+        if (backward) {
+            Collections.reverse(page);
+        }
+        // Oldinga: keyingisi "more", oldingisi kursor bo'lsa bor. Orqaga: aksincha.
+        boolean hasNext = backward || more;
+        boolean hasPrev = backward ? more : position != null;
+
+        return CursorPageResponse.<TransactionResponse>builder()
+                .content(toResponses(page))
+                .size(size)
+                .hasNext(hasNext && !page.isEmpty())
+                .hasPrev(hasPrev && !page.isEmpty())
+                .nextCursor(hasNext && !page.isEmpty()
+                        ? cursorOf(TransactionCursor.Direction.NEXT, page.get(page.size() - 1)) : null)
+                .prevCursor(hasPrev && !page.isEmpty()
+                        ? cursorOf(TransactionCursor.Direction.PREV, page.get(0)) : null)
+                .totalElements(includeTotal
+                        ? transactionRepository.countWithFilters(scopeId, type, accountId, categoryId, memberId,
+                                from, to, null, normalizedSearch)
+                        : null)
+                .build();
+    }
+
+    /**
+     * Jurnal qidiruvi relevantlik tartibida (V65 tsvector hujjati): har so'z prefiks,
+     * kirill/lotin yozuvi farqsiz. Jurnal filtri ({@link #getAll}) sana tartibini saqlaydi;
+     * bu — qidiruv maydonining "eng mos" natijalari.
+     */
+    @Transactional(readOnly = true)
+    public List<TransactionResponse> searchRanked(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Qidiruv matni bo'sh bo'lmasligi kerak");
+        }
+        Long scopeId = resolveActiveScopeIdOrNull();
+        List<Long> ids = transactionRepository.searchRankedIds(scopeId == null,
+                scopeId != null ? scopeId : 0L, query.trim(), limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        java.util.Map<Long, Transaction> byId = transactionRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Transaction::getId, t -> t));
+        return toResponses(ids.stream()
+                .map(byId::get)
+                .filter(java.util.Objects::nonNull)
+                .toList());
+    }
+
+    private static String cursorOf(TransactionCursor.Direction direction, Transaction t) {
+        return new TransactionCursor(direction, t.getTransactionDate(), t.getId()).encode();
     }
 
     @Transactional(readOnly = true)
@@ -106,12 +210,10 @@ public class TransactionService {
         Long scopeId = resolveActiveScopeIdOrNull();
         if (scopeId == null) {
             // SUPER_ADMIN — eski global qaytaradi
-            return transactionRepository.findTop10ByOrderByTransactionDateDesc().stream()
-                    .map(this::toResponse).collect(Collectors.toList());
+            return toResponses(transactionRepository.findTop10ByOrderByTransactionDateDesc());
         }
-        return transactionRepository
-                .findTop10ByScope(scopeId, org.springframework.data.domain.PageRequest.of(0, 10))
-                .stream().map(this::toResponse).collect(Collectors.toList());
+        return toResponses(transactionRepository
+                .findTop10ByScope(scopeId, org.springframework.data.domain.PageRequest.of(0, 10)));
     }
 
     /**
@@ -121,9 +223,8 @@ public class TransactionService {
      */
     @Transactional(readOnly = true)
     public List<TransactionResponse> getRecentForScope(Long scopeId) {
-        return transactionRepository
-                .findTop10ByScope(scopeId, org.springframework.data.domain.PageRequest.of(0, 10))
-                .stream().map(this::toResponse).collect(Collectors.toList());
+        return toResponses(transactionRepository
+                .findTop10ByScope(scopeId, org.springframework.data.domain.PageRequest.of(0, 10)));
     }
 
     /**
@@ -265,16 +366,21 @@ public class TransactionService {
         Transaction saved = transactionRepository.save(transaction);
 
         // Splits
+        List<TransactionSplit> savedSplits = List.of();
         if (request.getSplits() != null && !request.getSplits().isEmpty()) {
-            saveSplits(saved, request.getSplits());
+            savedSplits = saveSplits(saved, request.getSplits());
         }
 
+        // V63: kunlik agregat proyeksiyasi shu DB tranzaksiyasida
+        ledgerAggregates.apply(List.of(), ledgerAggregates.snapshot(saved, savedSplits));
+        publishScopesChanged(affectedScopeIds(saved));
+
         // Check budget warnings for expenses (C3: faqat shu tranzaksiya scope'ida)
         if (request.getType() == TransactionType.EXPENSE && request.getCategoryId() != null) {
             Long scopeId = saved.getAccount().getHomeScope() != null
                     ? saved.getAccount().getHomeScope().getId()
                     : null;
-            checkBudgetWarning(request.getCategoryId(), scopeId, request.getAmount());
+            checkBudgetWarning(request.getCategoryId(), scopeId);
         }
 
         log.info("Tranzaksiya yaratildi: {} {} (debit: {}, credit: {})",
@@ -294,6 +400,10 @@ public class TransactionService {
             throw new BadRequestException("Storno qilingan tranzaksiyani o'zgartirib bo'lmaydi");
         }
 
+        // V63: agregatdagi eski hissa (o'zgarishdan OLDIN — kun/kategoriya/scope ko'chishi mumkin)
+        List<LedgerAggregateService.Contribution> aggregateBefore = ledgerAggregates.snapshot(existing);
+        Set<Long> changedScopes = affectedScopeIds(existing);
+
         // Eski double-entry balanslarni qaytarish
         if (existing.getDebitAccount() != null && existing.getCreditAccount() != null) {
             accountRepository.addToBalance(existing.getDebitAccount().getId(), existing.getAmount().negate());
@@ -381,6 +491,10 @@ public class TransactionService {
             }
         }
 
+        ledgerAggregates.apply(aggregateBefore, ledgerAggregates.snapshot(savedExisting));
+        changedScopes.addAll(affectedScopeIds(savedExisting));
+        publishScopesChanged(changedScopes);
+
         return toResponse(savedExisting);
     }
 
@@ -401,6 +515,8 @@ public class TransactionService {
             throw new BadRequestException("Storno tranzaksiyasini qayta storno qilib bo'lmaydi");
         }
 
+        List<LedgerAggregateService.Contribution> aggregateBefore = ledgerAggregates.snapshot(original);
+
         // Teskari tranzaksiya yaratish
         Transaction reversal = Transaction.builder()
                 .type(TransactionType.REVERSAL)
@@ -449,6 +565,10 @@ public class TransactionService {
         original.setReversedBy(savedReversal);
         transactionRepository.save(original);
 
+        // V63: asl hissa agregatdan chiqadi; REVERSAL qatori hissa qo'shmaydi
+        ledgerAggregates.apply(aggregateBefore, List.of());
+        publishScopesChanged(affectedScopeIds(original));
+
         log.info("Tranzaksiya storno qilindi: #{} -> #{}", original.getId(), savedReversal.getId());
 
         return toResponse(savedReversal);
@@ -458,7 +578,7 @@ public class TransactionService {
     public Page<TransactionResponse> getByAccount(Long accountId, Pageable pageable) {
         // IDOR himoyasi: faqat o'zi kira oladigan hisob tranzaksiyalari
         accountService.assertCanAccess(accountService.findById(accountId));
-        return transactionRepository.findByAccountId(accountId, pageable).map(this::toResponse);
+        return toResponsePage(transactionRepository.findByAccountId(accountId, pageable));
     }
 
     @Transactional
@@ -470,6 +590,7 @@ public class TransactionService {
             throw new BadRequestException("Faqat PENDING holatdagi tranzaksiyani tasdiqlash mumkin");
         }
 
+        List<LedgerAggregateService.Contribution> aggregateBefore = ledgerAggregates.snapshot(transaction);
         transaction.setStatus(TransactionStatus.CONFIRMED);
 
         // Balanslarni yangilash
@@ -482,7 +603,11 @@ public class TransactionService {
         }
 
         log.info("Tranzaksiya tasdiqlandi: #{}", id);
-        return toResponse(transactionRepository.save(transaction));
+        Transaction saved = transactionRepository.save(transaction);
+        // PENDING ham agregatda (status <> REVERSED) — odatda farq nol, apply hech narsa yozmaydi
+        ledgerAggregates.apply(aggregateBefore, ledgerAggregates.snapshot(saved));
+        publishScopesChanged(affectedScopeIds(saved));
+        return toResponse(saved);
     }
 
     @Transactional
@@ -494,6 +619,8 @@ public class TransactionService {
             throw new BadRequestException("Allaqachon bekor qilingan tranzaksiyani qayta bekor qilib bo'lmaydi");
         }
 
+        List<LedgerAggregateService.Contribution> aggregateBefore = ledgerAggregates.snapshot(transaction);
+
         // Agar CONFIRMED bo'lsa, balanslarni qaytarish
         if (transaction.getStatus() == TransactionStatus.CONFIRMED) {
             if (transaction.getDebitAccount() != null && transaction.getCreditAccount() != null) {
@@ -509,7 +636,10 @@ public class TransactionService {
         transaction.setDescription(transaction.getDescription() + " [BEKOR QILINDI: " + (reason != null ? reason : "") + "]");
 
         log.info("Tranzaksiya bekor qilindi: #{}, sabab: {}", id, reason);
-        return toResponse(transactionRepository.save(transaction));
+        Transaction saved = transactionRepository.save(transaction);
+        ledgerAggregates.apply(aggregateBefore, List.of());
+        publishScopesChanged(affectedScopeIds(saved));
+        return toResponse(saved);
     }
 
     @Transactional(readOnly = true)
@@ -534,14 +664,12 @@ public class TransactionService {
     @Transactional(readOnly = true)
     public ExpenseSummaryResponse getExpenseSummary(LocalDate from, LocalDate to) {
         Long scopeId = resolveActiveScopeIdOrNull();
-        LocalDateTime fromDt = from.atStartOfDay();
-        LocalDateTime toDt = to.atTime(23, 59, 59);
 
+        // V63 kunlik agregatlardan — split ulushlari allaqachon o'z kategoriyasida
         List<ExpenseSummaryResponse.DailyTotal> dailyTotals =
-                mapDailyTotals(transactionRepository.sumExpenseGroupedByDayAndCurrency(scopeId, fromDt, toDt));
-        List<ExpenseSummaryResponse.CategoryTotal> categoryTotals = mergeCategoryTotals(
-                transactionRepository.sumExpenseGroupedByCategoryAndCurrency(scopeId, fromDt, toDt),
-                transactionSplitRepository.sumExpenseGroupedByCategoryAndCurrency(scopeId, fromDt, toDt));
+                mapDailyTotals(ledgerDailyAggregateRepository.sumExpenseGroupedByDayAndCurrency(scopeId, from, to));
+        List<ExpenseSummaryResponse.CategoryTotal> categoryTotals = mapCategoryTotals(
+                ledgerDailyAggregateRepository.sumExpenseGroupedByCategoryAndCurrency(scopeId, from, to));
 
         return ExpenseSummaryResponse.builder()
                 .dailyTotals(dailyTotals)
@@ -562,35 +690,20 @@ public class TransactionService {
     }
 
     /**
-     * To'g'ridan (split'siz) va split kategoriya jamlarini (categoryId, currency)
-     * kaliti bo'yicha birlashtiradi, natijani summa kamayishi tartibida qaytaradi.
+     * (categoryId, currency) kategoriya jamlari — split ulushlari agregatda allaqachon
+     * o'z kategoriyasida. Natija summa kamayishi tartibida.
      */
-    private List<ExpenseSummaryResponse.CategoryTotal> mergeCategoryTotals(List<Object[]> direct,
-                                                                           List<Object[]> splits) {
-        java.util.Map<String, ExpenseSummaryResponse.CategoryTotal> merged = new java.util.LinkedHashMap<>();
-        for (List<Object[]> source : List.of(direct, splits)) {
-            for (Object[] r : source) {
-                Long categoryId = (Long) r[0];
-                String currency = (String) r[4];
-                String key = categoryId + "|" + currency;
-                ExpenseSummaryResponse.CategoryTotal existing = merged.get(key);
-                if (existing == null) {
-                    merged.put(key, ExpenseSummaryResponse.CategoryTotal.builder()
-                            .categoryId(categoryId)
-                            .categoryName((String) r[1])
-                            .categoryIcon((String) r[2])
-                            .categoryColor((String) r[3])
-                            .currency(currency)
-                            .total((BigDecimal) r[5])
-                            .count(((Number) r[6]).longValue())
-                            .build());
-                } else {
-                    existing.setTotal(existing.getTotal().add((BigDecimal) r[5]));
-                    existing.setCount(existing.getCount() + ((Number) r[6]).longValue());
-                }
-            }
-        }
-        return merged.values().stream()
+    private List<ExpenseSummaryResponse.CategoryTotal> mapCategoryTotals(List<Object[]> rows) {
+        return rows.stream()
+                .map(r -> ExpenseSummaryResponse.CategoryTotal.builder()
+                        .categoryId((Long) r[0])
+                        .categoryName((String) r[1])
+                        .categoryIcon((String) r[2])
+                        .categoryColor((String) r[3])
+                        .currency((String) r[4])
+                        .total((BigDecimal) r[5])
+                        .count(((Number) r[6]).longValue())
+                        .build())
                 .sorted(java.util.Comparator.comparing(ExpenseSummaryResponse.CategoryTotal::getTotal).reversed())
                 .toList();
     }
@@ -628,17 +741,25 @@ public class TransactionService {
     }
 
     private void reverseAccountBalances(TransactionType type, Account account, Account toAccount, BigDecimal amount) {
+        Map<Long, BigDecimal> deltas = new LinkedHashMap<>();
+        collectReversalDeltas(type, account, toAccount, amount, deltas);
+        deltas.forEach(accountRepository::addToBalance);
+    }
+
+    /** Eski format (debit/credit'siz) tranzaksiyani qaytarish uchun balans o'zgarishlari. */
+    private static void collectReversalDeltas(TransactionType type, Account account, Account toAccount,
+                                              BigDecimal amount, Map<Long, BigDecimal> deltas) {
         switch (type) {
             case INCOME:
-                accountRepository.addToBalance(account.getId(), amount.negate());
+                deltas.merge(account.getId(), amount.negate(), BigDecimal::add);
                 break;
             case EXPENSE:
-                accountRepository.addToBalance(account.getId(), amount);
+                deltas.merge(account.getId(), amount, BigDecimal::add);
                 break;
             case TRANSFER:
-                accountRepository.addToBalance(account.getId(), amount);
+                deltas.merge(account.getId(), amount, BigDecimal::add);
                 if (toAccount != null) {
-                    accountRepository.addToBalance(toAccount.getId(), amount.negate());
+                    deltas.merge(toAccount.getId(), amount.negate(), BigDecimal::add);
                 }
                 break;
         }
@@ -667,13 +788,15 @@ public class TransactionService {
      */
     private DebitCredit resolveDebitCredit(TransactionType type, Account account, Account toAccount,
                                            String invalidTypeMessage) {
+        // Tranzit shard scope bo'yicha tanlanadi (V62) — bitta global hot row o'rniga
+        Long scopeId = account.getHomeScope() != null ? account.getHomeScope().getId() : null;
         switch (type) {
             case INCOME:
                 return new DebitCredit(account, // Pul tushayotgan hisob
-                        accountService.findTransitAccount(account.getCurrency(), true));
+                        transitLedgerService.findTransitAccount(account.getCurrency(), true, scopeId));
             case EXPENSE:
                 return new DebitCredit(
-                        accountService.findTransitAccount(account.getCurrency(), false),
+                        transitLedgerService.findTransitAccount(account.getCurrency(), false, scopeId),
                         account); // Pul chiqayotgan hisob
             case TRANSFER:
                 Account debit = toAccount != null ? toAccount : account; // Pul tushayotgan hisob
@@ -709,70 +832,287 @@ public class TransactionService {
 
     /**
      * Ko'p tranzaksiyani birgalikda storno qilish.
-     * Har biri alohida ishlanadi — bir tranzaksiyaning xatosi qolganlarini buzmaydi.
+     *
+     * <p>Id'lar {@code app.transactions.bulk.reverse-chunk-size} bo'laklarga bo'linadi, har
+     * bo'lak bitta tranzaksiyada ({@link #reverseChunk}). Bir bo'lakning DB xatosi faqat
+     * o'sha bo'lakni rollback qiladi — qolganlari buzilmaydi (partial-success).</p>
      */
     public BulkOperationResponse bulkReverse(BulkReverseRequest request) {
+        List<Long> ids = request.getTransactionIds();
         List<BulkOperationFailure> failures = new ArrayList<>();
         int successCount = 0;
-        for (Long id : request.getTransactionIds()) {
+        int chunkSize = Math.max(1, bulkReverseChunkSize);
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + chunkSize));
             try {
-                // Proxy orqali — har storno o'z tranzaksiyasida bajariladi
-                // (partial-success: bir element xatosi qolganlarini buzmaydi)
-                self.reverse(id, request.getReason());
-                successCount++;
+                // Proxy orqali — bo'lak o'z tranzaksiyasida bajariladi
+                BulkOperationResponse result = self.reverseChunk(chunk, request.getReason());
+                successCount += result.getSuccessCount();
+                failures.addAll(result.getFailures());
             } catch (Exception e) {
-                log.warn("Bulk reverse: tranzaksiya {} storno qilinmadi: {}", id, e.getMessage());
-                failures.add(BulkOperationFailure.builder()
-                        .transactionId(id)
-                        .reason(e.getMessage())
-                        .build());
+                log.warn("Bulk reverse: {} ta tranzaksiyalik bo'lak storno qilinmadi: {}", chunk.size(), e.getMessage());
+                chunk.forEach(id -> failures.add(bulkFailure(id, "Bo'lak storno qilinmadi: " + e.getMessage())));
             }
         }
+        log.info("Bulk reverse: {} ta storno qilindi, {} ta xato", successCount, failures.size());
         return BulkOperationResponse.builder()
                 .successCount(successCount)
                 .failures(failures)
                 .build();
     }
 
+    /**
+     * Bitta bo'lakni bitta tranzaksiyada storno qiladi — {@link #reverse} bilan AYNAN bir xil
+     * tekshiruvlar va natija, lekin:
+     * <ul>
+     *   <li>tranzaksiyalar bitta so'rovda, kirish/yozish huquqi hisoblar bo'yicha bir martada;</li>
+     *   <li>ta'sirlangan hisoblar id tartibida qulflanadi (parallel bulk'lar deadlock qilmaydi),
+     *       balans snapshot'lari qulflangan (eng so'nggi) balansdan yuritiladi;</li>
+     *   <li>har hisobga bitta sof {@code addToBalance} (har storno uchun juftlik o'rniga).</li>
+     * </ul>
+     * Faqat {@link #bulkReverse} proxy orqali chaqiradi.
+     */
+    @Transactional
+    public BulkOperationResponse reverseChunk(List<Long> ids, String reason) {
+        Map<Long, Transaction> found = transactionRepository.findWithAccountByIdIn(ids).stream()
+                .collect(Collectors.toMap(Transaction::getId, t -> t));
+        Map<Long, String> denials = accountService.findModifyDenials(
+                found.values().stream().map(Transaction::getAccount).toList());
+
+        List<BulkOperationFailure> failures = new ArrayList<>();
+        List<Transaction> originals = new ArrayList<>();
+        Set<Long> accepted = new HashSet<>();
+        for (Long id : ids) {
+            Transaction t = found.get(id);
+            String error;
+            if (t == null) {
+                error = "Tranzaksiya topilmadi: " + id;
+            } else if (denials.containsKey(t.getAccount().getId())) {
+                error = denials.get(t.getAccount().getId());
+            } else if (t.getStatus() == TransactionStatus.REVERSED) {
+                error = "Bu tranzaksiya allaqachon storno qilingan";
+            } else if (t.getType() == TransactionType.REVERSAL) {
+                error = "Storno tranzaksiyasini qayta storno qilib bo'lmaydi";
+            } else if (!accepted.add(id)) {
+                error = "Bu tranzaksiya allaqachon storno qilingan"; // ro'yxatda takror
+            } else {
+                originals.add(t);
+                continue;
+            }
+            log.warn("Bulk reverse: tranzaksiya {} storno qilinmadi: {}", id, error);
+            failures.add(bulkFailure(id, error));
+        }
+        if (originals.isEmpty()) {
+            return BulkOperationResponse.builder().successCount(0).failures(failures).build();
+        }
+
+        Map<Long, List<TransactionSplit>> splits = splitsByTransactionId(accepted);
+        List<LedgerAggregateService.Contribution> aggregateBefore = new ArrayList<>();
+        originals.forEach(t -> aggregateBefore.addAll(
+                ledgerAggregates.snapshot(t, splits.getOrDefault(t.getId(), List.of()))));
+
+        // Hisoblar id tartibida qulflanadi; joriy balans — before/after snapshot'lar uchun
+        Set<Long> lockIds = new TreeSet<>();
+        for (Transaction t : originals) {
+            if (t.getDebitAccount() != null && t.getCreditAccount() != null) {
+                lockIds.add(t.getDebitAccount().getId());
+                lockIds.add(t.getCreditAccount().getId());
+            } else {
+                lockIds.add(t.getAccount().getId());
+                if (t.getToAccount() != null) {
+                    lockIds.add(t.getToAccount().getId());
+                }
+            }
+        }
+        Map<Long, BigDecimal> running = new HashMap<>();
+        for (Object[] row : accountRepository.lockBalancesOrderedById(lockIds)) {
+            running.put(((Number) row[0]).longValue(), (BigDecimal) row[1]);
+        }
+
+        // Sof balans o'zgarishi; TreeMap — addToBalance ham id tartibida
+        Map<Long, BigDecimal> netDeltas = new TreeMap<>();
+        List<Transaction> reversals = new ArrayList<>(originals.size());
+        for (Transaction original : originals) {
+            BigDecimal amount = original.getAmount();
+            Transaction reversal = Transaction.builder()
+                    .type(TransactionType.REVERSAL)
+                    .amount(amount)
+                    .account(original.getAccount())
+                    .scope(original.getScope()) // D1: storno asl tranzaksiya scope'ini meros qiladi
+                    .toAccount(original.getToAccount())
+                    .transactionDate(LocalDateTime.now())
+                    .description("STORNO: " + (reason != null ? reason : "") +
+                            " (Asl tranzaksiya #" + original.getId() + ")")
+                    .status(TransactionStatus.CONFIRMED)
+                    .originalTransaction(original)
+                    .category(original.getCategory())
+                    .familyMember(original.getFamilyMember())
+                    .build();
+
+            if (original.getDebitAccount() != null && original.getCreditAccount() != null) {
+                // Double-entry: debit va credit teskari
+                Long revDebitId = original.getCreditAccount().getId();
+                Long revCreditId = original.getDebitAccount().getId();
+                reversal.setDebitAccount(original.getCreditAccount());
+                reversal.setCreditAccount(original.getDebitAccount());
+                reversal.setBalanceBeforeDebit(running.get(revDebitId));
+                reversal.setBalanceBeforeCredit(running.get(revCreditId));
+                running.merge(revDebitId, amount, BigDecimal::add);
+                running.merge(revCreditId, amount.negate(), BigDecimal::add);
+                reversal.setBalanceAfterDebit(running.get(revDebitId));
+                reversal.setBalanceAfterCredit(running.get(revCreditId));
+                netDeltas.merge(revDebitId, amount, BigDecimal::add);
+                netDeltas.merge(revCreditId, amount.negate(), BigDecimal::add);
+            } else {
+                // Eski format tranzaksiyalar uchun backward compatibility
+                collectReversalDeltas(original.getType(), original.getAccount(),
+                        original.getToAccount(), amount, netDeltas);
+            }
+            reversals.add(reversal);
+        }
+
+        List<Transaction> savedReversals = transactionRepository.saveAll(reversals);
+        for (int i = 0; i < originals.size(); i++) {
+            // Managed entity — o'zgarish commit'da flush bo'ladi
+            originals.get(i).setStatus(TransactionStatus.REVERSED);
+            originals.get(i).setReversedBy(savedReversals.get(i));
+        }
+
+        netDeltas.forEach((accountId, delta) -> {
+            if (delta.signum() != 0) {
+                accountRepository.addToBalance(accountId, delta);
+            }
+        });
+
+        // V63: asl hissalar agregatdan chiqadi; REVERSAL qatorlari hissa qo'shmaydi
+        ledgerAggregates.apply(aggregateBefore, List.of());
+        Set<Long> changedScopes = new HashSet<>();
+        originals.forEach(t -> changedScopes.addAll(affectedScopeIds(t)));
+        publishScopesChanged(changedScopes);
+
+        return BulkOperationResponse.builder()
+                .successCount(originals.size())
+                .failures(failures)
+                .build();
+    }
+
     /**
      * Ko'p tranzaksiyaga bir vaqtning o'zida kategoriya o'rnatish.
      * REVERSED holatdagi tranzaksiyalar e'tiborga olinmaydi.
+     *
+     * <p>To'plam sifatida: tranzaksiyalar va huquqlar bir martada yuklanadi, kategoriya
+     * bitta UPDATE bilan yoziladi. Entity listener'lar ishlamagani uchun har qator audit
+     * yozuvi o'rniga bitta yig'ma {@code BULK_CATEGORIZE} yozuvi qoladi (import kabi).</p>
      */
     @Transactional
     public BulkOperationResponse bulkCategorize(BulkCategorizeRequest request) {
         Category category = categoryRepository.findById(request.getCategoryId())
                 .orElseThrow(() -> new ResourceNotFoundException("Kategoriya topilmadi"));
 
+        List<Long> ids = request.getTransactionIds();
+        Map<Long, Transaction> found = transactionRepository.findWithAccountByIdIn(ids).stream()
+                .collect(Collectors.toMap(Transaction::getId, t -> t));
+        Map<Long, String> denials = accountService.findModifyDenials(
+                found.values().stream().map(Transaction::getAccount).toList());
+
         List<BulkOperationFailure> failures = new ArrayList<>();
+        Map<Long, Transaction> targets = new LinkedHashMap<>();
         int successCount = 0;
-        for (Long id : request.getTransactionIds()) {
-            try {
-                Transaction tx = findById(id);
-                accountService.assertCanModify(tx.getAccount());
-                if (tx.getStatus() == TransactionStatus.REVERSED) {
-                    failures.add(BulkOperationFailure.builder()
-                            .transactionId(id)
-                            .reason("Storno qilingan tranzaksiyani o'zgartirib bo'lmaydi")
-                            .build());
-                    continue;
-                }
-                tx.setCategory(category);
-                transactionRepository.save(tx);
+        for (Long id : ids) {
+            Transaction t = found.get(id);
+            String error;
+            if (t == null) {
+                error = "Tranzaksiya topilmadi: " + id;
+            } else if (denials.containsKey(t.getAccount().getId())) {
+                error = denials.get(t.getAccount().getId());
+            } else if (t.getStatus() == TransactionStatus.REVERSED) {
+                error = "Storno qilingan tranzaksiyani o'zgartirib bo'lmaydi";
+            } else {
+                targets.put(id, t);
                 successCount++;
-            } catch (Exception e) {
-                log.warn("Bulk categorize: tranzaksiya {} o'zgartirilmadi: {}", id, e.getMessage());
-                failures.add(BulkOperationFailure.builder()
-                        .transactionId(id)
-                        .reason(e.getMessage())
-                        .build());
+                continue;
+            }
+            log.warn("Bulk categorize: tranzaksiya {} o'zgartirilmadi: {}", id, error);
+            failures.add(bulkFailure(id, error));
+        }
+        if (targets.isEmpty()) {
+            return BulkOperationResponse.builder().successCount(0).failures(failures).build();
+        }
+
+        // Split'li tranzaksiya hissasi split kategoriyalarida — kategoriya o'zgarishi unga ta'sir qilmaydi
+        Map<Long, List<TransactionSplit>> splits = splitsByTransactionId(targets.keySet());
+        List<LedgerAggregateService.Contribution> aggregateBefore = new ArrayList<>();
+        List<LedgerAggregateService.Contribution> aggregateAfter = new ArrayList<>();
+        // UPDATE (clearAutomatically) dan keyin targets detached — scope'lar va hissalar undan oldin
+        Set<Long> changedScopes = new HashSet<>();
+        for (Transaction t : targets.values()) {
+            changedScopes.addAll(affectedScopeIds(t));
+            List<TransactionSplit> txSplits = splits.getOrDefault(t.getId(), List.of());
+            List<LedgerAggregateService.Contribution> before = ledgerAggregates.snapshot(t, txSplits);
+            aggregateBefore.addAll(before);
+            if (before.isEmpty() || !txSplits.isEmpty()) {
+                aggregateAfter.addAll(before);
+            } else {
+                aggregateAfter.add(ledgerAggregates.contribution(
+                        t.getScope() != null ? t.getScope().getId() : null, t.getTransactionDate(), t.getType(),
+                        category.getId(), t.getAccount().getCurrency(),
+                        t.getFamilyMember() != null ? t.getFamilyMember().getId() : null, t.getAmount()));
             }
         }
+
+        List<Long> targetIds = List.copyOf(targets.keySet());
+        transactionRepository.updateCategoryByIdIn(targetIds, category, LocalDateTime.now());
+        ledgerAggregates.apply(aggregateBefore, aggregateAfter);
+        publishScopesChanged(changedScopes);
+
+        auditLogService.log("Transaction", null, "BULK_CATEGORIZE", null,
+                Map.of("count", targetIds.size(),
+                        "categoryId", category.getId(),
+                        "transactionIds", targetIds),
+                scopeContext.getCurrentUserId());
+
+        log.info("Bulk categorize: {} ta tranzaksiyaga kategoriya #{} o'rnatildi", targetIds.size(), category.getId());
         return BulkOperationResponse.builder()
                 .successCount(successCount)
                 .failures(failures)
                 .build();
     }
 
+    /**
+     * Yozuv ta'sir qiladigan scope'lar: tranzaksiya scope'i (agregatlar, byudjet sarfi) va
+     * debet/kredit hisoblarining egasi scope'lari (balans — o'tkazma boshqa scope hisobiga
+     * tushishi mumkin). Tranzit hisoblarda egasi scope yo'q — tashlab ketiladi.
+     */
+    private static Set<Long> affectedScopeIds(Transaction t) {
+        Set<Long> scopeIds = new HashSet<>();
+        if (t.getScope() != null) {
+            scopeIds.add(t.getScope().getId());
+        }
+        for (Account a : Arrays.asList(t.getAccount(), t.getToAccount(), t.getDebitAccount(), t.getCreditAccount())) {
+            if (a != null && a.getHomeScope() != null) {
+                scopeIds.add(a.getHomeScope().getId());
+            }
+        }
+        return scopeIds;
+    }
+
+    /** Dashboard keshi kabi tinglovchilar uchun — commit'dan keyin yetkaziladi (AFTER_COMMIT). */
+    private void publishScopesChanged(Set<Long> scopeIds) {
+        scopeIds.forEach(id -> eventPublisher.publishEvent(new ScopeDataChangedEvent(id)));
+    }
+
+    private Map<Long, List<TransactionSplit>> splitsByTransactionId(Collection<Long> transactionIds) {
+        return transactionSplitRepository.findWithCategoryByTransactionIdIn(transactionIds).stream()
+                .collect(Collectors.groupingBy(s -> s.getTransaction().getId()));
+    }
+
+    private static BulkOperationFailure bulkFailure(Long transactionId, String reason) {
+        return BulkOperationFailure.builder()
+                .transactionId(transactionId)
+                .reason(reason)
+                .build();
+    }
+
     /**
      * Split'lar yig'indisi tranzaksiya summasiga teng bo'lishi kerak.
      */
@@ -791,24 +1131,33 @@ public class TransactionService {
     }
 
     /**
-     * Yangi split'larni saqlash. Eski splitlar tozalanadi.
+     * Yangi split'larni saqlash. Eski splitlar tozalanadi. Saqlanganlar qaytariladi
+     * (CREATE'da agregat hissasi qayta so'rovsiz hisoblanadi).
      */
-    private void saveSplits(Transaction transaction, List<TransactionSplitItem> items) {
+    private List<TransactionSplit> saveSplits(Transaction transaction, List<TransactionSplitItem> items) {
         transactionSplitRepository.deleteByTransactionId(transaction.getId());
+        List<TransactionSplit> saved = new ArrayList<>();
         for (TransactionSplitItem item : items) {
             Category category = categoryRepository.findById(item.getCategoryId())
                     .orElseThrow(() -> new ResourceNotFoundException(
                             "Kategoriya topilmadi: " + item.getCategoryId()));
-            transactionSplitRepository.save(TransactionSplit.builder()
+            saved.add(transactionSplitRepository.save(TransactionSplit.builder()
                     .transaction(transaction)
                     .category(category)
                     .amount(item.getAmount())
                     .note(item.getNote())
-                    .build());
+                    .build()));
         }
+        return saved;
     }
 
-    private void checkBudgetWarning(Long categoryId, Long scopeId, BigDecimal expenseAmount) {
+    /**
+     * Kategoriya byudjeti chegaralarini (WARNING/EXCEEDED) joriy sarf bo'yicha qayta baholaydi.
+     * Public — {@code TransactionImportService} butun import oxirida har (kategoriya, scope)
+     * juftligi uchun bir marta chaqiradi (har qatorda emas).
+     */
+    @Transactional
+    public void checkBudgetWarning(Long categoryId, Long scopeId) {
         // C3: scope'siz (masalan SYSTEM_TRANSIT hisob) tranzaksiyaga byudjet ogohlantirishi yo'q
         if (scopeId == null) {
             return;
@@ -817,11 +1166,11 @@ public class TransactionService {
         // C3: byudjet va xarajat FAQAT shu scope'da qidiriladi (boshqa urug'/xonadon emas)
         budgetRepository.findFirstByCategoryIdAndScopeIdAndIsActiveTrueAndStartDateLessThanEqualAndEndDateGreaterThanEqualOrderByEndDateDesc(
                 categoryId, scopeId, today, today).ifPresent(budget -> {
-            LocalDateTime from = budget.getStartDate().atStartOfDay();
-            LocalDateTime to = budget.getEndDate().atTime(23, 59, 59);
-            BigDecimal directSpent = transactionRepository.sumExpenseByCategoryAndScopeAndDateRange(categoryId, scopeId, from, to);
-            BigDecimal splitSpent = transactionSplitRepository.sumExpenseByCategoryAndScopeAndDateRange(categoryId, scopeId, from, to);
-            BigDecimal totalSpent = directSpent.add(splitSpent);
+            // Byudjet ro'yxati va dashboard bilan bir xil sarf (split'li xarajat faqat ulushlari bo'yicha)
+            BigDecimal totalSpent = budgetRepository.sumSpentByBudgetIds(List.of(budget.getId())).stream()
+                    .map(row -> (BigDecimal) row[1])
+                    .findFirst()
+                    .orElse(BigDecimal.ZERO);
             BigDecimal percentage = totalSpent.multiply(BigDecimal.valueOf(100))
                     .divide(budget.getAmount(), 2, RoundingMode.HALF_UP);
 
@@ -873,7 +1222,79 @@ public class TransactionService {
         return tx;
     }
 
+    /**
+     * Ro'yxat endpoint'lari uchun yig'ish — sahifadagi qatorlar soniga bog'liq bo'lmagan
+     * QAT'IY so'rovlar soni bilan: split'lar (kategoriyasi bilan), tag id'lari, hisoblar,
+     * kategoriyalar va a'zolar har biri bitta IN-so'rov. Oldin har qator uchun alohida
+     * split so'rovi va lazy proxy'lar (default_batch_fetch_size bo'laklari) — 50 qatorli
+     * sahifa o'nlab qo'shimcha round-trip edi.
+     *
+     * <p>Bog'langan entity'lar persistence context'ga oldindan yuklanadi — keyin
+     * {@link #toResponse(Transaction, List, Set)} proxy'larni SQL'siz ochadi (FK id'si
+     * proxy'dan initsializatsiyasiz olinadi).</p>
+     */
+    private List<TransactionResponse> toResponses(List<Transaction> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = rows.stream().map(Transaction::getId).toList();
+
+        Set<Long> accountIds = new HashSet<>();
+        Set<Long> categoryIds = new HashSet<>();
+        Set<Long> memberIds = new HashSet<>();
+        for (Transaction t : rows) {
+            addId(accountIds, t.getAccount());
+            addId(accountIds, t.getToAccount());
+            addId(accountIds, t.getDebitAccount());
+            addId(accountIds, t.getCreditAccount());
+            if (t.getCategory() != null) {
+                categoryIds.add(t.getCategory().getId());
+            }
+            if (t.getFamilyMember() != null) {
+                memberIds.add(t.getFamilyMember().getId());
+            }
+        }
+        if (!accountIds.isEmpty()) {
+            accountRepository.findAllById(accountIds);
+        }
+        if (!categoryIds.isEmpty()) {
+            categoryRepository.findAllById(categoryIds);
+        }
+        if (!memberIds.isEmpty()) {
+            familyMemberRepository.findAllById(memberIds);
+        }
+
+        Map<Long, List<TransactionSplit>> splitsByTx = transactionSplitRepository
+                .findWithCategoryByTransactionIdIn(ids).stream()
+                .collect(Collectors.groupingBy(s -> s.getTransaction().getId()));
+        Map<Long, Set<Long>> tagIdsByTx = new HashMap<>();
+        for (Object[] row : transactionRepository.findTagIdsByTransactionIdIn(ids)) {
+            tagIdsByTx.computeIfAbsent((Long) row[0], k -> new HashSet<>()).add((Long) row[1]);
+        }
+
+        return rows.stream()
+                .map(t -> toResponse(t, splitsByTx.getOrDefault(t.getId(), List.of()), tagIdsByTx.get(t.getId())))
+                .toList();
+    }
+
+    private Page<TransactionResponse> toResponsePage(Page<Transaction> page) {
+        return new PageImpl<>(toResponses(page.getContent()), page.getPageable(), page.getTotalElements());
+    }
+
+    private static void addId(Set<Long> ids, Account account) {
+        if (account != null) {
+            ids.add(account.getId());
+        }
+    }
+
     private TransactionResponse toResponse(Transaction t) {
+        Set<Long> tagIds = t.getTagEntities() == null ? null : t.getTagEntities().stream()
+                .map(Tag::getId)
+                .collect(Collectors.toSet());
+        return toResponse(t, transactionSplitRepository.findByTransactionId(t.getId()), tagIds);
+    }
+
+    private TransactionResponse toResponse(Transaction t, List<TransactionSplit> splits, Set<Long> tagIds) {
         TransactionResponse r = new TransactionResponse();
         r.setId(t.getId());
         r.setType(t.getType());
@@ -924,15 +1345,11 @@ public class TransactionService {
         }
 
         // Tags
-        if (t.getTagEntities() != null && !t.getTagEntities().isEmpty()) {
-            r.setTagIds(t.getTagEntities().stream()
-                    .map(uz.familyfinance.api.entity.Tag::getId)
-                    .collect(java.util.stream.Collectors.toSet()));
+        if (tagIds != null && !tagIds.isEmpty()) {
+            r.setTagIds(tagIds);
         }
 
         // Splits
-        java.util.List<uz.familyfinance.api.entity.TransactionSplit> splits =
-                transactionSplitRepository.findByTransactionId(t.getId());
         if (!splits.isEmpty()) {
             r.setSplits(splits.stream()
                     .map(s -> {
@@ -0,0 +1,194 @@
+package uz.familyfinance.api.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import uz.familyfinance.api.dto.response.TransitLedgerBalanceResponse;
+import uz.familyfinance.api.entity.Account;
+import uz.familyfinance.api.entity.Transaction;
+import uz.familyfinance.api.enums.TransactionStatus;
+import uz.familyfinance.api.enums.TransactionType;
+import uz.familyfinance.api.exception.ResourceNotFoundException;
+import uz.familyfinance.api.repository.AccountRepository;
+import uz.familyfinance.api.repository.TransactionRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * SYSTEM_TRANSIT sub-ledger (V62): har bir valyuta+yo'nalish uchun bitta root
+ * (transit_shard = 0) va N-1 shard qatori.
+ *
+ * <p>Avval har bir INCOME/EXPENSE bitta tranzit qatorini {@code addToBalance} qilardi —
+ * barcha xonadonlarning konkurent yozuvchilari shu bitta row lock'da navbatga turardi.
+ * Endi yozuv scope ID bo'yicha shard'ga yo'naltiriladi: bir xonadon doim bitta shard'ga
+ * tushadi (o'z ichida tartib saqlanadi), turli xonadonlar esa turli qatorlarni qulflaydi.</p>
+ *
+ * <p>Mantiqiy tranzit balansi = root + shard'lar yig'indisi ({@code transit_ledger_balances}
+ * view). {@link #compactRoot} shard balanslarini root'ga ko'chiradi — yig'indi (va
+ * double-entry invarianti) o'zgarmaydi, faqat root yana to'liq balansni ko'rsatadi.
+ * Ko'chirish jurnalda TRANSFER yozuvi sifatida qoladi, shuning uchun har tranzit hisob
+ * alohida ham solishtiriladi: {@code balance = opening + debet − kredit} (ko'chirma,
+ * aylanma qaydnoma).</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransitLedgerService {
+
+    static final String INCOME_PREFIX = "Tizim: Daromad tranziti";
+    static final String EXPENSE_PREFIX = "Tizim: Xarajat tranziti";
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final LedgerAggregateService ledgerAggregates;
+
+    /**
+     * (valyuta, yo'nalish) → shard ID'lari, index = transit_shard. Tranzit hisoblar faqat
+     * migratsiya orqali yaratiladi (runtime'da o'zgarmaydi) — shu sabab kesh bekor
+     * qilinmaydi; bo'sh natija keshlanmaydi (keyingi chaqiruvda qayta qidiriladi).
+     */
+    private final Map<String, List<Long>> shardIdsByKey = new ConcurrentHashMap<>();
+
+    /**
+     * Tranzaksiya uchun tranzit hisob shard'ini qaytaradi.
+     *
+     * @param scopeId tranzaksiya scope'i — shard {@code scopeId mod N}; {@code null} bo'lsa
+     *                (scope'siz tizim tranzaksiyasi) tasodifiy shard
+     */
+    @Transactional(readOnly = true)
+    public Account findTransitAccount(String currency, boolean isIncome, Long scopeId) {
+        return lookupTransitAccount(currency, isIncome, scopeId)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Tranzit hisob topilmadi: " + prefix(isIncome) + " (" + currency + ")"));
+    }
+
+    /**
+     * {@link #findTransitAccount} ning xato tashlamaydigan varianti — ataylab
+     * {@code @Transactional}siz: chaqiruvchi tranzaksiyasi ichida (masalan import bo'lagi)
+     * "topilmadi" holati proxy orqali o'tmaydi va tranzaksiyani rollback-only qilmaydi.
+     */
+    public Optional<Account> lookupTransitAccount(String currency, boolean isIncome, Long scopeId) {
+        List<Long> shardIds = shardIds(currency, isIncome);
+        if (shardIds.isEmpty()) {
+            return Optional.empty();
+        }
+        int index = scopeId != null
+                ? (int) Math.floorMod(scopeId, (long) shardIds.size())
+                : ThreadLocalRandom.current().nextInt(shardIds.size());
+        return accountRepository.findById(shardIds.get(index));
+    }
+
+    /** Har bir mantiqiy tranzit hisob (root + shard'lar) uchun bitta balans. */
+    @Transactional(readOnly = true)
+    public List<TransitLedgerBalanceResponse> getLogicalBalances() {
+        return accountRepository.findTransitLedgerBalances().stream()
+                .map(row -> TransitLedgerBalanceResponse.builder()
+                        .rootAccountId(((Number) row[0]).longValue())
+                        .accCode((String) row[1])
+                        .name((String) row[2])
+                        .currency((String) row[3])
+                        .shardCount(((Number) row[4]).intValue())
+                        .balance((BigDecimal) row[5])
+                        .build())
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<Long> findRootIds() {
+        return accountRepository.findTransitRootIds();
+    }
+
+    /**
+     * Bitta root'ning shard balanslarini root'ga ko'chiradi. Shard qatorlari id tartibida
+     * FOR UPDATE bilan qulflanadi (eng so'nggi commit qilingan balans o'qiladi, ko'chirish
+     * davomida konkurent addToBalance kutadi) — har root o'z tranzaksiyasida, lock qisqa.
+     *
+     * <p>Har shard uchun bitta muvozanatli TRANSFER yozuvi (scope'siz): musbat balans —
+     * shard kredit, root debet; manfiy — aksincha. Yozuv ledger agregatlariga ham qo'shiladi
+     * ({@link LedgerAggregateService#rebuild()} bilan mos).</p>
+     *
+     * @return root'ga ko'chirilgan summa
+     */
+    @Transactional
+    public BigDecimal compactRoot(Long rootId) {
+        Account root = accountRepository.getReferenceById(rootId);
+        BigDecimal moved = BigDecimal.ZERO;
+        for (Account shard : accountRepository.lockTransitShards(rootId)) {
+            BigDecimal balance = shard.getBalance();
+            if (balance != null && balance.signum() != 0) {
+                recordCompaction(shard, root, balance);
+                accountRepository.addToBalance(shard.getId(), balance.negate());
+                moved = moved.add(balance);
+            }
+        }
+        if (moved.signum() != 0) {
+            accountRepository.addToBalance(rootId, moved);
+            log.info("Tranzit shard'lar root #{} ga yig'ildi: {}", rootId, moved);
+        }
+        return moved;
+    }
+
+    /**
+     * Shard → root ko'chirish yozuvi. Shard tomonining qoldiqlari ma'lum (qulflangan balans →
+     * 0); root qulflanmaydi, shuning uchun uning tomoni bo'sh qoldiriladi.
+     */
+    private void recordCompaction(Account shard, Account root, BigDecimal balance) {
+        boolean shardCredited = balance.signum() > 0;
+        Transaction transfer = Transaction.builder()
+                .type(TransactionType.TRANSFER)
+                .status(TransactionStatus.CONFIRMED)
+                .amount(balance.abs())
+                .account(shard)
+                .toAccount(root)
+                .debitAccount(shardCredited ? root : shard)
+                .creditAccount(shardCredited ? shard : root)
+                .transactionDate(LocalDateTime.now())
+                .description("Tranzit compaction: shard #" + shard.getTransitShard() + " → root")
+                .build();
+        if (shardCredited) {
+            transfer.setBalanceBeforeCredit(balance);
+            transfer.setBalanceAfterCredit(BigDecimal.ZERO);
+        } else {
+            transfer.setBalanceBeforeDebit(balance);
+            transfer.setBalanceAfterDebit(BigDecimal.ZERO);
+        }
+        Transaction saved = transactionRepository.save(transfer);
+        ledgerAggregates.apply(List.of(), ledgerAggregates.snapshot(saved, List.of()));
+    }
+
+    private List<Long> shardIds(String currency, boolean isIncome) {
+        String key = currency + "|" + (isIncome ? "INCOME" : "EXPENSE");
+        List<Long> cached = shardIdsByKey.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        String prefix = prefix(isIncome);
+        List<Account> ledger = accountRepository.findTransitLedgerByCurrency(currency).stream()
+                .filter(a -> a.getName().startsWith(prefix))
+                .toList();
+        if (ledger.isEmpty()) {
+            return List.of();
+        }
+        // Bir valyuta+yo'nalishda bitta root kutiladi; bo'lmasa birinchisining guruhi olinadi
+        Long rootId = ledger.get(0).getTransitRootId();
+        List<Long> ids = ledger.stream()
+                .filter(a -> rootId == null || rootId.equals(a.getTransitRootId()))
+                .sorted(Comparator.comparing(a -> a.getTransitShard() != null ? a.getTransitShard() : 0))
+                .map(Account::getId)
+                .toList();
+        shardIdsByKey.put(key, ids);
+        return ids;
+    }
+
+    private static String prefix(boolean isIncome) {
+        return isIncome ? INCOME_PREFIX : EXPENSE_PREFIX;
+    }
+}
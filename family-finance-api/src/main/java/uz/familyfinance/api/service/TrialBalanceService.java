@@ -0,0 +1,161 @@
+package uz.familyfinance.api.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import uz.familyfinance.api.dto.response.TrialBalanceResponse;
+import uz.familyfinance.api.enums.AccountType;
+import uz.familyfinance.api.exception.BadRequestException;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aylanma qaydnoma (trial balance) — scope'dagi BARCHA hisoblar uchun bitta guruhlangan so'rov.
+ *
+ * <p>{@code getBalanceSummary} har hisob uchun ikki so'rov (debet va kredit aylanmasi) bajaradi —
+ * yuzlab hisobli ko'rinishda bu 2N so'rov. Bu yerda debet va kredit tomonlari
+ * {@code UNION ALL} bilan bitta harakatlar oqimiga yig'iladi va hisob bo'yicha bir marta
+ * guruhlanadi: davrdan oldingi sof harakat (boshlang'ich qoldiqqa qo'shiladi) va davr ichidagi
+ * aylanmalar {@code FILTER} bilan bitta o'tishda. Ikkala tomon ham V66 covering indekslaridan
+ * (index-only) o'qiladi.</p>
+ *
+ * <p>Qaysi qatorlar hisobga olinadi — {@link AccountStatementService} bilan AYNAN bir xil
+ * ({@code status = 'CONFIRMED' AND type <> 'REVERSAL'}), shuning uchun har qator shu hisob
+ * ko'chirmasi yakuni bilan mos. Hisoblar to'plami: SUPER_ADMIN — hammasi (tranzit hisoblar
+ * bilan), qolganlar — aktiv scope hisoblari; aktiv scope yo'q — bo'sh. Deaktiv hisob faqat
+ * harakati bo'lsa ko'rsatiladi.</p>
+ */
+@Service
+@RequiredArgsConstructor
+public class TrialBalanceService {
+
+    /** V66 partial indekslar predikati bilan bir xil — aks holda planner ularni tanlamaydi. */
+    private static final String EFFECTIVE = "t.status = 'CONFIRMED' AND t.type <> 'REVERSAL'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ScopeContextService scopeContext;
+
+    @Transactional(readOnly = true)
+    public TrialBalanceResponse getTrialBalance(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new BadRequestException("Davr (from, to) ko'rsatilishi shart");
+        }
+        if (from.isAfter(to)) {
+            throw new BadRequestException("Boshlanish sanasi tugash sanasidan keyin bo'lishi mumkin emas");
+        }
+
+        Long scopeId = resolveScopeIdOrNull();
+        // [from 00:00, to+1 00:00) — tugash kunining oxirgi soniyasidagi qatorlar ham kiradi
+        Timestamp start = Timestamp.valueOf(from.atStartOfDay());
+        Timestamp end = Timestamp.valueOf(to.plusDays(1).atStartOfDay());
+
+        List<Object> args = new ArrayList<>();
+        if (scopeId != null) {
+            args.add(scopeId);
+        }
+        // movements: ikkala tomon < end; turnover: < start / >= start
+        args.add(end);
+        args.add(end);
+        args.add(start);
+        args.add(start);
+        args.add(start);
+
+        List<TrialBalanceResponse.Line> lines = jdbcTemplate.query(sql(scopeId != null), (rs, i) -> {
+            BigDecimal opening = rs.getBigDecimal("opening_balance").add(rs.getBigDecimal("before_movement"));
+            BigDecimal debit = rs.getBigDecimal("debit_turnover");
+            BigDecimal credit = rs.getBigDecimal("credit_turnover");
+            return TrialBalanceResponse.Line.builder()
+                    .accountId(rs.getLong("id"))
+                    .accCode(rs.getString("acc_code"))
+                    .accountName(rs.getString("name"))
+                    .accountType(AccountType.valueOf(rs.getString("type")))
+                    .currency(rs.getString("currency"))
+                    .isActive(rs.getBoolean("is_active"))
+                    .openingBalance(opening)
+                    .debitTurnover(debit)
+                    .creditTurnover(credit)
+                    .closingBalance(opening.add(debit).subtract(credit))
+                    .build();
+        }, args.toArray());
+
+        return TrialBalanceResponse.builder()
+                .periodStart(from)
+                .periodEnd(to)
+                .accounts(lines)
+                .totals(totals(lines))
+                .build();
+    }
+
+    /**
+     * Hisoblar to'plami + bitta harakatlar oqimi. Harakat faqat {@code < end} gacha o'qiladi;
+     * {@code < start} qismi boshlang'ich qoldiqqa, qolgani davr aylanmasiga tushadi.
+     * Bir tranzaksiya hisobdan o'ziga bo'lsa ikkala tomonda ham sanaladi (ko'chirma bilan bir xil).
+     */
+    static String sql(boolean scoped) {
+        return "WITH acc AS ("
+                + " SELECT a.id, a.acc_code, a.name, a.type, a.currency, a.is_active,"
+                + "        COALESCE(a.opening_balance, 0) AS opening_balance"
+                + " FROM accounts a"
+                + (scoped ? " WHERE a.scope_id = ? AND a.type <> 'SYSTEM_TRANSIT'" : "")
+                + "), movements AS ("
+                + " SELECT t.debit_account_id AS account_id, t.transaction_date, t.amount AS debit, 0::numeric AS credit"
+                + " FROM transactions t JOIN acc ON acc.id = t.debit_account_id"
+                + " WHERE " + EFFECTIVE + " AND t.transaction_date < ?"
+                + " UNION ALL"
+                + " SELECT t.credit_account_id, t.transaction_date, 0::numeric, t.amount"
+                + " FROM transactions t JOIN acc ON acc.id = t.credit_account_id"
+                + " WHERE " + EFFECTIVE + " AND t.transaction_date < ?"
+                + "), turnover AS ("
+                + " SELECT m.account_id,"
+                + "        COALESCE(SUM(m.debit - m.credit) FILTER (WHERE m.transaction_date < ?), 0) AS before_movement,"
+                + "        COALESCE(SUM(m.debit) FILTER (WHERE m.transaction_date >= ?), 0) AS debit_turnover,"
+                + "        COALESCE(SUM(m.credit) FILTER (WHERE m.transaction_date >= ?), 0) AS credit_turnover"
+                + " FROM movements m GROUP BY m.account_id"
+                + ") "
+                + "SELECT acc.*,"
+                + "       COALESCE(tu.before_movement, 0) AS before_movement,"
+                + "       COALESCE(tu.debit_turnover, 0) AS debit_turnover,"
+                + "       COALESCE(tu.credit_turnover, 0) AS credit_turnover "
+                + "FROM acc LEFT JOIN turnover tu ON tu.account_id = acc.id "
+                + "WHERE acc.is_active OR tu.account_id IS NOT NULL "
+                + "ORDER BY acc.currency, acc.acc_code NULLS LAST, acc.id";
+    }
+
+    /** Valyuta bo'yicha jamilar — qatorlar allaqachon valyuta tartibida. */
+    static List<TrialBalanceResponse.CurrencyTotal> totals(List<TrialBalanceResponse.Line> lines) {
+        Map<String, TrialBalanceResponse.CurrencyTotal> byCurrency = new LinkedHashMap<>();
+        for (TrialBalanceResponse.Line line : lines) {
+            TrialBalanceResponse.CurrencyTotal total = byCurrency.computeIfAbsent(line.getCurrency(), c ->
+                    TrialBalanceResponse.CurrencyTotal.builder()
+                            .currency(c)
+                            .accountCount(0)
+                            .openingBalance(BigDecimal.ZERO)
+                            .debitTurnover(BigDecimal.ZERO)
+                            .creditTurnover(BigDecimal.ZERO)
+                            .closingBalance(BigDecimal.ZERO)
+                            .build());
+            total.setAccountCount(total.getAccountCount() + 1);
+            total.setOpeningBalance(total.getOpeningBalance().add(line.getOpeningBalance()));
+            total.setDebitTurnover(total.getDebitTurnover().add(line.getDebitTurnover()));
+            total.setCreditTurnover(total.getCreditTurnover().add(line.getCreditTurnover()));
+            total.setClosingBalance(total.getClosingBalance().add(line.getClosingBalance()));
+        }
+        return new ArrayList<>(byCurrency.values());
+    }
+
+    /** SUPER_ADMIN → null (barcha hisoblar), aktiv scope yo'q → -1 (hech narsa). */
+    private Long resolveScopeIdOrNull() {
+        if (scopeContext.isSuperAdmin()) {
+            return null;
+        }
+        Long scopeId = scopeContext.getActiveScopeIdOrNull();
+        return scopeId != null ? scopeId : -1L;
+    }
+}
@@ -2,12 +2,14 @@ package uz.familyfinance.api.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import uz.familyfinance.api.config.CacheConfig;
 import uz.familyfinance.api.dto.request.ChangeUsernameRequest;
 import uz.familyfinance.api.dto.request.LinkFamilyMemberRequest;
 import uz.familyfinance.api.dto.request.UnlinkFamilyMemberRequest;
@@ -64,6 +66,7 @@ public class UserService {
     private final AuditLogService auditLogService;
     private final SessionService sessionService;
     private final PwnedPasswordService pwnedPasswordService;
+    private final PermissionService permissionService;
 
     /**
      * Reserved usernames that cannot be used
@@ -581,6 +584,7 @@ public class UserService {
         user.getRoles().clear();
         user.getRoles().add(superAdminRole);
         userRepository.save(user);
+        permissionService.clearUserPermissionsCache(userId);
 
         User currentUser = getCurrentUser();
         auditLogService.log("User", userId, "GRANT_SUPER_ADMIN", null,
@@ -609,6 +613,7 @@ public class UserService {
         user.getRoles().clear();
         user.getRoles().add(memberRole);
         userRepository.save(user);
+        permissionService.clearUserPermissionsCache(userId);
 
         User currentUser = getCurrentUser();
         auditLogService.log("User", userId, "REVOKE_SUPER_ADMIN", null,
@@ -642,17 +647,19 @@ public class UserService {
     }
 
     /**
-     * Get all role codes for a user
+     * Get all role codes for a user (cached; {@code PermissionService.clearUserPermissionsCache}
+     * bilan birga tozalanadi)
      *
      * @param userId User ID
      * @return Set of role codes
      */
+    @Cacheable(value = CacheConfig.USER_ROLES, key = "#userId", sync = true)
     @Transactional(readOnly = true)
     public Set<String> getUserRoles(Long userId) {
         return userRepository.findById(userId)
                 .map(user -> user.getRoles().stream()
                         .map(RoleEntity::getCode)
-                        .collect(Collectors.toSet()))
+                        .collect(Collectors.toUnmodifiableSet()))
                 .orElse(Collections.emptySet());
     }
 
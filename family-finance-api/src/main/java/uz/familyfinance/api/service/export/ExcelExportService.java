@@ -14,11 +14,13 @@ import uz.familyfinance.api.dto.response.UserActivityResponse;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.IntStream;
 
 @Service
@@ -36,82 +38,32 @@ public class ExcelExportService {
             List<AuditLogResponse> logs,
             String reportTitle
     ) throws IOException {
-        try (SXSSFWorkbook workbook = new SXSSFWorkbook(100)) {
-            SXSSFSheet sheet = workbook.createSheet("Audit Logs");
-
-            // Track columns for auto-sizing (required for SXSSFWorkbook)
-            for (int i = 0; i < 7; i++) {
-                sheet.trackColumnForAutoSizing(i);
-            }
-
-            // Create styles
-            CellStyle headerStyle = createHeaderStyle(workbook);
-            CellStyle titleStyle = createTitleStyle(workbook);
-            CellStyle dataStyle = createDataStyle(workbook);
-            CellStyle dateStyle = createDateStyle(workbook);
-
-            int rowNum = 0;
-
-            // Title row
-            Row titleRow = sheet.createRow(rowNum++);
-            Cell titleCell = titleRow.createCell(0);
-            titleCell.setCellValue(reportTitle != null ? reportTitle : "Tizim Auditlari Hisoboti");
-            titleCell.setCellStyle(titleStyle);
-            sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 6));
-
-            // Metadata row
-            Row metaRow = sheet.createRow(rowNum++);
-            Cell metaCell = metaRow.createCell(0);
-            metaCell.setCellValue("Sana: " + LocalDateTime.now().format(DATE_FORMATTER));
-            metaCell.setCellStyle(dataStyle);
-            sheet.addMergedRegion(new CellRangeAddress(1, 1, 0, 6));
-
-            // Empty row
-            rowNum++;
-
-            // Header row
-            Row headerRow = sheet.createRow(rowNum++);
-            String[] headers = {"ID", "Harakat", "Obyekt turi", "Obyekt ID", "Foydalanuvchi", "Sana", "IP manzil"};
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-            }
-
-            // Data rows
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ExportRowWriter<AuditLogResponse> writer = openAuditLogs(out, reportTitle)) {
             for (AuditLogResponse log : logs) {
-                Row row = sheet.createRow(rowNum++);
-
-                row.createCell(0).setCellValue(log.getId());
-                row.createCell(1).setCellValue(translateAction(log.getAction()));
-                row.createCell(2).setCellValue(log.getEntityType());
-                row.createCell(3).setCellValue(log.getEntityId());
-                row.createCell(4).setCellValue(log.getUsername() != null ? log.getUsername() : "Sistema");
-
-                Cell dateCell = row.createCell(5);
-                dateCell.setCellValue(log.getCreatedAt().format(DATE_FORMATTER));
-                dateCell.setCellStyle(dateStyle);
-
-                row.createCell(6).setCellValue(log.getIpAddress() != null ? log.getIpAddress() : "-");
-
-                // Apply data style to all cells
-                for (int i = 0; i < 7; i++) {
-                    if (i != 5) { // Skip date cell (already has style)
-                        row.getCell(i).setCellStyle(dataStyle);
-                    }
-                }
-            }
-
-            // Auto-size columns
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
+                writer.write(log);
             }
-
-            // Write to output stream
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-            workbook.write(out);
-            return out;
         }
+        return out;
+    }
+
+    /**
+     * Audit loglarni {@code out} ga qatorma-qator yozuvchi (fon eksporti — ro'yxatsiz).
+     */
+    public ExportRowWriter<AuditLogResponse> openAuditLogs(OutputStream out, String reportTitle) {
+        return new SheetRowWriter<>(out, "Audit Logs",
+                reportTitle != null ? reportTitle : "Tizim Auditlari Hisoboti",
+                new String[]{"ID", "Harakat", "Obyekt turi", "Obyekt ID", "Foydalanuvchi", "Sana", "IP manzil"},
+                5,
+                log -> new Object[]{
+                        log.getId(),
+                        translateAction(log.getAction()),
+                        log.getEntityType(),
+                        log.getEntityId(),
+                        log.getUsername() != null ? log.getUsername() : "Sistema",
+                        log.getCreatedAt().format(DATE_FORMATTER),
+                        log.getIpAddress() != null ? log.getIpAddress() : "-"
+                });
     }
 
     /**
@@ -121,81 +73,127 @@ public class ExcelExportService {
             List<LoginAttemptResponse> attempts,
             String reportTitle
     ) throws IOException {
-        try (SXSSFWorkbook workbook = new SXSSFWorkbook(100)) {
-            SXSSFSheet sheet = workbook.createSheet("Login Activity");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ExportRowWriter<LoginAttemptResponse> writer = openLoginActivity(out, reportTitle)) {
+            for (LoginAttemptResponse attempt : attempts) {
+                writer.write(attempt);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Kirish tarixini {@code out} ga qatorma-qator yozuvchi (fon eksporti — ro'yxatsiz).
+     */
+    public ExportRowWriter<LoginAttemptResponse> openLoginActivity(OutputStream out, String reportTitle) {
+        return new SheetRowWriter<>(out, "Login Activity",
+                reportTitle != null ? reportTitle : "Kirish Tarixi Hisoboti",
+                new String[]{"ID", "Foydalanuvchi", "Holat", "Qurilma", "Brauzer", "Sana", "IP manzil"},
+                5,
+                attempt -> new Object[]{
+                        attempt.getId(),
+                        attempt.getUsername(),
+                        "SUCCESS".equals(attempt.getStatus()) ? "Muvaffaqiyatli" : "Xato",
+                        attempt.getDeviceType() != null ? attempt.getDeviceType() : "-",
+                        attempt.getBrowser() != null ? attempt.getBrowser() : "-",
+                        attempt.getCreatedAt().format(DATE_FORMATTER),
+                        attempt.getIpAddress() != null ? attempt.getIpAddress() : "-"
+                });
+    }
+
+    /**
+     * Sarlavha + ustunlar jadvali, qatorlar kelishi bilan yoziladi. SXSSF xotirada faqat
+     * oxirgi 100 qatorni ushlaydi; {@link #close()} ustunlarni moslab faylni {@code out} ga yozadi
+     * va vaqtinchalik fayllarni o'chiradi.
+     */
+    private final class SheetRowWriter<T> implements ExportRowWriter<T> {
+
+        private final OutputStream out;
+        private final SXSSFWorkbook workbook = new SXSSFWorkbook(100);
+        private final SXSSFSheet sheet;
+        private final int columns;
+        private final int dateColumn;
+        private final Function<T, Object[]> mapper;
+        private final CellStyle dataStyle;
+        private final CellStyle dateStyle;
+        private int rowNum;
+        private long count;
+
+        SheetRowWriter(OutputStream out, String sheetName, String title, String[] headers,
+                       int dateColumn, Function<T, Object[]> mapper) {
+            this.out = out;
+            this.sheet = workbook.createSheet(sheetName);
+            this.columns = headers.length;
+            this.dateColumn = dateColumn;
+            this.mapper = mapper;
 
             // Track columns for auto-sizing (required for SXSSFWorkbook)
-            for (int i = 0; i < 7; i++) {
+            for (int i = 0; i < columns; i++) {
                 sheet.trackColumnForAutoSizing(i);
             }
 
-            // Create styles
             CellStyle headerStyle = createHeaderStyle(workbook);
             CellStyle titleStyle = createTitleStyle(workbook);
-            CellStyle dataStyle = createDataStyle(workbook);
-            CellStyle dateStyle = createDateStyle(workbook);
-
-            int rowNum = 0;
+            dataStyle = createDataStyle(workbook);
+            dateStyle = createDateStyle(workbook);
 
             // Title row
             Row titleRow = sheet.createRow(rowNum++);
             Cell titleCell = titleRow.createCell(0);
-            titleCell.setCellValue(reportTitle != null ? reportTitle : "Kirish Tarixi Hisoboti");
+            titleCell.setCellValue(title);
             titleCell.setCellStyle(titleStyle);
-            sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 6));
+            sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, columns - 1));
 
             // Metadata row
             Row metaRow = sheet.createRow(rowNum++);
             Cell metaCell = metaRow.createCell(0);
             metaCell.setCellValue("Sana: " + LocalDateTime.now().format(DATE_FORMATTER));
             metaCell.setCellStyle(dataStyle);
-            sheet.addMergedRegion(new CellRangeAddress(1, 1, 0, 6));
+            sheet.addMergedRegion(new CellRangeAddress(1, 1, 0, columns - 1));
 
             // Empty row
             rowNum++;
 
             // Header row
             Row headerRow = sheet.createRow(rowNum++);
-            String[] headers = {"ID", "Foydalanuvchi", "Holat", "Qurilma", "Brauzer", "Sana", "IP manzil"};
-            for (int i = 0; i < headers.length; i++) {
+            for (int i = 0; i < columns; i++) {
                 Cell cell = headerRow.createCell(i);
                 cell.setCellValue(headers[i]);
                 cell.setCellStyle(headerStyle);
             }
+        }
 
-            // Data rows
-            for (LoginAttemptResponse attempt : attempts) {
-                Row row = sheet.createRow(rowNum++);
-
-                row.createCell(0).setCellValue(attempt.getId());
-                row.createCell(1).setCellValue(attempt.getUsername());
-                row.createCell(2).setCellValue("SUCCESS".equals(attempt.getStatus()) ? "Muvaffaqiyatli" : "Xato");
-                row.createCell(3).setCellValue(attempt.getDeviceType() != null ? attempt.getDeviceType() : "-");
-                row.createCell(4).setCellValue(attempt.getBrowser() != null ? attempt.getBrowser() : "-");
-
-                Cell dateCell = row.createCell(5);
-                dateCell.setCellValue(attempt.getCreatedAt().format(DATE_FORMATTER));
-                dateCell.setCellStyle(dateStyle);
-
-                row.createCell(6).setCellValue(attempt.getIpAddress() != null ? attempt.getIpAddress() : "-");
-
-                // Apply data style to all cells
-                for (int i = 0; i < 7; i++) {
-                    if (i != 5) { // Skip date cell (already has style)
-                        row.getCell(i).setCellStyle(dataStyle);
-                    }
+        @Override
+        public void write(T item) {
+            Object[] values = mapper.apply(item);
+            Row row = sheet.createRow(rowNum++);
+            for (int i = 0; i < columns; i++) {
+                Cell cell = row.createCell(i);
+                Object value = values[i];
+                if (value instanceof Number number) {
+                    cell.setCellValue(number.doubleValue());
+                } else {
+                    cell.setCellValue(value != null ? value.toString() : "");
                 }
+                cell.setCellStyle(i == dateColumn ? dateStyle : dataStyle);
             }
+            count++;
+        }
 
-            // Auto-size columns
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
+        @Override
+        public long count() {
+            return count;
+        }
 
-            // Write to output stream
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-            workbook.write(out);
-            return out;
+        @Override
+        public void close() throws IOException {
+            // SXSSFWorkbook.close() vaqtinchalik fayllarni ham o'chiradi (dispose() eskirgan)
+            try (workbook) {
+                for (int i = 0; i < columns; i++) {
+                    sheet.autoSizeColumn(i);
+                }
+                workbook.write(out);
+            }
         }
     }
 
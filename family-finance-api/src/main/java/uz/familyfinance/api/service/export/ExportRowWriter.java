@@ -0,0 +1,18 @@
+package uz.familyfinance.api.service.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Eksport faylini qatorma-qator yozuvchi — qatorlar xotirada ro'yxat bo'lib yig'ilmaydi:
+ * Excel'da SXSSF oynasidan chiqqan qatorlar vaqtinchalik faylga tushadi, PDF'da jadval
+ * bo'laklab sahifaga chiqariladi. {@link #close()} fayl oxirini (jami, ustun kengliklari)
+ * yozib, natijani chiqish oqimiga tugatadi.
+ */
+public interface ExportRowWriter<T> extends Closeable {
+
+    void write(T row) throws IOException;
+
+    /** Shu paytgacha yozilgan qatorlar soni. */
+    long count();
+}
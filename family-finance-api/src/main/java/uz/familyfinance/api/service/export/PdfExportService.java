@@ -14,10 +14,12 @@ import uz.familyfinance.api.dto.response.UserActivityResponse;
 
 import java.awt.Color;
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
@@ -36,62 +38,35 @@ public class PdfExportService {
             List<AuditLogResponse> logs,
             String reportTitle
     ) throws DocumentException {
-        Document document = new Document(PageSize.A4.rotate()); // Landscape for more columns
         ByteArrayOutputStream out = new ByteArrayOutputStream();
-        PdfWriter.getInstance(document, out);
-
-        document.open();
-
-        // Title
-        Paragraph title = new Paragraph(
-                reportTitle != null ? reportTitle : "Tizim Auditlari Hisoboti",
-                TITLE_FONT
-        );
-        title.setAlignment(Element.ALIGN_CENTER);
-        title.setSpacingAfter(10);
-        document.add(title);
-
-        // Metadata
-        Paragraph metadata = new Paragraph(
-                "Sana: " + LocalDateTime.now().format(DATE_FORMATTER),
-                DATA_FONT
-        );
-        metadata.setAlignment(Element.ALIGN_CENTER);
-        metadata.setSpacingAfter(20);
-        document.add(metadata);
-
-        // Table
-        PdfPTable table = new PdfPTable(7);
-        table.setWidthPercentage(100);
-        table.setSpacingBefore(10);
-
-        // Headers
-        addTableHeader(table, new String[]{"ID", "Harakat", "Obyekt turi", "Obyekt ID", "Foydalanuvchi", "Sana", "IP manzil"});
-
-        // Data
-        for (AuditLogResponse log : logs) {
-            addTableCell(table, String.valueOf(log.getId()));
-            addTableCell(table, translateAction(log.getAction()));
-            addTableCell(table, log.getEntityType());
-            addTableCell(table, String.valueOf(log.getEntityId()));
-            addTableCell(table, log.getUsername() != null ? log.getUsername() : "Sistema");
-            addTableCell(table, log.getCreatedAt().format(DATE_FORMATTER));
-            addTableCell(table, log.getIpAddress() != null ? log.getIpAddress() : "-");
+        try (TableRowWriter<AuditLogResponse> writer = auditLogTable(out, reportTitle)) {
+            for (AuditLogResponse log : logs) {
+                writer.write(log);
+            }
         }
+        return out;
+    }
 
-        document.add(table);
-
-        // Footer
-        Paragraph footer = new Paragraph(
-                String.format("Jami: %d ta yozuv", logs.size()),
-                DATA_FONT
-        );
-        footer.setAlignment(Element.ALIGN_RIGHT);
-        footer.setSpacingBefore(20);
-        document.add(footer);
+    /**
+     * Audit loglarni {@code out} ga qatorma-qator yozuvchi (fon eksporti — ro'yxatsiz).
+     */
+    public ExportRowWriter<AuditLogResponse> openAuditLogs(OutputStream out, String reportTitle) {
+        return auditLogTable(out, reportTitle);
+    }
 
-        document.close();
-        return out;
+    private TableRowWriter<AuditLogResponse> auditLogTable(OutputStream out, String reportTitle) {
+        return new TableRowWriter<>(out,
+                reportTitle != null ? reportTitle : "Tizim Auditlari Hisoboti",
+                new String[]{"ID", "Harakat", "Obyekt turi", "Obyekt ID", "Foydalanuvchi", "Sana", "IP manzil"},
+                log -> new String[]{
+                        String.valueOf(log.getId()),
+                        translateAction(log.getAction()),
+                        log.getEntityType(),
+                        String.valueOf(log.getEntityId()),
+                        log.getUsername() != null ? log.getUsername() : "Sistema",
+                        log.getCreatedAt().format(DATE_FORMATTER),
+                        log.getIpAddress() != null ? log.getIpAddress() : "-"
+                });
     }
 
     /**
@@ -101,62 +76,112 @@ public class PdfExportService {
             List<LoginAttemptResponse> attempts,
             String reportTitle
     ) throws DocumentException {
-        Document document = new Document(PageSize.A4.rotate()); // Landscape for more columns
         ByteArrayOutputStream out = new ByteArrayOutputStream();
-        PdfWriter.getInstance(document, out);
+        try (TableRowWriter<LoginAttemptResponse> writer = loginActivityTable(out, reportTitle)) {
+            for (LoginAttemptResponse attempt : attempts) {
+                writer.write(attempt);
+            }
+        }
+        return out;
+    }
 
-        document.open();
+    /**
+     * Kirish tarixini {@code out} ga qatorma-qator yozuvchi (fon eksporti — ro'yxatsiz).
+     */
+    public ExportRowWriter<LoginAttemptResponse> openLoginActivity(OutputStream out, String reportTitle) {
+        return loginActivityTable(out, reportTitle);
+    }
 
-        // Title
-        Paragraph title = new Paragraph(
+    private TableRowWriter<LoginAttemptResponse> loginActivityTable(OutputStream out, String reportTitle) {
+        return new TableRowWriter<>(out,
                 reportTitle != null ? reportTitle : "Kirish Tarixi Hisoboti",
-                TITLE_FONT
-        );
-        title.setAlignment(Element.ALIGN_CENTER);
-        title.setSpacingAfter(10);
-        document.add(title);
-
-        // Metadata
-        Paragraph metadata = new Paragraph(
-                "Sana: " + LocalDateTime.now().format(DATE_FORMATTER),
-                DATA_FONT
-        );
-        metadata.setAlignment(Element.ALIGN_CENTER);
-        metadata.setSpacingAfter(20);
-        document.add(metadata);
-
-        // Table
-        PdfPTable table = new PdfPTable(7);
-        table.setWidthPercentage(100);
-        table.setSpacingBefore(10);
-
-        // Headers
-        addTableHeader(table, new String[]{"ID", "Foydalanuvchi", "Holat", "Qurilma", "Brauzer", "Sana", "IP manzil"});
+                new String[]{"ID", "Foydalanuvchi", "Holat", "Qurilma", "Brauzer", "Sana", "IP manzil"},
+                attempt -> new String[]{
+                        String.valueOf(attempt.getId()),
+                        attempt.getUsername(),
+                        "SUCCESS".equals(attempt.getStatus()) ? "Muvaffaqiyatli" : "Xato",
+                        attempt.getDeviceType() != null ? attempt.getDeviceType() : "-",
+                        attempt.getBrowser() != null ? attempt.getBrowser() : "-",
+                        attempt.getCreatedAt().format(DATE_FORMATTER),
+                        attempt.getIpAddress() != null ? attempt.getIpAddress() : "-"
+                });
+    }
 
-        // Data
-        for (LoginAttemptResponse attempt : attempts) {
-            addTableCell(table, String.valueOf(attempt.getId()));
-            addTableCell(table, attempt.getUsername());
-            addTableCell(table, "SUCCESS".equals(attempt.getStatus()) ? "Muvaffaqiyatli" : "Xato");
-            addTableCell(table, attempt.getDeviceType() != null ? attempt.getDeviceType() : "-");
-            addTableCell(table, attempt.getBrowser() != null ? attempt.getBrowser() : "-");
-            addTableCell(table, attempt.getCreatedAt().format(DATE_FORMATTER));
-            addTableCell(table, attempt.getIpAddress() != null ? attempt.getIpAddress() : "-");
+    /**
+     * Sarlavha + jadval, qatorlar kelishi bilan yoziladi. Jadval "katta element" rejimida
+     * ({@code complete=false}): har {@value #FLUSH_ROWS} qatorda tayyor qismi sahifaga chiqarilib
+     * xotiradan tushiriladi, sarlavha qatori har sahifada takrorlanadi. {@link #close()} jadvalni
+     * yakunlaydi va "Jami" qatorini yozadi.
+     */
+    private final class TableRowWriter<T> implements ExportRowWriter<T> {
+
+        private static final int FLUSH_ROWS = 500;
+
+        private final Document document = new Document(PageSize.A4.rotate()); // Landscape for more columns
+        private final PdfPTable table;
+        private final Function<T, String[]> mapper;
+        private long count;
+
+        TableRowWriter(OutputStream out, String reportTitle, String[] headers, Function<T, String[]> mapper) {
+            this.mapper = mapper;
+            PdfWriter.getInstance(document, out);
+            document.open();
+
+            // Title
+            Paragraph title = new Paragraph(reportTitle, TITLE_FONT);
+            title.setAlignment(Element.ALIGN_CENTER);
+            title.setSpacingAfter(10);
+            document.add(title);
+
+            // Metadata
+            Paragraph metadata = new Paragraph(
+                    "Sana: " + LocalDateTime.now().format(DATE_FORMATTER),
+                    DATA_FONT
+            );
+            metadata.setAlignment(Element.ALIGN_CENTER);
+            metadata.setSpacingAfter(20);
+            document.add(metadata);
+
+            // Table
+            table = new PdfPTable(headers.length);
+            table.setWidthPercentage(100);
+            table.setSpacingBefore(10);
+            table.setHeaderRows(1);
+            table.setComplete(false);
+            addTableHeader(table, headers);
         }
 
-        document.add(table);
+        @Override
+        public void write(T item) {
+            for (String value : mapper.apply(item)) {
+                addTableCell(table, value);
+            }
+            if (++count % FLUSH_ROWS == 0) {
+                document.add(table);
+                table.setSpacingBefore(0);
+            }
+        }
 
-        // Footer
-        Paragraph footer = new Paragraph(
-                String.format("Jami: %d ta yozuv", attempts.size()),
-                DATA_FONT
-        );
-        footer.setAlignment(Element.ALIGN_RIGHT);
-        footer.setSpacingBefore(20);
-        document.add(footer);
+        @Override
+        public long count() {
+            return count;
+        }
 
-        document.close();
-        return out;
+        @Override
+        public void close() {
+            try {
+                table.setComplete(true);
+                document.add(table);
+
+                // Footer
+                Paragraph footer = new Paragraph(String.format("Jami: %d ta yozuv", count), DATA_FONT);
+                footer.setAlignment(Element.ALIGN_RIGHT);
+                footer.setSpacingBefore(20);
+                document.add(footer);
+            } finally {
+                document.close();
+            }
+        }
     }
 
     /**
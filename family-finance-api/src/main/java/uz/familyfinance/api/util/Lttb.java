@@ -0,0 +1,68 @@
+package uz.familyfinance.api.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Largest-Triangle-Three-Buckets — vaqt qatorini grafik shaklini saqlagan holda
+ * {@code threshold} ta nuqtaga qisqartiradi (cho'qqi va chuqurliklar tushib qolmaydi,
+ * oddiy har N-nuqtadan bittasini olishdan farqli).
+ *
+ * <p>Birinchi va oxirgi nuqta doim saqlanadi; qolganlar teng bo'laklarga bo'linib, har
+ * bo'lakdan oldingi tanlangan nuqta va keyingi bo'lak o'rtachasi bilan eng katta
+ * uchburchak hosil qiluvchi nuqta olinadi.</p>
+ */
+public final class Lttb {
+
+    private Lttb() {
+    }
+
+    /**
+     * Tanlangan nuqtalar indekslari (o'sish tartibida). {@code x} o'suvchi bo'lishi kerak.
+     * {@code threshold >= n} yoki {@code threshold < 3} bo'lsa — barcha indekslar.
+     */
+    public static List<Integer> select(double[] x, double[] y, int threshold) {
+        int n = x.length;
+        List<Integer> selected = new ArrayList<>(Math.min(n, Math.max(threshold, 0)));
+        if (threshold >= n || threshold < 3) {
+            for (int i = 0; i < n; i++) {
+                selected.add(i);
+            }
+            return selected;
+        }
+
+        double bucketSize = (double) (n - 2) / (threshold - 2);
+        int a = 0;
+        selected.add(a);
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // Keyingi bo'lak o'rtachasi — uchburchakning uchinchi uchi
+            int nextStart = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) Math.floor((bucket + 2) * bucketSize) + 1, n);
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += x[i];
+                avgY += y[i];
+            }
+            int nextCount = Math.max(1, nextEnd - nextStart);
+            avgX /= nextCount;
+            avgY /= nextCount;
+
+            int start = (int) Math.floor(bucket * bucketSize) + 1;
+            int end = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            double maxArea = -1;
+            int chosen = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((x[a] - avgX) * (y[i] - y[a]) - (x[a] - x[i]) * (avgY - y[a]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+            selected.add(chosen);
+            a = chosen;
+        }
+        selected.add(n - 1);
+        return selected;
+    }
+}
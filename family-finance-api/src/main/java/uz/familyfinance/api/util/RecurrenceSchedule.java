@@ -0,0 +1,99 @@
+package uz.familyfinance.api.util;
+
+import uz.familyfinance.api.enums.RecurringPattern;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.function.IntConsumer;
+
+/**
+ * Recurring shablon jadvali — qaysi kunlarda bajariladi. Kunlik executor ({@link #isDue})
+ * va prognoz ({@link #forEachOccurrence}) AYNAN bir qoidadan foydalanadi:
+ *
+ * <ul>
+ *   <li>shablon o'z sanasida va undan oldin bajarilmaydi (u o'zi allaqachon tranzaksiya);</li>
+ *   <li>MONTHLY/YEARLY — shablon kuni oyda bo'lmasa (31-kun, 29-fevral), oyning oxirgi kunida.</li>
+ * </ul>
+ */
+public final class RecurrenceSchedule {
+
+    private RecurrenceSchedule() {
+    }
+
+    public static boolean isDue(RecurringPattern pattern, LocalDate templateDate, LocalDate forDate) {
+        if (!forDate.isAfter(templateDate)) {
+            return false;
+        }
+        return switch (pattern) {
+            case DAILY -> true;
+            case WEEKLY -> forDate.getDayOfWeek() == templateDate.getDayOfWeek();
+            case MONTHLY -> matchesMonthlyDay(templateDate, forDate);
+            case YEARLY -> forDate.getMonth() == templateDate.getMonth()
+                    && matchesMonthlyDay(templateDate, forDate);
+        };
+    }
+
+    /**
+     * Oy/Yil pattern uchun: 31-chi raqamlar uchun ham ishlash (masalan, Fevralda 28-chi/29-chida ham ishga tushadi).
+     */
+    public static boolean matchesMonthlyDay(LocalDate templateDate, LocalDate forDate) {
+        int templateDay = templateDate.getDayOfMonth();
+        int forDay = forDate.getDayOfMonth();
+        if (templateDay == forDay) return true;
+        // Template kuni hozirgi oyning oxirgi kunidan katta bo'lsa, oxirgi kunda ishga tushiramiz
+        int lastDayOfMonth = forDate.lengthOfMonth();
+        return templateDay > lastDayOfMonth && forDay == lastDayOfMonth;
+    }
+
+    /**
+     * {@code [from, to]} ichidagi barcha bajarilish kunlari — {@code from} dan kun siljishi
+     * (0 = from) sifatida, o'sish tartibida. Har kunni {@link #isDue} bilan tekshirmaydi:
+     * DAILY/WEEKLY epoch-kun qadami, MONTHLY/YEARLY — har oy/yil uchun bitta sana.
+     */
+    public static void forEachOccurrence(RecurringPattern pattern, LocalDate templateDate,
+                                         LocalDate from, LocalDate to, IntConsumer dayOffset) {
+        long base = from.toEpochDay();
+        long first = Math.max(base, templateDate.toEpochDay() + 1);
+        long last = to.toEpochDay();
+        if (first > last) {
+            return;
+        }
+        switch (pattern) {
+            case DAILY -> {
+                for (long d = first; d <= last; d++) {
+                    dayOffset.accept((int) (d - base));
+                }
+            }
+            case WEEKLY -> {
+                // Shablon bilan bir hafta kuni — epoch-kunlar farqi 7 ga karrali
+                long shift = Math.floorMod(templateDate.toEpochDay() - first, 7);
+                for (long d = first + shift; d <= last; d += 7) {
+                    dayOffset.accept((int) (d - base));
+                }
+            }
+            case MONTHLY -> {
+                YearMonth end = YearMonth.from(to);
+                for (YearMonth ym = YearMonth.from(LocalDate.ofEpochDay(first)); !ym.isAfter(end); ym = ym.plusMonths(1)) {
+                    acceptInRange(monthDay(ym, templateDate.getDayOfMonth()), base, first, last, dayOffset);
+                }
+            }
+            case YEARLY -> {
+                for (int year = LocalDate.ofEpochDay(first).getYear(); year <= to.getYear(); year++) {
+                    YearMonth ym = YearMonth.of(year, templateDate.getMonth());
+                    acceptInRange(monthDay(ym, templateDate.getDayOfMonth()), base, first, last, dayOffset);
+                }
+            }
+        }
+    }
+
+    /** {@link #matchesMonthlyDay} bilan bir xil: kun oyda bo'lmasa — oxirgi kun. */
+    private static long monthDay(YearMonth ym, int templateDay) {
+        return ym.atDay(Math.min(templateDay, ym.lengthOfMonth())).toEpochDay();
+    }
+
+    private static void acceptInRange(long day, long base, long first, long last, IntConsumer dayOffset) {
+        if (day >= first && day <= last) {
+            dayOffset.accept((int) (day - base));
+        }
+    }
+}
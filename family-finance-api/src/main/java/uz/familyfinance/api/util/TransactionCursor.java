@@ -0,0 +1,54 @@
+package uz.familyfinance.api.util;
+
+import uz.familyfinance.api.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Tranzaksiya jurnalining keyset (seek) kursori — {@code (transactionDate, id)} juftligi
+ * va yo'nalish.
+ *
+ * <p>Klient uchun shaffof emas (opaque): base64url ichida {@code n|2025-01-31T10:15:30|42}.
+ * Format klient kontrakti EMAS — faqat server qaytargan qiymat qayta yuboriladi.
+ * Buzilgan/qo'lda yasalgan kursor {@link BadRequestException} bilan rad etiladi.</p>
+ *
+ * @param direction       {@link Direction#NEXT} — shu kalitdan eskiroqlar, {@link Direction#PREV} — yangiroqlar
+ * @param transactionDate chegaraviy qatorning sanasi
+ * @param id              chegaraviy qatorning id'si (bir xil sanadagi qatorlar tartibi)
+ */
+public record TransactionCursor(Direction direction, LocalDateTime transactionDate, Long id) {
+
+    public enum Direction { NEXT, PREV }
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = (direction == Direction.NEXT ? "n" : "p") + SEPARATOR + transactionDate + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws BadRequestException kursor base64url emas yoki tarkibi noto'g'ri bo'lsa
+     */
+    public static TransactionCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, -1);
+            if (parts.length != 3) {
+                throw new BadRequestException("Noto'g'ri kursor");
+            }
+            Direction direction = switch (parts[0]) {
+                case "n" -> Direction.NEXT;
+                case "p" -> Direction.PREV;
+                default -> throw new BadRequestException("Noto'g'ri kursor");
+            };
+            return new TransactionCursor(direction, LocalDateTime.parse(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // NumberFormatException ham IllegalArgumentException
+            throw new BadRequestException("Noto'g'ri kursor");
+        }
+    }
+}
@@ -0,0 +1,64 @@
+-- =====================================================================
+-- V62: SYSTEM_TRANSIT sub-ledger shard'lari (hot row'ni bartaraf etish)
+--
+-- Muammo: har bir INCOME/EXPENSE (barcha xonadonlarda) addToBalance orqali
+-- valyuta+yo'nalish bo'yicha YAGONA tranzit qatorini yangilaydi — konkurent
+-- yozuvchilar hammasi shu bitta Postgres row lock'ida navbatga turadi.
+--
+-- Yechim: har bir tranzit hisob (root, transit_shard = 0) yoniga 7 ta shard
+-- qatori (transit_shard 1..7) qo'shiladi. Yozuv scope ID bo'yicha shard'ga
+-- yo'naltiriladi (TransitLedgerService). Mantiqiy tranzit balansi = root +
+-- barcha shard'lar yig'indisi (transit_ledger_balances view); kunlik compaction
+-- shard balanslarini root'ga yig'adi (yig'indi o'zgarmaydi).
+-- =====================================================================
+
+ALTER TABLE accounts ADD COLUMN transit_shard SMALLINT;
+ALTER TABLE accounts ADD COLUMN transit_root_id BIGINT REFERENCES accounts (id);
+
+-- Mavjud tranzit hisoblar — root (shard 0), o'ziga ishora qiladi
+UPDATE accounts
+SET transit_shard   = 0,
+    transit_root_id = id
+WHERE type = 'SYSTEM_TRANSIT';
+
+-- Shard qatorlari: root nomi + " #N", balans 0. acc_code'da YY (16-17, a'zo kodi)
+-- o'rniga shard raqami yoziladi — UNIQUE saqlanadi, tartib raqami (NNN) root'niki.
+INSERT INTO accounts (name, type, currency, balance, is_active, status, scope,
+                      balance_account_code, currency_code, description, acc_code,
+                      transit_shard, transit_root_id)
+SELECT root.name || ' #' || s.n,
+       root.type,
+       root.currency,
+       0,
+       true,
+       'ACTIVE',
+       root.scope,
+       root.balance_account_code,
+       root.currency_code,
+       'Tranzit hisob shard''i #' || s.n || ' (root: ' || COALESCE(root.acc_code, root.id::text) || ')',
+       CASE WHEN root.acc_code IS NULL OR length(root.acc_code) <> 20 THEN NULL
+            ELSE substring(root.acc_code FROM 1 FOR 15) || lpad(s.n::text, 2, '0')
+                 || substring(root.acc_code FROM 18 FOR 3) END,
+       s.n,
+       root.id
+FROM accounts root
+CROSS JOIN generate_series(1, 7) AS s (n)
+WHERE root.type = 'SYSTEM_TRANSIT' AND root.transit_shard = 0;
+
+-- Shard marshrutlash (valyuta bo'yicha root+shard'lar) va compaction lock'i uchun
+CREATE INDEX IF NOT EXISTS idx_accounts_transit_root
+    ON accounts (transit_root_id, transit_shard)
+    WHERE transit_root_id IS NOT NULL;
+
+-- Rekonsilyatsiya: har bir root uchun BITTA mantiqiy tranzit balansi
+CREATE VIEW transit_ledger_balances AS
+SELECT root.id                AS root_account_id,
+       root.acc_code          AS acc_code,
+       root.name              AS name,
+       root.currency          AS currency,
+       COUNT(shard.id)        AS shard_count,
+       COALESCE(SUM(shard.balance), 0) AS balance
+FROM accounts root
+JOIN accounts shard ON shard.transit_root_id = root.id
+WHERE root.type = 'SYSTEM_TRANSIT' AND root.transit_shard = 0
+GROUP BY root.id, root.acc_code, root.name, root.currency;
@@ -0,0 +1,66 @@
+-- =====================================================================
+-- V63: ledger_daily_aggregates — kunlik daftar agregatlari (proyeksiya)
+--
+-- Muammo: dashboard (getStats/getCharts), kategoriya hisoboti va kunlik xarajatlar
+-- jurnali har so'rovda xom transactions jadvali ustida SUM/GROUP BY bajaradi va
+-- storno filtrlarini (status <> 'REVERSED', type <> 'REVERSAL') har safar takrorlaydi;
+-- narx daftar tarixi bilan chiziqli o'sadi.
+--
+-- Yechim: (scope, kun, tur, kategoriya, valyuta, a'zo) kalitli proyeksiya. Har
+-- create/update/reverse/cancel/confirm o'sha DB tranzaksiyasida delta yozadi
+-- (LedgerAggregateService, INSERT ... ON CONFLICT DO UPDATE). Storno invarianti
+-- shu yerda BIR MARTA qo'llanadi: REVERSED asl qatorlar va REVERSAL kompensatsiya
+-- qatorlari proyeksiyaga umuman kirmaydi.
+--
+-- Split'li tranzaksiya ulushlari o'z kategoriyasida yoziladi (kunlik jurnal
+-- qoidasi bilan bir xil). entry_count — qatorlar (tranzaksiya yoki split ulushi)
+-- soni; tx_count — tranzaksiyalar soni (split'li tranzaksiya 1 ni eng kichik
+-- category_id'li ulush qatoriga beradi), shu sabab SUM(tx_count) har doim
+-- tranzaksiyalar sonini beradi.
+-- =====================================================================
+
+CREATE TABLE ledger_daily_aggregates (
+    id          BIGSERIAL PRIMARY KEY,
+    scope_id    BIGINT,                       -- NULL = scope'siz (system) tranzaksiyalar
+    ledger_date DATE           NOT NULL,
+    type        VARCHAR(20)    NOT NULL,
+    category_id BIGINT,
+    currency    VARCHAR(10)    NOT NULL,
+    member_id   BIGINT,
+    amount      DECIMAL(19, 2) NOT NULL DEFAULT 0,
+    entry_count BIGINT         NOT NULL DEFAULT 0,
+    tx_count    BIGINT         NOT NULL DEFAULT 0
+);
+
+-- Upsert kaliti. NULLS NOT DISTINCT (PG15+) — NULL kategoriya/a'zo/scope ham bitta
+-- kalit sifatida birlashadi (aks holda har delta yangi qator ochardi).
+CREATE UNIQUE INDEX uq_ledger_daily_aggregates_key
+    ON ledger_daily_aggregates (scope_id, ledger_date, type, category_id, currency, member_id) NULLS NOT DISTINCT;
+
+-- O'qish yo'li: scope + sana oralig'i (dashboard oyi, 6 oylik trend, hisobot davri)
+CREATE INDEX idx_ledger_daily_aggregates_scope_date
+    ON ledger_daily_aggregates (scope_id, ledger_date);
+
+-- Backfill — LedgerAggregateService.rebuild() bilan AYNAN bir xil SELECT
+INSERT INTO ledger_daily_aggregates (scope_id, ledger_date, type, category_id, currency, member_id,
+                                     amount, entry_count, tx_count)
+SELECT scope_id, ledger_date, type, category_id, currency, member_id,
+       SUM(amount), SUM(entry_count), SUM(tx_count)
+FROM (
+    SELECT t.scope_id, CAST(t.transaction_date AS DATE) AS ledger_date, t.type, t.category_id, a.currency,
+           t.family_member_id AS member_id, t.amount, 1 AS entry_count, 1 AS tx_count
+    FROM transactions t
+    JOIN accounts a ON a.id = t.account_id
+    WHERE t.status <> 'REVERSED' AND t.type <> 'REVERSAL'
+      AND NOT EXISTS (SELECT 1 FROM transaction_splits s WHERE s.transaction_id = t.id)
+    UNION ALL
+    SELECT t.scope_id, CAST(t.transaction_date AS DATE), t.type, s.category_id, a.currency,
+           t.family_member_id, s.amount, 1,
+           CASE WHEN ROW_NUMBER() OVER (PARTITION BY s.transaction_id ORDER BY s.category_id, s.id) = 1
+                THEN 1 ELSE 0 END
+    FROM transaction_splits s
+    JOIN transactions t ON t.id = s.transaction_id
+    JOIN accounts a ON a.id = t.account_id
+    WHERE t.status <> 'REVERSED' AND t.type <> 'REVERSAL'
+) src
+GROUP BY scope_id, ledger_date, type, category_id, currency, member_id;
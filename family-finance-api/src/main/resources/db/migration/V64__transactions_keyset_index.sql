@@ -0,0 +1,17 @@
+-- =====================================================================
+-- V64: tranzaksiya jurnali keyset (seek) sahifalash indeksi
+--
+-- Jurnal endi (transaction_date, id) kursori bo'yicha ham o'qiladi:
+--   WHERE scope_id = ? AND (transaction_date < ? OR (transaction_date = ? AND id < ?))
+--   ORDER BY transaction_date DESC, id DESC LIMIT n
+-- V48 idx_transactions_scope_date (scope_id, transaction_date DESC) da id yo'q — bir
+-- xil sanali qatorlar (import, recurring) uchun qo'shimcha sort kerak bo'lardi. Yangi
+-- indeks uning ustki to'plami, shu sabab eskisi o'chiriladi (ikki indeksni yozish
+-- narxi to'lanmaydi).
+-- =====================================================================
+
+CREATE INDEX IF NOT EXISTS idx_transactions_scope_date_id
+    ON transactions (scope_id, transaction_date DESC, id DESC)
+    WHERE scope_id IS NOT NULL;
+
+DROP INDEX IF EXISTS idx_transactions_scope_date;
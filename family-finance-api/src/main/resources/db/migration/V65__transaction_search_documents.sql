@@ -0,0 +1,165 @@
+-- =====================================================================
+-- V65: tranzaksiya jurnali qidiruvi — tsvector hujjat + GIN indeks
+--
+-- Muammo: findWithFilters qidiruvi LOWER(description) LIKE '%...%' — har klavish
+-- bosilishida scope'ning BARCHA tranzaksiyalari ketma-ket skan qilinadi; kirill/lotin
+-- yozuvi ("Маош" va "maosh") va apostrof variantlari (o'/oʻ/o‘) bir-birini topmaydi;
+-- tag va hisob nomlari bo'yicha qidirib bo'lmaydi.
+--
+-- Yechim:
+--   * ff_search_normalize — o'zbek kirill → lotin, apostroflar olib tashlanadi, kichik
+--     harf; hujjat ham, so'rov ham AYNAN shu funksiyadan o'tadi;
+--   * transaction_search_documents — har tranzaksiyaga bitta tsvector
+--     (A: tavsif, B: tag'lar, C: hisob/qabul qiluvchi hisob nomlari);
+--   * trigger'lar hujjatni yangilab turadi — JPA, JDBC import va to'g'ridan SQL
+--     yozuvlari ham qamraladi (ilova tomonida har yozuvchini eslab qolish shart emas);
+--   * ff_search_matches — prefiks (so'z:*) mosligi; oddiy SQL funksiya bo'lgani uchun
+--     planner uni inline qiladi va GIN indeks ishlatiladi.
+--
+-- Extension kerak emas (pg_trgm/unaccent emas — prod rolida CREATE EXTENSION huquqi yo'q,
+-- qarang V47): tsvector va 'simple' konfiguratsiya PostgreSQL yadrosida.
+-- =====================================================================
+
+-- 1) Normalizatsiya (locale'ga bog'liq emas: kirill harflar lower()'ga tayanmasdan,
+--    ikkala registri ham aniq jadval bilan o'giriladi)
+CREATE OR REPLACE FUNCTION ff_search_normalize(input TEXT) RETURNS TEXT
+    LANGUAGE plpgsql IMMUTABLE PARALLEL SAFE AS $$
+DECLARE
+    s TEXT := coalesce(input, '');
+BEGIN
+    -- Apostrof variantlari va qattiq/yumshoq belgi: o'/oʻ/o‘/ў → o, g'/ғ → g
+    s := regexp_replace(s, '[''`´ʻʼ‘’ъьЪЬ]', '', 'g');
+    -- Ko'p harfli moslar
+    s := replace(replace(s, 'Ё', 'yo'), 'ё', 'yo');
+    s := replace(replace(s, 'Ч', 'ch'), 'ч', 'ch');
+    s := replace(replace(s, 'Ш', 'sh'), 'ш', 'sh');
+    s := replace(replace(s, 'Щ', 'sh'), 'щ', 'sh');
+    s := replace(replace(s, 'Ю', 'yu'), 'ю', 'yu');
+    s := replace(replace(s, 'Я', 'ya'), 'я', 'ya');
+    s := replace(replace(s, 'Ц', 'ts'), 'ц', 'ts');
+    -- Bir harfli moslar (х → x, ҳ → h — o'zbek lotin imlosi)
+    s := translate(s,
+                   'АБВГДЕЖЗИЙКЛМНОПРСТУФХЫЭЎҚҒҲабвгдежзийклмнопрстуфхыэўқғҳ',
+                   'abvgdejziyklmnoprstufxieoqghabvgdejziyklmnoprstufxieoqgh');
+    s := lower(s);
+    -- Qolgan hamma narsa ajratuvchi — hujjat va so'rov bir xil tokenlarga bo'linadi
+    RETURN btrim(regexp_replace(s, '[^a-z0-9]+', ' ', 'g'));
+END;
+$$;
+
+-- 2) So'rov: har so'z prefiks sifatida, hammasi AND. Bo'sh so'rov → NULL (hech narsa topilmaydi)
+CREATE OR REPLACE FUNCTION ff_search_query(input TEXT) RETURNS tsquery
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE AS $$
+    SELECT to_tsquery('simple', string_agg(quote_literal(tok) || ':*', ' & '))
+    FROM regexp_split_to_table(ff_search_normalize(input), ' ') AS tok
+    WHERE tok <> ''
+$$;
+
+-- 3) Moslik predikati — bitta ifodali SQL funksiya: planner inline qiladi
+--    (document @@ ff_search_query(q)) va GIN indeksni tanlay oladi. HQL'dan
+--    function('ff_search_matches', ...) orqali chaqiriladi.
+CREATE OR REPLACE FUNCTION ff_search_matches(document tsvector, input TEXT) RETURNS BOOLEAN
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE AS $$
+    SELECT document @@ ff_search_query(input)
+$$;
+
+-- 4) Hujjatlar jadvali (transactions qatorini kengaytirmaydi — jurnal listing'i
+--    tsvector'ni o'qimaydi)
+CREATE TABLE transaction_search_documents (
+    transaction_id BIGINT PRIMARY KEY REFERENCES transactions(id) ON DELETE CASCADE,
+    document       TSVECTOR NOT NULL
+);
+
+CREATE INDEX idx_transaction_search_documents_document
+    ON transaction_search_documents USING GIN (document);
+
+-- 5) Bitta tranzaksiya hujjatini qayta hisoblash (upsert)
+CREATE OR REPLACE FUNCTION ff_refresh_transaction_search(p_transaction_id BIGINT) RETURNS VOID
+    LANGUAGE sql AS $$
+    INSERT INTO transaction_search_documents (transaction_id, document)
+    SELECT t.id,
+           setweight(to_tsvector('simple', ff_search_normalize(t.description)), 'A')
+        || setweight(to_tsvector('simple', ff_search_normalize(concat_ws(' ', t.tags,
+               (SELECT string_agg(g.name, ' ')
+                FROM transaction_tags tt JOIN tags g ON g.id = tt.tag_id
+                WHERE tt.transaction_id = t.id)))), 'B')
+        || setweight(to_tsvector('simple', ff_search_normalize(concat_ws(' ',
+               (SELECT a.name FROM accounts a WHERE a.id = t.account_id),
+               (SELECT a.name FROM accounts a WHERE a.id = t.to_account_id)))), 'C')
+    FROM transactions t
+    WHERE t.id = p_transaction_id
+    ON CONFLICT (transaction_id) DO UPDATE SET document = EXCLUDED.document
+$$;
+
+-- 6) Trigger'lar
+CREATE OR REPLACE FUNCTION ff_transactions_search_trigger() RETURNS TRIGGER
+    LANGUAGE plpgsql AS $$
+BEGIN
+    PERFORM ff_refresh_transaction_search(NEW.id);
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER trg_transactions_search_insert
+    AFTER INSERT ON transactions
+    FOR EACH ROW EXECUTE FUNCTION ff_transactions_search_trigger();
+
+-- Hibernate UPDATE barcha ustunlarni SET qiladi — WHEN bo'lmasa har status o'zgarishi
+-- (confirm/cancel/reverse) hujjatni behuda qayta qurardi
+CREATE TRIGGER trg_transactions_search_update
+    AFTER UPDATE OF description, tags, account_id, to_account_id ON transactions
+    FOR EACH ROW WHEN (OLD.description IS DISTINCT FROM NEW.description
+                       OR OLD.tags IS DISTINCT FROM NEW.tags
+                       OR OLD.account_id IS DISTINCT FROM NEW.account_id
+                       OR OLD.to_account_id IS DISTINCT FROM NEW.to_account_id)
+    EXECUTE FUNCTION ff_transactions_search_trigger();
+
+CREATE OR REPLACE FUNCTION ff_transaction_tags_search_trigger() RETURNS TRIGGER
+    LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        PERFORM ff_refresh_transaction_search(OLD.transaction_id);
+    ELSE
+        PERFORM ff_refresh_transaction_search(NEW.transaction_id);
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER trg_transaction_tags_search
+    AFTER INSERT OR DELETE ON transaction_tags
+    FOR EACH ROW EXECUTE FUNCTION ff_transaction_tags_search_trigger();
+
+-- Hisob/tag nomi o'zgarishi kam uchraydi — bog'liq hujjatlar bitta so'rov bilan qayta quriladi
+CREATE OR REPLACE FUNCTION ff_accounts_search_trigger() RETURNS TRIGGER
+    LANGUAGE plpgsql AS $$
+BEGIN
+    PERFORM ff_refresh_transaction_search(t.id)
+    FROM transactions t
+    WHERE t.account_id = NEW.id OR t.to_account_id = NEW.id;
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER trg_accounts_search
+    AFTER UPDATE OF name ON accounts
+    FOR EACH ROW WHEN (OLD.name IS DISTINCT FROM NEW.name)
+    EXECUTE FUNCTION ff_accounts_search_trigger();
+
+CREATE OR REPLACE FUNCTION ff_tags_search_trigger() RETURNS TRIGGER
+    LANGUAGE plpgsql AS $$
+BEGIN
+    PERFORM ff_refresh_transaction_search(tt.transaction_id)
+    FROM transaction_tags tt
+    WHERE tt.tag_id = NEW.id;
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER trg_tags_search
+    AFTER UPDATE OF name ON tags
+    FOR EACH ROW WHEN (OLD.name IS DISTINCT FROM NEW.name)
+    EXECUTE FUNCTION ff_tags_search_trigger();
+
+-- 7) Backfill
+SELECT ff_refresh_transaction_search(id) FROM transactions;
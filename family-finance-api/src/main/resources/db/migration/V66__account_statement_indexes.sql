@@ -0,0 +1,21 @@
+-- =====================================================================
+-- V66: hisob ko'chirmasi indekslari (AccountStatementService)
+--
+-- Ko'chirma hisobga ta'sirni debet/kredit tomonlari orqali o'qiydi. V11 indekslari
+-- faqat (debit_account_id) / (credit_account_id) — davr boshiga seek qilib bo'lmaydi,
+-- hisobning BUTUN tarixi o'qilib sana bo'yicha filtrlanardi.
+--
+--   * (hisob, transaction_date, id) — davr qatorlari boshlanish sanasidan to'g'ridan
+--     o'qiladi (window funksiya tartibi bilan bir xil);
+--   * INCLUDE (amount) — davrdan oldingi qoldiq yig'indisi index-only scan;
+--   * partial predikat balans xulosasi/ko'chirma qoidasi bilan AYNAN bir xil
+--     (CONFIRMED, REVERSAL emas) — storno/bekor/PENDING qatorlar indeksga kirmaydi.
+-- =====================================================================
+
+CREATE INDEX IF NOT EXISTS idx_transactions_debit_statement
+    ON transactions (debit_account_id, transaction_date, id) INCLUDE (amount)
+    WHERE status = 'CONFIRMED' AND type <> 'REVERSAL';
+
+CREATE INDEX IF NOT EXISTS idx_transactions_credit_statement
+    ON transactions (credit_account_id, transaction_date, id) INCLUDE (amount)
+    WHERE status = 'CONFIRMED' AND type <> 'REVERSAL';
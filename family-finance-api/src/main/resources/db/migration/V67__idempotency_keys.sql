@@ -0,0 +1,29 @@
+-- =====================================================================
+-- V67: Idempotency-Key — yozish endpoint'lari javoblarini qayta o'ynatish (IdempotencyService)
+--
+-- Mobil ilova (Capacitor) beqaror tarmoqda tranzaksiya/qarz to'lovi/jamg'arma
+-- hissasi/do'kon xaridini qayta yuboradi — har urinish to'liq yozish yo'lidan o'tib
+-- ikki marta o'tkazilishi mumkin edi. Endi mijoz Idempotency-Key sarlavhasini
+-- yuboradi; birinchi muvaffaqiyatli javob shu yerda saqlanadi va takroriy kalit
+-- daftarga tegmasdan o'sha javobni qaytaradi.
+--
+--   * (user_id, idempotency_key) — kalit foydalanuvchi doirasida (boshqa foydalanuvchi
+--     kaliti bilan to'qnashmaydi va begona javob qaytmaydi);
+--   * status IN_PROGRESS — parallel takror so'rov 409 oladi (ikkinchi yozuv yo'q);
+--   * request_hash — bir kalit boshqa so'rov tanasi bilan ishlatilsa rad etiladi;
+--   * created_at indeksi — muddati o'tgan kalitlarni tozalash (FinanceScheduler).
+-- =====================================================================
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    user_id         BIGINT       NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    idempotency_key VARCHAR(100) NOT NULL,
+    request_hash    VARCHAR(64)  NOT NULL,
+    status          VARCHAR(20)  NOT NULL,
+    response_status INTEGER,
+    response_body   TEXT,
+    created_at      TIMESTAMP    NOT NULL DEFAULT NOW(),
+    completed_at    TIMESTAMP,
+    PRIMARY KEY (user_id, idempotency_key)
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_created_at ON idempotency_keys (created_at);
@@ -0,0 +1,18 @@
+-- =====================================================================
+-- V68: balans tarixi (BalanceHistoryService) uchun covering indeks
+--
+-- Ko'p yillik grafik hisob boshiga minglab kunlik snapshot o'qiydi. V11 indeksi
+-- (account_id, snapshot_date) qatorni topadi, lekin balance uchun har qatorda
+-- jadvalga (heap) qaytiladi.
+--
+--   * INCLUDE (balance) — davr o'qilishi bitta index-only range scan;
+--   * davr boshidan oldingi oxirgi qiymat (bo'shliqni to'ldirish) — shu indeksning
+--     teskari scan'i;
+--   * eski idx_balance_snapshots_account_date ortiqcha bo'lib qoladi (UNIQUE cheklovi
+--     o'z indeksi bilan qoladi).
+-- =====================================================================
+
+CREATE INDEX IF NOT EXISTS idx_balance_snapshots_account_date_cover
+    ON balance_snapshots (account_id, snapshot_date) INCLUDE (balance);
+
+DROP INDEX IF EXISTS idx_balance_snapshots_account_date;
@@ -0,0 +1,174 @@
+package uz.familyfinance.api.integration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Transactional;
+import uz.familyfinance.api.dto.response.AccountStatementResponse;
+import uz.familyfinance.api.entity.Account;
+import uz.familyfinance.api.entity.BalanceSnapshot;
+import uz.familyfinance.api.entity.Scope;
+import uz.familyfinance.api.entity.Transaction;
+import uz.familyfinance.api.entity.User;
+import uz.familyfinance.api.enums.AccountType;
+import uz.familyfinance.api.enums.ScopeType;
+import uz.familyfinance.api.enums.TransactionStatus;
+import uz.familyfinance.api.enums.TransactionType;
+import uz.familyfinance.api.repository.AccountRepository;
+import uz.familyfinance.api.repository.BalanceSnapshotRepository;
+import uz.familyfinance.api.repository.ScopeRepository;
+import uz.familyfinance.api.repository.TransactionRepository;
+import uz.familyfinance.api.repository.UserRepository;
+import uz.familyfinance.api.service.AccountService;
+import uz.familyfinance.api.service.AccountStatementService;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Hisob ko'chirmasi (real PG): boshlang'ich/joriy/yakuniy qoldiq window funksiya bilan,
+ * orqa sanali yozuv to'g'ri joyga tushadi, storno juftligi/PENDING/bekor qatorlar
+ * chiqariladi; yakun balans xulosasi formulasi (opening + debet − kredit) bilan mos.
+ * Eskirgan {@code balance_snapshots} qatori boshlang'ich qoldiqqa ta'sir qilmaydi.
+ *
+ * <p>Hisobga kirish huquqi bu test mavzusi emas — {@link AccountService} mock.
+ * @Transactional — har test oxirida rollback.</p>
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("Hisob ko'chirmasi (real PG): window funksiya qoldiqlari, V66 indekslar")
+class AccountStatementIntegrationTest extends AbstractPostgresIntegrationTest {
+
+    private static final LocalDate FROM = LocalDate.of(2025, 6, 10);
+    private static final LocalDate TO = LocalDate.of(2025, 6, 20);
+
+    @MockitoBean
+    private AccountService accountService;
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ScopeRepository scopeRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private BalanceSnapshotRepository snapshotRepository;
+    @Autowired
+    private AccountStatementService statementService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Scope scope;
+    private Account account;
+    private Account counterparty;
+
+    private Account account(String name, String openingBalance) {
+        return accountRepository.save(Account.builder()
+                .name(name).type(AccountType.CASH).currency("UZS").homeScope(scope)
+                .balance(new BigDecimal(openingBalance)).openingBalance(new BigDecimal(openingBalance)).build());
+    }
+
+    /** debit=true — pul hisobga kiradi (debet), aks holda chiqadi (kredit). */
+    private Transaction move(TransactionType type, String amount, boolean debit, LocalDateTime date,
+                             TransactionStatus status) {
+        return transactionRepository.save(Transaction.builder()
+                .type(type)
+                .amount(new BigDecimal(amount))
+                .account(account)
+                .scope(scope)
+                .debitAccount(debit ? account : counterparty)
+                .creditAccount(debit ? counterparty : account)
+                .transactionDate(date)
+                .status(status)
+                .isRecurring(false)
+                .build());
+    }
+
+    @Test
+    @DisplayName("qoldiqlar sana tartibida, orqa sanali yozuv, chiqariladigan qatorlar, eskirgan snapshot")
+    void computesRunningBalances() {
+        User admin = userRepository.findByUsername("admin").orElseThrow();
+        scope = scopeRepository.save(Scope.builder()
+                .type(ScopeType.HOUSEHOLD).name("Ko'chirma xonadon").ownerUser(admin).build());
+        account = account("Ko'chirma hisob", "1000.00");
+        counterparty = account("Ko'chirma qarshi hisob", "0.00");
+        when(accountService.findById(account.getId())).thenReturn(account);
+
+        move(TransactionType.INCOME, "500", true, LocalDateTime.of(2025, 6, 5, 9, 0), TransactionStatus.CONFIRMED);
+        Transaction expense = move(TransactionType.EXPENSE, "200", false,
+                LocalDateTime.of(2025, 6, 12, 9, 0), TransactionStatus.CONFIRMED);
+        Transaction transfer = move(TransactionType.TRANSFER, "100", false,
+                LocalDateTime.of(2025, 6, 15, 9, 0), TransactionStatus.CONFIRMED);
+        Transaction income = move(TransactionType.INCOME, "50", true,
+                LocalDateTime.of(2025, 6, 15, 9, 0), TransactionStatus.CONFIRMED);
+        // Storno juftligi, PENDING va davrdan keyingi qator — ko'chirmaga kirmaydi
+        move(TransactionType.EXPENSE, "999", false, LocalDateTime.of(2025, 6, 13, 9, 0), TransactionStatus.REVERSED);
+        move(TransactionType.REVERSAL, "999", true, LocalDateTime.of(2025, 6, 16, 9, 0), TransactionStatus.CONFIRMED);
+        move(TransactionType.EXPENSE, "777", false, LocalDateTime.of(2025, 6, 14, 9, 0), TransactionStatus.PENDING);
+        move(TransactionType.INCOME, "1", true, LocalDateTime.of(2025, 6, 21, 0, 0), TransactionStatus.CONFIRMED);
+        // Kunlik snapshot orqa sanali yozuvdan oldin olingan — boshlang'ich qoldiq undan olinmaydi
+        snapshotRepository.save(BalanceSnapshot.builder()
+                .account(account).snapshotDate(FROM.minusDays(1)).balance(new BigDecimal("1800.00")).build());
+        // Orqa sanali yozuv (eng katta id, lekin eng erta sana) — insert snapshot'lari endi eskirgan bo'lardi
+        Transaction backdated = move(TransactionType.EXPENSE, "300", false,
+                LocalDateTime.of(2025, 6, 11, 9, 0), TransactionStatus.CONFIRMED);
+        // Tugash kunining oxiri ham davrga kiradi
+        Transaction lastSecond = move(TransactionType.INCOME, "5", true,
+                LocalDateTime.of(2025, 6, 20, 23, 59, 59), TransactionStatus.CONFIRMED);
+        transactionRepository.flush();
+
+        AccountStatementResponse statement = statementService.getStatement(account.getId(), FROM, TO);
+
+        assertThat(statement.getOpeningBalance()).isEqualByComparingTo("1500");
+        assertThat(statement.getLines())
+                .extracting(AccountStatementResponse.Line::getTransactionId)
+                .containsExactly(backdated.getId(), expense.getId(), transfer.getId(), income.getId(),
+                        lastSecond.getId());
+        assertThat(statement.getLines())
+                .extracting(l -> l.getBalance().stripTrailingZeros().toPlainString())
+                .containsExactly("1200", "1000", "900", "950", "955");
+        assertThat(statement.getLines().get(2).getCounterpartyAccountName()).isEqualTo("Ko'chirma qarshi hisob");
+        assertThat(statement.getDebitTurnover()).isEqualByComparingTo("55");
+        assertThat(statement.getCreditTurnover()).isEqualByComparingTo("600");
+        assertThat(statement.getClosingBalance()).isEqualByComparingTo("955");
+
+        // Balans xulosasi formulasi bilan mos (AccountService.getBalanceSummary)
+        LocalDateTime toInclusive = TO.atTime(23, 59, 59);
+        BigDecimal summaryClosing = account.getOpeningBalance()
+                .add(transactionRepository.sumDebitTurnover(account.getId(), null, toInclusive))
+                .subtract(transactionRepository.sumCreditTurnover(account.getId(), null, toInclusive));
+        assertThat(statement.getClosingBalance()).isEqualByComparingTo(summaryClosing);
+
+        // Bo'sh davr — yakun = boshlang'ich
+        AccountStatementResponse empty = statementService.getStatement(account.getId(),
+                LocalDate.of(2025, 7, 1), LocalDate.of(2025, 7, 31));
+        assertThat(empty.getLines()).isEmpty();
+        assertThat(empty.getClosingBalance()).isEqualByComparingTo("956");
+    }
+
+    @Test
+    @DisplayName("davr qatorlari V66 (hisob, sana) indeksidan seek qilinadi")
+    void statementUsesSeekIndexes() {
+        jdbcTemplate.execute("ANALYZE transactions");
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+
+        String plan = String.join("\n", jdbcTemplate.queryForList(
+                "EXPLAIN SELECT t.id, t.amount FROM transactions t WHERE t.debit_account_id = 1"
+                        + " AND t.status = 'CONFIRMED' AND t.type <> 'REVERSAL'"
+                        + " AND t.transaction_date >= '2025-06-10' AND t.transaction_date < '2025-06-21'",
+                String.class));
+
+        assertThat(plan).contains("idx_transactions_debit_statement");
+    }
+}
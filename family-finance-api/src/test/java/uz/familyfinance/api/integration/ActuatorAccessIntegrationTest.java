@@ -0,0 +1,92 @@
+package uz.familyfinance.api.integration;
+
+import jakarta.servlet.Filter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import uz.familyfinance.api.dto.request.LoginRequest;
+import uz.familyfinance.api.repository.SessionRepository;
+import uz.familyfinance.api.security.PrincipalCache;
+import uz.familyfinance.api.service.AuthService;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Actuator kirish qoidalari (real PG, haqiqiy SecurityFilterChain): health ochiq, metrics
+ * faqat SUPER_ADMIN — oddiy autentifikatsiyalangan foydalanuvchi 403 oladi.
+ *
+ * <p>Seed admin (V4) super admin emas (V51); super admin holati test ichida JDBC bilan
+ * yoqiladi va oxirida qaytariladi (principal keshi ikkala holatda tozalanadi).</p>
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Actuator (real PG): health ochiq, metrics faqat SUPER_ADMIN")
+class ActuatorAccessIntegrationTest extends AbstractPostgresIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext context;
+    @Autowired
+    @Qualifier("springSecurityFilterChain")
+    private Filter springSecurityFilterChain;
+    @Autowired
+    private AuthService authService;
+    @Autowired
+    private SessionRepository sessionRepository;
+    @Autowired
+    private PrincipalCache principalCache;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        sessionRepository.deleteAll();
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).addFilters(springSecurityFilterChain).build();
+    }
+
+    @AfterEach
+    void restoreAdmin() {
+        jdbcTemplate.update("UPDATE users SET is_super_admin = false WHERE username = 'admin'");
+        principalCache.evictAll();
+    }
+
+    private String adminBearer() {
+        LoginRequest login = new LoginRequest();
+        login.setUsername("admin");
+        login.setPassword("admin123");
+        return "Bearer " + authService.login(login, "127.0.0.1", "JUnit-integration-test").getAccessToken();
+    }
+
+    @Test
+    @DisplayName("health — autentifikatsiyasiz ochiq")
+    void healthIsPublic() throws Exception {
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("metrics — anonim 401, oddiy foydalanuvchi 403, SUPER_ADMIN 200")
+    void metricsRequireSuperAdmin() throws Exception {
+        mockMvc.perform(get("/actuator/metrics")).andExpect(status().isUnauthorized());
+
+        String bearer = adminBearer();
+        mockMvc.perform(get("/actuator/metrics").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isForbidden());
+
+        jdbcTemplate.update("UPDATE users SET is_super_admin = true WHERE username = 'admin'");
+        principalCache.evictAll();
+        mockMvc.perform(get("/actuator/metrics").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,142 @@
+package uz.familyfinance.api.integration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Transactional;
+import uz.familyfinance.api.dto.request.TransactionRequest;
+import uz.familyfinance.api.dto.request.TransactionSplitItem;
+import uz.familyfinance.api.dto.response.DashboardStatsResponse;
+import uz.familyfinance.api.entity.Account;
+import uz.familyfinance.api.entity.Budget;
+import uz.familyfinance.api.entity.Category;
+import uz.familyfinance.api.entity.Scope;
+import uz.familyfinance.api.entity.User;
+import uz.familyfinance.api.enums.AccountType;
+import uz.familyfinance.api.enums.BudgetPeriod;
+import uz.familyfinance.api.enums.CategoryType;
+import uz.familyfinance.api.enums.ScopeType;
+import uz.familyfinance.api.enums.TransactionType;
+import uz.familyfinance.api.repository.AccountRepository;
+import uz.familyfinance.api.repository.BudgetRepository;
+import uz.familyfinance.api.repository.CategoryRepository;
+import uz.familyfinance.api.repository.ScopeRepository;
+import uz.familyfinance.api.repository.UserRepository;
+import uz.familyfinance.api.service.AccountService;
+import uz.familyfinance.api.service.BudgetService;
+import uz.familyfinance.api.service.DashboardService;
+import uz.familyfinance.api.service.TransactionService;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Byudjet sarfi bitta so'rovda (real PG): har byudjet O'Z davri bo'yicha, split'li xarajat
+ * faqat ulushlari bo'yicha, storno chiqariladi; dashboard progress'i ro'yxat bilan bir xil
+ * (test tranzaksiyasi ichida dashboard so'rovlari ketma-ket — commit qilinmagan qatorlar ko'rinadi).
+ *
+ * <p>Hisobga yozish huquqi bu test mavzusi emas — {@link AccountService} mock.
+ * @Transactional — har test oxirida rollback.</p>
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("Byudjet sarfi (real PG): bitta so'rov, o'z davri, split ulushlari")
+class BudgetSpendingIntegrationTest extends AbstractPostgresIntegrationTest {
+
+    @MockitoBean
+    private AccountService accountService;
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ScopeRepository scopeRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private BudgetRepository budgetRepository;
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private BudgetService budgetService;
+    @Autowired
+    private DashboardService dashboardService;
+
+    private Account account;
+
+    private Long expense(String amount, Category category, LocalDateTime date, Category... splitCategories) {
+        TransactionRequest r = new TransactionRequest();
+        r.setType(TransactionType.EXPENSE);
+        r.setAmount(new BigDecimal(amount));
+        r.setAccountId(account.getId());
+        r.setCategoryId(category != null ? category.getId() : null);
+        r.setTransactionDate(date);
+        if (splitCategories.length > 0) {
+            BigDecimal share = new BigDecimal(amount).divide(BigDecimal.valueOf(splitCategories.length));
+            r.setSplits(Arrays.stream(splitCategories).map(c -> {
+                TransactionSplitItem item = new TransactionSplitItem();
+                item.setCategoryId(c.getId());
+                item.setAmount(share);
+                return item;
+            }).toList());
+        }
+        return transactionService.createSystem(r).getId();
+    }
+
+    @Test
+    @DisplayName("har byudjet o'z davri bo'yicha; split ulushi bir marta; storno chiqariladi")
+    void spentPerBudgetWindow() {
+        User admin = userRepository.findByUsername("admin").orElseThrow();
+        Scope scope = scopeRepository.save(Scope.builder()
+                .type(ScopeType.HOUSEHOLD).name("Byudjet xonadon").ownerUser(admin).build());
+        account = accountRepository.save(Account.builder()
+                .name("Byudjet hisob").type(AccountType.CASH).currency("UZS")
+                .homeScope(scope).balance(new BigDecimal("100000.00")).build());
+        Category food = categoryRepository.save(Category.builder().name("Byudjet oziq").type(CategoryType.EXPENSE).build());
+        Category fun = categoryRepository.save(Category.builder().name("Byudjet hordiq").type(CategoryType.EXPENSE).build());
+
+        LocalDate today = LocalDate.now();
+        LocalDate monthStart = today.withDayOfMonth(1);
+        Budget monthly = budgetRepository.save(Budget.builder().category(food).scope(scope)
+                .amount(new BigDecimal("1000")).period(BudgetPeriod.MONTHLY)
+                .startDate(monthStart).endDate(monthStart.plusMonths(1).minusDays(1)).build());
+        Budget yearly = budgetRepository.save(Budget.builder().category(fun).scope(scope)
+                .amount(new BigDecimal("5000")).period(BudgetPeriod.YEARLY)
+                .startDate(monthStart.minusMonths(11)).endDate(monthStart.plusMonths(1).minusDays(1)).build());
+
+        expense("100.00", food, monthStart.atTime(0, 0));
+        // Oxirgi kun 23:59:59 ham davrga kiradi
+        expense("50.00", food, monthStart.plusMonths(1).minusDays(1).atTime(23, 59, 59));
+        // Oylik davrdan oldin — oziq byudjetiga kirmaydi
+        expense("70.00", food, monthStart.minusDays(1).atTime(12, 0));
+        transactionService.reverse(expense("500.00", food, today.atTime(8, 0)), "xato");
+        expense("30.00", fun, monthStart.minusMonths(3).atTime(12, 0));
+        // Split: sarlavha kategoriyasi oziq, ulushlar oziq + hordiq — oziqqa faqat ulush (40) tushadi
+        expense("80.00", food, today.atTime(9, 0), food, fun);
+
+        Map<Long, BigDecimal> spent = budgetService.spentByBudgetId(List.of(monthly, yearly));
+
+        assertThat(spent.get(monthly.getId())).isEqualByComparingTo("190.00");
+        assertThat(spent.get(yearly.getId())).isEqualByComparingTo("70.00");
+
+        DashboardStatsResponse stats = dashboardService.computeStats(scope.getId());
+        assertThat(stats.getBudgetProgress())
+                .extracting(DashboardStatsResponse.BudgetProgress::getCategoryName,
+                        p -> p.getSpentAmount().stripTrailingZeros().toPlainString())
+                .containsExactlyInAnyOrder(
+                        tuple("Byudjet oziq", "190"),
+                        tuple("Byudjet hordiq", "70"));
+    }
+}
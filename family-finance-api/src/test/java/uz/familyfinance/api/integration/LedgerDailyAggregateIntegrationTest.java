@@ -0,0 +1,164 @@
+package uz.familyfinance.api.integration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Transactional;
+import uz.familyfinance.api.dto.request.TransactionRequest;
+import uz.familyfinance.api.dto.request.TransactionSplitItem;
+import uz.familyfinance.api.entity.Account;
+import uz.familyfinance.api.entity.Category;
+import uz.familyfinance.api.entity.Scope;
+import uz.familyfinance.api.entity.User;
+import uz.familyfinance.api.enums.AccountType;
+import uz.familyfinance.api.enums.CategoryType;
+import uz.familyfinance.api.enums.ScopeType;
+import uz.familyfinance.api.enums.TransactionType;
+import uz.familyfinance.api.repository.AccountRepository;
+import uz.familyfinance.api.repository.CategoryRepository;
+import uz.familyfinance.api.repository.LedgerDailyAggregateRepository;
+import uz.familyfinance.api.repository.ScopeRepository;
+import uz.familyfinance.api.repository.TransactionRepository;
+import uz.familyfinance.api.repository.UserRepository;
+import uz.familyfinance.api.service.AccountService;
+import uz.familyfinance.api.service.LedgerAggregateService;
+import uz.familyfinance.api.service.TransactionService;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * V63 kunlik agregat proyeksiyasi (real PG): create/update/cancel/reverse oqimlari
+ * yozgan inkremental qatorlar xom daftar (transactions) so'rovlari bilan va
+ * {@link LedgerAggregateService#rebuild()} natijasi bilan AYNAN mos kelishi shart.
+ *
+ * <p>Hisobga yozish huquqi bu test mavzusi emas — {@link AccountService} mock.
+ * @Transactional — har test oxirida rollback (rebuild lock'i ham).</p>
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("Kunlik agregatlar (real PG): inkremental proyeksiya = xom daftar = rebuild (V63)")
+class LedgerDailyAggregateIntegrationTest extends AbstractPostgresIntegrationTest {
+
+    private static final String SNAPSHOT_SQL = "SELECT scope_id, ledger_date, type, category_id, currency, "
+            + "member_id, amount, entry_count, tx_count FROM ledger_daily_aggregates "
+            + "WHERE scope_id = ? AND entry_count > 0 "
+            + "ORDER BY ledger_date, type, category_id NULLS FIRST, currency, member_id NULLS FIRST";
+
+    @MockitoBean
+    private AccountService accountService;
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ScopeRepository scopeRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private LedgerDailyAggregateRepository aggregateRepository;
+    @Autowired
+    private LedgerAggregateService ledgerAggregateService;
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Category category(String name) {
+        return categoryRepository.save(Category.builder().name(name).type(CategoryType.EXPENSE).build());
+    }
+
+    private TransactionRequest expense(Account account, String amount, Category category, LocalDateTime date) {
+        TransactionRequest r = new TransactionRequest();
+        r.setType(TransactionType.EXPENSE);
+        r.setAmount(new BigDecimal(amount));
+        r.setAccountId(account.getId());
+        r.setCategoryId(category != null ? category.getId() : null);
+        r.setTransactionDate(date);
+        return r;
+    }
+
+    private TransactionSplitItem split(Category category, String amount) {
+        TransactionSplitItem item = new TransactionSplitItem();
+        item.setCategoryId(category.getId());
+        item.setAmount(new BigDecimal(amount));
+        return item;
+    }
+
+    private List<Map<String, Object>> snapshot(Long scopeId) {
+        return jdbcTemplate.queryForList(SNAPSHOT_SQL, scopeId);
+    }
+
+    @Test
+    @DisplayName("create/split/update/cancel/reverse'dan keyin agregat = xom SUM va rebuild bilan bir xil")
+    void incrementalProjectionMatchesLedgerAndRebuild() {
+        User admin = userRepository.findByUsername("admin").orElseThrow();
+        Scope scope = scopeRepository.save(Scope.builder()
+                .type(ScopeType.HOUSEHOLD).name("Agregat xonadon").ownerUser(admin).build());
+        Account account = accountRepository.save(Account.builder()
+                .name("Agregat hisob").type(AccountType.CASH).currency("UZS")
+                .homeScope(scope).balance(new BigDecimal("100000.00")).build());
+        Category food = category("Agregat oziq-ovqat");
+        Category transport = category("Agregat transport");
+
+        LocalDateTime today = LocalDate.now().atTime(10, 0);
+        LocalDateTime yesterday = today.minusDays(1);
+
+        transactionService.createSystem(expense(account, "100.00", food, today));
+        TransactionRequest withSplits = expense(account, "90.00", null, today);
+        withSplits.setSplits(List.of(split(food, "60.00"), split(transport, "30.00")));
+        transactionService.createSystem(withSplits);
+        Long moved = transactionService.createSystem(expense(account, "40.00", food, today)).getId();
+        Long cancelled = transactionService.createSystem(expense(account, "25.00", transport, today)).getId();
+        Long reversed = transactionService.createSystem(expense(account, "15.00", food, yesterday)).getId();
+
+        // Kun va kategoriya ko'chadi: eski kalitdan ayiriladi, yangisiga qo'shiladi
+        transactionService.update(moved, expense(account, "45.00", transport, yesterday));
+        transactionService.cancel(cancelled, "xato kiritilgan");
+        transactionService.reverse(reversed, "storno");
+
+        LocalDate from = yesterday.toLocalDate();
+        LocalDate to = today.toLocalDate();
+
+        // Xom daftar (storno filtrlari bilan) — oracle
+        assertThat(aggregateRepository.sumByType(TransactionType.EXPENSE, from, to, scope.getId()))
+                .isEqualByComparingTo(transactionRepository.sumByTypeAndDateRangeAndScope(
+                        TransactionType.EXPENSE, from.atStartOfDay(), to.atTime(23, 59, 59), scope.getId()))
+                .isEqualByComparingTo("235.00");
+
+        // Split ulushlari o'z kategoriyasida: oziq-ovqat 100 + 60, transport 30 + 45
+        Map<Object, Object> byCategory = new HashMap<>();
+        aggregateRepository.sumByTypeGroupedByCategory(TransactionType.EXPENSE, from, to, scope.getId())
+                .forEach(row -> byCategory.put(row[0], row[1]));
+        assertThat((BigDecimal) byCategory.get(food.getId())).isEqualByComparingTo("160.00");
+        assertThat((BigDecimal) byCategory.get(transport.getId())).isEqualByComparingTo("75.00");
+
+        // Kunlik jurnal: split'li tranzaksiya bir marta sanaladi
+        List<Object[]> daily = aggregateRepository.sumExpenseGroupedByDayAndCurrency(scope.getId(), from, to);
+        assertThat(daily).hasSize(2);
+        assertThat(daily.get(0)[0]).isEqualTo(to);
+        assertThat((BigDecimal) daily.get(0)[2]).isEqualByComparingTo("190.00");
+        assertThat(((Number) daily.get(0)[3]).longValue()).isEqualTo(2L);
+        assertThat((BigDecimal) daily.get(1)[2]).isEqualByComparingTo("45.00");
+        assertThat(((Number) daily.get(1)[3]).longValue()).isEqualTo(1L);
+
+        // Inkremental yozuvlar daftardan qayta qurilgan proyeksiya bilan aynan bir xil
+        List<Map<String, Object>> incremental = snapshot(scope.getId());
+        ledgerAggregateService.rebuild();
+        assertThat(snapshot(scope.getId())).isEqualTo(incremental);
+    }
+}
@@ -0,0 +1,85 @@
+package uz.familyfinance.api.integration;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import uz.familyfinance.api.enums.PermissionCode;
+import uz.familyfinance.api.repository.UserRepository;
+import uz.familyfinance.api.service.PermissionService;
+import uz.familyfinance.api.service.UserService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Permission keshi (real PG, haqiqiy CacheManager): ikkinchi {@code @RequiresPermission}
+ * tekshiruvi bitta ham SQL bajarmaydi; {@code clearUserPermissionsCache(userId)} yozuvni
+ * haqiqatan tozalaydi (keyingi tekshiruv yana bazaga boradi). Rol kodlari ham keshda.
+ *
+ * <p>Hibernate statistikasi faqat shu kontekst uchun yoqiladi.</p>
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@DisplayName("Permission keshi (real PG): ikkinchi tekshiruv SQL'siz, userId bo'yicha tozalash")
+class PermissionCacheIntegrationTest extends AbstractPostgresIntegrationTest {
+
+    @Autowired
+    private PermissionService permissionService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private long statementsFor(Runnable action) {
+        statistics().clear();
+        action.run();
+        return statistics().getPrepareStatementCount();
+    }
+
+    @Test
+    @DisplayName("birinchi tekshiruv bazadan, ikkinchisi SQL'siz; tozalashdan keyin yana bazadan")
+    void secondCheckIssuesNoSql() {
+        Long adminId = userRepository.findByUsername("admin").orElseThrow().getId();
+        permissionService.clearUserPermissionsCache(adminId);
+
+        long first = statementsFor(() -> permissionService.hasAnyPermission(adminId, PermissionCode.TRANSACTIONS_VIEW));
+        long second = statementsFor(() -> {
+            permissionService.hasAnyPermission(adminId, PermissionCode.TRANSACTIONS_VIEW);
+            permissionService.hasAllPermissions(adminId, PermissionCode.TRANSACTIONS_VIEW);
+            permissionService.hasPermission(adminId, PermissionCode.TRANSACTIONS_VIEW);
+        });
+
+        permissionService.clearUserPermissionsCache(adminId);
+        long afterEviction = statementsFor(() -> permissionService.hasPermission(adminId, PermissionCode.TRANSACTIONS_VIEW));
+
+        assertThat(first).isPositive();
+        assertThat(second).isZero();
+        assertThat(afterEviction).isPositive();
+    }
+
+    @Test
+    @DisplayName("rol kodlari ham keshdan; permission bilan birga tozalanadi")
+    void userRolesAreCached() {
+        Long adminId = userRepository.findByUsername("admin").orElseThrow().getId();
+        permissionService.clearUserPermissionsCache(adminId);
+
+        long first = statementsFor(() -> userService.getUserRoles(adminId));
+        long second = statementsFor(() -> userService.getUserRoles(adminId));
+        permissionService.clearUserPermissionsCache(adminId);
+        long afterEviction = statementsFor(() -> userService.getUserRoles(adminId));
+
+        assertThat(first).isPositive();
+        assertThat(second).isZero();
+        assertThat(afterEviction).isPositive();
+    }
+}
@@ -0,0 +1,287 @@
+package uz.familyfinance.api.integration;
+
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Transactional;
+import uz.familyfinance.api.dto.request.ReportQueryRequest;
+import uz.familyfinance.api.dto.request.TransactionRequest;
+import uz.familyfinance.api.dto.request.TransactionSplitItem;
+import uz.familyfinance.api.dto.response.ReportResultResponse;
+import uz.familyfinance.api.entity.Account;
+import uz.familyfinance.api.entity.Category;
+import uz.familyfinance.api.entity.FamilyMember;
+import uz.familyfinance.api.entity.Scope;
+import uz.familyfinance.api.entity.Tag;
+import uz.familyfinance.api.entity.User;
+import uz.familyfinance.api.enums.AccountType;
+import uz.familyfinance.api.enums.CategoryType;
+import uz.familyfinance.api.enums.FamilyRole;
+import uz.familyfinance.api.enums.ReportDimension;
+import uz.familyfinance.api.enums.ReportMeasure;
+import uz.familyfinance.api.enums.ScopeType;
+import uz.familyfinance.api.enums.TransactionType;
+import uz.familyfinance.api.repository.AccountRepository;
+import uz.familyfinance.api.repository.CategoryRepository;
+import uz.familyfinance.api.repository.FamilyMemberRepository;
+import uz.familyfinance.api.repository.ScopeRepository;
+import uz.familyfinance.api.repository.TagRepository;
+import uz.familyfinance.api.repository.UserRepository;
+import uz.familyfinance.api.security.CustomUserDetails;
+import uz.familyfinance.api.service.AccountService;
+import uz.familyfinance.api.service.ReportEngine;
+import uz.familyfinance.api.service.TransactionService;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Hisobot mexanizmi haqiqiy PG'da: ROLLUP/GROUPING SETS oraliq va umumiy jamilari, ko'p tegli
+ * yozuv teg jamlangan darajada bir marta, split ulushlari o'z kategoriyasida, storno va boshqa
+ * scope chiqariladi; agregat manbai daftar manbai bilan bir xil jami beradi. COUNT —
+ * tranzaksiyalar soni: split'li tranzaksiya har darajada bir marta.
+ *
+ * <p>Ma'lumot (joriy oy, EXPENSE):</p>
+ * <ul>
+ *   <li>oziq 100 — teglar {a, b}; oziq 50 — teg {a}; transport 30 — tegsiz;</li>
+ *   <li>split 40 = oziq 25 + transport 15 — teg {b};</li>
+ *   <li>oziq 70 — stornolangan; boshqa scope'da oziq 500.</li>
+ * </ul>
+ *
+ * <p>Hisobga yozish huquqi bu test mavzusi emas — {@link AccountService} mock.
+ * @Transactional — har test oxirida rollback.</p>
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("Hisobot mexanizmi (real PG): ROLLUP jamilari, teg dedup, split, storno, scope")
+class ReportEngineIntegrationTest extends AbstractPostgresIntegrationTest {
+
+    /** Ikki o'lchovli GROUPING bitmaskasi (masalan kategoriya, teg). */
+    private static final int DETAIL = 0;
+    private static final int SUBTOTAL = 1;
+    private static final int GRAND_TOTAL = 3;
+
+    @MockitoBean
+    private AccountService accountService;
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ScopeRepository scopeRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private TagRepository tagRepository;
+    @Autowired
+    private FamilyMemberRepository familyMemberRepository;
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private ReportEngine reportEngine;
+
+    private LocalDate monthStart;
+    private Account account;
+    private Category food;
+    private Category transport;
+    private Tag tagA;
+    private Tag tagB;
+
+    @BeforeEach
+    void setUp() {
+        User admin = userRepository.findByUsername("admin").orElseThrow();
+        Scope scope = scopeRepository.save(Scope.builder()
+                .type(ScopeType.HOUSEHOLD).name("Hisobot xonadon").ownerUser(admin).build());
+        Scope otherScope = scopeRepository.save(Scope.builder()
+                .type(ScopeType.HOUSEHOLD).name("Hisobot boshqa xonadon").ownerUser(admin).build());
+        account = account(scope, "Hisobot hisob");
+        Account otherAccount = account(otherScope, "Hisobot boshqa hisob");
+        food = categoryRepository.save(Category.builder().name("Hisobot oziq").type(CategoryType.EXPENSE).build());
+        transport = categoryRepository.save(Category.builder().name("Hisobot transport").type(CategoryType.EXPENSE).build());
+        tagA = tagRepository.save(Tag.builder().name("hisobot-a").build());
+        tagB = tagRepository.save(Tag.builder().name("hisobot-b").build());
+
+        monthStart = LocalDate.now().withDayOfMonth(1);
+        LocalDateTime date = monthStart.atStartOfDay();
+
+        transactionService.createSystem(expense(account, "100.00", food, date, Set.of(tagA.getId(), tagB.getId())));
+        transactionService.createSystem(expense(account, "50.00", food, date, Set.of(tagA.getId())));
+        transactionService.createSystem(expense(account, "30.00", transport, date, null));
+        TransactionRequest split = expense(account, "40.00", null, date, Set.of(tagB.getId()));
+        split.setSplits(List.of(split(food, "25.00"), split(transport, "15.00")));
+        transactionService.createSystem(split);
+        Long reversed = transactionService.createSystem(expense(account, "70.00", food, date, Set.of(tagA.getId()))).getId();
+        transactionService.reverse(reversed, "storno");
+        transactionService.createSystem(expense(otherAccount, "500.00", food, date, Set.of(tagA.getId())));
+
+        // Oddiy foydalanuvchi (SUPER_ADMIN emas) — hisobot aktiv scope bilan cheklanadi
+        CustomUserDetails principal = new CustomUserDetails(admin);
+        principal.setActiveScopeId(scope.getId());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private Account account(Scope scope, String name) {
+        return accountRepository.save(Account.builder()
+                .name(name).type(AccountType.CASH).currency("UZS")
+                .homeScope(scope).balance(new BigDecimal("10000.00")).build());
+    }
+
+    private static TransactionRequest expense(Account account, String amount, Category category,
+                                              LocalDateTime date, Set<Long> tagIds) {
+        TransactionRequest r = new TransactionRequest();
+        r.setType(TransactionType.EXPENSE);
+        r.setAmount(new BigDecimal(amount));
+        r.setAccountId(account.getId());
+        r.setCategoryId(category != null ? category.getId() : null);
+        r.setTransactionDate(date);
+        r.setTagIds(tagIds);
+        return r;
+    }
+
+    private static TransactionSplitItem split(Category category, String amount) {
+        TransactionSplitItem item = new TransactionSplitItem();
+        item.setCategoryId(category.getId());
+        item.setAmount(new BigDecimal(amount));
+        return item;
+    }
+
+    private ReportQueryRequest request(boolean subtotals, ReportDimension... dimensions) {
+        return ReportQueryRequest.builder()
+                .from(monthStart)
+                .to(LocalDate.now())
+                .dimensions(List.of(dimensions))
+                .measures(List.of(ReportMeasure.SUM, ReportMeasure.COUNT))
+                .types(Set.of(TransactionType.EXPENSE))
+                .subtotals(subtotals)
+                .build();
+    }
+
+    /** Ustunli natija → qatorlar: (o'lchovlar..., level, sum, count). */
+    private static List<Tuple> rows(ReportResultResponse result, int dimensionCount) {
+        List<Tuple> rows = new ArrayList<>();
+        for (int r = 0; r < result.getRowCount(); r++) {
+            List<Object> row = new ArrayList<>();
+            for (int d = 0; d < dimensionCount; d++) {
+                row.add(result.getValues().get(d).get(r));
+            }
+            row.add(result.getLevels().get(r));
+            row.add(((BigDecimal) result.getValues().get(dimensionCount).get(r)).setScale(2, RoundingMode.UNNECESSARY));
+            row.add(result.getValues().get(dimensionCount + 1).get(r));
+            rows.add(new Tuple(row.toArray()));
+        }
+        return rows;
+    }
+
+    private static BigDecimal money(String value) {
+        return new BigDecimal(value);
+    }
+
+    @Test
+    @DisplayName("kategoriya × teg ROLLUP — teg jamlanganda ko'p tegli yozuv bir marta, umumiy jami = daftar")
+    void rollupByCategoryAndTagCountsMultiTagEntryOnce() {
+        ReportResultResponse result = reportEngine.run(request(true, ReportDimension.CATEGORY, ReportDimension.TAG));
+
+        assertThat(result.getSource()).isEqualTo("ledger");
+        assertThat(result.getColumns()).containsExactly("category", "tag", "sum", "count");
+        assertThat(rows(result, 2)).containsExactlyInAnyOrder(
+                tuple(food.getId(), tagA.getId(), DETAIL, money("150.00"), 2L),
+                tuple(food.getId(), tagB.getId(), DETAIL, money("125.00"), 2L),
+                tuple(transport.getId(), tagB.getId(), DETAIL, money("15.00"), 1L),
+                tuple(transport.getId(), null, DETAIL, money("30.00"), 1L),
+                // 100 ({a, b}) faqat bir marta: 100 + 50 + 25
+                tuple(food.getId(), null, SUBTOTAL, money("175.00"), 3L),
+                tuple(transport.getId(), null, SUBTOTAL, money("45.00"), 2L),
+                // storno (70) va boshqa scope (500) kirmaydi; split (40) — bitta tranzaksiya
+                tuple(null, null, GRAND_TOTAL, money("220.00"), 4L));
+        assertThat(result.getLabels().get("category"))
+                .containsEntry(food.getId(), "Hisobot oziq")
+                .containsEntry(transport.getId(), "Hisobot transport");
+        assertThat(result.getLabels().get("tag"))
+                .containsEntry(tagA.getId(), "hisobot-a")
+                .containsEntry(tagB.getId(), "hisobot-b");
+    }
+
+    @Test
+    @DisplayName("subtotals=false (GROUPING SETS) — faqat batafsil qatorlar va teg dedup'li umumiy jami")
+    void groupingSetsReturnDetailAndGrandTotalOnly() {
+        ReportResultResponse result = reportEngine.run(request(false, ReportDimension.CATEGORY, ReportDimension.TAG));
+
+        assertThat(result.getLevels()).containsOnly(DETAIL, GRAND_TOTAL);
+        assertThat(rows(result, 2)).containsExactlyInAnyOrder(
+                tuple(food.getId(), tagA.getId(), DETAIL, money("150.00"), 2L),
+                tuple(food.getId(), tagB.getId(), DETAIL, money("125.00"), 2L),
+                tuple(transport.getId(), tagB.getId(), DETAIL, money("15.00"), 1L),
+                tuple(transport.getId(), null, DETAIL, money("30.00"), 1L),
+                tuple(null, null, GRAND_TOTAL, money("220.00"), 4L));
+    }
+
+    @Test
+    @DisplayName("teg/hisobsiz so'rov agregatlardan — jamilar daftar manbai bilan bir xil")
+    void aggregateSourceMatchesLedgerTotals() {
+        ReportResultResponse result = reportEngine.run(request(true, ReportDimension.MONTH, ReportDimension.CATEGORY));
+
+        assertThat(result.getSource()).isEqualTo("aggregates");
+        // tx_count: split tranzaksiya eng kichik kategoriyali ulushida (oziq) sanaladi
+        assertThat(rows(result, 2)).containsExactlyInAnyOrder(
+                tuple(monthStart, food.getId(), DETAIL, money("175.00"), 3L),
+                tuple(monthStart, transport.getId(), DETAIL, money("45.00"), 1L),
+                tuple(monthStart, null, SUBTOTAL, money("220.00"), 4L),
+                tuple(null, null, GRAND_TOTAL, money("220.00"), 4L));
+    }
+
+    @Test
+    @DisplayName("3 ulushli split — hisob × a'zo (daftar) va a'zo (agregat) bo'yicha bitta tranzaksiya")
+    void splitTransactionCountsOnceByAccountAndMember() {
+        FamilyMember member = familyMemberRepository.save(FamilyMember.builder()
+                .firstName("Hisobot a'zo").role(FamilyRole.OTHER).build());
+        Category home = categoryRepository.save(Category.builder()
+                .name("Hisobot uy").type(CategoryType.EXPENSE).build());
+        TransactionRequest split = expense(account, "60.00", null, monthStart.atStartOfDay(), null);
+        split.setFamilyMemberId(member.getId());
+        split.setSplits(List.of(split(food, "20.00"), split(transport, "25.00"), split(home, "15.00")));
+        transactionService.createSystem(split);
+
+        ReportResultResponse byAccount = reportEngine.run(
+                request(true, ReportDimension.ACCOUNT, ReportDimension.MEMBER));
+
+        assertThat(byAccount.getSource()).isEqualTo("ledger");
+        assertThat(rows(byAccount, 2)).containsExactlyInAnyOrder(
+                tuple(account.getId(), member.getId(), DETAIL, money("60.00"), 1L),
+                tuple(account.getId(), null, DETAIL, money("220.00"), 4L),
+                tuple(account.getId(), null, SUBTOTAL, money("280.00"), 5L),
+                tuple(null, null, GRAND_TOTAL, money("280.00"), 5L));
+
+        ReportResultResponse byMember = reportEngine.run(request(true, ReportDimension.MEMBER));
+
+        assertThat(byMember.getSource()).isEqualTo("aggregates");
+        assertThat(rows(byMember, 1)).containsExactlyInAnyOrder(
+                tuple(member.getId(), DETAIL, money("60.00"), 1L),
+                tuple(null, DETAIL, money("220.00"), 4L),
+                // Bitta o'lchov — umumiy jami GROUPING(a'zo) = 1
+                tuple(null, 1, money("280.00"), 5L));
+    }
+}
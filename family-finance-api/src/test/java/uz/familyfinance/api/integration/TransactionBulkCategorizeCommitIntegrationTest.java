@@ -0,0 +1,101 @@
+package uz.familyfinance.api.integration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import uz.familyfinance.api.dto.request.BulkCategorizeRequest;
+import uz.familyfinance.api.dto.request.TransactionRequest;
+import uz.familyfinance.api.dto.response.BulkOperationResponse;
+import uz.familyfinance.api.entity.Account;
+import uz.familyfinance.api.entity.Category;
+import uz.familyfinance.api.entity.Scope;
+import uz.familyfinance.api.entity.User;
+import uz.familyfinance.api.enums.AccountType;
+import uz.familyfinance.api.enums.CategoryType;
+import uz.familyfinance.api.enums.ScopeType;
+import uz.familyfinance.api.enums.TransactionType;
+import uz.familyfinance.api.repository.AccountRepository;
+import uz.familyfinance.api.repository.CategoryRepository;
+import uz.familyfinance.api.repository.ScopeRepository;
+import uz.familyfinance.api.repository.UserRepository;
+import uz.familyfinance.api.service.AccountService;
+import uz.familyfinance.api.service.TransactionService;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bulk kategoriyalash haqiqiy tranzaksiya chegarasida (real PG): EXPENSE'ning debet hisobi
+ * tranzit hisob, u UPDATE ({@code clearAutomatically}) dan keyin detached bo'lib qolsa
+ * ta'sirlangan scope'larni aniqlash LazyInitializationException berardi.
+ *
+ * <p>@Transactional YO'Q — test tranzaksiyasi session'ni ochiq ushlab, xatoni yashirardi.
+ * Hisobga yozish huquqi bu test mavzusi emas — {@link AccountService} mock.</p>
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Bulk kategoriyalash (real PG, commit bilan): EXPENSE tranzit hisobi bilan")
+class TransactionBulkCategorizeCommitIntegrationTest extends AbstractPostgresIntegrationTest {
+
+    @MockitoBean
+    private AccountService accountService;
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ScopeRepository scopeRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("EXPENSE — kategoriya o'rnatiladi, agregat yangi kategoriyaga ko'chadi")
+    void bulkCategorizeExpenseOutsideTestTransaction() {
+        User admin = userRepository.findByUsername("admin").orElseThrow();
+        Scope scope = scopeRepository.save(Scope.builder()
+                .type(ScopeType.HOUSEHOLD).name("Bulk commit xonadon").ownerUser(admin).build());
+        Account account = accountRepository.save(Account.builder()
+                .name("Bulk commit hisob").type(AccountType.CASH).currency("UZS")
+                .homeScope(scope).balance(new BigDecimal("1000.00")).build());
+        Category food = categoryRepository.save(Category.builder()
+                .name("Bulk commit oziq-ovqat").type(CategoryType.EXPENSE).build());
+        Category transport = categoryRepository.save(Category.builder()
+                .name("Bulk commit transport").type(CategoryType.EXPENSE).build());
+
+        TransactionRequest expense = new TransactionRequest();
+        expense.setType(TransactionType.EXPENSE);
+        expense.setAmount(new BigDecimal("150.00"));
+        expense.setAccountId(account.getId());
+        expense.setCategoryId(food.getId());
+        expense.setTransactionDate(LocalDate.now().atTime(10, 0));
+        Long id = transactionService.createSystem(expense).getId();
+
+        BulkCategorizeRequest request = new BulkCategorizeRequest();
+        request.setTransactionIds(List.of(id));
+        request.setCategoryId(transport.getId());
+        BulkOperationResponse result = transactionService.bulkCategorize(request);
+
+        assertThat(result.getSuccessCount()).isEqualTo(1);
+        assertThat(result.getFailures()).isEmpty();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT category_id FROM transactions WHERE id = ?", Long.class, id)).isEqualTo(transport.getId());
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(amount), 0) FROM ledger_daily_aggregates WHERE scope_id = ? AND category_id = ?",
+                BigDecimal.class, scope.getId(), transport.getId())).isEqualByComparingTo("150.00");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(amount), 0) FROM ledger_daily_aggregates WHERE scope_id = ? AND category_id = ?",
+                BigDecimal.class, scope.getId(), food.getId())).isEqualByComparingTo("0");
+    }
+}
@@ -0,0 +1,208 @@
+package uz.familyfinance.api.integration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Transactional;
+import uz.familyfinance.api.dto.request.BulkCategorizeRequest;
+import uz.familyfinance.api.dto.request.BulkReverseRequest;
+import uz.familyfinance.api.dto.request.TransactionRequest;
+import uz.familyfinance.api.dto.request.TransactionSplitItem;
+import uz.familyfinance.api.dto.response.BulkOperationResponse;
+import uz.familyfinance.api.dto.response.BulkOperationResponse.BulkOperationFailure;
+import uz.familyfinance.api.entity.Account;
+import uz.familyfinance.api.entity.Category;
+import uz.familyfinance.api.entity.Scope;
+import uz.familyfinance.api.entity.User;
+import uz.familyfinance.api.enums.AccountType;
+import uz.familyfinance.api.enums.CategoryType;
+import uz.familyfinance.api.enums.ScopeType;
+import uz.familyfinance.api.enums.TransactionType;
+import uz.familyfinance.api.repository.AccountRepository;
+import uz.familyfinance.api.repository.CategoryRepository;
+import uz.familyfinance.api.repository.ScopeRepository;
+import uz.familyfinance.api.repository.TransactionRepository;
+import uz.familyfinance.api.repository.UserRepository;
+import uz.familyfinance.api.service.AccountService;
+import uz.familyfinance.api.service.LedgerAggregateService;
+import uz.familyfinance.api.service.TransactionService;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Bulk storno va kategoriyalash (real PG): bo'laklab storno har hisobga sof balans
+ * o'zgarishini qo'llaydi va {@link TransactionService#reverse} bilan bir xil xatolarni
+ * qaytaradi; kategoriyalash bitta UPDATE, version oshadi; ikkala holatda kunlik
+ * agregatlar daftardan qayta qurilgan proyeksiya bilan mos.
+ *
+ * <p>Hisobga yozish huquqi bu test mavzusi emas — {@link AccountService} mock
+ * (bo'sh rad etishlar map'i). Bo'lak hajmi 2 — bir so'rov bir nechta bo'lakka bo'linadi.
+ * @Transactional — har test oxirida rollback.</p>
+ */
+@SpringBootTest(properties = "app.transactions.bulk.reverse-chunk-size=2")
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("Bulk amallar (real PG): bo'laklab storno, bitta UPDATE bilan kategoriyalash")
+class TransactionBulkOperationsIntegrationTest extends AbstractPostgresIntegrationTest {
+
+    private static final String SNAPSHOT_SQL = "SELECT ledger_date, type, category_id, currency, member_id, "
+            + "amount, entry_count, tx_count FROM ledger_daily_aggregates WHERE scope_id = ? AND entry_count > 0 "
+            + "ORDER BY ledger_date, type, category_id NULLS FIRST, currency, member_id NULLS FIRST";
+
+    @MockitoBean
+    private AccountService accountService;
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ScopeRepository scopeRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private LedgerAggregateService ledgerAggregateService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Scope scope;
+    private Account account;
+    private Category food;
+    private Category transport;
+
+    @BeforeEach
+    void setUp() {
+        User admin = userRepository.findByUsername("admin").orElseThrow();
+        scope = scopeRepository.save(Scope.builder()
+                .type(ScopeType.HOUSEHOLD).name("Bulk xonadon").ownerUser(admin).build());
+        account = accountRepository.save(Account.builder()
+                .name("Bulk hisob").type(AccountType.CASH).currency("UZS")
+                .homeScope(scope).balance(new BigDecimal("100000.00")).build());
+        food = categoryRepository.save(Category.builder().name("Bulk oziq-ovqat").type(CategoryType.EXPENSE).build());
+        transport = categoryRepository.save(Category.builder().name("Bulk transport").type(CategoryType.EXPENSE).build());
+    }
+
+    private Long expense(String amount, Category category) {
+        TransactionRequest r = new TransactionRequest();
+        r.setType(TransactionType.EXPENSE);
+        r.setAmount(new BigDecimal(amount));
+        r.setAccountId(account.getId());
+        r.setCategoryId(category != null ? category.getId() : null);
+        r.setTransactionDate(LocalDate.now().atTime(10, 0));
+        return transactionService.createSystem(r).getId();
+    }
+
+    private BigDecimal balance(Long accountId) {
+        return jdbcTemplate.queryForObject("SELECT balance FROM accounts WHERE id = ?", BigDecimal.class, accountId);
+    }
+
+    private void assertAggregatesMatchRebuild() {
+        List<Map<String, Object>> incremental = jdbcTemplate.queryForList(SNAPSHOT_SQL, scope.getId());
+        ledgerAggregateService.rebuild();
+        assertThat(jdbcTemplate.queryForList(SNAPSHOT_SQL, scope.getId())).isEqualTo(incremental);
+    }
+
+    @Test
+    @DisplayName("storno: bo'laklar bo'ylab partial-success, sof balans, juftliklar va agregat to'g'ri")
+    void bulkReverseAcrossChunks() {
+        Long a = expense("100.00", food);
+        Long b = expense("200.00", food);
+        Long c = expense("300.00", transport);
+        Long already = expense("400.00", transport);
+        transactionService.reverse(already, "oldin");
+        assertThat(balance(account.getId())).isEqualByComparingTo("99400.00");
+
+        BulkReverseRequest request = new BulkReverseRequest();
+        request.setTransactionIds(List.of(a, b, -1L, already, c, a));
+        request.setReason("bulk");
+        BulkOperationResponse result = transactionService.bulkReverse(request);
+        transactionRepository.flush(); // REVERSED holati — JDBC tekshiruvlaridan oldin
+
+        assertThat(result.getSuccessCount()).isEqualTo(3);
+        assertThat(result.getFailures())
+                .extracting(BulkOperationFailure::getTransactionId, BulkOperationFailure::getReason)
+                .containsExactly(
+                        tuple(-1L, "Tranzaksiya topilmadi: -1"),
+                        tuple(already, "Bu tranzaksiya allaqachon storno qilingan"),
+                        tuple(a, "Bu tranzaksiya allaqachon storno qilingan"));
+
+        assertThat(balance(account.getId())).isEqualByComparingTo("100000.00");
+        // Har original REVERSED va o'z REVERSAL juftligiga bog'langan (debit/credit teskari)
+        List<Map<String, Object>> pairs = jdbcTemplate.queryForList(
+                "SELECT o.status, o.debit_account_id AS o_debit, o.credit_account_id AS o_credit, "
+                        + "r.type AS r_type, r.debit_account_id AS r_debit, r.credit_account_id AS r_credit "
+                        + "FROM transactions o JOIN transactions r ON r.id = o.reversed_by_id "
+                        + "WHERE o.id IN (?, ?, ?) AND r.original_transaction_id = o.id", a, b, c);
+        assertThat(pairs).hasSize(3).allSatisfy(p -> {
+            assertThat(p.get("status")).isEqualTo("REVERSED");
+            assertThat(p.get("r_type")).isEqualTo("REVERSAL");
+            assertThat(p.get("r_debit")).isEqualTo(p.get("o_credit"));
+            assertThat(p.get("r_credit")).isEqualTo(p.get("o_debit"));
+        });
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(amount), 0) FROM ledger_daily_aggregates WHERE scope_id = ?",
+                BigDecimal.class, scope.getId())).isEqualByComparingTo("0");
+        assertAggregatesMatchRebuild();
+    }
+
+    @Test
+    @DisplayName("kategoriyalash: bitta UPDATE, version oshadi, split ulushlari o'zgarmaydi")
+    void bulkCategorizeUpdatesInOneStatement() {
+        Long a = expense("100.00", food);
+        Long b = expense("200.00", food);
+        TransactionRequest withSplits = new TransactionRequest();
+        withSplits.setType(TransactionType.EXPENSE);
+        withSplits.setAmount(new BigDecimal("90.00"));
+        withSplits.setAccountId(account.getId());
+        withSplits.setTransactionDate(LocalDateTime.now());
+        TransactionSplitItem part = new TransactionSplitItem();
+        part.setCategoryId(food.getId());
+        part.setAmount(new BigDecimal("90.00"));
+        withSplits.setSplits(List.of(part));
+        Long split = transactionService.createSystem(withSplits).getId();
+        Long reversed = expense("50.00", food);
+        transactionService.reverse(reversed, "storno");
+        Long versionBefore = jdbcTemplate.queryForObject("SELECT version FROM transactions WHERE id = ?", Long.class, a);
+
+        BulkCategorizeRequest request = new BulkCategorizeRequest();
+        request.setTransactionIds(List.of(a, b, split, reversed));
+        request.setCategoryId(transport.getId());
+        BulkOperationResponse result = transactionService.bulkCategorize(request);
+
+        assertThat(result.getSuccessCount()).isEqualTo(3);
+        assertThat(result.getFailures()).singleElement().satisfies(f -> {
+            assertThat(f.getTransactionId()).isEqualTo(reversed);
+            assertThat(f.getReason()).isEqualTo("Storno qilingan tranzaksiyani o'zgartirib bo'lmaydi");
+        });
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT category_id FROM transactions WHERE id IN (?, ?, ?)", Long.class, a, b, split))
+                .containsOnly(transport.getId());
+        assertThat(jdbcTemplate.queryForObject("SELECT version FROM transactions WHERE id = ?", Long.class, a))
+                .isEqualTo(versionBefore + 1);
+
+        // Split'li tranzaksiya ulushi oziq-ovqatda qoladi, qolganlari transportga ko'chadi
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT SUM(amount) FROM ledger_daily_aggregates WHERE scope_id = ? AND category_id = ?",
+                BigDecimal.class, scope.getId(), transport.getId())).isEqualByComparingTo("300.00");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT SUM(amount) FROM ledger_daily_aggregates WHERE scope_id = ? AND category_id = ?",
+                BigDecimal.class, scope.getId(), food.getId())).isEqualByComparingTo("90.00");
+        assertAggregatesMatchRebuild();
+    }
+}
@@ -0,0 +1,139 @@
+package uz.familyfinance.api.integration;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import uz.familyfinance.api.entity.Account;
+import uz.familyfinance.api.entity.Scope;
+import uz.familyfinance.api.entity.Transaction;
+import uz.familyfinance.api.entity.User;
+import uz.familyfinance.api.enums.AccountType;
+import uz.familyfinance.api.enums.ScopeType;
+import uz.familyfinance.api.enums.TransactionStatus;
+import uz.familyfinance.api.enums.TransactionType;
+import uz.familyfinance.api.repository.AccountRepository;
+import uz.familyfinance.api.repository.ScopeRepository;
+import uz.familyfinance.api.repository.TransactionRepository;
+import uz.familyfinance.api.repository.UserRepository;
+import uz.familyfinance.api.service.TransactionExportService;
+import uz.familyfinance.api.service.TransactionExportService.ExportQuery;
+import uz.familyfinance.api.service.TransactionExportService.Format;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Jurnal eksporti (real PG): kursor orqali o'qilgan qatorlar filtrlarga mos, sana
+ * tartibida; CSV qo'shtirnoq va formula-injection himoyasi; XLSX o'qiladigan fayl.
+ *
+ * @Transactional — har test oxirida rollback (eksport shu tranzaksiyaga qo'shiladi va
+ * yozilgan, lekin commit qilinmagan qatorlarni ko'radi).
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("Tranzaksiya eksporti (real PG): oqimli CSV/XLSX, findWithFilters filtrlari")
+class TransactionExportIntegrationTest extends AbstractPostgresIntegrationTest {
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ScopeRepository scopeRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private TransactionExportService exportService;
+
+    private Scope scope;
+
+    @BeforeEach
+    void setUp() {
+        User admin = userRepository.findByUsername("admin").orElseThrow();
+        scope = scopeRepository.save(Scope.builder()
+                .type(ScopeType.HOUSEHOLD).name("Eksport xonadon").ownerUser(admin).build());
+        Account account = accountRepository.save(Account.builder()
+                .name("Eksport hisob").type(AccountType.CASH).currency("UZS")
+                .homeScope(scope).balance(BigDecimal.ZERO).build());
+
+        LocalDateTime base = LocalDateTime.of(2025, 4, 10, 12, 0);
+        save(account, TransactionType.EXPENSE, "12500.50", "Non, sut \"Musaffo\"", base);
+        save(account, TransactionType.EXPENSE, "300", "=HYPERLINK(\"x\")", base.plusDays(1));
+        save(account, TransactionType.INCOME, "5000000", "Maosh", base.plusDays(2));
+        transactionRepository.flush();
+    }
+
+    private void save(Account account, TransactionType type, String amount, String description, LocalDateTime date) {
+        transactionRepository.save(Transaction.builder()
+                .type(type)
+                .amount(new BigDecimal(amount))
+                .account(account)
+                .scope(scope)
+                .description(description)
+                .transactionDate(date)
+                .status(TransactionStatus.CONFIRMED)
+                .isRecurring(false)
+                .build());
+    }
+
+    private ExportQuery query(TransactionType type, String search) {
+        return new ExportQuery(scope.getId(), type, null, null, null, null, null, search);
+    }
+
+    private List<String> csvLines(ExportQuery query) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.write(query, Format.CSV, out);
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertThat(csv).startsWith("\uFEFF");
+        return List.of(csv.substring(1).split("\r\n"));
+    }
+
+    @Test
+    @DisplayName("CSV: sarlavha + sana kamayish tartibi, qo'shtirnoq va formula himoyasi")
+    void csvFollowsJournalOrderAndEscapes() throws Exception {
+        List<String> lines = csvLines(query(null, null));
+
+        assertThat(lines).hasSize(4);
+        assertThat(lines.get(0)).startsWith("ID,Sana,Turi");
+        assertThat(lines.get(1)).contains(",INCOME,", ",5000000.00,", ",Maosh,");
+        assertThat(lines.get(2)).contains("\"'=HYPERLINK(\"\"x\"\")\"");
+        assertThat(lines.get(3)).contains(",12500.50,", "\"Non, sut \"\"Musaffo\"\"\"");
+    }
+
+    @Test
+    @DisplayName("CSV: tur va qidiruv filtrlari findWithFilters bilan bir xil")
+    void csvAppliesFilters() throws Exception {
+        assertThat(csvLines(query(TransactionType.EXPENSE, null))).hasSize(3);
+        assertThat(csvLines(query(null, "маош"))).hasSize(2)
+                .last().asString().contains("Maosh");
+        assertThat(csvLines(new ExportQuery(-1L, null, null, null, null, null, null, null))).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("XLSX: o'qiladigan kitob, summa son sifatida")
+    void xlsxIsReadable() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.write(query(null, null), Format.XLSX, out);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = workbook.getSheetAt(0);
+            assertThat(sheet.getLastRowNum()).isEqualTo(3);
+            assertThat(sheet.getRow(0).getCell(0).getStringCellValue()).isEqualTo("ID");
+            assertThat(sheet.getRow(1).getCell(4).getNumericCellValue()).isEqualTo(5_000_000d);
+            assertThat(sheet.getRow(3).getCell(10).getStringCellValue()).isEqualTo("Non, sut \"Musaffo\"");
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package uz.familyfinance.api.integration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import uz.familyfinance.api.entity.Account;
+import uz.familyfinance.api.entity.Scope;
+import uz.familyfinance.api.entity.Transaction;
+import uz.familyfinance.api.entity.User;
+import uz.familyfinance.api.enums.AccountType;
+import uz.familyfinance.api.enums.ScopeType;
+import uz.familyfinance.api.enums.TransactionStatus;
+import uz.familyfinance.api.enums.TransactionType;
+import uz.familyfinance.api.repository.AccountRepository;
+import uz.familyfinance.api.repository.ScopeRepository;
+import uz.familyfinance.api.repository.TransactionRepository;
+import uz.familyfinance.api.repository.UserRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Keyset jurnal (real PG): {@code findKeysetBefore}/{@code findKeysetAfter} bo'ylab yurish
+ * offset sahifalash bilan AYNAN bir xil tartibni beradi — bir xil sanali qatorlar (import,
+ * recurring) ham tushib qolmaydi va takrorlanmaydi; {@code countWithFilters} offset
+ * {@code totalElements} bilan teng.
+ *
+ * @Transactional — har test oxirida rollback.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("Tranzaksiya jurnali keyset sahifalash (real PG): offset bilan bir xil tartib")
+class TransactionKeysetPaginationIntegrationTest extends AbstractPostgresIntegrationTest {
+
+    private static final int PAGE = 3;
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ScopeRepository scopeRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private List<Transaction> before(Long scopeId, Transaction cursor) {
+        return transactionRepository.findKeysetBefore(scopeId, null, null, null, null, null, null, null, null,
+                cursor != null ? cursor.getTransactionDate() : null, cursor != null ? cursor.getId() : null,
+                PageRequest.of(0, PAGE));
+    }
+
+    private List<Transaction> after(Long scopeId, Transaction cursor) {
+        List<Transaction> rows = new ArrayList<>(transactionRepository.findKeysetAfter(scopeId, null, null,
+                null, null, null, null, null, null, cursor.getTransactionDate(), cursor.getId(),
+                PageRequest.of(0, PAGE)));
+        Collections.reverse(rows);
+        return rows;
+    }
+
+    @Test
+    @DisplayName("oldinga va orqaga yurish offset tartibini takrorlaydi, bir xil sanalar ham")
+    void keysetWalkMatchesOffsetOrder() {
+        User admin = userRepository.findByUsername("admin").orElseThrow();
+        Scope scope = scopeRepository.save(Scope.builder()
+                .type(ScopeType.HOUSEHOLD).name("Keyset xonadon").ownerUser(admin).build());
+        Account account = accountRepository.save(Account.builder()
+                .name("Keyset hisob").type(AccountType.CASH).homeScope(scope).balance(BigDecimal.ZERO).build());
+
+        LocalDateTime base = LocalDateTime.of(2025, 3, 1, 12, 0);
+        for (int i = 0; i < 10; i++) {
+            // Har ikki qatorda bir xil sana — tie-break id bo'yicha bo'lishi shart
+            transactionRepository.save(Transaction.builder()
+                    .type(TransactionType.EXPENSE)
+                    .amount(BigDecimal.valueOf(i + 1))
+                    .account(account)
+                    .scope(scope)
+                    .transactionDate(base.minusDays(i / 2))
+                    .status(TransactionStatus.CONFIRMED)
+                    .isRecurring(false)
+                    .build());
+        }
+
+        List<Long> offsetOrder = transactionRepository.findWithFilters(scope.getId(), null, null, null, null,
+                        null, null, null, null,
+                        PageRequest.of(0, 100, Sort.by("transactionDate").descending().and(Sort.by("id").descending())))
+                .map(Transaction::getId).getContent();
+
+        List<Long> forward = new ArrayList<>();
+        List<List<Transaction>> pages = new ArrayList<>();
+        Transaction cursor = null;
+        List<Transaction> page;
+        do {
+            page = before(scope.getId(), cursor);
+            if (!page.isEmpty()) {
+                pages.add(page);
+                page.forEach(t -> forward.add(t.getId()));
+                cursor = page.get(page.size() - 1);
+            }
+        } while (page.size() == PAGE);
+
+        assertThat(forward).isEqualTo(offsetOrder);
+
+        // Oxirgi sahifaning birinchi qatoridan orqaga — oldingi sahifa aynan qaytadi
+        List<Transaction> last = pages.get(pages.size() - 1);
+        assertThat(after(scope.getId(), last.get(0)))
+                .extracting(Transaction::getId)
+                .containsExactlyElementsOf(pages.get(pages.size() - 2).stream().map(Transaction::getId).toList());
+
+        assertThat(transactionRepository.countWithFilters(scope.getId(), null, null, null, null,
+                null, null, null, null)).isEqualTo(10L);
+    }
+}
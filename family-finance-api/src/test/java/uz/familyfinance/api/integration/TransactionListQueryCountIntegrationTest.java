@@ -0,0 +1,172 @@
+package uz.familyfinance.api.integration;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Transactional;
+import uz.familyfinance.api.dto.response.TransactionResponse;
+import uz.familyfinance.api.entity.Account;
+import uz.familyfinance.api.entity.Category;
+import uz.familyfinance.api.entity.Scope;
+import uz.familyfinance.api.entity.Tag;
+import uz.familyfinance.api.entity.Transaction;
+import uz.familyfinance.api.entity.TransactionSplit;
+import uz.familyfinance.api.entity.User;
+import uz.familyfinance.api.enums.AccountType;
+import uz.familyfinance.api.enums.CategoryType;
+import uz.familyfinance.api.enums.ScopeType;
+import uz.familyfinance.api.enums.TransactionStatus;
+import uz.familyfinance.api.enums.TransactionType;
+import uz.familyfinance.api.repository.AccountRepository;
+import uz.familyfinance.api.repository.CategoryRepository;
+import uz.familyfinance.api.repository.ScopeRepository;
+import uz.familyfinance.api.repository.TagRepository;
+import uz.familyfinance.api.repository.TransactionRepository;
+import uz.familyfinance.api.repository.TransactionSplitRepository;
+import uz.familyfinance.api.repository.UserRepository;
+import uz.familyfinance.api.service.AccountService;
+import uz.familyfinance.api.service.TransactionService;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Ro'yxat yig'ish regressiyasi (real PG): {@code getRecentForScope} va {@code getByAccount}
+ * so'rovlar soni qatorlar soniga bog'liq EMAS — 2 qatorli va 10 qatorli sahifa bir xil
+ * miqdordagi statement bilan yig'iladi (split, tag, hisob, kategoriya — har biri bitta IN).
+ *
+ * <p>Hibernate statistikasi faqat shu kontekst uchun yoqiladi. Har o'lchovdan oldin
+ * persistence context tozalanadi — aks holda setup'da yuklangan entity'lar so'rovlarni
+ * yashirardi. Hisobga kirish huquqi bu test mavzusi emas — {@link AccountService} mock.</p>
+ *
+ * @Transactional — har test oxirida rollback.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("Tranzaksiya ro'yxati (real PG): N+1 yo'q — so'rovlar soni sahifa hajmiga bog'liq emas")
+class TransactionListQueryCountIntegrationTest extends AbstractPostgresIntegrationTest {
+
+    @MockitoBean
+    private AccountService accountService;
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ScopeRepository scopeRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private TagRepository tagRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private TransactionSplitRepository transactionSplitRepository;
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private record Fixture(Scope scope, Account account) {
+    }
+
+    private Fixture fixture(String name, int rows) {
+        User admin = userRepository.findByUsername("admin").orElseThrow();
+        Scope scope = scopeRepository.save(Scope.builder()
+                .type(ScopeType.HOUSEHOLD).name(name).ownerUser(admin).build());
+        Account account = accountRepository.save(Account.builder()
+                .name(name + " hisob").type(AccountType.CASH).homeScope(scope).balance(BigDecimal.ZERO).build());
+        Account savings = accountRepository.save(Account.builder()
+                .name(name + " jamg'arma").type(AccountType.CASH).homeScope(scope).balance(BigDecimal.ZERO).build());
+        Tag tag = tagRepository.save(Tag.builder().name(name + " tag").build());
+
+        LocalDateTime base = LocalDateTime.of(2025, 5, 1, 9, 0);
+        for (int i = 0; i < rows; i++) {
+            Category category = categoryRepository.save(Category.builder()
+                    .name(name + " kategoriya " + i).type(CategoryType.EXPENSE).build());
+            Transaction tx = transactionRepository.save(Transaction.builder()
+                    .type(i % 2 == 0 ? TransactionType.EXPENSE : TransactionType.TRANSFER)
+                    .amount(BigDecimal.TEN)
+                    .account(account)
+                    .toAccount(i % 2 == 0 ? null : savings)
+                    .category(category)
+                    .scope(scope)
+                    .tagEntities(new HashSet<>(Set.of(tag)))
+                    .transactionDate(base.plusHours(i))
+                    .status(TransactionStatus.CONFIRMED)
+                    .isRecurring(false)
+                    .build());
+            transactionSplitRepository.save(TransactionSplit.builder()
+                    .transaction(tx).category(category).amount(BigDecimal.TEN).build());
+        }
+        return new Fixture(scope, account);
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private long statementsFor(Runnable call) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics().clear();
+        call.run();
+        return statistics().getPrepareStatementCount();
+    }
+
+    @Test
+    @DisplayName("getRecentForScope: 2 va 10 qator bir xil so'rovlar soni, split/tag'lar to'g'ri")
+    void recentForScopeUsesFixedQueryCount() {
+        Fixture small = fixture("QC kichik", 2);
+        Fixture large = fixture("QC katta", 10);
+
+        long smallCount = statementsFor(() -> transactionService.getRecentForScope(small.scope().getId()));
+        long largeCount = statementsFor(() -> transactionService.getRecentForScope(large.scope().getId()));
+
+        assertThat(largeCount).isEqualTo(smallCount).isLessThanOrEqualTo(5);
+
+        entityManager.clear();
+        List<TransactionResponse> rows = transactionService.getRecentForScope(large.scope().getId());
+        assertThat(rows).hasSize(10).allSatisfy(r -> {
+            assertThat(r.getAccountName()).isEqualTo("QC katta hisob");
+            assertThat(r.getCategoryName()).startsWith("QC katta kategoriya");
+            assertThat(r.getTagIds()).hasSize(1);
+            assertThat(r.getSplits()).singleElement()
+                    .satisfies(s -> assertThat(s.getCategoryName()).isEqualTo(r.getCategoryName()));
+        });
+        assertThat(rows).filteredOn(r -> r.getToAccountId() != null)
+                .extracting(TransactionResponse::getToAccountName)
+                .containsOnly("QC katta jamg'arma");
+    }
+
+    @Test
+    @DisplayName("getByAccount: sahifa hajmi so'rovlar sonini o'zgartirmaydi")
+    void byAccountUsesFixedQueryCount() {
+        Fixture small = fixture("QC hisob kichik", 2);
+        Fixture large = fixture("QC hisob katta", 10);
+
+        long smallCount = statementsFor(() -> transactionService.getByAccount(small.account().getId(),
+                PageRequest.of(0, 20)));
+        long largeCount = statementsFor(() -> transactionService.getByAccount(large.account().getId(),
+                PageRequest.of(0, 20)));
+
+        assertThat(largeCount).isEqualTo(smallCount);
+    }
+}
@@ -0,0 +1,158 @@
+package uz.familyfinance.api.integration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import uz.familyfinance.api.entity.Account;
+import uz.familyfinance.api.entity.Scope;
+import uz.familyfinance.api.entity.Tag;
+import uz.familyfinance.api.entity.Transaction;
+import uz.familyfinance.api.entity.User;
+import uz.familyfinance.api.enums.AccountType;
+import uz.familyfinance.api.enums.ScopeType;
+import uz.familyfinance.api.enums.TransactionStatus;
+import uz.familyfinance.api.enums.TransactionType;
+import uz.familyfinance.api.repository.AccountRepository;
+import uz.familyfinance.api.repository.ScopeRepository;
+import uz.familyfinance.api.repository.TagRepository;
+import uz.familyfinance.api.repository.TransactionRepository;
+import uz.familyfinance.api.repository.UserRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * V65 jurnal qidiruvi (real PG): tsvector hujjati trigger'lar bilan yuritiladi, kirill/lotin
+ * va apostrof variantlari bir-birini topadi, tag va hisob nomlari hujjatda, so'rov esa
+ * GIN indeksni ishlatadi.
+ *
+ * <p>Reja tekshiruvi: test ma'lumoti kichik — planner baribir seq scan'ni arzon deb
+ * tanlaydi. Shu sabab {@code enable_seqscan = off}: bu indeksni "majburlash" emas,
+ * predikat indekslanadigan shaklda ekanini (ff_search_matches inline bo'lib
+ * {@code document @@ ...} ga aylanishini) isbotlaydi — aks holda seq scan off bo'lsa ham
+ * indeks tanlanmasdi.</p>
+ *
+ * @Transactional — har test oxirida rollback.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("Tranzaksiya qidiruvi (real PG): tsvector + GIN, kirill/lotin normalizatsiya (V65)")
+class TransactionSearchIntegrationTest extends AbstractPostgresIntegrationTest {
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ScopeRepository scopeRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private TagRepository tagRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Scope scope;
+    private Account card;
+    private Transaction salary;
+    private Transaction railway;
+    private Transaction trip;
+
+    @BeforeEach
+    void setUp() {
+        User admin = userRepository.findByUsername("admin").orElseThrow();
+        scope = scopeRepository.save(Scope.builder()
+                .type(ScopeType.HOUSEHOLD).name("Qidiruv xonadon").ownerUser(admin).build());
+        card = accountRepository.save(Account.builder()
+                .name("Humo karta").type(AccountType.BANK_CARD).homeScope(scope).balance(BigDecimal.ZERO).build());
+        Tag travel = tagRepository.save(Tag.builder().name("Sayohat qidiruv").build());
+
+        salary = save("Маош январь", Set.of());
+        railway = save("O‘zbekiston temir yo'llari", Set.of());
+        trip = save("Samarqand", Set.of(travel));
+        transactionRepository.flush();
+    }
+
+    private Transaction save(String description, Set<Tag> tags) {
+        return transactionRepository.save(Transaction.builder()
+                .type(TransactionType.EXPENSE)
+                .amount(BigDecimal.TEN)
+                .account(card)
+                .scope(scope)
+                .description(description)
+                .tagEntities(new HashSet<>(tags))
+                .transactionDate(LocalDateTime.now())
+                .status(TransactionStatus.CONFIRMED)
+                .isRecurring(false)
+                .build());
+    }
+
+    private List<Long> search(String q) {
+        return transactionRepository.findWithFilters(scope.getId(), null, null, null, null, null, null, null, q,
+                        PageRequest.of(0, 20))
+                .map(Transaction::getId).getContent();
+    }
+
+    @Test
+    @DisplayName("kirill ↔ lotin, apostrof variantlari va prefiks bir xil natija beradi")
+    void normalisesScriptsAndApostrophes() {
+        assertThat(search("maosh")).containsExactly(salary.getId());
+        assertThat(search("Маош")).containsExactly(salary.getId());
+        assertThat(search("mao")).containsExactly(salary.getId());
+
+        assertThat(search("o'zbekiston")).containsExactly(railway.getId());
+        assertThat(search("Ўзбекистон")).containsExactly(railway.getId());
+        assertThat(search("ozbek temir")).containsExactly(railway.getId());
+        assertThat(search("ozbek maosh")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("tag va hisob nomlari hujjatda; relevantlikda tavsif mosligi birinchi")
+    void includesTagsAndAccountNamesWithRanking() {
+        assertThat(search("sayohat")).containsExactly(trip.getId());
+        assertThat(search("humo")).containsExactlyInAnyOrder(salary.getId(), railway.getId(), trip.getId());
+
+        // Hisob nomi o'zgarsa hujjatlar trigger bilan yangilanadi
+        card.setName("Uzcard asosiy");
+        accountRepository.saveAndFlush(card);
+        assertThat(search("humo")).isEmpty();
+        assertThat(search("uzcard")).hasSize(3);
+
+        // "samarqand" tavsifda (A) va qabul qiluvchi hisob nomida (C) — tavsif mosligi yuqorida
+        Account branch = accountRepository.save(Account.builder()
+                .name("Samarqand filiali").type(AccountType.CASH).homeScope(scope).balance(BigDecimal.ZERO).build());
+        Transaction transfer = save("Oziq-ovqat", Set.of());
+        transfer.setToAccount(branch);
+        transactionRepository.saveAndFlush(transfer);
+
+        assertThat(transactionRepository.searchRankedIds(false, scope.getId(), "samarqand", 10))
+                .containsExactly(trip.getId(), transfer.getId());
+    }
+
+    @Test
+    @DisplayName("qidiruv predikati GIN indeksni ishlatadi (ff_search_matches inline)")
+    void searchPredicateUsesGinIndex() {
+        jdbcTemplate.execute("ANALYZE transaction_search_documents");
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+
+        String plan = String.join("\n", jdbcTemplate.queryForList(
+                "EXPLAIN SELECT t.id FROM transactions t WHERE t.scope_id = " + scope.getId()
+                        + " AND t.id IN (SELECT d.transaction_id FROM transaction_search_documents d"
+                        + " WHERE ff_search_matches(d.document, 'maosh') = true)",
+                String.class));
+
+        assertThat(plan).contains("idx_transaction_search_documents_document");
+    }
+}
@@ -0,0 +1,166 @@
+package uz.familyfinance.api.integration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import uz.familyfinance.api.dto.request.TransactionRequest;
+import uz.familyfinance.api.dto.response.TransitLedgerBalanceResponse;
+import uz.familyfinance.api.entity.Account;
+import uz.familyfinance.api.entity.Scope;
+import uz.familyfinance.api.entity.User;
+import uz.familyfinance.api.enums.AccountType;
+import uz.familyfinance.api.enums.ScopeType;
+import uz.familyfinance.api.enums.TransactionType;
+import uz.familyfinance.api.repository.AccountRepository;
+import uz.familyfinance.api.repository.ScopeRepository;
+import uz.familyfinance.api.repository.TransactionRepository;
+import uz.familyfinance.api.repository.UserRepository;
+import uz.familyfinance.api.service.TransactionService;
+import uz.familyfinance.api.service.TransitLedgerService;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * V62 tranzit sub-ledger (real PG): konkurent CREATE'lar va mantiqiy balans invarianti.
+ *
+ * <p>Har oqim o'z xonadoni hisobiga INCOME yozadi; avval barcha oqimlar bitta tranzit
+ * qatorida navbatga turardi. Lock tarqalishi deterministik tekshiriladi — 8 ta ketma-ket
+ * scope 8 ta turli qatorga (root + 7 shard) tushadi, ya'ni bir-birining row lock'ini
+ * kutmaydi. Throughput o'lchanmaydi (CI shovqinli). Qat'iy tekshiruvlar: mantiqiy balans
+ * aniqligi, compaction'dan keyin yig'indi o'zgarmasligi va har tranzit hisob
+ * {@code balance = opening + debet − kredit} bo'yicha solishtirilishi.</p>
+ *
+ * <p>@Transactional YO'Q — har create o'z tranzaksiyasida commit bo'lishi shart.</p>
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Tranzit sub-ledger (real PG): konkurent create, shard tarqalishi, compaction (V62)")
+class TransitLedgerConcurrencyIntegrationTest extends AbstractPostgresIntegrationTest {
+
+    private static final int CREATES_PER_RUN = 400;
+    private static final BigDecimal AMOUNT = new BigDecimal("10.00");
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ScopeRepository scopeRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private TransitLedgerService transitLedgerService;
+
+    private List<Account> newHouseholdAccounts(int count) {
+        User admin = userRepository.findByUsername("admin").orElseThrow();
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Scope scope = scopeRepository.save(Scope.builder()
+                    .type(ScopeType.HOUSEHOLD).name("Tranzit bench " + i).ownerUser(admin).build());
+            accounts.add(accountRepository.save(Account.builder()
+                    .name("Bench hisob " + i)
+                    .type(AccountType.CASH)
+                    .currency("UZS")
+                    .homeScope(scope)
+                    .balance(BigDecimal.ZERO)
+                    .build()));
+        }
+        return accounts;
+    }
+
+    private BigDecimal logicalIncomeTransitBalance() {
+        return transitLedgerService.getLogicalBalances().stream()
+                .filter(b -> "UZS".equals(b.getCurrency()) && b.getName().startsWith("Tizim: Daromad tranziti"))
+                .map(TransitLedgerBalanceResponse::getBalance)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    /** Tranzit hisob balansi va jurnal yig'indisi farqi (compaction uni o'zgartirmasligi kerak). */
+    private Map<Long, BigDecimal> reconciliationDrift() {
+        return accountRepository.findTransitLedgerByCurrency("UZS").stream()
+                .map(a -> accountRepository.findById(a.getId()).orElseThrow())
+                .collect(Collectors.toMap(Account::getId, a -> a.getBalance()
+                        .subtract(a.getOpeningBalance() != null ? a.getOpeningBalance() : BigDecimal.ZERO)
+                        .subtract(transactionRepository.sumDebitTurnover(a.getId(), null, null))
+                        .add(transactionRepository.sumCreditTurnover(a.getId(), null, null))
+                        .stripTrailingZeros()));
+    }
+
+    private void runCreates(List<Account> accounts, int threads) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Account account = accounts.get(t);
+                int perThread = CREATES_PER_RUN / threads;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        TransactionRequest r = new TransactionRequest();
+                        r.setType(TransactionType.INCOME);
+                        r.setAmount(AMOUNT);
+                        r.setAccountId(account.getId());
+                        r.setTransactionDate(LocalDateTime.now());
+                        r.setDescription("bench");
+                        transactionService.createSystem(r);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("8 xonadon 8 ta turli tranzit qatorida; mantiqiy balans aniq, compaction jurnal bilan mos")
+    void concurrentCreatesKeepLogicalBalance() throws Exception {
+        List<Account> accounts = newHouseholdAccounts(8);
+
+        // Lock tarqalishi: har xonadon o'z qatorini qulflaydi
+        assertThat(accounts.stream()
+                .map(a -> transitLedgerService.findTransitAccount("UZS", true, a.getHomeScope().getId()).getId())
+                .distinct())
+                .as("ketma-ket 8 scope root + 7 shard'ga teng taqsimlanadi")
+                .hasSize(8);
+
+        BigDecimal before = logicalIncomeTransitBalance();
+        runCreates(accounts, 8);
+
+        // INCOME: tranzit hisob CREDIT qilinadi (balans kamayadi)
+        BigDecimal expectedDelta = AMOUNT.multiply(BigDecimal.valueOf(CREATES_PER_RUN)).negate();
+        assertThat(logicalIncomeTransitBalance().subtract(before))
+                .as("shard'lar yig'indisi barcha create'larni aniq aks ettirishi shart")
+                .isEqualByComparingTo(expectedDelta);
+
+        BigDecimal beforeCompaction = logicalIncomeTransitBalance();
+        Map<Long, BigDecimal> driftBefore = reconciliationDrift();
+        transitLedgerService.findRootIds().forEach(transitLedgerService::compactRoot);
+        assertThat(logicalIncomeTransitBalance())
+                .as("compaction mantiqiy balansni o'zgartirmaydi")
+                .isEqualByComparingTo(beforeCompaction);
+        assertThat(reconciliationDrift())
+                .as("compaction TRANSFER yozuvlari har hisob balansi harakatiga teng")
+                .isEqualTo(driftBefore);
+        assertThat(accountRepository.findTransitLedgerByCurrency("UZS"))
+                .filteredOn(a -> a.getTransitShard() != null && a.getTransitShard() > 0)
+                .allSatisfy(shard -> assertThat(shard.getBalance()).isEqualByComparingTo("0"));
+    }
+}
@@ -0,0 +1,180 @@
+package uz.familyfinance.api.security;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import tools.jackson.databind.json.JsonMapper;
+import uz.familyfinance.api.dto.response.ApiResponse;
+import uz.familyfinance.api.exception.BadRequestException;
+import uz.familyfinance.api.exception.ConflictException;
+import uz.familyfinance.api.service.IdempotencyService;
+import uz.familyfinance.api.service.IdempotencyService.StoredResponse;
+import uz.familyfinance.api.service.ScopeContextService;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link IdempotencyAspect} — kalit bo'yicha birinchi javob saqlanadi, takror kalit
+ * controller'ga yetmasdan saqlangan javobni oladi (Spring/DB'siz, servis mock).
+ */
+@DisplayName("Idempotency-Key: javobni saqlash va qayta o'ynatish")
+class IdempotencyAspectTest {
+
+    private static final Long USER_ID = 7L;
+    private static final String KEY = "retry-7f3a";
+
+    /** Annotatsiyalangan endpoint o'rnida — faqat imzo va argumentlar kerak. */
+    static class SampleController {
+        @Idempotent
+        public ResponseEntity<ApiResponse<Map<String, Object>>> create(Long id, Map<String, Object> body) {
+            return ResponseEntity.ok(ApiResponse.success(body));
+        }
+    }
+
+    private IdempotencyService idempotencyService;
+    private ScopeContextService scopeContextService;
+    private IdempotencyAspect aspect;
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = mock(IdempotencyService.class);
+        scopeContextService = mock(ScopeContextService.class);
+        when(scopeContextService.getCurrentUserId()).thenReturn(USER_ID);
+        aspect = new IdempotencyAspect(idempotencyService, scopeContextService, JsonMapper.builder().build());
+
+        request = new MockHttpServletRequest("POST", "/v1/transactions");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private ProceedingJoinPoint joinPoint(Object... args) throws Throwable {
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getMethod()).thenReturn(SampleController.class.getMethod("create", Long.class, Map.class));
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.getArgs()).thenReturn(args);
+        when(joinPoint.proceed()).thenReturn(ResponseEntity.ok(ApiResponse.success(args[1])));
+        return joinPoint;
+    }
+
+    /** Birinchi urinish yozgan so'rov xeshi. */
+    private String firstAttemptHash(Map<String, Object> body) throws Throwable {
+        when(idempotencyService.findCompleted(USER_ID, KEY)).thenReturn(Optional.empty());
+        when(idempotencyService.tryClaim(eq(USER_ID), eq(KEY), anyString())).thenReturn(true);
+        aspect.handle(joinPoint(1L, body));
+        ArgumentCaptor<String> hash = ArgumentCaptor.forClass(String.class);
+        verify(idempotencyService).complete(eq(USER_ID), eq(KEY), hash.capture(), eq(200), anyString());
+        return hash.getValue();
+    }
+
+    @Test
+    @DisplayName("sarlavhasiz so'rov odatdagidek bajariladi")
+    void withoutHeaderProceeds() throws Throwable {
+        ProceedingJoinPoint joinPoint = joinPoint(1L, Map.of("amount", 100));
+
+        aspect.handle(joinPoint);
+
+        verify(joinPoint).proceed();
+        verifyNoInteractions(idempotencyService);
+    }
+
+    @Test
+    @DisplayName("birinchi urinish: kalit egallanadi, 2xx javob JSON sifatida saqlanadi")
+    void firstAttemptStoresResponse() throws Throwable {
+        request.addHeader(IdempotencyAspect.HEADER, KEY);
+        when(idempotencyService.findCompleted(USER_ID, KEY)).thenReturn(Optional.empty());
+        when(idempotencyService.tryClaim(eq(USER_ID), eq(KEY), anyString())).thenReturn(true);
+
+        Object result = aspect.handle(joinPoint(1L, Map.of("amount", 100)));
+
+        assertThat(result).isInstanceOf(ResponseEntity.class);
+        ArgumentCaptor<String> body = ArgumentCaptor.forClass(String.class);
+        verify(idempotencyService).complete(eq(USER_ID), eq(KEY), anyString(), eq(200), body.capture());
+        assertThat(body.getValue()).contains("\"amount\":100");
+    }
+
+    @Test
+    @DisplayName("takror kalit: saqlangan javob qaytadi, controller chaqirilmaydi")
+    void repeatedKeyReplaysWithoutProceeding() throws Throwable {
+        request.addHeader(IdempotencyAspect.HEADER, KEY);
+        Map<String, Object> body = Map.of("amount", 100);
+        String hash = firstAttemptHash(body);
+        when(idempotencyService.findCompleted(USER_ID, KEY)).thenReturn(Optional.of(
+                new StoredResponse(hash, 200, "{\"success\":true}", LocalDateTime.now())));
+        ProceedingJoinPoint retry = joinPoint(1L, body);
+
+        Object result = aspect.handle(retry);
+
+        verify(retry, never()).proceed();
+        ResponseEntity<?> response = (ResponseEntity<?>) result;
+        assertThat(response.getStatusCode().value()).isEqualTo(200);
+        assertThat(response.getHeaders().getFirst(IdempotencyAspect.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(response.getBody()).isEqualTo("{\"success\":true}");
+    }
+
+    @Test
+    @DisplayName("bir kalit boshqa so'rov tanasi bilan — 400")
+    void sameKeyDifferentBodyIsRejected() throws Throwable {
+        request.addHeader(IdempotencyAspect.HEADER, KEY);
+        String hash = firstAttemptHash(Map.of("amount", 100));
+        when(idempotencyService.findCompleted(USER_ID, KEY)).thenReturn(Optional.of(
+                new StoredResponse(hash, 200, "{}", LocalDateTime.now())));
+        ProceedingJoinPoint other = joinPoint(1L, Map.of("amount", 999));
+
+        assertThatThrownBy(() -> aspect.handle(other)).isInstanceOf(BadRequestException.class);
+        verify(other, never()).proceed();
+    }
+
+    @Test
+    @DisplayName("birinchi urinish hali bajarilmoqda — 409, ikkinchi yozuv yo'q")
+    void inFlightKeyConflicts() throws Throwable {
+        request.addHeader(IdempotencyAspect.HEADER, KEY);
+        when(idempotencyService.findCompleted(USER_ID, KEY)).thenReturn(Optional.empty());
+        when(idempotencyService.tryClaim(eq(USER_ID), eq(KEY), anyString())).thenReturn(false);
+        ProceedingJoinPoint joinPoint = joinPoint(1L, Map.of("amount", 100));
+
+        assertThatThrownBy(() -> aspect.handle(joinPoint)).isInstanceOf(ConflictException.class);
+        verify(joinPoint, never()).proceed();
+    }
+
+    @Test
+    @DisplayName("xato bo'lsa kalit bo'shatiladi va javob saqlanmaydi")
+    void failureReleasesKey() throws Throwable {
+        request.addHeader(IdempotencyAspect.HEADER, KEY);
+        when(idempotencyService.findCompleted(USER_ID, KEY)).thenReturn(Optional.empty());
+        when(idempotencyService.tryClaim(eq(USER_ID), eq(KEY), anyString())).thenReturn(true);
+        ProceedingJoinPoint joinPoint = joinPoint(1L, Map.of("amount", 100));
+        when(joinPoint.proceed()).thenThrow(new BadRequestException("Hisobda mablag' yetarli emas"));
+
+        assertThatThrownBy(() -> aspect.handle(joinPoint)).isInstanceOf(BadRequestException.class);
+        verify(idempotencyService).release(USER_ID, KEY);
+        verify(idempotencyService, never()).complete(any(), any(), any(), anyInt(), any());
+    }
+}
@@ -0,0 +1,72 @@
+package uz.familyfinance.api.security;
+
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Set;
+
+/**
+ * JWT qismining so'rov boshiga narxi — qo'lda ishga tushiriladigan mikrobenchmark
+ * (surefire'da ishlamaydi, nomi *Test emas):
+ *
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *      uz.familyfinance.api.security.JwtFilterBenchmark
+ * </pre>
+ *
+ * <ul>
+ *   <li><b>before</b> — eski filtr yo'li: {@code validateToken} + {@code getUsernameFromToken} +
+ *       {@code getActiveScopeIdFromToken}, har biri alohida HMAC tekshiruvi va JSON dekodlash;</li>
+ *   <li><b>after</b> — {@code verify}: bir xil token keshdan (SHA-256 + map lookup).</li>
+ * </ul>
+ *
+ * Sessiya va foydalanuvchi yuklash (DB) bu o'lchovga kirmaydi.
+ */
+public final class JwtFilterBenchmark {
+
+    private static final int WARMUP = 50_000;
+    private static final int ITERATIONS = 200_000;
+
+    private JwtFilterBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret",
+                "z5jURjJwwgWUWXDv367aadjEcpIJ1T3Lwm9bmhkgZT9qn5aU9H2Klb4tSqBGTQtj4emgOgdoDqj/t9P2ioK9cA==");
+        ReflectionTestUtils.setField(provider, "jwtExpiration", 3_600_000L);
+        ReflectionTestUtils.setField(provider, "refreshExpiration", 86_400_000L);
+        provider.init();
+        String token = provider.generateStaffTokenWithPermissions("admin", 1L,
+                Set.of("ADMIN", "MEMBER"), Set.of("DASHBOARD_VIEW", "REPORTS_VIEW", "ACCOUNTS_VIEW",
+                        "TRANSACTIONS_VIEW", "TRANSACTIONS_CREATE", "BUDGETS_VIEW"), 7L);
+
+        run("before (3x parse)", () -> {
+            boolean valid = provider.validateToken(token);
+            String username = provider.getUsernameFromToken(token);
+            Long scope = provider.getActiveScopeIdFromToken(token);
+            return valid && username != null && scope != null;
+        }, WARMUP / 10, ITERATIONS / 10);
+        run("after (verify, cached)", () -> {
+            VerifiedToken t = provider.verify(token).orElseThrow();
+            return t.subject() != null && t.activeScopeId() != null;
+        }, WARMUP, ITERATIONS);
+    }
+
+    private interface Step {
+        boolean run();
+    }
+
+    private static void run(String name, Step step, int warmup, int iterations) {
+        int sink = 0;
+        for (int i = 0; i < warmup; i++) {
+            sink += step.run() ? 1 : 0;
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += step.run() ? 1 : 0;
+        }
+        double perOp = (System.nanoTime() - start) / (double) iterations;
+        System.out.printf("%-24s %10.0f ns/request (%d)%n", name, perOp, sink);
+    }
+}
@@ -0,0 +1,110 @@
+package uz.familyfinance.api.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link JwtTokenProvider#verify} — claim'lar bir marta parse qilinadi, takroriy token
+ * keshdan (SHA-256 kalit), yaroqsiz/muddati o'tgan token keshga tushmaydi.
+ */
+@DisplayName("JWT: bir marta tekshirish va tekshirilgan claim'lar keshi")
+class JwtVerifiedTokenCacheTest {
+
+    private static final String SECRET =
+            "z5jURjJwwgWUWXDv367aadjEcpIJ1T3Lwm9bmhkgZT9qn5aU9H2Klb4tSqBGTQtj4emgOgdoDqj/t9P2ioK9cA==";
+
+    private JwtTokenProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        provider = provider(3_600_000L);
+    }
+
+    private static JwtTokenProvider provider(long expirationMillis) {
+        JwtTokenProvider p = new JwtTokenProvider();
+        ReflectionTestUtils.setField(p, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(p, "jwtExpiration", expirationMillis);
+        ReflectionTestUtils.setField(p, "refreshExpiration", 86_400_000L);
+        p.init();
+        return p;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, VerifiedToken> cache(JwtTokenProvider p) {
+        return (Map<String, VerifiedToken>) ReflectionTestUtils.getField(p, "verifiedTokens");
+    }
+
+    @Test
+    @DisplayName("claim'lar bitta obyektda; takroriy token keshdagi o'sha obyekt")
+    void verifiesOnceAndCaches() {
+        String token = provider.generateStaffTokenWithPermissions("admin", 42L,
+                Set.of("ADMIN"), Set.of("REPORTS_VIEW"), 9L);
+
+        VerifiedToken first = provider.verify(token).orElseThrow();
+        VerifiedToken second = provider.verify(token).orElseThrow();
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.subject()).isEqualTo("admin");
+        assertThat(first.userId()).isEqualTo(42L);
+        assertThat(first.activeScopeId()).isEqualTo(9L);
+        assertThat(first.roles()).containsExactly("ADMIN");
+        assertThat(first.permissions()).containsExactly("REPORTS_VIEW");
+        assertThat(first.isRefresh()).isFalse();
+        // Kalit — xesh, xom token saqlanmaydi
+        assertThat(cache(provider)).hasSize(1).doesNotContainKey(token);
+    }
+
+    @Test
+    @DisplayName("imzosi buzilgan va muddati o'tgan token rad etiladi va keshlanmaydi")
+    void rejectsInvalidTokens() {
+        String token = provider.generateStaffToken("admin", 1L);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        String expired = provider(-1_000L).generateStaffToken("admin", 1L);
+
+        assertThat(provider.verify(tampered)).isEmpty();
+        assertThat(provider.verify(expired)).isEmpty();
+        assertThat(provider.validateToken(expired)).isFalse();
+        assertThat(cache(provider)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("keshdagi yozuv token exp'idan keyin yaroqsiz")
+    void cachedEntryExpiresWithToken() {
+        String token = provider.generateStaffToken("admin", 1L);
+        VerifiedToken verified = provider.verify(token).orElseThrow();
+        String key = cache(provider).keySet().iterator().next();
+
+        cache(provider).put(key, new VerifiedToken(verified.subject(), verified.userId(), verified.tokenUse(),
+                verified.type(), null, Set.of(), Set.of(), Instant.now().minusSeconds(1)));
+
+        assertThat(provider.verify(token)).isEmpty();
+        assertThat(cache(provider)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("refresh token belgilanadi (WS CONNECT uni rad etadi)")
+    void refreshTokenIsFlagged() {
+        String refresh = provider.generateStaffRefreshToken("admin", 1L);
+
+        assertThat(provider.verify(refresh).orElseThrow().isRefresh()).isTrue();
+    }
+
+    @Test
+    @DisplayName("chegara to'lsa yangi token keshlanmaydi, lekin tekshiriladi")
+    void boundedCache() {
+        ReflectionTestUtils.setField(provider, "verifiedCacheMaxEntries", 1);
+
+        assertThat(provider.verify(provider.generateStaffToken("a", 1L))).isPresent();
+        assertThat(provider.verify(provider.generateStaffToken("b", 2L))).isPresent();
+
+        assertThat(cache(provider)).hasSize(1);
+    }
+}
@@ -0,0 +1,234 @@
+package uz.familyfinance.api.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+import uz.familyfinance.api.dto.response.ApiResponse;
+import uz.familyfinance.api.dto.response.DashboardStatsResponse;
+import uz.familyfinance.api.event.ScopeDataChangedEvent;
+import uz.familyfinance.api.repository.AccountRepository;
+import uz.familyfinance.api.service.LedgerVersionService;
+import uz.familyfinance.api.service.ScopeContextService;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link LedgerETagAspect} — ETag daftar versiyasidan, mos {@code If-None-Match} controller'ga
+ * yetmasdan 304, commit event'i va scope almashishi ETag'ni o'zgartiradi; hisob endpoint'lari
+ * hisob egasi scope'i versiyasiga bog'liq.
+ */
+@DisplayName("Conditional GET: daftar versiyasi bo'yicha ETag va 304")
+class LedgerETagAspectTest {
+
+    private LedgerVersionService versions;
+    private ScopeContextService scopeContext;
+    private AccountRepository accountRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private LedgerETagAspect aspect;
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        versions = new LedgerVersionService();
+        scopeContext = mock(ScopeContextService.class);
+        when(scopeContext.getCurrentUserId()).thenReturn(7L);
+        when(scopeContext.getActiveScopeIdOrNull()).thenReturn(1L);
+        meterRegistry = new SimpleMeterRegistry();
+        accountRepository = mock(AccountRepository.class);
+        aspect = new LedgerETagAspect(versions, scopeContext, accountRepository, meterRegistry);
+        ReflectionTestUtils.setField(aspect, "maxStaleness", Duration.ofHours(1));
+
+        request = new MockHttpServletRequest("GET", "/v1/dashboard/stats");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private static ProceedingJoinPoint joinPoint() throws Throwable {
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.proceed()).thenReturn(ResponseEntity.ok(ApiResponse.success("stats")));
+        return joinPoint;
+    }
+
+    @LedgerVersioned
+    private static void scopeEndpoint() {
+    }
+
+    @LedgerVersioned(accountIdVariable = "id")
+    private static void accountEndpoint() {
+    }
+
+    private static LedgerVersioned versioned(String endpoint) throws NoSuchMethodException {
+        return LedgerETagAspectTest.class.getDeclaredMethod(endpoint).getAnnotation(LedgerVersioned.class);
+    }
+
+    private String firstETag() throws Throwable {
+        return firstETag(versioned("scopeEndpoint"));
+    }
+
+    private String firstETag(LedgerVersioned versioned) throws Throwable {
+        ResponseEntity<?> first = (ResponseEntity<?>) aspect.handle(joinPoint(), versioned);
+        return first.getHeaders().getETag();
+    }
+
+    @Test
+    @DisplayName("birinchi javob ETag bilan; mos If-None-Match — 304, controller chaqirilmaydi")
+    void notModifiedSkipsController() throws Throwable {
+        String etag = firstETag();
+        assertThat(etag).startsWith("W/\"");
+
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        ProceedingJoinPoint joinPoint = joinPoint();
+        ResponseEntity<?> second = (ResponseEntity<?>) aspect.handle(joinPoint, versioned("scopeEndpoint"));
+
+        assertThat(second.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(second.getBody()).isNull();
+        assertThat(second.getHeaders().getETag()).isEqualTo(etag);
+        verify(joinPoint, never()).proceed();
+        assertThat(meterRegistry.counter("ledger.etag", "result", "not_modified").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("scope'da commit bo'lsa ETag o'zgaradi — to'liq javob")
+    void commitChangesETag() throws Throwable {
+        String etag = firstETag();
+
+        versions.onScopeDataChanged(new ScopeDataChangedEvent(1L));
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        ResponseEntity<?> response = (ResponseEntity<?>) aspect.handle(joinPoint(), versioned("scopeEndpoint"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isNotEqualTo(etag);
+    }
+
+    @Test
+    @DisplayName("boshqa scope'dagi commit ETag'ga ta'sir qilmaydi, allScopes — qiladi")
+    void otherScopeDoesNotChangeETag() throws Throwable {
+        String etag = firstETag();
+
+        versions.onScopeDataChanged(new ScopeDataChangedEvent(2L));
+        assertThat(firstETag()).isEqualTo(etag);
+
+        versions.onScopeDataChanged(ScopeDataChangedEvent.allScopes());
+        assertThat(firstETag()).isNotEqualTo(etag);
+    }
+
+    @Test
+    @DisplayName("ETag foydalanuvchi, aktiv scope va so'rov parametrlariga bog'liq")
+    void etagDependsOnUserScopeAndQuery() throws Throwable {
+        String etag = firstETag();
+
+        when(scopeContext.getCurrentUserId()).thenReturn(8L);
+        assertThat(firstETag()).isNotEqualTo(etag);
+        when(scopeContext.getCurrentUserId()).thenReturn(7L);
+
+        when(scopeContext.getActiveScopeIdOrNull()).thenReturn(3L);
+        assertThat(firstETag()).isNotEqualTo(etag);
+        when(scopeContext.getActiveScopeIdOrNull()).thenReturn(1L);
+
+        request.setQueryString("from=2026-01-01");
+        assertThat(firstETag()).isNotEqualTo(etag);
+    }
+
+    @Test
+    @DisplayName("hisob endpoint'i — aktiv bo'lmagan ko'rinadigan scope'dagi hisob o'zgarsa ETag yangilanadi")
+    void accountEndpointUsesAccountHomeScope() throws Throwable {
+        request.setRequestURI("/v1/accounts/42/balance-summary");
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("id", "42"));
+        when(accountRepository.findHomeScopeIdById(42L)).thenReturn(Optional.of(2L));
+        LedgerVersioned account = versioned("accountEndpoint");
+        String etag = firstETag(account);
+
+        // Aktiv scope (1) dagi commit bu hisob javobiga ta'sir qilmaydi
+        versions.onScopeDataChanged(new ScopeDataChangedEvent(1L));
+        assertThat(firstETag(account)).isEqualTo(etag);
+
+        // Hisob egasi scope'i (2) — aktiv emas, lekin ETag shu versiyaga bog'liq
+        versions.onScopeDataChanged(new ScopeDataChangedEvent(2L));
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        ResponseEntity<?> response = (ResponseEntity<?>) aspect.handle(joinPoint(), account);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isNotEqualTo(etag);
+    }
+
+    @Test
+    @DisplayName("egasi scope'i yo'q hisob (tranzit) — istalgan o'zgarishda ETag yangilanadi")
+    void accountWithoutHomeScopeUsesGlobalVersion() throws Throwable {
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("id", "9"));
+        when(accountRepository.findHomeScopeIdById(9L)).thenReturn(Optional.empty());
+        LedgerVersioned account = versioned("accountEndpoint");
+        String etag = firstETag(account);
+
+        versions.onScopeDataChanged(new ScopeDataChangedEvent(5L));
+
+        assertThat(firstETag(account)).isNotEqualTo(etag);
+    }
+
+    @Test
+    @DisplayName("qisman dashboard (missingSections) — ETag yo'q, no-store; to'liq javob yana ETag oladi")
+    void partialResponseGetsNoETag() throws Throwable {
+        String etag = firstETag();
+        DashboardStatsResponse partial = DashboardStatsResponse.builder().missingSections(List.of("budgets")).build();
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        ApiResponse<DashboardStatsResponse> body = ApiResponse.success(partial);
+        when(joinPoint.proceed()).thenReturn(ResponseEntity.ok(body));
+
+        ResponseEntity<?> response = (ResponseEntity<?>) aspect.handle(joinPoint, versioned("scopeEndpoint"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isNull();
+        assertThat(response.getHeaders().getCacheControl()).isEqualTo("no-store");
+        assertThat(response.getBody()).isSameAs(body);
+        assertThat(meterRegistry.counter("ledger.etag", "result", "partial").count()).isEqualTo(1);
+
+        // Bo'limlar tiklangach to'liq dashboard yana ETag oladi
+        DashboardStatsResponse full = DashboardStatsResponse.builder().build();
+        when(joinPoint.proceed()).thenReturn(ResponseEntity.ok(ApiResponse.success(full)));
+        ResponseEntity<?> next = (ResponseEntity<?>) aspect.handle(joinPoint, versioned("scopeEndpoint"));
+        assertThat(next.getHeaders().getETag()).isEqualTo(etag);
+    }
+
+    @Test
+    @DisplayName("GET bo'lmagan so'rov o'zgarishsiz o'tadi")
+    void ignoresNonGet() throws Throwable {
+        request.setMethod("POST");
+
+        ResponseEntity<?> response = (ResponseEntity<?>) aspect.handle(joinPoint(), versioned("scopeEndpoint"));
+
+        assertThat(response.getHeaders().getETag()).isNull();
+    }
+
+    @Test
+    @DisplayName("If-None-Match: ro'yxat, kuchsiz prefiks va * qo'llab-quvvatlanadi")
+    void weakComparison() {
+        assertThat(LedgerETagAspect.matches("\"a\", W/\"b\"", "W/\"b\"")).isTrue();
+        assertThat(LedgerETagAspect.matches("\"b\"", "W/\"b\"")).isTrue();
+        assertThat(LedgerETagAspect.matches("*", "W/\"b\"")).isTrue();
+        assertThat(LedgerETagAspect.matches("W/\"c\"", "W/\"b\"")).isFalse();
+        assertThat(LedgerETagAspect.matches(null, "W/\"b\"")).isFalse();
+    }
+}
@@ -0,0 +1,105 @@
+package uz.familyfinance.api.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import uz.familyfinance.api.entity.Permission;
+import uz.familyfinance.api.entity.RoleEntity;
+import uz.familyfinance.api.entity.User;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link PrincipalCache} — har so'rovga alohida nusxa, foydalanuvchi bo'yicha tozalash,
+ * yuklash paytidagi tozalashda eski snapshot saqlanmasligi va User listener'i.
+ */
+@DisplayName("Autentifikatsiya snapshot keshi: nusxa, tozalash, avlod poygasi")
+class PrincipalCacheTest {
+
+    private PrincipalCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new PrincipalCache(new SimpleMeterRegistry());
+        loads = new AtomicInteger();
+        new PrincipalCacheListener().init(cache);
+    }
+
+    private static User user(Long id, String username) {
+        Permission permission = new Permission();
+        permission.setCode("TRANSACTIONS_VIEW");
+        RoleEntity role = new RoleEntity();
+        role.setCode("MEMBER");
+        role.setIsActive(true);
+        role.setPermissions(Set.of(permission));
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setActive(true);
+        user.setRoles(Set.of(role));
+        return user;
+    }
+
+    private CustomUserDetails load(Long id, String username) {
+        return cache.get(username, () -> {
+            loads.incrementAndGet();
+            return new CustomUserDetails(user(id, username));
+        });
+    }
+
+    @Test
+    @DisplayName("takroriy so'rov bazasiz, lekin har so'rov o'z nusxasini oladi (aktiv scope ulashilmaydi)")
+    void hitReturnsIndependentCopy() {
+        CustomUserDetails first = load(1L, "ali");
+        first.setActiveScopeId(10L);
+        CustomUserDetails second = load(1L, "ali");
+
+        assertThat(loads).hasValue(1);
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getActiveScopeId()).isNull();
+        assertThat(second.hasPermission("TRANSACTIONS_VIEW")).isTrue();
+        assertThat(second.getRoleCodes()).containsExactly("MEMBER");
+    }
+
+    @Test
+    @DisplayName("evictUser faqat o'sha foydalanuvchini qayta yuklatadi")
+    void evictUserReloadsOnlyThatUser() {
+        load(1L, "ali");
+        load(2L, "vali");
+
+        cache.evictUser(1L);
+        load(1L, "ali");
+        load(2L, "vali");
+
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("User qatori yangilansa (deactivate, parol) listener snapshot'ni tozalaydi")
+    void userUpdateEvictsViaListener() {
+        load(1L, "ali");
+
+        new PrincipalCacheListener().onUserChanged(user(1L, "ali"));
+        load(1L, "ali");
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("yuklash davomida tozalash bo'lsa — eski snapshot keshga qo'yilmaydi")
+    void evictionDuringLoadDiscardsSnapshot() {
+        cache.get("ali", () -> {
+            cache.evictUser(1L);
+            return new CustomUserDetails(user(1L, "ali"));
+        });
+
+        load(1L, "ali");
+
+        assertThat(loads).hasValue(1);
+    }
+}
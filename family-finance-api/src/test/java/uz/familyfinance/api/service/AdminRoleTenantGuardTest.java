@@ -4,6 +4,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
 import uz.familyfinance.api.entity.Account;
 import uz.familyfinance.api.entity.Scope;
@@ -24,6 +25,8 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -69,7 +72,8 @@ class AdminRoleTenantGuardTest {
                 mock(TransactionRepository.class),
                 mock(CardRepository.class),
                 mock(CardEncryptionService.class),
-                scopeContext);
+                scopeContext,
+                mock(ApplicationEventPublisher.class));
 
         Scope homeScope = mock(Scope.class);
         when(homeScope.getId()).thenReturn(SCOPE_ID);
@@ -90,6 +94,10 @@ class AdminRoleTenantGuardTest {
 
         when(scopeContext.isSuperAdmin()).thenReturn(false);
         when(scopeContext.getVisibleScopeIds()).thenReturn(Set.of());
+        // Haqiqiy getScopeVisibility() qoidasi: SUPER_ADMIN — ID'larsiz ALL belgisi
+        when(scopeContext.getScopeVisibility()).thenAnswer(inv -> scopeContext.isSuperAdmin()
+                ? ScopeContextService.ScopeVisibility.ALL
+                : new ScopeContextService.ScopeVisibility(false, scopeContext.getVisibleScopeIds()));
         when(scopeContext.canWriteToScope(anyLong())).thenReturn(false);
         when(scopeContext.canManageScope(anyLong())).thenReturn(false);
         when(accountRepository.canUserAccessAccount(anyLong(), anyLong(), anyBoolean(), any()))
@@ -126,6 +134,9 @@ class AdminRoleTenantGuardTest {
         void superAdminCanRead() {
             when(scopeContext.isSuperAdmin()).thenReturn(true);
             assertThatCode(() -> service.assertCanAccess(account)).doesNotThrowAnyException();
+            // barcha scope ID'lari yuklanmaydi va scope filtri qo'llanmaydi
+            verify(scopeContext, never()).getVisibleScopeIds();
+            verify(accountRepository, never()).canUserAccessAccount(anyLong(), anyLong(), anyBoolean(), any());
         }
 
         @Test
@@ -0,0 +1,80 @@
+package uz.familyfinance.api.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import uz.familyfinance.api.dto.response.BalanceHistoryResponse;
+import uz.familyfinance.api.enums.BalanceHistoryBucket;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link BalanceHistoryService#buildSeries} — bo'lak oxiridagi balans, oxirgi ma'lum qiymat
+ * bilan to'ldirish, hisoblar yig'indisi va LTTB qisqartirish.
+ */
+@DisplayName("Balans tarixi: bo'laklash, bo'shliqni to'ldirish, qisqartirish")
+class BalanceHistoryServiceTest {
+
+    private static final LocalDate JAN_1 = LocalDate.of(2026, 1, 1);
+
+    private static TreeMap<LocalDate, BigDecimal> snapshots(Object... dateAndBalance) {
+        TreeMap<LocalDate, BigDecimal> map = new TreeMap<>();
+        for (int i = 0; i < dateAndBalance.length; i += 2) {
+            map.put((LocalDate) dateAndBalance[i], new BigDecimal((String) dateAndBalance[i + 1]));
+        }
+        return map;
+    }
+
+    private static List<String> balances(BalanceHistoryResponse.Series series) {
+        return series.getPoints().stream().map(p -> p.getBalance().toPlainString()).toList();
+    }
+
+    @Test
+    @DisplayName("kunlik: snapshot yo'q kunlar oldingi qiymat bilan, davr boshi undan oldingi qiymatdan")
+    void dailyGapFillFromLastKnownValue() {
+        Map<Long, TreeMap<LocalDate, BigDecimal>> data = Map.of(1L, snapshots(JAN_1.plusDays(2), "150"));
+
+        BalanceHistoryResponse.Series series = BalanceHistoryService.buildSeries(List.of(1L), data,
+                Map.of(1L, new BigDecimal("100")), JAN_1, JAN_1.plusDays(4), BalanceHistoryBucket.DAY, 500);
+
+        assertThat(balances(series)).containsExactly("100", "100", "150", "150", "150");
+    }
+
+    @Test
+    @DisplayName("oylik: davr oxiridagi balans; ikki hisob yig'indisi; ochilishdan oldingi oy tashlanadi")
+    void monthlyEndOfPeriodSum() {
+        Map<Long, TreeMap<LocalDate, BigDecimal>> data = Map.of(
+                1L, snapshots(LocalDate.of(2026, 2, 10), "10", LocalDate.of(2026, 2, 27), "20",
+                        LocalDate.of(2026, 3, 5), "30"),
+                2L, snapshots(LocalDate.of(2026, 3, 1), "5"));
+
+        BalanceHistoryResponse.Series series = BalanceHistoryService.buildSeries(List.of(1L, 2L), data, Map.of(),
+                JAN_1, LocalDate.of(2026, 3, 15), BalanceHistoryBucket.MONTH, 500);
+
+        assertThat(series.getPoints()).extracting(BalanceHistoryResponse.Point::getDate)
+                .containsExactly(LocalDate.of(2026, 2, 1), LocalDate.of(2026, 3, 1));
+        assertThat(balances(series)).containsExactly("20", "35");
+    }
+
+    @Test
+    @DisplayName("ko'p yillik kunlik qator points ta nuqtaga qisqartiriladi, sourcePoints to'liq soni")
+    void downsamplesToTargetPoints() {
+        TreeMap<LocalDate, BigDecimal> daily = new TreeMap<>();
+        LocalDate to = JAN_1.plusYears(3);
+        for (LocalDate d = JAN_1; !d.isAfter(to); d = d.plusDays(1)) {
+            daily.put(d, BigDecimal.valueOf(d.getDayOfYear()));
+        }
+
+        BalanceHistoryResponse.Series series = BalanceHistoryService.buildSeries(List.of(1L), Map.of(1L, daily),
+                Map.of(), JAN_1, to, BalanceHistoryBucket.DAY, 100);
+
+        assertThat(series.getSourcePoints()).isEqualTo(daily.size());
+        assertThat(series.getPoints()).hasSize(100);
+        assertThat(series.getPoints().get(99).getDate()).isEqualTo(to);
+    }
+}
@@ -0,0 +1,118 @@
+package uz.familyfinance.api.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import uz.familyfinance.api.dto.response.CashFlowForecastResponse;
+import uz.familyfinance.api.entity.Account;
+import uz.familyfinance.api.entity.Budget;
+import uz.familyfinance.api.entity.Category;
+import uz.familyfinance.api.entity.Transaction;
+import uz.familyfinance.api.enums.RecurringPattern;
+import uz.familyfinance.api.enums.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link CashFlowForecastService#project} — shablonlar hisob tomonlariga yoyilishi, transfer
+ * ikki hisobga, scope'dan tashqari hisob e'tiborsiz, byudjet qoldig'i valyuta jamisida.
+ */
+@DisplayName("Pul oqimi prognozi: shablonlar, transfer, byudjet qoldig'i")
+class CashFlowForecastServiceTest {
+
+    private static final LocalDate FROM = LocalDate.of(2026, 3, 1);
+    private static final LocalDate TO = LocalDate.of(2026, 3, 31);
+
+    private static Account account(long id, String currency, String balance) {
+        Account a = Account.builder().name("Hisob " + id).currency(currency).balance(new BigDecimal(balance)).build();
+        a.setId(id);
+        return a;
+    }
+
+    private static Transaction template(TransactionType type, RecurringPattern pattern, LocalDate date,
+                                        String amount, Account from, Account to, Category category) {
+        return Transaction.builder().type(type).recurringPattern(pattern).isRecurring(true)
+                .transactionDate(date.atStartOfDay()).amount(new BigDecimal(amount))
+                .account(from).toAccount(to).category(category).build();
+    }
+
+    private static BigDecimal balanceOn(List<CashFlowForecastResponse.Point> points, LocalDate date) {
+        return points.stream().filter(p -> p.getDate().equals(date)).findFirst().orElseThrow().getBalance();
+    }
+
+    @Test
+    @DisplayName("daromad/xarajat o'z hisobiga, transfer ikkala hisobga; tashqi hisob tomoni tashlanadi")
+    void projectsTemplatesPerAccount() {
+        Account card = account(1L, "UZS", "1000.00");
+        Account cash = account(2L, "UZS", "0.00");
+        Account outside = account(99L, "UZS", "0.00");
+        List<Transaction> templates = List.of(
+                template(TransactionType.INCOME, RecurringPattern.MONTHLY, LocalDate.of(2026, 1, 10), "500.00", card, null, null),
+                template(TransactionType.EXPENSE, RecurringPattern.WEEKLY, LocalDate.of(2026, 2, 23), "50.00", card, null, null),
+                template(TransactionType.TRANSFER, RecurringPattern.MONTHLY, LocalDate.of(2026, 1, 31), "100.00", card, cash, null),
+                template(TransactionType.TRANSFER, RecurringPattern.MONTHLY, LocalDate.of(2026, 1, 5), "70.00", outside, cash, null));
+
+        CashFlowForecastResponse r = CashFlowForecastService.project(List.of(card, cash), templates,
+                List.of(), Map.of(), FROM, TO, "UZS");
+
+        CashFlowForecastResponse.AccountForecast cardSeries = r.getAccounts().get(0);
+        CashFlowForecastResponse.AccountForecast cashSeries = r.getAccounts().get(1);
+        assertThat(cardSeries.getPoints()).hasSize(31);
+        // Dushanbalar (2, 9, 16, 23, 30) × 50, +500 (10-kun), −100 (31-kun)
+        assertThat(balanceOn(cardSeries.getPoints(), LocalDate.of(2026, 3, 9))).isEqualByComparingTo("900.00");
+        assertThat(balanceOn(cardSeries.getPoints(), LocalDate.of(2026, 3, 10))).isEqualByComparingTo("1400.00");
+        assertThat(cardSeries.getProjectedBalance()).isEqualByComparingTo("1150.00");
+        assertThat(cashSeries.getProjectedBalance()).isEqualByComparingTo("170.00");
+        assertThat(r.getTemplateCount()).isEqualTo(4);
+        assertThat(r.getTotals()).singleElement()
+                .satisfies(t -> assertThat(t.getProjectedBalance()).isEqualByComparingTo("1320.00"));
+    }
+
+    @Test
+    @DisplayName("eng past balans va sanasi")
+    void tracksMinimum() {
+        Account card = account(1L, "USD", "100.00");
+        List<Transaction> templates = List.of(
+                template(TransactionType.EXPENSE, RecurringPattern.MONTHLY, LocalDate.of(2026, 2, 5), "150.00", card, null, null),
+                template(TransactionType.INCOME, RecurringPattern.MONTHLY, LocalDate.of(2026, 2, 20), "200.00", card, null, null));
+
+        CashFlowForecastResponse.AccountForecast s = CashFlowForecastService.project(List.of(card), templates,
+                List.of(), Map.of(), FROM, TO, "UZS").getAccounts().get(0);
+
+        assertThat(s.getMinBalance()).isEqualByComparingTo("-50.00");
+        assertThat(s.getMinBalanceDate()).isEqualTo(LocalDate.of(2026, 3, 5));
+    }
+
+    @Test
+    @DisplayName("byudjet: limit − sarflangan − rejalashtirilgan shablon, faqat byudjet valyutasi jamisida")
+    void budgetReserveReducesCurrencyTotal() {
+        Account card = account(1L, "UZS", "1000.00");
+        Account usd = account(2L, "USD", "10.00");
+        Category food = Category.builder().name("Oziq").build();
+        food.setId(5L);
+        Budget budget = Budget.builder().category(food).amount(new BigDecimal("400.00"))
+                .startDate(LocalDate.of(2026, 2, 15)).endDate(LocalDate.of(2026, 3, 10)).build();
+        budget.setId(11L);
+        List<Transaction> templates = List.of(
+                template(TransactionType.EXPENSE, RecurringPattern.WEEKLY, LocalDate.of(2026, 2, 23), "50.00", card, null, food));
+
+        CashFlowForecastResponse r = CashFlowForecastService.project(List.of(card, usd), templates,
+                List.of(budget), Map.of(11L, new BigDecimal("150.00")), FROM, TO, "UZS");
+
+        // 400 − 150 sarflangan − 2×50 (2 va 9 mart) = 150, 10 kunga taqsimlanadi
+        CashFlowForecastResponse.CurrencyForecast uzs = r.getTotals().stream()
+                .filter(t -> t.getCurrency().equals("UZS")).findFirst().orElseThrow();
+        assertThat(uzs.getBudgetReserve()).isEqualByComparingTo("150.00");
+        assertThat(balanceOn(uzs.getPoints(), LocalDate.of(2026, 3, 1))).isEqualByComparingTo("985.00");
+        // 1000 − 5×50 (dushanbalar) − 150 byudjet qoldig'i
+        assertThat(uzs.getProjectedBalance()).isEqualByComparingTo("600.00");
+        CashFlowForecastResponse.CurrencyForecast usdTotal = r.getTotals().stream()
+                .filter(t -> t.getCurrency().equals("USD")).findFirst().orElseThrow();
+        assertThat(usdTotal.getBudgetReserve()).isEqualByComparingTo("0");
+        assertThat(usdTotal.getProjectedBalance()).isEqualByComparingTo("10.00");
+    }
+}
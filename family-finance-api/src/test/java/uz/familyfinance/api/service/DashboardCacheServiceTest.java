@@ -0,0 +1,100 @@
+package uz.familyfinance.api.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import uz.familyfinance.api.event.ScopeDataChangedEvent;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link DashboardCacheService} — (tur, scope) bo'yicha kesh, commit event'i bilan tozalash,
+ * hisoblash paytidagi tozalashda eski natija saqlanmasligi va hit/miss metrikalari.
+ */
+@DisplayName("Dashboard keshi: hit/miss, commit'dan keyin tozalash, avlod poygasi")
+class DashboardCacheServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DashboardCacheService cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new DashboardCacheService(meterRegistry);
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(cache, "maxEntries", 100);
+        loads = new AtomicInteger();
+    }
+
+    private String load(Long scopeId) {
+        return cache.get(DashboardCacheService.STATS, scopeId, () -> "stats-" + scopeId + "-" + loads.incrementAndGet());
+    }
+
+    private double count(String result) {
+        return meterRegistry.counter("dashboard.cache", "kind", DashboardCacheService.STATS, "result", result).count();
+    }
+
+    @Test
+    @DisplayName("ikkinchi so'rov keshdan — loader bir marta, metrikada 1 miss + 1 hit")
+    void secondReadIsHit() {
+        assertThat(load(1L)).isEqualTo("stats-1-1");
+        assertThat(load(1L)).isEqualTo("stats-1-1");
+
+        assertThat(loads).hasValue(1);
+        assertThat(count("miss")).isEqualTo(1);
+        assertThat(count("hit")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("scope event'i faqat o'sha scope yozuvlarini tozalaydi")
+    void scopeEventEvictsOnlyThatScope() {
+        load(1L);
+        load(2L);
+
+        cache.onScopeDataChanged(new ScopeDataChangedEvent(1L));
+
+        assertThat(load(1L)).isEqualTo("stats-1-3");
+        assertThat(load(2L)).isEqualTo("stats-2-2");
+    }
+
+    @Test
+    @DisplayName("allScopes event'i (global kategoriya) hamma yozuvni tozalaydi")
+    void allScopesEventEvictsEverything() {
+        load(1L);
+        load(2L);
+
+        cache.onScopeDataChanged(ScopeDataChangedEvent.allScopes());
+
+        load(1L);
+        load(2L);
+        assertThat(loads).hasValue(4);
+    }
+
+    @Test
+    @DisplayName("hisoblash davomida commit bo'lsa — eski natija keshga qo'yilmaydi")
+    void evictionDuringLoadDiscardsStaleValue() {
+        String stale = cache.get(DashboardCacheService.STATS, 1L, () -> {
+            cache.onScopeDataChanged(new ScopeDataChangedEvent(1L));
+            return "stale";
+        });
+
+        assertThat(stale).isEqualTo("stale");
+        assertThat(load(1L)).isEqualTo("stats-1-1");
+        assertThat(load(1L)).isEqualTo("stats-1-1");
+    }
+
+    @Test
+    @DisplayName("aktiv scope yo'q (null) — keshlanmaydi")
+    void nullScopeIsNotCached() {
+        load(null);
+        load(null);
+
+        assertThat(loads).hasValue(2);
+    }
+}
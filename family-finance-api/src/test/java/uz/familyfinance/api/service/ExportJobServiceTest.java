@@ -0,0 +1,196 @@
+package uz.familyfinance.api.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import uz.familyfinance.api.dto.response.ExportJobResponse;
+import uz.familyfinance.api.enums.ExportJobStatus;
+import uz.familyfinance.api.exception.ConflictException;
+import uz.familyfinance.api.exception.ResourceNotFoundException;
+import uz.familyfinance.api.service.export.ExportRowWriter;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link ExportJobService} — fon job: diskka yozish va yuklab olish, foydalanuvchi chegarasi,
+ * begona job ko'rinmasligi, xato holati, sahifalab yig'ish va TTL tozalash.
+ */
+@DisplayName("Eksport job'lari: navbat, chegara, diskdagi natija, TTL")
+class ExportJobServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private ScopeContextService scopeContext;
+    private ExportJobService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        scopeContext = mock(ScopeContextService.class);
+        when(scopeContext.getCurrentUserId()).thenReturn(1L);
+        service = new ExportJobService(scopeContext);
+        ReflectionTestUtils.setField(service, "directoryPath", dir.toString());
+        ReflectionTestUtils.setField(service, "workers", 2);
+        ReflectionTestUtils.setField(service, "queueCapacity", 10);
+        ReflectionTestUtils.setField(service, "perUserLimit", 1);
+        ReflectionTestUtils.setField(service, "ttl", Duration.ofHours(1));
+        ReflectionTestUtils.setField(service, "pageSize", 2);
+        ReflectionTestUtils.setField(service, "maxRecords", 100);
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    private ExportJobResponse awaitFinished(String id) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            ExportJobResponse job = service.get(id);
+            if (job.getStatus() == ExportJobStatus.DONE || job.getStatus() == ExportJobStatus.FAILED) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Job tugamadi: " + id);
+    }
+
+    @Test
+    @DisplayName("tayyor fayl diskdan yuklab olinadi, progress 100")
+    void completedJobIsDownloadable() throws Exception {
+        ExportJobResponse submitted = service.submit("test", "a.txt", "text/plain",
+                (out, progress) -> out.write("salom".getBytes(StandardCharsets.UTF_8)));
+
+        ExportJobResponse done = awaitFinished(submitted.getId());
+        ExportJobService.Download download = service.download(submitted.getId());
+
+        assertThat(done.getProgress()).isEqualTo(100);
+        assertThat(done.getSize()).isEqualTo(5L);
+        assertThat(Files.readString(download.path())).isEqualTo("salom");
+        assertThat(download.path().getParent()).isEqualTo(dir);
+    }
+
+    @Test
+    @DisplayName("foydalanuvchi chegarasi: faol job tugamaguncha yangisi 409")
+    void perUserLimitRejectsSecondActiveJob() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExportJobResponse first = service.submit("slow", "a.txt", "text/plain",
+                (out, progress) -> release.await(5, TimeUnit.SECONDS));
+
+        assertThatThrownBy(() -> service.submit("second", "b.txt", "text/plain", (out, progress) -> {}))
+                .isInstanceOf(ConflictException.class);
+
+        release.countDown();
+        awaitFinished(first.getId());
+        assertThat(service.submit("third", "c.txt", "text/plain", (out, progress) -> {})).isNotNull();
+    }
+
+    @Test
+    @DisplayName("begona foydalanuvchi job'ni ko'rmaydi va yuklay olmaydi")
+    void otherUserCannotSeeJob() throws Exception {
+        ExportJobResponse job = service.submit("test", "a.txt", "text/plain", (out, progress) -> out.write(1));
+        awaitFinished(job.getId());
+
+        when(scopeContext.getCurrentUserId()).thenReturn(2L);
+
+        assertThatThrownBy(() -> service.download(job.getId())).isInstanceOf(ResourceNotFoundException.class);
+        assertThat(service.listMine()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("vazifa xatosi — FAILED, yarim fayl qolmaydi")
+    void failedJobLeavesNoFile() throws Exception {
+        ExportJobResponse job = service.submit("broken", "a.txt", "text/plain", (out, progress) -> {
+            out.write(1);
+            throw new IllegalStateException("xato");
+        });
+
+        assertThat(awaitFinished(job.getId()).getStatus()).isEqualTo(ExportJobStatus.FAILED);
+        try (var files = Files.list(dir)) {
+            assertThat(files).isEmpty();
+        }
+        assertThatThrownBy(() -> service.download(job.getId())).isInstanceOf(ConflictException.class);
+    }
+
+    @Test
+    @DisplayName("streamAll keyset bo'laklari bilan yozadi — eksport davomida qo'shilgan yozuv takror/tushib qolish bermaydi")
+    void streamAllUsesKeysetAndIgnoresConcurrentInserts() throws Exception {
+        LocalDateTime base = LocalDateTime.of(2026, 1, 1, 12, 0);
+        // (createdAt, id) DESC: bir xil vaqtli qatorlar id bo'yicha ajratiladi
+        List<ExportJobService.Cursor> table = new ArrayList<>(List.of(
+                new ExportJobService.Cursor(base.plusMinutes(2), 5L),
+                new ExportJobService.Cursor(base.plusMinutes(1), 4L),
+                new ExportJobService.Cursor(base.plusMinutes(1), 3L),
+                new ExportJobService.Cursor(base, 2L),
+                new ExportJobService.Cursor(base, 1L)));
+        Comparator<ExportJobService.Cursor> desc = Comparator.comparing(ExportJobService.Cursor::createdAt)
+                .thenComparing(ExportJobService.Cursor::id).reversed();
+        List<ExportJobService.Cursor> written = new ArrayList<>();
+        ExportRowWriter<ExportJobService.Cursor> writer = new ExportRowWriter<>() {
+            @Override
+            public void write(ExportJobService.Cursor row) {
+                written.add(row);
+            }
+
+            @Override
+            public long count() {
+                return written.size();
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        long[] lastProgress = new long[2];
+
+        long count = service.streamAll((after, limit) -> {
+            List<ExportJobService.Cursor> chunk = table.stream()
+                    .sorted(desc)
+                    .filter(row -> after == null || desc.compare(row, after) > 0)
+                    .limit(limit)
+                    .toList();
+            // Har bo'lakdan keyin jadval boshiga yangi yozuv tushadi (OFFSET'da siljish beradi)
+            table.add(new ExportJobService.Cursor(base.plusHours(1), 100L + table.size()));
+            return chunk;
+        }, row -> row, 5, writer, (processed, total) -> {
+            lastProgress[0] = processed;
+            lastProgress[1] = total;
+        });
+
+        assertThat(count).isEqualTo(5);
+        assertThat(written).extracting(ExportJobService.Cursor::id).containsExactly(5L, 4L, 3L, 2L, 1L);
+        assertThat(lastProgress).containsExactly(5, 5);
+    }
+
+    @Test
+    @DisplayName("TTL o'tgan job va fayli tozalanadi")
+    void cleanupRemovesExpiredJobs() throws Exception {
+        ExportJobResponse job = service.submit("test", "a.txt", "text/plain", (out, progress) -> out.write(1));
+        awaitFinished(job.getId());
+        ReflectionTestUtils.setField(service, "ttl", Duration.ZERO);
+
+        service.cleanup();
+
+        assertThat(service.listMine()).isEmpty();
+        try (var files = Files.list(dir)) {
+            assertThat(files).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package uz.familyfinance.api.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import uz.familyfinance.api.repository.TransactionRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link MemberTotalsService} — barcha a'zolar bitta so'rovda; tur jamilari kategoriya
+ * qatorlaridan yig'iladi, kategoriyasiz summa {@code null} kalitida — kesim jamiga teng.
+ */
+@DisplayName("A'zolar jamilari: bitta so'rov, tur va kategoriya kesimi")
+class MemberTotalsServiceTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2026, 1, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2026, 1, 31, 23, 59, 59);
+
+    private final TransactionRepository transactionRepository = mock(TransactionRepository.class);
+    private final MemberTotalsService service = new MemberTotalsService(transactionRepository);
+
+    @Test
+    @DisplayName("bir nechta a'zo — bitta so'rov, daromad/xarajat va kategoriyalar ajratiladi")
+    void aggregatesAllMembersInOneQuery() {
+        when(transactionRepository.sumByMemberIdsGroupedByTypeAndCategory(anyCollection(), any(), any()))
+                .thenReturn(List.of(
+                        new Object[]{1L, "EXPENSE", 10L, new BigDecimal("100.00")},
+                        new Object[]{1L, "EXPENSE", 11L, new BigDecimal("40.00")},
+                        new Object[]{1L, "EXPENSE", null, new BigDecimal("5.00")},
+                        new Object[]{1L, "INCOME", 20L, new BigDecimal("900.00")},
+                        new Object[]{2L, "EXPENSE", 10L, new BigDecimal("7.00")}));
+
+        Map<Long, MemberTotalsService.MemberTotals> totals = service.totalsByMember(List.of(1L, 2L, 3L), FROM, TO);
+
+        verify(transactionRepository, times(1)).sumByMemberIdsGroupedByTypeAndCategory(List.of(1L, 2L, 3L), FROM, TO);
+        MemberTotalsService.MemberTotals first = totals.get(1L);
+        assertThat(first.expense()).isEqualByComparingTo("145.00");
+        assertThat(first.income()).isEqualByComparingTo("900.00");
+        assertThat(first.expenseByCategory()).containsOnlyKeys(10L, 11L, null);
+        assertThat(first.expenseByCategory()).containsEntry(null, new BigDecimal("5.00"));
+        assertThat(first.expenseByCategory().values().stream().reduce(BigDecimal.ZERO, BigDecimal::add))
+                .isEqualByComparingTo(first.expense());
+        assertThat(first.incomeByCategory()).containsEntry(20L, new BigDecimal("900.00"));
+        assertThat(totals.get(2L).income()).isEqualByComparingTo("0");
+        assertThat(totals).doesNotContainKey(3L);
+    }
+
+    @Test
+    @DisplayName("a'zolar ro'yxati bo'sh — so'rov bajarilmaydi")
+    void emptyMembersSkipQuery() {
+        assertThat(service.totalsByMember(List.of(), FROM, TO)).isEmpty();
+        verifyNoInteractions(transactionRepository);
+    }
+}
@@ -0,0 +1,179 @@
+package uz.familyfinance.api.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import uz.familyfinance.api.exception.BadRequestException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * {@link ParallelQueryExecutor} — parallel bajarish, so'rov ichidagi ulush chegarasi, SecurityContext
+ * ko'chishi, vaqt tugaganda qisman natija va chaqiruvchi tranzaksiyasida ketma-ket bajarish
+ * (tranzaksiya menejeri mock).
+ */
+@DisplayName("Parallel so'rovlar: chegara, kontekst, timeout → qisman javob")
+class ParallelQueryExecutorTest {
+
+    private ParallelQueryExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ParallelQueryExecutor(mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(executor, "maxConcurrency", 2);
+        ReflectionTestUtils.setField(executor, "timeout", Duration.ofMillis(300));
+        executor.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("bir vaqtda faqat max-concurrency ta so'rov bajariladi")
+    void boundsConcurrency() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        ParallelQueryExecutor.FanOut fanOut = executor.fanOut();
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            int n = i;
+            futures.add(fanOut.submit(() -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                sleep(20);
+                running.decrementAndGet();
+                return n;
+            }));
+        }
+
+        int sum = futures.stream().mapToInt(f -> fanOut.join("q", f, -100)).sum();
+
+        assertThat(sum).isEqualTo(15);
+        assertThat(peak.get()).isLessThanOrEqualTo(2);
+        assertThat(fanOut.isPartial()).isFalse();
+    }
+
+    @Test
+    @DisplayName("chegara har so'rovga alohida — band to'plam boshqa so'rovni qisman javobga tushirmaydi")
+    void concurrencyIsPerFanOut() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ParallelQueryExecutor.FanOut busy = executor.fanOut();
+        List<Future<String>> blocked = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            blocked.add(busy.submit(() -> {
+                await(release);
+                return "band";
+            }));
+        }
+
+        try {
+            ParallelQueryExecutor.FanOut other = executor.fanOut();
+            Future<String> quick = other.submit(() -> "tez");
+
+            assertThat(other.join("quick", quick, "fallback")).isEqualTo("tez");
+            assertThat(other.isPartial()).isFalse();
+        } finally {
+            release.countDown();
+        }
+        assertThat(blocked).allSatisfy(f -> assertThat(busy.join("busy", f, null)).isEqualTo("band"));
+    }
+
+    @Test
+    @DisplayName("SecurityContext vazifa thread'iga ko'chadi")
+    void propagatesSecurityContext() {
+        Authentication auth = new UsernamePasswordAuthenticationToken("admin", null, List.of());
+        SecurityContextHolder.getContext().setAuthentication(auth);
+        ParallelQueryExecutor.FanOut fanOut = executor.fanOut();
+
+        Future<Authentication> seen = fanOut.submit(() -> SecurityContextHolder.getContext().getAuthentication());
+
+        assertThat(fanOut.join("auth", seen, null)).isSameAs(auth);
+    }
+
+    @Test
+    @DisplayName("muddatda tugamagan bo'lim fallback bilan, missingSections'da qaytadi")
+    void timeoutFallsBackToPartial() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        ParallelQueryExecutor.FanOut fanOut = executor.fanOut();
+        Future<String> slow = fanOut.submit(() -> {
+            try {
+                Thread.sleep(5_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return "kech";
+        });
+        Future<String> fast = fanOut.submit(() -> "tez");
+
+        assertThat(fanOut.join("fast", fast, null)).isEqualTo("tez");
+        assertThat(fanOut.join("slow", slow, "bo'sh")).isEqualTo("bo'sh");
+        assertThat(fanOut.missingSections()).containsExactly("slow");
+        assertThat(interrupted.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("so'rov xatosi o'zgarishsiz qayta tashlanadi")
+    void rethrowsQueryFailure() {
+        ParallelQueryExecutor.FanOut fanOut = executor.fanOut();
+        Future<String> failing = fanOut.submit(() -> {
+            throw new BadRequestException("xato");
+        });
+
+        assertThatThrownBy(() -> fanOut.join("failing", failing, null))
+                .isInstanceOf(BadRequestException.class).hasMessage("xato");
+    }
+
+    @Test
+    @DisplayName("chaqiruvchi tranzaksiyada — so'rov shu thread'da (commit qilinmagan yozuvlar ko'rinadi)")
+    void runsInlineInsideCallerTransaction() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            ParallelQueryExecutor.FanOut fanOut = executor.fanOut();
+            Future<Thread> ran = fanOut.submit(Thread::currentThread);
+            Future<String> failing = fanOut.submit(() -> {
+                throw new BadRequestException("xato");
+            });
+
+            assertThat(fanOut.join("inline", ran, null)).isSameAs(Thread.currentThread());
+            assertThatThrownBy(() -> fanOut.join("failing", failing, null))
+                    .isInstanceOf(BadRequestException.class).hasMessage("xato");
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package uz.familyfinance.api.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.support.SimpleCacheManager;
+import uz.familyfinance.api.config.BoundedTtlCache;
+import uz.familyfinance.api.config.CacheConfig;
+import uz.familyfinance.api.entity.Permission;
+import uz.familyfinance.api.enums.PermissionCode;
+import uz.familyfinance.api.repository.PermissionRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link PermissionService} keshi — barcha tekshiruv turlari bitta userId yozuvidan,
+ * foydalanuvchi bo'yicha tozalash haqiqatan ishlaydi, TTL va hajm chegarasi, metrikalar.
+ */
+@DisplayName("Permission keshi: bitta yozuv, userId bo'yicha tozalash, TTL va hajm")
+class PermissionServiceCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PermissionRepository permissionRepository;
+    private PermissionService service;
+
+    @BeforeEach
+    void setUp() {
+        init(Duration.ofMinutes(10), 100);
+    }
+
+    private void init(Duration ttl, int maxEntries) {
+        meterRegistry = new SimpleMeterRegistry();
+        permissionRepository = mock(PermissionRepository.class);
+        Permission view = new Permission();
+        view.setCode(PermissionCode.TRANSACTIONS_VIEW.getCode());
+        when(permissionRepository.findByUserId(anyLong())).thenReturn(Set.of(view));
+
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(
+                new BoundedTtlCache(CacheConfig.USER_PERMISSIONS, ttl, maxEntries, meterRegistry),
+                new BoundedTtlCache(CacheConfig.USER_ROLES, ttl, maxEntries, meterRegistry)));
+        cacheManager.afterPropertiesSet();
+        service = new PermissionService(permissionRepository, cacheManager);
+    }
+
+    private double gets(String result) {
+        return meterRegistry.counter("cache.gets", "cache", CacheConfig.USER_PERMISSIONS, "result", result).count();
+    }
+
+    @Test
+    @DisplayName("turli tekshiruvlar bitta yozuvdan — repository bir marta, 1 miss")
+    void allChecksShareOneEntry() {
+        assertThat(service.hasAnyPermission(1L, PermissionCode.TRANSACTIONS_VIEW)).isTrue();
+        assertThat(service.hasPermission(1L, PermissionCode.TRANSACTIONS_VIEW)).isTrue();
+        assertThat(service.hasAllPermissions(1L, PermissionCode.TRANSACTIONS_VIEW)).isTrue();
+        assertThat(service.hasPermission(1L, PermissionCode.TRANSACTIONS_VIEW.getCode())).isTrue();
+
+        verify(permissionRepository, times(1)).findByUserId(1L);
+        assertThat(gets("miss")).isEqualTo(1);
+        assertThat(gets("hit")).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("clearUserPermissionsCache(userId) — faqat o'sha foydalanuvchi qayta yuklanadi")
+    void perUserEvictionWorks() {
+        service.hasPermission(1L, PermissionCode.TRANSACTIONS_VIEW);
+        service.hasPermission(2L, PermissionCode.TRANSACTIONS_VIEW);
+
+        service.clearUserPermissionsCache(1L);
+        service.hasPermission(1L, PermissionCode.TRANSACTIONS_VIEW);
+        service.hasPermission(2L, PermissionCode.TRANSACTIONS_VIEW);
+
+        verify(permissionRepository, times(2)).findByUserId(1L);
+        verify(permissionRepository, times(1)).findByUserId(2L);
+    }
+
+    @Test
+    @DisplayName("TTL o'tgan yozuv qayta yuklanadi")
+    void expiredEntryIsReloaded() {
+        init(Duration.ZERO, 100);
+
+        service.getUserPermissionCodes(1L);
+        service.getUserPermissionCodes(1L);
+
+        verify(permissionRepository, times(2)).findByUserId(1L);
+    }
+
+    @Test
+    @DisplayName("hajm to'lsa yangi yozuv keshlanmaydi, mavjudlari saqlanadi")
+    void boundedBySize() {
+        init(Duration.ofMinutes(10), 1);
+
+        service.getUserPermissionCodes(1L);
+        service.getUserPermissionCodes(2L);
+        service.getUserPermissionCodes(1L);
+        service.getUserPermissionCodes(2L);
+
+        verify(permissionRepository, times(1)).findByUserId(1L);
+        verify(permissionRepository, times(2)).findByUserId(2L);
+        assertThat(meterRegistry.get("cache.size").tag("cache", CacheConfig.USER_PERMISSIONS).gauge().value())
+                .isEqualTo(1);
+    }
+}
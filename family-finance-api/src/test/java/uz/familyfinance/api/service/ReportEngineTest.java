@@ -0,0 +1,125 @@
+package uz.familyfinance.api.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import uz.familyfinance.api.dto.request.ReportQueryRequest;
+import uz.familyfinance.api.enums.ReportDimension;
+import uz.familyfinance.api.enums.ReportMeasure;
+import uz.familyfinance.api.enums.TransactionType;
+import uz.familyfinance.api.exception.BadRequestException;
+import uz.familyfinance.api.repository.AccountRepository;
+import uz.familyfinance.api.repository.CategoryRepository;
+import uz.familyfinance.api.repository.FamilyMemberRepository;
+import uz.familyfinance.api.repository.TagRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * {@link ReportEngine#compile} — manba tanlash, ROLLUP/GROUPING SETS, storno filtri va
+ * scope sharti bitta joyda, teg bo'yicha ikki marta hisoblamaslik.
+ */
+@DisplayName("Hisobot mexanizmi: so'rovni bitta ROLLUP SQL'ga kompilyatsiya")
+class ReportEngineTest {
+
+    private static final LocalDate FROM = LocalDate.of(2026, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2026, 3, 31);
+
+    private ReportEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new ReportEngine(mock(JdbcTemplate.class), mock(ScopeContextService.class),
+                mock(CategoryRepository.class), mock(FamilyMemberRepository.class),
+                mock(AccountRepository.class), mock(TagRepository.class));
+        ReflectionTestUtils.setField(engine, "maxRows", 1000);
+    }
+
+    private static ReportQueryRequest query(List<ReportDimension> dimensions, ReportMeasure... measures) {
+        return ReportQueryRequest.builder()
+                .from(FROM).to(TO)
+                .dimensions(dimensions)
+                .measures(List.of(measures))
+                .build();
+    }
+
+    @Test
+    @DisplayName("hisob/teg yo'q — kunlik agregatlardan, ROLLUP va scope sharti bilan")
+    void aggregateSourceWithRollup() {
+        ReportEngine.CompiledQuery q = engine.compile(
+                query(List.of(ReportDimension.MONTH, ReportDimension.CATEGORY), ReportMeasure.SUM, ReportMeasure.AVG), 7L);
+
+        assertThat(q.source()).isEqualTo(ReportEngine.SOURCE_AGGREGATES);
+        assertThat(q.sql())
+                .contains("FROM ledger_daily_aggregates e")
+                .contains("GROUP BY ROLLUP (CAST(date_trunc('month', e.ledger_date) AS DATE), e.category_id)")
+                .contains("AND e.scope_id = ?")
+                // AVG tranzaksiyalar soni bo'yicha (V63 tx_count), split ulushlari emas
+                .contains("NULLIF(SUM(e.tx_count), 0)")
+                .contains("LIMIT 1001");
+        assertThat(q.args()).endsWith(7L);
+    }
+
+    @Test
+    @DisplayName("hisob o'lchovi — daftardan; storno filtri ikkala tarmoqda, scope ikki marta, COUNT DISTINCT")
+    void ledgerSourceAppliesReversalFilterAndScope() {
+        ReportEngine.CompiledQuery q = engine.compile(
+                query(List.of(ReportDimension.ACCOUNT), ReportMeasure.COUNT), 7L);
+
+        assertThat(q.source()).isEqualTo(ReportEngine.SOURCE_LEDGER);
+        assertThat(q.sql().split("t.status <> 'REVERSED' AND t.type <> 'REVERSAL'", -1)).hasSize(3);
+        assertThat(q.sql().split("AND t.scope_id = \\?", -1)).hasSize(3);
+        assertThat(q.args().stream().filter(a -> a.equals(7L))).hasSize(2);
+        // Split ulushlari bitta tranzaksiya
+        assertThat(q.sql()).contains("COALESCE(COUNT(DISTINCT e.transaction_id), 0) AS m0");
+    }
+
+    @Test
+    @DisplayName("SUPER_ADMIN (scopeId null) — scope sharti yo'q")
+    void globalScopeHasNoScopeFilter() {
+        ReportEngine.CompiledQuery q = engine.compile(query(List.of(ReportDimension.TYPE), ReportMeasure.SUM), null);
+
+        assertThat(q.sql()).doesNotContain("scope_id");
+    }
+
+    @Test
+    @DisplayName("teg — jamlangan darajada faqat birinchi teg bilan (ikki marta hisoblanmaydi)")
+    void tagRollupCountsEntryOnce() {
+        ReportEngine.CompiledQuery q = engine.compile(
+                query(List.of(ReportDimension.TAG), ReportMeasure.SUM), 7L);
+
+        assertThat(q.sql())
+                .contains("LEFT JOIN transaction_tags tt")
+                .contains("CASE WHEN GROUPING(e.tag_id) = 1 THEN SUM(e.amount) FILTER (WHERE e.first_tag)");
+    }
+
+    @Test
+    @DisplayName("subtotals=false — faqat batafsil qatorlar va umumiy jami")
+    void detailAndGrandTotalOnly() {
+        ReportQueryRequest request = query(List.of(ReportDimension.DAY, ReportDimension.TYPE), ReportMeasure.SUM);
+        request.setSubtotals(false);
+
+        assertThat(engine.compile(request, 7L).sql())
+                .contains("GROUP BY GROUPING SETS ((e.ledger_date, e.type), ())");
+    }
+
+    @Test
+    @DisplayName("REVERSAL turi va teskari sana oralig'i rad etiladi")
+    void rejectsReversalTypeAndInvertedRange() {
+        ReportQueryRequest reversal = query(List.of(ReportDimension.TYPE), ReportMeasure.SUM);
+        reversal.setTypes(Set.of(TransactionType.REVERSAL));
+        ReportQueryRequest inverted = query(List.of(ReportDimension.TYPE), ReportMeasure.SUM);
+        inverted.setFrom(TO.plusDays(1));
+
+        assertThatThrownBy(() -> engine.compile(reversal, 7L)).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> engine.compile(inverted, 7L)).isInstanceOf(BadRequestException.class);
+    }
+}
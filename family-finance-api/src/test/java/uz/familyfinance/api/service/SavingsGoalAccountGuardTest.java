@@ -4,6 +4,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
 import uz.familyfinance.api.dto.request.SavingsGoalRequest;
 import uz.familyfinance.api.entity.Account;
@@ -69,6 +70,7 @@ class SavingsGoalAccountGuardTest {
                 accountRepository,
                 mock(StaffNotificationService.class),
                 scopeContext,
+                mock(ApplicationEventPublisher.class),
                 accountService);
 
         Scope activeScope = mock(Scope.class);
@@ -0,0 +1,140 @@
+package uz.familyfinance.api.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.security.core.context.SecurityContextHolder;
+import uz.familyfinance.api.entity.Scope;
+import uz.familyfinance.api.entity.User;
+import uz.familyfinance.api.enums.ScopeRole;
+import uz.familyfinance.api.repository.ScopeMembershipRepository;
+import uz.familyfinance.api.repository.ScopeRepository;
+import uz.familyfinance.api.security.CustomUserDetails;
+import uz.familyfinance.api.security.ScopeResolutionListener;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link ScopeContextService} — so'rov ichida bir marta aniqlash (principal'dagi natijalar),
+ * SUPER_ADMIN uchun bazasiz "barcha scope'lar" belgisi, parallel thread'larda qayta
+ * ishlatish va scope/a'zolik yozilganda tozalash (repository'lar mock).
+ */
+@DisplayName("Scope konteksti: so'rov ichida bir marta, SUPER_ADMIN belgisi, tozalash")
+class ScopeContextServiceTest {
+
+    private ScopeRepository scopeRepository;
+    private ScopeMembershipRepository membershipRepository;
+    private ScopeContextService service;
+    private CustomUserDetails principal;
+
+    @BeforeEach
+    void setUp() {
+        scopeRepository = mock(ScopeRepository.class);
+        membershipRepository = mock(ScopeMembershipRepository.class);
+        service = new ScopeContextService(scopeRepository, membershipRepository);
+
+        Scope scope = Scope.builder().name("Uy").build();
+        scope.setId(5L);
+        when(scopeRepository.findById(5L)).thenReturn(Optional.of(scope));
+        when(scopeRepository.findVisibleScopeIdsForUser(1L)).thenReturn(Set.of(5L, 6L));
+        when(scopeRepository.findManageableScopeIdsForUser(1L)).thenReturn(Set.of(5L));
+        when(membershipRepository.findActiveRole(anyLong(), anyLong())).thenReturn(Optional.of(ScopeRole.OWNER));
+
+        principal = authenticate(false);
+        principal.setActiveScopeId(5L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private CustomUserDetails authenticate(boolean superAdmin) {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("ali");
+        user.setActive(true);
+        user.setIsSuperAdmin(superAdmin);
+        CustomUserDetails details = new CustomUserDetails(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(details, null, List.of()));
+        return details;
+    }
+
+    @Test
+    @DisplayName("takroriy chaqiruvlar — har so'rov turi bazaga bir marta")
+    void resolvesOncePerRequest() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(service.getActiveScopeIdOrNull()).isEqualTo(5L);
+            assertThat(service.getActiveScopeId()).isEqualTo(5L);
+            assertThat(service.getVisibleScopeIds()).containsExactlyInAnyOrder(5L, 6L);
+            assertThat(service.canViewScope(6L)).isTrue();
+            assertThat(service.canManageScope(5L)).isTrue();
+            assertThat(service.canWriteToScope(5L)).isTrue();
+        }
+
+        verify(scopeRepository, times(1)).findById(5L);
+        verify(scopeRepository, times(1)).findVisibleScopeIdsForUser(1L);
+        verify(scopeRepository, times(1)).findManageableScopeIdsForUser(1L);
+        verify(membershipRepository, times(1)).findActiveRole(5L, 1L);
+    }
+
+    @Test
+    @DisplayName("SUPER_ADMIN — ko'rinish tekshiruvi bazasiz (barcha scope'lar belgisi)")
+    void superAdminVisibilityIsSentinel() {
+        authenticate(true);
+
+        assertThat(service.getScopeVisibility().allScopes()).isTrue();
+        assertThat(service.canViewScope(999L)).isTrue();
+        service.assertCanView(42L);
+
+        verify(scopeRepository, never()).findAll();
+        verify(scopeRepository, never()).findAllIds();
+    }
+
+    @Test
+    @DisplayName("aktiv scope almashsa yoki scope/a'zolik yozilsa natijalar qayta hisoblanadi")
+    void resetOnScopeSwitchAndWrites() {
+        service.getActiveScopeIdOrNull();
+        service.getVisibleScopeIds();
+
+        principal.setActiveScopeId(5L);
+        service.getActiveScopeIdOrNull();
+        new ScopeResolutionListener().onScopeChanged(new Scope());
+        service.getVisibleScopeIds();
+
+        verify(scopeRepository, times(2)).findById(5L);
+        verify(scopeRepository, times(2)).findVisibleScopeIdsForUser(1L);
+    }
+
+    @Test
+    @DisplayName("parallel thread (SecurityContext ko'chirilgan) shu so'rov natijasini ishlatadi")
+    void fanOutThreadsReuseResolution() throws Exception {
+        service.getVisibleScopeIds();
+
+        ExecutorService executor = new DelegatingSecurityContextExecutorService(
+                Executors.newVirtualThreadPerTaskExecutor());
+        try {
+            assertThat(executor.submit(() -> service.getVisibleScopeIds()).get()).containsExactlyInAnyOrder(5L, 6L);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(scopeRepository, times(1)).findVisibleScopeIdsForUser(1L);
+    }
+}
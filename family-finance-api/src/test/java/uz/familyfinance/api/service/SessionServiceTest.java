@@ -0,0 +1,154 @@
+package uz.familyfinance.api.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+import uz.familyfinance.api.entity.Session;
+import uz.familyfinance.api.entity.User;
+import uz.familyfinance.api.repository.SessionRepository;
+import uz.familyfinance.api.util.UserAgentParser;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link SessionService} — sessiya holati keshi (TTL, revoke'da darhol tozalash) va
+ * lastActivity buferining bitta batch bilan yozilishi (repository va JdbcTemplate mock).
+ */
+@DisplayName("Sessiya keshi: TTL, revoke'da tozalash, lastActivity batch flush")
+class SessionServiceTest {
+
+    private static final String TOKEN = "access-token";
+
+    private SessionRepository sessionRepository;
+    private JdbcTemplate jdbcTemplate;
+    private SessionService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        sessionRepository = mock(SessionRepository.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        service = new SessionService(sessionRepository, mock(UserAgentParser.class),
+                mock(NotificationDispatcher.class), jdbcTemplate);
+        ReflectionTestUtils.setField(service, "cacheTtl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(service, "cacheMaxEntries", 100);
+
+        User user = new User();
+        user.setId(7L);
+        Session session = Session.builder().user(user).tokenHash(hash(TOKEN)).isActive(true)
+                .expiresAt(LocalDateTime.now().plusHours(1)).build();
+        session.setId(42L);
+        when(sessionRepository.findByTokenHash(hash(TOKEN))).thenReturn(Optional.of(session));
+        when(sessionRepository.revokeSession(anyLong(), anyLong(), any(), anyLong(), anyString())).thenReturn(1);
+        when(sessionRepository.revokeAllUserSessions(anyLong(), any(), anyLong(), anyString())).thenReturn(1);
+    }
+
+    private static String hash(String token) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                .digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    @DisplayName("takroriy tekshiruv va faollik yozuvi bazaga bormaydi")
+    void repeatedChecksHitCache() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(service.isSessionValid(TOKEN)).isTrue();
+            service.updateLastActivity(TOKEN);
+        }
+
+        verify(sessionRepository, times(1)).findByTokenHash(anyString());
+        verify(sessionRepository, never()).updateLastActivity(anyString(), any());
+    }
+
+    @Test
+    @DisplayName("revokeSession keshdagi yozuvni darhol o'chiradi")
+    void revokeEvictsImmediately() throws Exception {
+        Session revoked = Session.builder().user(new User()).isActive(false)
+                .expiresAt(LocalDateTime.now().plusHours(1)).build();
+        revoked.setId(42L);
+        assertThat(service.isSessionValid(TOKEN)).isTrue();
+        when(sessionRepository.findByTokenHash(hash(TOKEN))).thenReturn(Optional.of(revoked));
+
+        service.revokeSession(42L, 7L, "chiqish", false);
+
+        assertThat(service.isSessionValid(TOKEN)).isFalse();
+        verify(sessionRepository, times(2)).findByTokenHash(anyString());
+    }
+
+    @Test
+    @DisplayName("revokeAllUserSessions faqat o'sha foydalanuvchi yozuvlarini o'chiradi")
+    void revokeAllEvictsUserEntries() {
+        service.isSessionValid(TOKEN);
+
+        service.revokeAllUserSessions(8L, 1L, "boshqa foydalanuvchi");
+        service.isSessionValid(TOKEN);
+        verify(sessionRepository, times(1)).findByTokenHash(anyString());
+
+        service.revokeAllUserSessions(7L, 1L, "parol");
+        service.isSessionValid(TOKEN);
+        verify(sessionRepository, times(2)).findByTokenHash(anyString());
+    }
+
+    @Test
+    @DisplayName("TTL o'tgach holat bazadan qayta o'qiladi (boshqa instansdagi revoke)")
+    void expiredEntryIsReloaded() {
+        ReflectionTestUtils.setField(service, "cacheTtl", Duration.ZERO);
+
+        service.isSessionValid(TOKEN);
+        service.isSessionValid(TOKEN);
+
+        verify(sessionRepository, times(2)).findByTokenHash(anyString());
+    }
+
+    @Test
+    @DisplayName("noma'lum token — false, faollik yozilmaydi")
+    void unknownTokenIsInvalid() {
+        when(sessionRepository.findByTokenHash(anyString())).thenReturn(Optional.empty());
+
+        assertThat(service.isSessionValid("boshqa")).isFalse();
+        service.updateLastActivity("boshqa");
+        service.flushLastActivity();
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("ko'p faollik bitta sessiya qatoriga, bitta batch'da yoziladi")
+    @SuppressWarnings("unchecked")
+    void flushCoalescesActivity() {
+        for (int i = 0; i < 10; i++) {
+            service.updateLastActivity(TOKEN);
+        }
+
+        service.flushLastActivity();
+        service.flushLastActivity();
+
+        ArgumentCaptor<List<Map.Entry<Long, LocalDateTime>>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), batch.capture(), eq(1),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertThat(batch.getValue()).singleElement().extracting(Map.Entry::getKey).isEqualTo(42L);
+    }
+}
@@ -0,0 +1,70 @@
+package uz.familyfinance.api.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import uz.familyfinance.api.repository.ScopeMembershipRepository;
+import uz.familyfinance.api.repository.StaffNotificationRepository;
+import uz.familyfinance.api.repository.UserRepository;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link StaffNotificationService} ko'rinish parametrlari: SUPER_ADMIN uchun barcha scope
+ * ID'lari yuklanmaydi ({@code allScopes} belgisi), oddiy foydalanuvchi uchun o'z scope'lari,
+ * bo'sh bo'lsa -1 sentinel (repository mock).
+ */
+@DisplayName("Xodim bildirishnomalari: SUPER_ADMIN — scope ID'larsiz, qolganlar — o'z scope'lari")
+class StaffNotificationServiceTest {
+
+    private static final Long USER_ID = 7L;
+
+    private StaffNotificationRepository notificationRepository;
+    private ScopeContextService scopeContext;
+    private StaffNotificationService service;
+
+    @BeforeEach
+    void setUp() {
+        notificationRepository = mock(StaffNotificationRepository.class);
+        scopeContext = mock(ScopeContextService.class);
+        service = new StaffNotificationService(notificationRepository, mock(UserRepository.class),
+                mock(NotificationDispatcher.class), scopeContext, mock(ScopeMembershipRepository.class));
+        when(notificationRepository.countUnreadVisible(anyLong(), anyBoolean(), anyCollection())).thenReturn(3L);
+    }
+
+    @Test
+    @DisplayName("SUPER_ADMIN — allScopes=true, scope ID'lari yuklanmaydi")
+    void superAdminSkipsScopeIds() {
+        when(scopeContext.getScopeVisibility()).thenReturn(ScopeContextService.ScopeVisibility.ALL);
+
+        assertThat(service.getUnreadCount(USER_ID)).isEqualTo(3L);
+
+        verify(notificationRepository).countUnreadVisible(USER_ID, true, List.of(-1L));
+        verify(scopeContext, never()).getVisibleScopeIds();
+    }
+
+    @Test
+    @DisplayName("oddiy foydalanuvchi — o'z scope'lari; scope yo'q bo'lsa -1 sentinel")
+    void memberUsesVisibleScopes() {
+        when(scopeContext.getScopeVisibility())
+                .thenReturn(new ScopeContextService.ScopeVisibility(false, Set.of(5L)))
+                .thenReturn(new ScopeContextService.ScopeVisibility(false, Set.of()));
+
+        service.getUnreadCount(USER_ID);
+        service.getUnreadCount(USER_ID);
+
+        verify(notificationRepository).countUnreadVisible(eq(USER_ID), eq(false), eq(Set.of(5L)));
+        verify(notificationRepository).countUnreadVisible(eq(USER_ID), eq(false), eq(List.of(-1L)));
+    }
+}
@@ -0,0 +1,182 @@
+package uz.familyfinance.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import uz.familyfinance.api.dto.response.BulkOperationResponse;
+import uz.familyfinance.api.entity.Account;
+import uz.familyfinance.api.entity.Scope;
+import uz.familyfinance.api.enums.AccountStatus;
+import uz.familyfinance.api.enums.AccountType;
+import uz.familyfinance.api.enums.ScopeType;
+import uz.familyfinance.api.repository.AccountRepository;
+import uz.familyfinance.api.repository.CategoryRepository;
+import uz.familyfinance.api.repository.FamilyMemberRepository;
+import uz.familyfinance.api.repository.TagRepository;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Ommaviy import: har hisobga bitta sof addToBalance, qator xatolari rowNumber bilan,
+ * CSV qo'shtirnoqli maydonlar.
+ *
+ * <p><b>Nima uchun bu test bor:</b> import qatorma-qator create'ning balans effektini
+ * bitta net UPDATE'ga jamlaydi — agar jamlash buzilsa, balans jimgina noto'g'ri bo'ladi.</p>
+ */
+@DisplayName("Tranzaksiya importi — net balans va qator xatolari")
+class TransactionImportServiceTest {
+
+    private static final long ACCOUNT_ID = 10L;
+    private static final long EUR_ACCOUNT_ID = 11L;
+    private static final long TRANSIT_ID = 99L;
+
+    private AccountRepository accountRepository;
+    private TransitLedgerService transitLedgerService;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionImportService service;
+
+    @BeforeEach
+    void setUp() {
+        accountRepository = mock(AccountRepository.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        transitLedgerService = mock(TransitLedgerService.class);
+
+        service = new TransactionImportService(
+                accountRepository,
+                mock(CategoryRepository.class),
+                mock(FamilyMemberRepository.class),
+                mock(TagRepository.class),
+                mock(AccountService.class),
+                mock(TransactionService.class),
+                transitLedgerService,
+                mock(LedgerAggregateService.class),
+                mock(AuditLogService.class),
+                mock(ScopeContextService.class),
+                jdbcTemplate,
+                new ObjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(service, "self", service);
+        ReflectionTestUtils.setField(service, "batchSize", 500);
+        ReflectionTestUtils.setField(service, "maxRows", 1000);
+
+        Scope scope = Scope.builder().type(ScopeType.HOUSEHOLD).name("Xonadon").build();
+        scope.setId(1L);
+        Account eurAccount = account(EUR_ACCOUNT_ID, scope);
+        eurAccount.setCurrency("EUR");
+        when(accountRepository.findAllById(any())).thenReturn(List.of(account(ACCOUNT_ID, scope), eurAccount));
+        // EUR uchun tranzit shard yo'q
+        when(transitLedgerService.lookupTransitAccount(anyString(), anyBoolean(), any()))
+                .thenReturn(Optional.empty());
+        when(transitLedgerService.lookupTransitAccount(eq("UZS"), anyBoolean(), any()))
+                .thenReturn(Optional.of(account(TRANSIT_ID, null)));
+
+        // Batch INSERT: har qatorga ketma-ket generated id
+        doAnswer(inv -> {
+            BatchPreparedStatementSetter setter = inv.getArgument(1);
+            KeyHolder keyHolder = inv.getArgument(2);
+            for (int i = 0; i < setter.getBatchSize(); i++) {
+                keyHolder.getKeyList().add(Map.of("id", 1000L + i));
+            }
+            return new int[setter.getBatchSize()];
+        }).when(jdbcTemplate).batchUpdate(any(PreparedStatementCreator.class),
+                any(BatchPreparedStatementSetter.class), any(KeyHolder.class));
+    }
+
+    private Account account(Long id, Scope homeScope) {
+        Account a = Account.builder()
+                .name("Hisob " + id)
+                .type(AccountType.CASH)
+                .currency("UZS")
+                .balance(new BigDecimal("1000.00"))
+                .status(AccountStatus.ACTIVE)
+                .homeScope(homeScope)
+                .build();
+        a.setId(id);
+        return a;
+    }
+
+    private BulkOperationResponse importCsv(String csv) throws Exception {
+        return service.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    @DisplayName("Bir hisobga 3 ta INCOME → bitta net addToBalance (+300 / tranzit -300)")
+    void coalescesBalanceDeltasPerAccount() throws Exception {
+        BulkOperationResponse result = importCsv("""
+                type,amount,accountId,transactionDate,description
+                INCOME,100,10,2025-01-01,"Maosh, yanvar"
+                INCOME,150.50,10,2025-01-02T10:00,bonus
+                income,49.50,10,2025-01-03 09:30:00,"Qo'shtirnoq ""ichida"" bor"
+                """);
+
+        assertThat(result.getSuccessCount()).isEqualTo(3);
+        assertThat(result.getFailures()).isEmpty();
+        verify(accountRepository, times(1)).addToBalance(ACCOUNT_ID, new BigDecimal("300.00"));
+        verify(accountRepository, times(1)).addToBalance(TRANSIT_ID, new BigDecimal("-300.00"));
+    }
+
+    @Test
+    @DisplayName("Yaroqsiz qatorlar rowNumber bilan qaytadi, qolganlari yoziladi")
+    void reportsRowFailuresAndImportsTheRest() throws Exception {
+        BulkOperationResponse result = importCsv("""
+                type,amount,accountId,transactionDate
+                INCOME,100,10,2025-01-01
+                INCOME,abc,10,2025-01-01
+                EXPENSE,20,77,2025-01-01
+                INCOME,-5,10,2025-01-01
+                """);
+
+        assertThat(result.getSuccessCount()).isEqualTo(1);
+        assertThat(result.getFailures())
+                .extracting(BulkOperationResponse.BulkOperationFailure::getRowNumber)
+                .containsExactly(2, 3, 4);
+        verify(accountRepository).addToBalance(eq(ACCOUNT_ID), eq(new BigDecimal("100")));
+    }
+
+    @Test
+    @DisplayName("Tranzit hisobi yo'q valyuta — faqat o'sha qator xatosi, bo'lak qolgani yoziladi")
+    void missingTransitShardFailsOnlyItsRows() throws Exception {
+        BulkOperationResponse result = importCsv("""
+                type,amount,accountId,transactionDate
+                INCOME,100,10,2025-01-01
+                EXPENSE,20,11,2025-01-01
+                EXPENSE,30,10,2025-01-02
+                INCOME,5,11,2025-01-02
+                """);
+
+        assertThat(result.getSuccessCount()).isEqualTo(2);
+        assertThat(result.getFailures())
+                .extracting(BulkOperationResponse.BulkOperationFailure::getRowNumber)
+                .containsExactly(2, 4);
+        verify(accountRepository).addToBalance(eq(ACCOUNT_ID), eq(new BigDecimal("70")));
+        // Kalit bo'yicha bir marta, tashlaydigan tranzaksiyaviy qidiruvsiz
+        verify(transitLedgerService, times(1)).lookupTransitAccount("EUR", false, 1L);
+        verify(transitLedgerService, never()).findTransitAccount(anyString(), anyBoolean(), any());
+    }
+}
@@ -3,6 +3,7 @@ package uz.familyfinance.api.service;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
 import uz.familyfinance.api.dto.request.TransactionRequest;
 import uz.familyfinance.api.entity.Account;
 import uz.familyfinance.api.entity.Scope;
@@ -17,6 +18,7 @@ import uz.familyfinance.api.repository.BudgetAlertRepository;
 import uz.familyfinance.api.repository.BudgetRepository;
 import uz.familyfinance.api.repository.CategoryRepository;
 import uz.familyfinance.api.repository.FamilyMemberRepository;
+import uz.familyfinance.api.repository.LedgerDailyAggregateRepository;
 import uz.familyfinance.api.repository.TransactionRepository;
 import uz.familyfinance.api.repository.TransactionSplitRepository;
 
@@ -25,6 +27,7 @@ import java.time.LocalDateTime;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
@@ -55,6 +58,7 @@ class TransactionUpdateScopeTest {
     private TransactionRepository transactionRepository;
     private AccountRepository accountRepository;
     private AccountService accountService;
+    private TransitLedgerService transitLedgerService;
     private TransactionService service;
 
     private Scope oldScope;
@@ -68,6 +72,7 @@ class TransactionUpdateScopeTest {
         transactionRepository = mock(TransactionRepository.class);
         accountRepository = mock(AccountRepository.class);
         accountService = mock(AccountService.class);
+        transitLedgerService = mock(TransitLedgerService.class);
 
         service = new TransactionService(
                 transactionRepository,
@@ -80,7 +85,12 @@ class TransactionUpdateScopeTest {
                 accountService,
                 mock(TagService.class),
                 mock(TransactionSplitRepository.class),
-                mock(ScopeContextService.class));
+                mock(ScopeContextService.class),
+                transitLedgerService,
+                mock(LedgerAggregateService.class),
+                mock(LedgerDailyAggregateRepository.class),
+                mock(AuditLogService.class),
+                mock(ApplicationEventPublisher.class));
 
         oldScope = scope(1L, "Eski xonadon");
         newScope = scope(2L, "Yangi xonadon");
@@ -101,7 +111,7 @@ class TransactionUpdateScopeTest {
         when(transactionRepository.save(existing)).thenReturn(existing);
         when(accountRepository.findById(NEW_ACCOUNT_ID)).thenReturn(Optional.of(newAccount));
         // INCOME double-entry uchun transit hisob (resolveDebitCredit ichida)
-        when(accountService.findTransitAccount(anyString(), anyBoolean()))
+        when(transitLedgerService.findTransitAccount(anyString(), anyBoolean(), any()))
                 .thenReturn(account(99L, null));
     }
 
@@ -0,0 +1,106 @@
+package uz.familyfinance.api.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import uz.familyfinance.api.entity.Account;
+import uz.familyfinance.api.entity.Transaction;
+import uz.familyfinance.api.enums.AccountType;
+import uz.familyfinance.api.enums.TransactionType;
+import uz.familyfinance.api.repository.AccountRepository;
+import uz.familyfinance.api.repository.TransactionRepository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link TransitLedgerService#compactRoot}: shard balansi root'ga muvozanatli TRANSFER yozuvi
+ * bilan ko'chadi — har tranzit hisob uchun {@code balance = opening + debet − kredit} saqlanadi.
+ */
+@DisplayName("Tranzit compaction — jurnal yozuvi bilan, har hisob solishtiriladi")
+class TransitLedgerServiceTest {
+
+    private static final long ROOT_ID = 1L;
+
+    private AccountRepository accountRepository;
+    private TransactionRepository transactionRepository;
+    private LedgerAggregateService ledgerAggregates;
+    private TransitLedgerService service;
+    private Account root;
+
+    @BeforeEach
+    void setUp() {
+        accountRepository = mock(AccountRepository.class);
+        transactionRepository = mock(TransactionRepository.class);
+        ledgerAggregates = mock(LedgerAggregateService.class);
+        service = new TransitLedgerService(accountRepository, transactionRepository, ledgerAggregates);
+
+        root = transit(ROOT_ID, 0, "0.00");
+        when(accountRepository.getReferenceById(ROOT_ID)).thenReturn(root);
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    private static Account transit(long id, int shard, String balance) {
+        Account a = Account.builder()
+                .name("Tizim: Daromad tranziti")
+                .type(AccountType.SYSTEM_TRANSIT)
+                .currency("UZS")
+                .balance(new BigDecimal(balance))
+                .transitShard(shard)
+                .transitRootId(ROOT_ID)
+                .build();
+        a.setId(id);
+        return a;
+    }
+
+    @Test
+    @DisplayName("manfiy shard — shard debet, musbat — shard kredit; root sof summani oladi")
+    void recordsBalancedTransferPerShard() {
+        Account negative = transit(2L, 1, "-300.00");
+        Account positive = transit(3L, 2, "50.00");
+        Account empty = transit(4L, 3, "0.00");
+        when(accountRepository.lockTransitShards(ROOT_ID)).thenReturn(List.of(negative, positive, empty));
+
+        BigDecimal moved = service.compactRoot(ROOT_ID);
+
+        assertThat(moved).isEqualByComparingTo("-250.00");
+        ArgumentCaptor<Transaction> saved = ArgumentCaptor.forClass(Transaction.class);
+        verify(transactionRepository, times(2)).save(saved.capture());
+        assertThat(saved.getAllValues())
+                .extracting(Transaction::getType, Transaction::getAmount,
+                        Transaction::getDebitAccount, Transaction::getCreditAccount)
+                .containsExactly(
+                        tuple(TransactionType.TRANSFER, new BigDecimal("300.00"), negative, root),
+                        tuple(TransactionType.TRANSFER, new BigDecimal("50.00"), root, positive));
+        assertThat(saved.getAllValues()).allSatisfy(t -> assertThat(t.getScope()).isNull());
+
+        // Balans harakati yozuvlar bilan bir xil: shard'lar 0 ga, root sof summaga
+        verify(accountRepository).addToBalance(2L, new BigDecimal("300.00"));
+        verify(accountRepository).addToBalance(3L, new BigDecimal("-50.00"));
+        verify(accountRepository).addToBalance(ROOT_ID, new BigDecimal("-250.00"));
+        verify(accountRepository, never()).addToBalance(4L, BigDecimal.ZERO);
+        verify(ledgerAggregates, times(2)).apply(anyCollection(), anyCollection());
+    }
+
+    @Test
+    @DisplayName("barcha shard'lar nol — yozuv ham, balans harakati ham yo'q")
+    void noopWhenShardsAreEmpty() {
+        when(accountRepository.lockTransitShards(ROOT_ID)).thenReturn(List.of(transit(2L, 1, "0.00")));
+
+        assertThat(service.compactRoot(ROOT_ID)).isEqualByComparingTo("0");
+
+        verify(transactionRepository, never()).save(any(Transaction.class));
+        verify(accountRepository, never()).addToBalance(any(), any());
+    }
+}
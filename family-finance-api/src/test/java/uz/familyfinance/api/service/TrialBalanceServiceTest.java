@@ -0,0 +1,122 @@
+package uz.familyfinance.api.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import uz.familyfinance.api.dto.response.TrialBalanceResponse;
+import uz.familyfinance.api.exception.BadRequestException;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link TrialBalanceService} — barcha hisoblar bitta so'rovda, storno filtri, scope qoidasi
+ * va valyuta bo'yicha jamilar.
+ */
+@DisplayName("Aylanma qaydnoma: bitta guruhlangan so'rov, valyuta jamilari")
+class TrialBalanceServiceTest {
+
+    private static final LocalDate FROM = LocalDate.of(2026, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2026, 1, 31);
+
+    private JdbcTemplate jdbcTemplate;
+    private ScopeContextService scopeContext;
+    private TrialBalanceService service;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        scopeContext = mock(ScopeContextService.class);
+        service = new TrialBalanceService(jdbcTemplate, scopeContext);
+    }
+
+    private static TrialBalanceResponse.Line line(String currency, String opening, String debit, String credit) {
+        BigDecimal o = new BigDecimal(opening);
+        BigDecimal d = new BigDecimal(debit);
+        BigDecimal c = new BigDecimal(credit);
+        return TrialBalanceResponse.Line.builder().currency(currency)
+                .openingBalance(o).debitTurnover(d).creditTurnover(c).closingBalance(o.add(d).subtract(c))
+                .build();
+    }
+
+    @Test
+    @DisplayName("SQL: storno chiqariladi, ikkala tomon bitta oqimda, hisob bo'yicha bir marta guruhlanadi")
+    void singleGroupedQuery() {
+        String sql = TrialBalanceService.sql(true);
+
+        assertThat(sql).contains("t.status = 'CONFIRMED' AND t.type <> 'REVERSAL'")
+                .contains("UNION ALL")
+                .contains("GROUP BY m.account_id")
+                .contains("a.scope_id = ?");
+        assertThat(TrialBalanceService.sql(false)).doesNotContain("scope_id");
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    @DisplayName("oddiy foydalanuvchi — aktiv scope, bitta so'rov; argumentlar tartibi SQL bilan mos")
+    void scopedArguments() {
+        when(scopeContext.getActiveScopeIdOrNull()).thenReturn(7L);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(List.of());
+
+        service.getTrialBalance(FROM, TO);
+
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowMapper.class), args.capture());
+        Timestamp start = Timestamp.valueOf(FROM.atStartOfDay());
+        Timestamp end = Timestamp.valueOf(TO.plusDays(1).atStartOfDay());
+        assertThat(args.getValue()).containsExactly(7L, end, end, start, start, start);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    @DisplayName("aktiv scope yo'q — -1 (hech narsa), global so'rov emas")
+    void noScopeMatchesNothing() {
+        when(scopeContext.getActiveScopeIdOrNull()).thenReturn(null);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(List.of());
+
+        TrialBalanceResponse result = service.getTrialBalance(FROM, TO);
+
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).query(anyString(), any(RowMapper.class), args.capture());
+        assertThat(args.getValue()[0]).isEqualTo(-1L);
+        assertThat(result.getTotals()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("valyuta jamilari alohida — turli valyutalar qo'shilmaydi")
+    void totalsPerCurrency() {
+        List<TrialBalanceResponse.CurrencyTotal> totals = TrialBalanceService.totals(List.of(
+                line("UZS", "100", "50", "20"),
+                line("UZS", "0", "10", "5"),
+                line("USD", "7", "0", "2")));
+
+        assertThat(totals).extracting(TrialBalanceResponse.CurrencyTotal::getCurrency).containsExactly("UZS", "USD");
+        TrialBalanceResponse.CurrencyTotal uzs = totals.get(0);
+        assertThat(uzs.getAccountCount()).isEqualTo(2);
+        assertThat(uzs.getOpeningBalance()).isEqualByComparingTo("100");
+        assertThat(uzs.getDebitTurnover()).isEqualByComparingTo("60");
+        assertThat(uzs.getCreditTurnover()).isEqualByComparingTo("25");
+        assertThat(uzs.getClosingBalance()).isEqualByComparingTo("135");
+        assertThat(totals.get(1).getClosingBalance()).isEqualByComparingTo("5");
+    }
+
+    @Test
+    @DisplayName("teskari davr rad etiladi")
+    void rejectsInvertedRange() {
+        assertThatThrownBy(() -> service.getTrialBalance(TO, FROM)).isInstanceOf(BadRequestException.class);
+    }
+}
@@ -69,7 +69,8 @@ class UserRoleChoiceTest {
                 mock(PasswordEncoder.class),
                 mock(AuditLogService.class),
                 mock(SessionService.class),
-                mock(PwnedPasswordService.class));
+                mock(PwnedPasswordService.class),
+                mock(PermissionService.class));
 
         member = mock(FamilyMember.class);
         when(member.getFullName()).thenReturn("Test User");
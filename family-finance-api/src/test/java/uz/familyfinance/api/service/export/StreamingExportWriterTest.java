@@ -0,0 +1,73 @@
+package uz.familyfinance.api.service.export;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openpdf.text.pdf.PdfReader;
+import uz.familyfinance.api.dto.response.AuditLogResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Qatorma-qator eksport yozuvchilari ({@link ExportRowWriter}) — Excel oynasi (100 qator) va PDF
+ * jadval bo'laklari (500 qator) chegarasidan ko'p qator yozilganda ham fayl to'liq va o'qiladi.
+ */
+@DisplayName("Oqimli eksport: Excel va PDF qatorma-qator yozuvchilari")
+class StreamingExportWriterTest {
+
+    private static final int ROWS = 1_200;
+
+    private static AuditLogResponse row(long id) {
+        return AuditLogResponse.builder()
+                .id(id)
+                .action("UPDATE")
+                .entityType("Transaction")
+                .entityId(id * 10)
+                .username("admin")
+                .createdAt(LocalDateTime.of(2026, 1, 1, 12, 0).minusSeconds(id))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Excel: barcha qatorlar yoziladi, oynadan chiqqanlari ham faylda")
+    void excelWritesEveryRow() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ExportRowWriter<AuditLogResponse> writer = new ExcelExportService().openAuditLogs(out, null)) {
+            for (long id = 1; id <= ROWS; id++) {
+                writer.write(row(id));
+            }
+            assertThat(writer.count()).isEqualTo(ROWS);
+        }
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = workbook.getSheetAt(0);
+            // sarlavha, sana, bo'sh qator, ustun nomlari + ma'lumot
+            assertThat(sheet.getLastRowNum()).isEqualTo(3 + ROWS);
+            assertThat(sheet.getRow(4).getCell(0).getNumericCellValue()).isEqualTo(1);
+            assertThat(sheet.getRow(3 + ROWS).getCell(0).getNumericCellValue()).isEqualTo(ROWS);
+        }
+    }
+
+    @Test
+    @DisplayName("PDF: jadval bo'laklab chiqariladi, hujjat to'g'ri yopiladi va ko'p sahifali")
+    void pdfFlushesTableInChunks() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ExportRowWriter<AuditLogResponse> writer = new PdfExportService().openAuditLogs(out, null)) {
+            for (long id = 1; id <= ROWS; id++) {
+                writer.write(row(id));
+            }
+        }
+
+        PdfReader reader = new PdfReader(out.toByteArray());
+        try {
+            assertThat(reader.getNumberOfPages()).isGreaterThan(1);
+        } finally {
+            reader.close();
+        }
+    }
+}
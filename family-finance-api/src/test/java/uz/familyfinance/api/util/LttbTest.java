@@ -0,0 +1,53 @@
+package uz.familyfinance.api.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link Lttb} — chekka nuqtalar saqlanishi, nuqtalar soni va cho'qqi tushib qolmasligi.
+ */
+@DisplayName("LTTB qisqartirish")
+class LttbTest {
+
+    private static double[] range(int n) {
+        double[] x = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = i;
+        }
+        return x;
+    }
+
+    @Test
+    @DisplayName("threshold ta nuqta, birinchi va oxirgisi saqlanadi, tartib o'suvchi")
+    void keepsEndpointsAndCount() {
+        double[] x = range(1000);
+        double[] y = new double[1000];
+        for (int i = 0; i < y.length; i++) {
+            y[i] = Math.sin(i / 20.0);
+        }
+
+        List<Integer> selected = Lttb.select(x, y, 50);
+
+        assertThat(selected).hasSize(50).startsWith(0).endsWith(999).isSorted();
+    }
+
+    @Test
+    @DisplayName("yagona cho'qqi (masalan katta kirim kuni) tushib qolmaydi")
+    void keepsSpike() {
+        double[] x = range(365);
+        double[] y = new double[365];
+        y[200] = 1_000_000;
+
+        assertThat(Lttb.select(x, y, 20)).contains(200);
+    }
+
+    @Test
+    @DisplayName("nuqtalar threshold'dan kam — hammasi qaytadi")
+    void smallSeriesUnchanged() {
+        assertThat(Lttb.select(range(5), new double[5], 10)).containsExactly(0, 1, 2, 3, 4);
+    }
+}
@@ -0,0 +1,76 @@
+package uz.familyfinance.api.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import uz.familyfinance.api.enums.RecurringPattern;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link RecurrenceSchedule} — prognoz yoyilishi kunlik executor qoidasi ({@code isDue}) bilan
+ * kunma-kun bir xil: oy oxiri, 29-fevral, shablon sanasidan oldingi oraliq.
+ */
+@DisplayName("Recurring jadval: yoyish = isDue")
+class RecurrenceScheduleTest {
+
+    private static List<LocalDate> expand(RecurringPattern pattern, LocalDate template, LocalDate from, LocalDate to) {
+        List<LocalDate> dates = new ArrayList<>();
+        RecurrenceSchedule.forEachOccurrence(pattern, template, from, to, d -> dates.add(from.plusDays(d)));
+        return dates;
+    }
+
+    private static List<LocalDate> bruteForce(RecurringPattern pattern, LocalDate template, LocalDate from, LocalDate to) {
+        List<LocalDate> dates = new ArrayList<>();
+        for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+            if (RecurrenceSchedule.isDue(pattern, template, d)) {
+                dates.add(d);
+            }
+        }
+        return dates;
+    }
+
+    @Test
+    @DisplayName("barcha pattern va chekka sanalarda kunma-kun tekshiruv bilan bir xil")
+    void matchesIsDueDayByDay() {
+        List<LocalDate> templates = List.of(
+                LocalDate.of(2024, 1, 31), LocalDate.of(2024, 2, 29), LocalDate.of(2025, 3, 30),
+                LocalDate.of(2025, 6, 15), LocalDate.of(2026, 12, 31), LocalDate.of(2027, 5, 1));
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        LocalDate to = LocalDate.of(2028, 12, 31);
+
+        for (RecurringPattern pattern : RecurringPattern.values()) {
+            for (LocalDate template : templates) {
+                assertThat(expand(pattern, template, from, to))
+                        .as("%s %s", pattern, template)
+                        .isEqualTo(bruteForce(pattern, template, from, to));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("31-kun shablon fevralda oxirgi kunga, 29-fevral kabisa bo'lmagan yilda 28-ga")
+    void monthEndRules() {
+        assertThat(expand(RecurringPattern.MONTHLY, LocalDate.of(2025, 1, 31),
+                LocalDate.of(2025, 2, 1), LocalDate.of(2025, 4, 30)))
+                .containsExactly(LocalDate.of(2025, 2, 28), LocalDate.of(2025, 3, 31), LocalDate.of(2025, 4, 30));
+        assertThat(expand(RecurringPattern.YEARLY, LocalDate.of(2024, 2, 29),
+                LocalDate.of(2024, 1, 1), LocalDate.of(2028, 12, 31)))
+                .containsExactly(LocalDate.of(2025, 2, 28), LocalDate.of(2026, 2, 28),
+                        LocalDate.of(2027, 2, 28), LocalDate.of(2028, 2, 29));
+    }
+
+    @Test
+    @DisplayName("shablon sanasining o'zi va undan oldingi kunlar kirmaydi")
+    void excludesTemplateDate() {
+        LocalDate template = LocalDate.of(2025, 5, 10);
+
+        assertThat(expand(RecurringPattern.DAILY, template, LocalDate.of(2025, 5, 8), LocalDate.of(2025, 5, 12)))
+                .containsExactly(LocalDate.of(2025, 5, 11), LocalDate.of(2025, 5, 12));
+        assertThat(expand(RecurringPattern.WEEKLY, template, LocalDate.of(2025, 5, 1), LocalDate.of(2025, 5, 10)))
+                .isEmpty();
+    }
+}
@@ -0,0 +1,55 @@
+package uz.familyfinance.api.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import uz.familyfinance.api.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * {@link TransactionCursor} — keyset kursorining kodlash/dekodlash toza-mantiq testlari.
+ * Kursor URL'da query parametri sifatida yuriladi — base64url va ikki tomonlama aniqlik shart.
+ */
+@DisplayName("TransactionCursor")
+class TransactionCursorTest {
+
+    @Test
+    @DisplayName("encode → decode aynan o'sha kalitni qaytaradi (mikrosekundlar bilan)")
+    void roundTrips() {
+        TransactionCursor cursor = new TransactionCursor(TransactionCursor.Direction.PREV,
+                LocalDateTime.of(2025, 1, 31, 10, 15, 30, 123_456_000), 42L);
+
+        String encoded = cursor.encode();
+
+        assertThat(encoded).doesNotContain("+", "/", "=");
+        assertThat(TransactionCursor.decode(encoded)).isEqualTo(cursor);
+    }
+
+    @ParameterizedTest(name = "\"{0}\" rad etiladi")
+    @ValueSource(strings = {"!!!", "", "bnwyMDI1"})
+    @DisplayName("buzilgan kursor BadRequestException beradi")
+    void rejectsGarbage(String cursor) {
+        assertThatThrownBy(() -> TransactionCursor.decode(cursor))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    @DisplayName("noma'lum yo'nalish yoki noto'g'ri id rad etiladi")
+    void rejectsBadParts() {
+        assertThatThrownBy(() -> TransactionCursor.decode(encode("x|2025-01-01T00:00|1")))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> TransactionCursor.decode(encode("n|2025-01-01T00:00|abc")))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -9,6 +9,7 @@ import type {
   DebtType,
   DebtStatus,
 } from '../types';
+import { idempotencyHeaders } from '../utils/idempotency';
 
 /** Qarzlar bo'yicha umumiy xulosa (berilgan/olingan jami). */
 export interface DebtSummaryResponse {
@@ -30,7 +31,7 @@ export const familyDebtsApi = {
   update: (id: number, data: FamilyDebtRequest) => axiosInstance.put<ApiResponse<FamilyDebt>>(`/v1/debts/${id}`, data),
   delete: (id: number) => axiosInstance.delete<ApiResponse<void>>(`/v1/debts/${id}`),
   addPayment: (debtId: number, data: DebtPaymentRequest) =>
-    axiosInstance.post<ApiResponse<DebtPayment>>(`/v1/debts/${debtId}/payments`, data),
+    axiosInstance.post<ApiResponse<DebtPayment>>(`/v1/debts/${debtId}/payments`, data, idempotencyHeaders()),
   getPayments: (debtId: number) =>
     axiosInstance.get<ApiResponse<DebtPayment[]>>(`/v1/debts/${debtId}/payments`),
 };
@@ -18,6 +18,7 @@ import type {
   PointWeeklyReport,
   ManualAwardRequest,
 } from '../types/points.types';
+import { idempotencyHeaders } from '../utils/idempotency';
 
 // ===== Config =====
 export const pointConfigApi = {
@@ -122,7 +123,8 @@ export const pointShopApi = {
   updateItem: (id: number, data: PointShopItemRequest) =>
     axiosInstance.put<ApiResponse<PointShopItem>>(`/v1/point-shop/items/${id}`, data),
   deleteItem: (id: number) => axiosInstance.delete<ApiResponse<void>>(`/v1/point-shop/items/${id}`),
-  purchase: (data: PointPurchaseRequest) => axiosInstance.post<ApiResponse<PointPurchase>>('/v1/point-shop/purchase', data),
+  purchase: (data: PointPurchaseRequest) =>
+    axiosInstance.post<ApiResponse<PointPurchase>>('/v1/point-shop/purchase', data, idempotencyHeaders()),
   deliver: (id: number) => axiosInstance.post<ApiResponse<PointPurchase>>(`/v1/point-shop/${id}/deliver`),
   getPurchases: (participantId: number, page = 0, size = 20) =>
     axiosInstance.get<ApiResponse<PagedResponse<PointPurchase>>>(`/v1/point-shop/purchases/${participantId}`, { params: { page, size } }),
@@ -7,6 +7,7 @@ import type {
   SavingsGoal,
   SavingsGoalRequest,
 } from '../types';
+import { idempotencyHeaders } from '../utils/idempotency';
 
 export const savingsApi = {
   getAll: (page = 0, size = 20) =>
@@ -17,7 +18,8 @@ export const savingsApi = {
     axiosInstance.put<ApiResponse<SavingsGoal>>(`/v1/savings-goals/${id}`, data),
   delete: (id: number) => axiosInstance.delete<ApiResponse<void>>(`/v1/savings-goals/${id}`),
   addContribution: (goalId: number, data: GoalContributionRequest) =>
-    axiosInstance.post<ApiResponse<GoalContribution>>(`/v1/savings-goals/${goalId}/contributions`, data),
+    axiosInstance.post<ApiResponse<GoalContribution>>(`/v1/savings-goals/${goalId}/contributions`, data,
+      idempotencyHeaders()),
   getContributions: (goalId: number) =>
     axiosInstance.get<ApiResponse<GoalContribution[]>>(`/v1/savings-goals/${goalId}/contributions`),
 };
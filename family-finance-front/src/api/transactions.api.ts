@@ -8,6 +8,7 @@ import type {
   TransactionFilters,
   TransactionRequest,
 } from '../types';
+import { idempotencyHeaders } from '../utils/idempotency';
 
 export const transactionsApi = {
   getAll: (page = 0, size = 20, filters?: TransactionFilters) => {
@@ -28,7 +29,8 @@ export const transactionsApi = {
       params: { from, to },
     }),
   getById: (id: number) => axiosInstance.get<ApiResponse<Transaction>>(`/v1/transactions/${id}`),
-  create: (data: TransactionRequest) => axiosInstance.post<ApiResponse<Transaction>>('/v1/transactions', data),
+  create: (data: TransactionRequest) =>
+    axiosInstance.post<ApiResponse<Transaction>>('/v1/transactions', data, idempotencyHeaders()),
   update: (id: number, data: TransactionRequest) =>
     axiosInstance.put<ApiResponse<Transaction>>(`/v1/transactions/${id}`, data),
   reverse: (id: number, reason: string) =>
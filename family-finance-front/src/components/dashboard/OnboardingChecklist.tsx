@@ -16,6 +16,7 @@ import { PermissionCode, usePermission } from '../../hooks/usePermission';
 import { accountsApi } from '../../api/accounts.api';
 import { familyMembersApi } from '../../api/family-members.api';
 import type { FamilyDashboardStats } from '../../types';
+import { isSectionMissing } from './missingSections';
 
 /** Yopilganlik kaliti — user'ga bog'lanadi (boshqa akkauntga xalaqit bermasin). */
 const dismissKey = (userId: number | string | undefined) =>
@@ -57,7 +58,8 @@ export function OnboardingChecklist({ stats, transactionCount, loaded }: Onboard
   const [membersCount, setMembersCount] = useState<number | null>(null);
 
   const txDone = transactionCount > 0;
-  const budgetDone = (stats?.activeBudgets ?? 0) > 0;
+  // Byudjetlar vaqtida yuklanmagan bo'lsa (qisman javob) — noma'lum, "yo'q" deb hisoblanmaydi
+  const budgetDone = (stats?.activeBudgets ?? 0) > 0 || isSectionMissing(stats, 'budgets');
   // Etablangan foydalanuvchi: tranzaksiya ham, byudjet ham bor — checklist kerak emas
   const established = txDone && budgetDone;
 
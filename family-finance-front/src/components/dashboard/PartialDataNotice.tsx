@@ -0,0 +1,19 @@
+import { AlertTriangle } from 'lucide-react';
+import type { DashboardSection } from '../../types';
+
+/**
+ * Qisman dashboard javobi ogohlantirishi — backend ba'zi bo'limlarni vaqtida hisoblay
+ * olmasa ularning qiymatlari nol/bo'sh keladi; foydalanuvchi ularni haqiqiy deb o'ylamasin.
+ */
+export function PartialDataNotice({ missingSections }: { missingSections?: DashboardSection[] }) {
+  if (!missingSections?.length) return null;
+  return (
+    <div className="alert alert-warning" role="status">
+      <AlertTriangle className="h-5 w-5" />
+      <div>
+        <p className="font-medium">Ba'zi ko'rsatkichlar vaqtida yuklanmadi</p>
+        <p className="text-sm">Nol yoki bo'sh ko'ringan qiymatlar to'liq emas — birozdan so'ng yangilang.</p>
+      </div>
+    </div>
+  );
+}
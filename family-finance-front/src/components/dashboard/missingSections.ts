@@ -0,0 +1,11 @@
+// Qisman dashboard javobi — backend vaqtida hisoblay olmagan bo'limlar (missingSections).
+import type { DashboardSection, FamilyDashboardStats } from '../../types';
+
+/** Bo'lim backend'da vaqtida hisoblanmaganmi (qiymati nol/bo'sh, haqiqiy emas). */
+export function isSectionMissing(
+  stats: Pick<FamilyDashboardStats, 'missingSections'> | null | undefined,
+  ...sections: DashboardSection[]
+): boolean {
+  const missing = stats?.missingSections;
+  return !!missing?.length && sections.some((s) => missing.includes(s));
+}
@@ -4,6 +4,7 @@ import { BUDGET_THRESHOLDS } from '../config/chartColors';
 import type { InsightTone } from '../components/common/InsightCard';
 import type { FamilyDashboardStats, MonthlyTrendItem } from '../types';
 import type { TrendInfo } from './useTrendCalculations';
+import { isSectionMissing } from '../components/dashboard/missingSections';
 
 // Insight thresholds
 /** % */
@@ -83,8 +84,8 @@ export function generateInsights({
     });
   }
 
-  // 3. Jamg'arish darajasi (savings rate)
-  if (stats && stats.totalIncome > 0) {
+  // 3. Jamg'arish darajasi (savings rate) — daromad/xarajat vaqtida yuklanmagan bo'lsa (nol) hisoblanmaydi
+  if (stats && stats.totalIncome > 0 && !isSectionMissing(stats, 'income', 'expense')) {
     const savingsRate = ((stats.totalIncome - stats.totalExpense) / stats.totalIncome) * 100;
     if (savingsRate >= SAVINGS_RATE_GOOD) {
       insights.push({
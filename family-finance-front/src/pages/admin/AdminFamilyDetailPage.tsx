@@ -5,6 +5,8 @@ import { scopesApi } from '../../api/scopes.api';
 import { PageHeader } from '../../components/layout/PageHeader';
 import { formatCurrency } from '../../config/constants';
 import { formatBalance } from '../../components/accounts/accountsHelpers';
+import { PartialDataNotice } from '../../components/dashboard/PartialDataNotice';
+import { isSectionMissing } from '../../components/dashboard/missingSections';
 
 /**
  * SUPER_ADMIN — bitta oilaning READ-ONLY moliyaviy ko'rinishi (drill-down).
@@ -47,6 +49,8 @@ export function AdminFamilyDetailPage() {
 
       {!isLoading && !isError && stats && (
         <>
+          <PartialDataNotice missingSections={data?.missingSections} />
+
           {/* Balans (valyutalar bo'yicha) */}
           <div className="rounded-2xl border border-base-200 bg-base-100 p-4 lg:p-5">
             <div className="flex items-center gap-2 text-sm text-base-content/60">
@@ -79,7 +83,11 @@ export function AdminFamilyDetailPage() {
             <h2 className="section-title text-base">Oxirgi tranzaksiyalar</h2>
             <div className="overflow-hidden rounded-2xl border border-base-200 bg-base-100">
               {(data?.recentTransactions ?? []).length === 0 && (
-                <p className="py-8 text-center text-base-content/60">Tranzaksiyalar yo'q.</p>
+                <p className="py-8 text-center text-base-content/60">
+                  {isSectionMissing(data, 'recentTransactions')
+                    ? "Tranzaksiyalar vaqtida yuklanmadi."
+                    : "Tranzaksiyalar yo'q."}
+                </p>
               )}
               {(data?.recentTransactions ?? []).map((tx) => {
                 const isIncome = tx.type === 'INCOME';
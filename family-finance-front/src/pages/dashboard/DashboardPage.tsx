@@ -15,6 +15,7 @@ import type { CurrencyBalance } from '../../types';
 import { RefreshingPill } from '../../components/common/RefreshingPill';
 import { PageHeader } from '../../components/layout/PageHeader';
 import { OnboardingChecklist } from '../../components/dashboard/OnboardingChecklist';
+import { PartialDataNotice } from '../../components/dashboard/PartialDataNotice';
 import { useDashboardData } from '../../hooks/useDashboardData';
 import { useTrendCalculations } from '../../hooks/useTrendCalculations';
 import { useDashboardInsights } from '../../hooks/useDashboardInsights';
@@ -177,6 +178,9 @@ export function DashboardPage() {
         }
       />
 
+      {/* Qisman javob — backend ba'zi bo'limlarni vaqtida hisoblay olmadi */}
+      <PartialDataNotice missingSections={stats?.missingSections} />
+
       {/* Onboarding — yangi foydalanuvchi uchun 4 qadamli yo'naltirish (E9).
           Tranzaksiya+byudjet bo'lgan foydalanuvchida o'zi yashirinadi. */}
       <OnboardingChecklist
@@ -286,7 +286,8 @@ export interface MemberAccountSummary {
 }
 
 export interface MemberCategoryBreakdown {
-  categoryId: number;
+  /** null — kategoriyasiz summa ("Noma'lum"). */
+  categoryId: number | null;
   categoryName: string;
   categoryColor?: string;
   amount: number;
@@ -701,8 +702,25 @@ export interface FamilyDashboardStats {
   activeBudgets: number;
   budgetProgress: BudgetProgressItem[];
   savingsProgress: SavingsProgressItem[];
+  /**
+   * Backend vaqtida hisoblay olmagan bo'limlar — ularning qiymatlari nol/bo'sh, haqiqiy emas.
+   * Bo'sh yoki yo'q — javob to'liq.
+   */
+  missingSections?: DashboardSection[];
 }
 
+/** Dashboard statistikasi bo'limlari (backend DashboardService/AdminOverviewService nomlari). */
+export type DashboardSection =
+  | 'balances'
+  | 'budgets'
+  | 'savingsGoals'
+  | 'income'
+  | 'expense'
+  | 'totalSavings'
+  | 'debtsGiven'
+  | 'debtsTaken'
+  | 'recentTransactions';
+
 export interface BudgetProgressItem {
   categoryName: string;
   budgetAmount: number;
@@ -717,6 +735,8 @@ export interface FinancialOverview {
   scopeType: string;
   stats: FamilyDashboardStats;
   recentTransactions: Transaction[];
+  /** stats.missingSections + vaqtida yuklanmagan 'recentTransactions'. */
+  missingSections?: DashboardSection[];
 }
 
 export interface SavingsProgressItem {
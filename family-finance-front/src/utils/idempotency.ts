@@ -0,0 +1,8 @@
+/**
+ * Idempotency-Key sarlavhasi — har yozish amali uchun yangi kalit. Axios qayta urinishi
+ * (401 → refresh → takror) shu config'ni qayta yuboradi, kalit o'zgarmaydi va server
+ * birinchi javobni qaytaradi — tranzaksiya ikki marta o'tkazilmaydi.
+ */
+export const idempotencyHeaders = (): { headers: Record<string, string> } => ({
+  headers: { 'Idempotency-Key': crypto.randomUUID() },
+});